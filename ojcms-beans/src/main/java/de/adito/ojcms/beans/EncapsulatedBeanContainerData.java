@@ -4,6 +4,8 @@ import de.adito.ojcms.beans.annotations.Statistics;
 import de.adito.ojcms.beans.annotations.internal.EncapsulatedData;
 import de.adito.ojcms.beans.datasource.IBeanContainerDataSource;
 import de.adito.ojcms.beans.exceptions.container.BeanContainerLimitReachedException;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.beans.literals.fields.util.FieldValueTuple;
 import de.adito.ojcms.beans.reactive.IEvent;
 import de.adito.ojcms.beans.statistics.*;
 import de.adito.ojcms.utils.IndexChecker;
@@ -118,6 +120,18 @@ class EncapsulatedBeanContainerData<BEAN extends IBean> extends AbstractEncapsul
     getDatasource().sort(pComparator);
   }
 
+  @Override
+  public Optional<List<BEAN>> findByFieldValues(List<FieldValueTuple<?>> pFieldValueTuples)
+  {
+    return getDatasource().findByFieldValues(pFieldValueTuples);
+  }
+
+  @Override
+  public <VALUE> Optional<Set<VALUE>> findDistinctValues(IField<VALUE> pField)
+  {
+    return getDatasource().findDistinctValues(pField);
+  }
+
   @Override
   public void setLimit(int pMaxCount, boolean pEvicting)
   {
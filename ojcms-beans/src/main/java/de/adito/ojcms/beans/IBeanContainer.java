@@ -434,6 +434,7 @@ public interface IBeanContainer<BEAN extends IBean>
 
   /**
    * Finds all beans within the container having specific values for certain fields. Returns an empty list if no tuple is provided.
+   * The conditions are evaluated by the data source of the container if it supports queries, otherwise all beans are iterated.
    *
    * @param pFieldValueTuples the field value tuples defining the search conditions
    * @return a list of filtered beans (may be empty if no bean matches the requested field value)
@@ -443,6 +444,11 @@ public interface IBeanContainer<BEAN extends IBean>
     if (pFieldValueTuples.length == 0)
       return Collections.emptyList();
 
+    //Let the data source evaluate the conditions if it is able to
+    final Optional<List<BEAN>> queriedBeans = requestEncapsulatedData(this).findByFieldValues(Arrays.asList(pFieldValueTuples));
+    if (queriedBeans.isPresent())
+      return queriedBeans.get();
+
     final Predicate<BEAN> combinedPredicate = pBean -> Stream.of(pFieldValueTuples) //
         .allMatch(pTuple -> Objects.equals(pBean.getValue(pTuple.getField()), pTuple.getValue()));
 
@@ -515,7 +521,8 @@ public interface IBeanContainer<BEAN extends IBean>
   /**
    * Evaluates all distinct values based on a certain bean field.
    * In other words this method will take all values from the beans in this container associated with the field
-   * and remove all duplicate values.
+   * and remove all duplicate values. Null values are not collected.
+   * The values are evaluated by the data source of the container if it supports it, otherwise all beans are iterated.
    *
    * @param pField  the bean field to retrieve the distinct values of
    * @param <VALUE> the field's data type
@@ -524,7 +531,8 @@ public interface IBeanContainer<BEAN extends IBean>
   default <VALUE> Set<VALUE> getDistinctValuesFromField(IField<VALUE> pField)
   {
     requireNonNull(pField);
-    return getDistinctValues(pBean -> pBean.getValue(pField));
+    return requestEncapsulatedData(this).findDistinctValues(pField) //
+        .orElseGet(() -> getDistinctValues(pBean -> pBean.getValue(pField)));
   }
 
   /**
@@ -2,6 +2,8 @@ package de.adito.ojcms.beans;
 
 import de.adito.ojcms.beans.annotations.internal.EncapsulatedData;
 import de.adito.ojcms.beans.datasource.IBeanContainerDataSource;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.beans.literals.fields.util.FieldValueTuple;
 import de.adito.ojcms.beans.statistics.IStatisticData;
 
 import java.util.*;
@@ -89,6 +91,25 @@ interface IEncapsulatedBeanContainerData<BEAN extends IBean> extends IEncapsulat
    */
   void sort(Comparator<BEAN> pComparator);
 
+  /**
+   * Finds all beans having specific values for certain fields, if the data source of this core supports queries.
+   *
+   * @param pFieldValueTuples the field value tuples defining the search conditions (at least one)
+   * @return the found beans or empty if the data source does not support queries
+   * @see IBeanContainerDataSource#findByFieldValues(List)
+   */
+  Optional<List<BEAN>> findByFieldValues(List<FieldValueTuple<?>> pFieldValueTuples);
+
+  /**
+   * Evaluates all distinct non-null values of a bean field, if the data source of this core supports it.
+   *
+   * @param pField  the bean field to evaluate the distinct values of
+   * @param <VALUE> the data type of the field
+   * @return the distinct values or empty if the data source does not support it
+   * @see IBeanContainerDataSource#findDistinctValues(IField)
+   */
+  <VALUE> Optional<Set<VALUE>> findDistinctValues(IField<VALUE> pField);
+
   /**
    * Defines a limit (=amount of beans) for this container data core.
    * If the number of beans exceeds the limit, beans will be removed from the beginning of this container until the limit is reached.
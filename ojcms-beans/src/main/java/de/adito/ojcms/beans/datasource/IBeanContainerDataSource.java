@@ -1,8 +1,10 @@
 package de.adito.ojcms.beans.datasource;
 
 import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.beans.literals.fields.util.FieldValueTuple;
 
-import java.util.Comparator;
+import java.util.*;
 
 /**
  * Data source for a bean container.
@@ -67,4 +69,29 @@ public interface IBeanContainerDataSource<BEAN extends IBean> extends IDataSourc
    * @param pComparator the comparator
    */
   void sort(Comparator<BEAN> pComparator);
+
+  /**
+   * Finds all beans having specific values for certain fields, if the data source is able to evaluate the conditions without
+   * iterating through all beans (e.g. by a query to a database). If empty, the beans will be filtered by iteration instead.
+   *
+   * @param pFieldValueTuples the field value tuples defining the search conditions (at least one)
+   * @return the found beans in the order of the data source or empty if not supported
+   */
+  default Optional<List<BEAN>> findByFieldValues(List<FieldValueTuple<?>> pFieldValueTuples)
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Evaluates all distinct non-null values of a bean field, if the data source is able to do it without iterating through all beans
+   * (e.g. by a query to a database). If empty, the values will be collected by iteration instead.
+   *
+   * @param pField  the bean field to evaluate the distinct values of
+   * @param <VALUE> the data type of the field
+   * @return the distinct values of the field or empty if not supported
+   */
+  default <VALUE> Optional<Set<VALUE>> findDistinctValues(IField<VALUE> pField)
+  {
+    return Optional.empty();
+  }
 }
@@ -141,18 +141,64 @@ class ContainerContent<BEAN extends IBean>
   /**
    * Should be called by methods that expect the bean data for the container to be fully loaded.
    * If not every bean has been loaded yet, a full data load will be performed.
+   * The bean data is streamed from the transaction, beans are only created for indexes that have not been loaded yet.
    */
   void requiresFullLoad()
   {
     if (_isFullyLoaded())
       return;
 
-    transaction.requestFullContainerLoad(containerId) //
-        .entrySet().stream() //
-        .filter(pEntry -> !content.containsIndex(pEntry.getKey())) //
-        .forEach(pEntry -> _getOrCreateBean(pEntry.getKey(), () -> beanType == null ? //
-            _beanContentForIndexAndContent(pEntry.getKey(), pEntry.getValue().getData()) : //
-            _beanContentForIndexAndContent(pEntry.getKey(), beanType, pEntry.getValue().getData())));
+    transaction.requestFullContainerLoad(containerId, pBeanData ->
+    {
+      final int index = pBeanData.getIndex();
+      if (!content.containsIndex(index))
+        _getOrCreateBean(index, () -> beanType == null ? //
+            _beanContentForIndexAndContent(index, pBeanData.getData()) : //
+            _beanContentForIndexAndContent(index, beanType, pBeanData.getData()));
+    });
+  }
+
+  /**
+   * Finds all beans having specific values for certain fields by a query of the {@link ITransaction}.
+   * The query is not performed if the content is fully loaded already or if a value to find is null,
+   * the beans should be filtered by iteration then.
+   *
+   * @param pFieldValueTuples the field value tuples defining the search conditions
+   * @return the found beans in the order of the container or empty if the beans should be filtered by iteration
+   */
+  Optional<List<BEAN>> findByFieldValues(List<FieldValueTuple<?>> pFieldValueTuples)
+  {
+    if (_isFullyLoaded() || pFieldValueTuples.stream().anyMatch(pTuple -> pTuple.getValue() == null))
+      return Optional.empty();
+
+    final Map<IField<?>, Object> fieldValues = new HashMap<>();
+    for (FieldValueTuple<?> tuple : pFieldValueTuples)
+      if (!Objects.equals(fieldValues.computeIfAbsent(tuple.getField(), pField -> tuple.getValue()), tuple.getValue()))
+        return Optional.of(Collections.emptyList()); //Contradicting conditions for the same field
+
+    final List<BEAN> foundBeans = new ArrayList<>();
+    transaction.requestBeanDataByFieldValues(containerId, fieldValues).forEach((pIndex, pBeanData) -> foundBeans.add(
+        _getOrCreateBean(pIndex, () -> beanType == null ? //
+            _beanContentForIndexAndContent(pIndex, pBeanData.getData()) : //
+            _beanContentForIndexAndContent(pIndex, beanType, pBeanData.getData()))));
+
+    return Optional.of(foundBeans);
+  }
+
+  /**
+   * Evaluates all distinct non-null values of a bean field by a query of the {@link ITransaction}.
+   * The query is not performed if the content is fully loaded already.
+   *
+   * @param pField  the bean field to evaluate the distinct values of
+   * @param <VALUE> the data type of the field
+   * @return the distinct values or empty if they should be collected by iteration
+   */
+  <VALUE> Optional<Set<VALUE>> findDistinctValues(IField<VALUE> pField)
+  {
+    if (_isFullyLoaded())
+      return Optional.empty();
+
+    return transaction.requestDistinctFieldValues(containerId, pField);
   }
 
   /**
@@ -192,7 +238,7 @@ class ContainerContent<BEAN extends IBean>
       final AbstractBeanContent beanContent = pBeanContentCreator.get();
       //noinspection unchecked
       final Class<BEAN> beanType = beanContent.getBeanType();
-      return newPersistentBeanInstance(beanType, new PersistentBeanDatasource(pBeanContentCreator.get()));
+      return newPersistentBeanInstance(beanType, new PersistentBeanDatasource(beanContent));
     });
   }
 
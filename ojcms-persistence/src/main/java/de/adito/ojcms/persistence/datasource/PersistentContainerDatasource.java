@@ -2,6 +2,8 @@ package de.adito.ojcms.persistence.datasource;
 
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.datasource.IBeanContainerDataSource;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.beans.literals.fields.util.FieldValueTuple;
 import de.adito.ojcms.transactions.annotations.TransactionalScoped;
 import de.adito.ojcms.utils.IndexBasedIterator;
 import org.jetbrains.annotations.NotNull;
@@ -71,6 +73,18 @@ class PersistentContainerDatasource<BEAN extends IBean> implements IBeanContaine
     throw new UnsupportedOperationException("Sorting not supported for persistent containers!");
   }
 
+  @Override
+  public Optional<List<BEAN>> findByFieldValues(List<FieldValueTuple<?>> pFieldValueTuples)
+  {
+    return content.findByFieldValues(pFieldValueTuples);
+  }
+
+  @Override
+  public <VALUE> Optional<Set<VALUE>> findDistinctValues(IField<VALUE> pField)
+  {
+    return content.findDistinctValues(pField);
+  }
+
   @NotNull
   @Override
   public Iterator<BEAN> iterator()
@@ -40,6 +40,14 @@ class BeanLoaderForTest implements IBeanDataLoader
     return _findByIndex(pKey).orElseThrow(() -> new BeanDataNotFoundException(pKey));
   }
 
+  @Override
+  public Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+  {
+    return data.getContentForContainer(pContainerId).stream() //
+        .filter(pData -> pData.getIndex() >= pFromIndex && pData.getIndex() < pToIndex) //
+        .collect(Collectors.toMap(PersistentBeanData::getIndex, identity()));
+  }
+
   @Override
   public <BEAN extends IBean> Class<BEAN> loadBeanTypeWithinContainer(InitialIndexKey pKey)
   {
@@ -5,6 +5,7 @@ import de.adito.ojcms.cdi.TestMethodScoped;
 import de.adito.ojcms.transactions.api.*;
 import de.adito.ojcms.transactions.exceptions.BeanDataNotFoundException;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.function.Function;
@@ -23,6 +24,9 @@ class BeanTestData
   private final Map<String, List<BeanAddition>> containers;
   private final Map<String, PersistentBeanData> singleBeans;
 
+  @Inject
+  private IBeanDataCache beanDataCache;
+
   @Inject
   BeanTestData(RegisteredBeansForTest registeredBeans)
   {
@@ -31,6 +35,15 @@ class BeanTestData
     singleBeans = registeredBeans.getSingleBeanInitialStates();
   }
 
+  /**
+   * The data is reset for every test, so the shared cache must not provide data of a previous test.
+   */
+  @PreDestroy
+  private void _invalidateCache()
+  {
+    beanDataCache.invalidateAll();
+  }
+
   /**
    * Resolves the content of a persistent bean container.
    *
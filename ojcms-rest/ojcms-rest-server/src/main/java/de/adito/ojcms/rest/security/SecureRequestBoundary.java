@@ -62,7 +62,7 @@ public class SecureRequestBoundary<BOUNDARY extends Annotation, USER extends OJU
       final String token = _retrieveTokenFromHeader(pRequestContext);
       final DecodedJWT decoded = JWTUtil.decodeJwt(token);
       final String userMail = decoded.getClaim(JWTUtil.USER_MAIL_CLAIM).asString();
-      final Optional<USER> authenticatedUser = transactionalExecution.resolveResult(() -> users.findOneByFieldValue(OJUser.MAIL, userMail));
+      final Optional<USER> authenticatedUser = transactionalExecution.resolveResultReadOnly(() -> users.findOneByFieldValue(OJUser.MAIL, userMail));
 
       if (!authenticatedUser.isPresent())
       {
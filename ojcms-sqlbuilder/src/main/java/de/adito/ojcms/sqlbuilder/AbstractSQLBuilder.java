@@ -73,10 +73,10 @@ public abstract class AbstractSQLBuilder implements IBaseBuilder
   }
 
   @Override
-  public void doUpdate(Consumer<Update> pUpdateStatement)
+  public int doUpdate(Function<Update, Integer> pUpdateStatement)
   {
-    final Update statement = new Update(execution.createVoidExecutor(), this, platform, serializer, idColumnName);
-    execution.execute(configureStatementBeforeExecution(statement), pUpdateStatement);
+    final Update statement = new Update(execution.createRowCountExecutor(), this, platform, serializer, idColumnName);
+    return execution.query(configureStatementBeforeExecution(statement), pUpdateStatement);
   }
 
   @Override
@@ -86,6 +86,17 @@ public abstract class AbstractSQLBuilder implements IBaseBuilder
     return execution.query(configureStatementBeforeExecution(statement), pDeleteStatement);
   }
 
+  @Override
+  public int[] doBatch(int pBatchSize, Consumer<StatementBatch> pBatchStatement)
+  {
+    final StatementBatch batch = new StatementBatch(
+        pExecutor -> configureStatementBeforeExecution(new Insert(pExecutor, this, platform, serializer, idColumnName)),
+        pExecutor -> configureStatementBeforeExecution(new Update(pExecutor, this, platform, serializer, idColumnName)));
+
+    pBatchStatement.accept(batch);
+    return batch.execute(execution, pBatchSize);
+  }
+
   @Override
   public <RESULT> RESULT doSelect(Function<Select, RESULT> pSelectQuery)
   {
@@ -238,6 +249,30 @@ public abstract class AbstractSQLBuilder implements IBaseBuilder
         .retrieveFromMetaData(pMetaData -> pMetaData.getColumns(null, null, pTableName.toUpperCase(), pColumnName.toUpperCase()).next());
   }
 
+  /**
+   * All names of the indexes of a specific table.
+   * Also includes the indexes the database created to back constraints like primary keys.
+   *
+   * @param pTableName the name of table to retrieve all index names for
+   * @return a set of index names for the requested table
+   */
+  protected Set<String> getAllIndexNames(String pTableName)
+  {
+    return execution.retrieveFromMetaData(pMetaData ->
+    {
+      final ResultSet resultSet = pMetaData.getIndexInfo(null, null, pTableName.toUpperCase(), false, true);
+      final Set<String> indexNames = new HashSet<>();
+
+      while (resultSet.next())
+      {
+        final String indexName = resultSet.getString("INDEX_NAME");
+        if (indexName != null)
+          indexNames.add(indexName);
+      }
+      return indexNames;
+    });
+  }
+
   /**
    * All column names of a specific table.
    *
@@ -257,6 +292,52 @@ public abstract class AbstractSQLBuilder implements IBaseBuilder
     });
   }
 
+  /**
+   * Loads a snapshot of all tables of the database with their column and index names.
+   * All information is read from the database metadata of one connection.
+   *
+   * @return the snapshot of the database schema
+   */
+  protected SchemaSnapshot loadSchemaSnapshot()
+  {
+    return execution.retrieveFromMetaData(pMetaData ->
+    {
+      final Map<String, Set<String>> columnNamesByTable = new HashMap<>();
+      final ResultSet tables = pMetaData.getTables(null, null, "%", null);
+      while (tables.next())
+      {
+        final String name = tables.getString(3);
+        if (!name.startsWith(platform.getSystemTablePrefix())) //Exclude system tables
+          columnNamesByTable.put(name.toUpperCase(), new HashSet<>());
+      }
+
+      final ResultSet columns = pMetaData.getColumns(null, null, "%", null);
+      while (columns.next())
+      {
+        final Set<String> columnNames = columnNamesByTable.get(columns.getString("TABLE_NAME").toUpperCase());
+        if (columnNames != null)
+          columnNames.add(columns.getString("COLUMN_NAME"));
+      }
+
+      //Index information can only be requested for a specific table
+      final Map<String, Set<String>> indexNamesByTable = new HashMap<>();
+      for (String tableName : columnNamesByTable.keySet())
+      {
+        final Set<String> indexNames = new HashSet<>();
+        final ResultSet indexes = pMetaData.getIndexInfo(null, null, tableName, false, true);
+        while (indexes.next())
+        {
+          final String indexName = indexes.getString("INDEX_NAME");
+          if (indexName != null)
+            indexNames.add(indexName);
+        }
+        indexNamesByTable.put(tableName, indexNames);
+      }
+
+      return new SchemaSnapshot(columnNamesByTable, indexNamesByTable);
+    });
+  }
+
   /**
    * The database platform of the builder.
    *
@@ -59,6 +59,16 @@ public abstract class AbstractSQLStatement<RESULT, STATEMENT extends AbstractSQL
     return executor.executeStatement(pFormat.getStatement(), pFormat.getSerialArguments(serializer));
   }
 
+  /**
+   * Gives the database driver a hint about the amount of rows to fetch at once for the result of this statement.
+   *
+   * @param pFetchSize the amount of rows to fetch at once, zero for the default of the driver
+   */
+  protected void applyFetchSize(int pFetchSize)
+  {
+    executor.setFetchSize(pFetchSize);
+  }
+
   /**
    * The table name to use for this statement.
    *
@@ -39,8 +39,9 @@ interface IBaseBuilder
    * Executes an update statement.
    *
    * @param pUpdateStatement the statement to execute (defined in a pipelining mechanism)
+   * @return the amount of updated rows
    */
-  void doUpdate(Consumer<Update> pUpdateStatement);
+  int doUpdate(Function<Update, Integer> pUpdateStatement);
 
   /**
    * Executes a delete statement.
@@ -49,6 +50,17 @@ interface IBaseBuilder
    */
   boolean doDelete(Function<Delete, Boolean> pDeleteStatement); //NOSONAR
 
+  /**
+   * Executes multiple insert or update statements via JDBC batches.
+   * Statements with the same column set are prepared once and sent to the database in batches of a maximum size.
+   * JDBC drivers may report {@link java.sql.Statement#SUCCESS_NO_INFO} instead of the affected rows of statements executed in batches.
+   *
+   * @param pBatchSize      the maximum amount of statements per JDBC batch (one or less to execute every statement separately)
+   * @param pBatchStatement a consumer to add the statements to the batch
+   * @return the amount of affected rows for every statement (in the order the statements have been added)
+   */
+  int[] doBatch(int pBatchSize, Consumer<StatementBatch> pBatchStatement);
+
   /**
    * Creates a new select statement.
    *
@@ -88,4 +88,21 @@ public interface OJSQLBuilder extends IBaseBuilder
    * @return a set of column names for the requested table
    */
   Set<String> getAllColumnNames(String pTableName);
+
+  /**
+   * All names of the indexes of a specific table.
+   * Also includes the indexes the database created to back constraints like primary keys.
+   *
+   * @param pTableName the name of table to retrieve all index names for
+   * @return a set of index names for the requested table
+   */
+  Set<String> getAllIndexNames(String pTableName);
+
+  /**
+   * Loads a snapshot of all tables of the database with their column and index names in one pass.
+   * Use this instead of single requests if the structure of many tables has to be examined.
+   *
+   * @return the snapshot of the database schema
+   */
+  SchemaSnapshot loadSchemaSnapshot();
 }
@@ -70,4 +70,12 @@ public interface OJSQLBuilderForTable extends IBaseBuilder
    * @return a set of column names for the table
    */
   Set<String> getAllColumnNames();
+
+  /**
+   * All names of the indexes of the table.
+   * Also includes the indexes the database created to back constraints like primary keys.
+   *
+   * @return a set of index names for the table
+   */
+  Set<String> getAllIndexNames();
 }
@@ -87,6 +87,12 @@ final class OJSQLBuilderForTableImpl extends AbstractSQLBuilder implements OJSQL
     return super.getAllColumnNames(tableName);
   }
 
+  @Override
+  public Set<String> getAllIndexNames()
+  {
+    return super.getAllIndexNames(tableName);
+  }
+
   @Override
   protected <RESULT, STATEMENT extends AbstractSQLStatement<RESULT, STATEMENT>> STATEMENT configureStatementBeforeExecution(
       STATEMENT pStatement)
@@ -85,4 +85,16 @@ final class OJSQLBuilderImpl extends AbstractSQLBuilder implements OJSQLBuilder
   {
     return super.getAllColumnNames(pTableName);
   }
+
+  @Override
+  public Set<String> getAllIndexNames(String pTableName)
+  {
+    return super.getAllIndexNames(pTableName);
+  }
+
+  @Override
+  public SchemaSnapshot loadSchemaSnapshot()
+  {
+    return super.loadSchemaSnapshot();
+  }
 }
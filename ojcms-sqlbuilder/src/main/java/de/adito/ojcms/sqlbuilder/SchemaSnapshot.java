@@ -0,0 +1,73 @@
+package de.adito.ojcms.sqlbuilder;
+
+import java.util.*;
+
+/**
+ * A snapshot of the tables of a database with their column and index names.
+ * The snapshot is read from the database metadata in one pass, so the schema can be compared to the expected structures in memory.
+ * It does not reflect changes to the schema made after it has been loaded.
+ * Table names are case insensitive, column and index names are provided as reported by the database.
+ *
+ * @author agent, 17.10.2026
+ */
+public final class SchemaSnapshot
+{
+  private final Map<String, Set<String>> columnNamesByTable;
+  private final Map<String, Set<String>> indexNamesByTable;
+
+  /**
+   * Creates a new schema snapshot.
+   *
+   * @param pColumnNamesByTable the column names of every table mapped by upper case table name
+   * @param pIndexNamesByTable  the index names of every table mapped by upper case table name
+   */
+  SchemaSnapshot(Map<String, Set<String>> pColumnNamesByTable, Map<String, Set<String>> pIndexNamesByTable)
+  {
+    columnNamesByTable = pColumnNamesByTable;
+    indexNamesByTable = pIndexNamesByTable;
+  }
+
+  /**
+   * All table names of the database (except system tables).
+   *
+   * @return a set of upper case table names
+   */
+  public Set<String> getTableNames()
+  {
+    return Collections.unmodifiableSet(columnNamesByTable.keySet());
+  }
+
+  /**
+   * Determines if a certain table existed when the snapshot has been loaded.
+   *
+   * @param pTableName the name of the table to check
+   * @return <tt>true</tt> if the table exists
+   */
+  public boolean hasTable(String pTableName)
+  {
+    return columnNamesByTable.containsKey(pTableName.toUpperCase());
+  }
+
+  /**
+   * All column names of a specific table.
+   *
+   * @param pTableName the name of the table to retrieve the column names for
+   * @return a new modifiable set of column names, empty if the table does not exist
+   */
+  public Set<String> getColumnNames(String pTableName)
+  {
+    return new HashSet<>(columnNamesByTable.getOrDefault(pTableName.toUpperCase(), Collections.emptySet()));
+  }
+
+  /**
+   * All names of the indexes of a specific table.
+   * Also includes the indexes the database created to back constraints like primary keys.
+   *
+   * @param pTableName the name of the table to retrieve the index names for
+   * @return a new modifiable set of index names, empty if the table does not exist
+   */
+  public Set<String> getIndexNames(String pTableName)
+  {
+    return new HashSet<>(indexNamesByTable.getOrDefault(pTableName.toUpperCase(), Collections.emptySet()));
+  }
+}
@@ -0,0 +1,148 @@
+package de.adito.ojcms.sqlbuilder;
+
+import de.adito.ojcms.sqlbuilder.executors.*;
+import de.adito.ojcms.sqlbuilder.serialization.ISerialValue;
+import de.adito.ojcms.sqlbuilder.statements.types.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A batch of insert and update statements that will be executed via JDBC batches.
+ * The statements are not executed when they are added, but collected and grouped by their resulting SQL statement.
+ * Statements with the same column set share one prepared statement then. The groups are executed in the order of their first statement.
+ * Hence only independent statements should be added to the same batch, the database may receive them in a different order.
+ *
+ * @author agent, 16.10.2026
+ */
+public final class StatementBatch
+{
+  private final Function<IStatementExecutor<Void>, Insert> insertFactory;
+  private final Function<IStatementExecutor<Integer>, Update> updateFactory;
+  private final Map<String, List<_BatchEntry>> entriesByStatement = new LinkedHashMap<>();
+  private int entryCount;
+
+  /**
+   * Creates a new statement batch.
+   *
+   * @param pInsertFactory a factory for insert statements based on a statement executor
+   * @param pUpdateFactory a factory for update statements based on a statement executor
+   */
+  StatementBatch(Function<IStatementExecutor<Void>, Insert> pInsertFactory, Function<IStatementExecutor<Integer>, Update> pUpdateFactory)
+  {
+    insertFactory = pInsertFactory;
+    updateFactory = pUpdateFactory;
+  }
+
+  /**
+   * Adds an insert statement to the batch.
+   * The statement will be added when {@link Insert#insert()} is called.
+   *
+   * @param pInsertStatement the statement to add (defined in a pipelining mechanism)
+   * @return the position of the statement within the batch
+   */
+  public int addInsert(Consumer<Insert> pInsertStatement)
+  {
+    final int position = entryCount;
+    pInsertStatement.accept(insertFactory.apply(new _CollectingExecutor<>(null)));
+    return position;
+  }
+
+  /**
+   * Adds an update statement to the batch.
+   * The statement will be added when {@link Update#update()} is called. The returned amount of updated rows is always zero then.
+   *
+   * @param pUpdateStatement the statement to add (defined in a pipelining mechanism)
+   * @return the position of the statement within the batch
+   */
+  public int addUpdate(Consumer<Update> pUpdateStatement)
+  {
+    final int position = entryCount;
+    pUpdateStatement.accept(updateFactory.apply(new _CollectingExecutor<>(0)));
+    return position;
+  }
+
+  /**
+   * The amount of statements added to the batch.
+   *
+   * @return the amount of statements
+   */
+  public int size()
+  {
+    return entryCount;
+  }
+
+  /**
+   * Executes all statements of this batch.
+   *
+   * @param pExecution the statement execution to use
+   * @param pBatchSize the maximum amount of statements per JDBC batch
+   * @return the amount of affected rows for every statement (in the order the statements have been added)
+   */
+  int[] execute(StatementExecution pExecution, int pBatchSize)
+  {
+    final int[] affectedRows = new int[entryCount];
+
+    entriesByStatement.forEach((pStatement, pEntries) ->
+    {
+      final List<List<ISerialValue>> argSets = new ArrayList<>(pEntries.size());
+      for (_BatchEntry entry : pEntries)
+        argSets.add(entry.args);
+
+      final int[] groupResult = pExecution.executeBatch(pStatement, argSets, pBatchSize);
+      for (int i = 0; i < groupResult.length; i++)
+        affectedRows[pEntries.get(i).position] = groupResult[i];
+    });
+
+    return affectedRows;
+  }
+
+  /**
+   * A statement executor that adds every statement to this batch instead of executing it.
+   *
+   * @param <RESULT> the type of the result of the statement
+   */
+  private class _CollectingExecutor<RESULT> implements IStatementExecutor<RESULT>
+  {
+    private final RESULT placeholderResult;
+
+    /**
+     * Creates the collecting executor.
+     *
+     * @param pPlaceholderResult the result to return for every collected statement
+     */
+    _CollectingExecutor(RESULT pPlaceholderResult)
+    {
+      placeholderResult = pPlaceholderResult;
+    }
+
+    @Override
+    public RESULT executeStatement(String pSQLStatement, List<ISerialValue> pArgs)
+    {
+      entriesByStatement.computeIfAbsent(pSQLStatement, pStatement -> new ArrayList<>()) //
+          .add(new _BatchEntry(entryCount++, new ArrayList<>(pArgs)));
+      return placeholderResult;
+    }
+
+    @Override
+    public void close()
+    {
+      //Nothing to close, the statements are executed later
+    }
+  }
+
+  /**
+   * The arguments of a single statement within the batch.
+   */
+  private static class _BatchEntry
+  {
+    private final int position;
+    private final List<ISerialValue> args;
+
+    _BatchEntry(int pPosition, List<ISerialValue> pArgs)
+    {
+      position = pPosition;
+      args = pArgs;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package de.adito.ojcms.sqlbuilder.definition;
+
+import de.adito.ojcms.utils.StringUtility;
+
+import java.util.*;
+
+/**
+ * A definition for a secondary database index over one or more columns of a table.
+ *
+ * @author agent, 16.10.2026
+ */
+public interface IIndexDefinition
+{
+  /**
+   * The name of the index. Has to be unique within the database schema.
+   *
+   * @return the name of the index
+   */
+  String getIndexName();
+
+  /**
+   * The names of the indexed columns in the order of the index.
+   *
+   * @return a list of column names
+   */
+  List<String> getColumnNames();
+
+  /**
+   * Creates an instance based on given values.
+   *
+   * @param pIndexName   the name of the index
+   * @param pColumnNames the names of the indexed columns
+   * @return the newly created index definition
+   */
+  static IIndexDefinition of(String pIndexName, String... pColumnNames)
+  {
+    StringUtility.requireNotEmpty(pIndexName, "index name");
+    if (pColumnNames.length == 0)
+      throw new IllegalArgumentException("An index requires at least one column!");
+
+    final List<String> columnNames = Collections.unmodifiableList(Arrays.asList(pColumnNames));
+
+    return new IIndexDefinition()
+    {
+      @Override
+      public String getIndexName()
+      {
+        return pIndexName;
+      }
+
+      @Override
+      public List<String> getColumnNames()
+      {
+        return columnNames;
+      }
+    };
+  }
+}
@@ -23,6 +23,16 @@ public interface IStatementExecutor<RESULT> extends Closeable
    */
   RESULT executeStatement(String pSQLStatement, List<ISerialValue> pArgs);
 
+  /**
+   * Gives the database driver a hint about the amount of rows to fetch at once for the results of the following executions.
+   * Executors that do not query results may ignore the hint.
+   *
+   * @param pFetchSize the amount of rows to fetch at once, zero for the default of the driver
+   */
+  default void setFetchSize(int pFetchSize)
+  {
+  }
+
   /**
    * Executes a SQL statement.
    *
@@ -5,7 +5,9 @@ import de.adito.ojcms.sqlbuilder.serialization.ISerialValue;
 import de.adito.ojcms.sqlbuilder.util.OJDatabaseException;
 
 import java.sql.*;
+import java.util.List;
 import java.util.function.*;
+import java.util.logging.Logger;
 
 /**
  * Provides functionality to execute string based SQL statements or {@link AbstractSQLStatement} instances.
@@ -14,6 +16,8 @@ import java.util.function.*;
  */
 public final class StatementExecution
 {
+  private static final Logger LOGGER = Logger.getLogger(StatementExecution.class.getName());
+
   private final Supplier<Connection> connectionSupplier;
   private final boolean closeConnectionAfterStatement;
 
@@ -41,7 +45,7 @@ public final class StatementExecution
                                                                                 Consumer<STATEMENT> pStatementConsumer)
   {
     pStatementConsumer.accept(pStatement);
-    _tryClose(pStatement);
+    _close(pStatement);
   }
 
   /**
@@ -63,7 +67,7 @@ public final class StatementExecution
     }
     finally
     {
-      _tryClose(pQuery);
+      _close(pQuery);
     }
   }
 
@@ -78,7 +82,66 @@ public final class StatementExecution
   {
     final IStatementExecutor<Void> executor = createVoidExecutor();
     executor.executeStatement(pSQLStatement, pArgs);
-    _tryClose(executor);
+    _close(executor);
+  }
+
+  /**
+   * Executes a data manipulating SQL statement for multiple sets of arguments.
+   * The statement is prepared once and the argument sets are sent to the database in JDBC batches of a maximum size.
+   * With a batch size of one or less the statement is prepared and executed separately for every argument set.
+   * If necessary, the connection will be closed after the execution.
+   * JDBC drivers may report {@link Statement#SUCCESS_NO_INFO} instead of the affected rows of argument sets executed in batches.
+   *
+   * @param pSQLStatement the SQL statement to execute
+   * @param pArgSets      the arguments for every execution of the prepared statement
+   * @param pBatchSize    the maximum amount of argument sets per batch
+   * @return the amount of affected rows for every argument set (in the order of the sets)
+   */
+  public int[] executeBatch(String pSQLStatement, List<List<ISerialValue>> pArgSets, int pBatchSize)
+  {
+    final int[] affectedRows = new int[pArgSets.size()];
+
+    if (pBatchSize <= 1)
+    {
+      for (int i = 0; i < pArgSets.size(); i++)
+      {
+        final IStatementExecutor<Integer> executor = createRowCountExecutor();
+        affectedRows[i] = executor.executeStatement(pSQLStatement, pArgSets.get(i));
+        _close(executor);
+      }
+      return affectedRows;
+    }
+
+    final Connection connection = connectionSupplier.get();
+    try (PreparedStatement statement = connection.prepareStatement(pSQLStatement))
+    {
+      int executedSets = 0;
+      for (int i = 0; i < pArgSets.size(); i++)
+      {
+        int argIndex = 1;
+        for (ISerialValue arg : pArgSets.get(i))
+          arg.applyToStatement(statement, argIndex++);
+        statement.addBatch();
+
+        if ((i + 1) % pBatchSize == 0 || i == pArgSets.size() - 1)
+        {
+          final int[] batchResult = statement.executeBatch();
+          System.arraycopy(batchResult, 0, affectedRows, executedSets, batchResult.length);
+          executedSets += batchResult.length;
+        }
+      }
+
+      LOGGER.info("SQL batch executed " + pArgSets.size() + " times: " + pSQLStatement);
+      return affectedRows;
+    }
+    catch (SQLException pE)
+    {
+      throw new OJDatabaseException(pSQLStatement, pE);
+    }
+    finally
+    {
+      _tryClose(connection);
+    }
   }
 
   /**
@@ -123,7 +186,7 @@ public final class StatementExecution
    */
   public IStatementExecutor<ResultSet> createExecutor()
   {
-    return new StatementExecutor<>(connectionSupplier, PreparedStatement::executeQuery);
+    return new StatementExecutor<>(connectionSupplier, PreparedStatement::executeQuery, closeConnectionAfterStatement);
   }
 
   /**
@@ -137,7 +200,17 @@ public final class StatementExecution
     {
       pStatement.execute();
       return null;
-    });
+    }, closeConnectionAfterStatement);
+  }
+
+  /**
+   * Creates a {@link IStatementExecutor} for data manipulating statements that provides the amount of affected rows.
+   *
+   * @return the created statement executor
+   */
+  public IStatementExecutor<Integer> createRowCountExecutor()
+  {
+    return new StatementExecutor<>(connectionSupplier, PreparedStatement::executeUpdate, closeConnectionAfterStatement);
   }
 
   /**
@@ -158,7 +231,24 @@ public final class StatementExecution
       {
         return false;
       }
-    });
+    }, closeConnectionAfterStatement);
+  }
+
+  /**
+   * Closes a statement or a statement executor. The executors decide if the connection is closed as well.
+   *
+   * @param pCloseable the statement or statement executor to close
+   */
+  private void _close(AutoCloseable pCloseable)
+  {
+    try
+    {
+      pCloseable.close();
+    }
+    catch (Exception pE)
+    {
+      throw new OJDatabaseException(pE, "Unable to close the database statement!");
+    }
   }
 
   /**
@@ -12,6 +12,7 @@ import java.util.logging.Logger;
 /**
  * Implementation of a statement executor based on a function that will be provided with a {@link PreparedStatement}.
  * The function then should return the result of the statement.
+ * Closing the executor always closes the prepared statement, the connection is only closed if configured.
  *
  * @param <RESULT> the generic type of the result
  * @author Simon Danner, 05.01.2020
@@ -22,6 +23,8 @@ class StatementExecutor<RESULT> implements IStatementExecutor<RESULT>
 
   private final Supplier<Connection> connectionSupplier;
   private final ThrowingFunction<PreparedStatement, RESULT, SQLException> executor;
+  private final boolean closeConnection;
+  private int fetchSize;
   private Connection connection;
   private PreparedStatement statement;
 
@@ -30,11 +33,20 @@ class StatementExecutor<RESULT> implements IStatementExecutor<RESULT>
    *
    * @param pConnectionSupplier supplier for SQL connections
    * @param pExecutor           the executing function provided with a {@link PreparedStatement}
+   * @param pCloseConnection    <tt>true</tt> if the connection should be closed with the executor
    */
-  StatementExecutor(Supplier<Connection> pConnectionSupplier, ThrowingFunction<PreparedStatement, RESULT, SQLException> pExecutor)
+  StatementExecutor(Supplier<Connection> pConnectionSupplier, ThrowingFunction<PreparedStatement, RESULT, SQLException> pExecutor,
+                    boolean pCloseConnection)
   {
     connectionSupplier = pConnectionSupplier;
     executor = pExecutor;
+    closeConnection = pCloseConnection;
+  }
+
+  @Override
+  public void setFetchSize(int pFetchSize)
+  {
+    fetchSize = pFetchSize;
   }
 
   @Override
@@ -45,6 +57,8 @@ class StatementExecutor<RESULT> implements IStatementExecutor<RESULT>
     try
     {
       statement = connection.prepareStatement(pSQLStatement); //NOSONAR
+      if (fetchSize > 0)
+        statement.setFetchSize(fetchSize);
 
       int argIndex = 1;
       for (ISerialValue arg : pArgs)
@@ -67,7 +81,7 @@ class StatementExecutor<RESULT> implements IStatementExecutor<RESULT>
     {
       if (statement != null)
         statement.close();
-      if (connection != null)
+      if (closeConnection && connection != null)
         connection.close();
     }
     catch (SQLException pE)
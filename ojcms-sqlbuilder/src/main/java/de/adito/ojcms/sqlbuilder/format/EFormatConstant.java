@@ -21,10 +21,17 @@ public enum EFormatConstant
   DISTINCT, //
   SET, //
   COUNT(pParams -> "COUNT (" + pParams[0] + ") AS " + StaticConstants.COUNT_AS), //
+  RANK(pParams -> "(SELECT COUNT (*) FROM " + pParams[0] + " " + StaticConstants.LOWER_ROWS + " WHERE " + StaticConstants.LOWER_ROWS + "." +
+      pParams[1] + " < " + pParams[0] + "." + pParams[1] + ") AS " + StaticConstants.RANK_AS), //
   IN(pParams -> "IN (" + pParams[0] + ")"), //
   STAR(pParams -> "*"), //
   ADD(pParams -> "ADD"), //
-  DROP_COLUMN(pParams -> "DROP COLUMN " + pParams[0]);
+  DROP_COLUMN(pParams -> "DROP COLUMN " + pParams[0]), //
+  INDEX_ON(pParams -> "INDEX " + pParams[0] + " ON " + pParams[1] + " (" + pParams[2] + ")"), //
+  INDEX(pParams -> "INDEX " + pParams[0]), //
+  ORDER_BY(pParams -> "ORDER BY " + pParams[0]), //
+  OFFSET(pParams -> "OFFSET " + pParams[0] + " ROWS"), //
+  FETCH_NEXT(pParams -> "FETCH NEXT " + pParams[0] + " ROWS ONLY");
 
   private final Function<String[], String> format;
 
@@ -63,6 +70,8 @@ public enum EFormatConstant
   public static class StaticConstants
   {
     public static final String COUNT_AS = "rowNumber";
+    public static final String RANK_AS = "rowRank";
+    private static final String LOWER_ROWS = "lowerRows";
 
     private StaticConstants()
     {
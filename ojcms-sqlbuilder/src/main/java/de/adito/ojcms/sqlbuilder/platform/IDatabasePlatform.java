@@ -45,4 +45,14 @@ public interface IDatabasePlatform
    * @return the modifier of a column as string for this database platform
    */
   String columnModifierToStatementFormat(EColumnModifier pModifier);
+
+  /**
+   * Determines if schema changes (DDL statements) for different tables may be executed concurrently on separate connections.
+   *
+   * @return <tt>true</tt> if the platform supports parallel schema changes
+   */
+  default boolean supportsParallelSchemaChanges()
+  {
+    return true;
+  }
 }
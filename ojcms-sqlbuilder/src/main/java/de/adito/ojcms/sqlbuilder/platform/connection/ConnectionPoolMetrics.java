@@ -0,0 +1,184 @@
+package de.adito.ojcms.sqlbuilder.platform.connection;
+
+/**
+ * A snapshot of the state and the counters of a {@link PooledConnectionSupplier}.
+ * The counters are accumulated since the pool has been created.
+ *
+ * @author agent, 17.10.2026
+ */
+public final class ConnectionPoolMetrics
+{
+  private final int activeConnections;
+  private final int idleConnections;
+  private final int waitingRequests;
+  private final long createdConnections;
+  private final long closedConnections;
+  private final long borrowedConnections;
+  private final long borrowTimeouts;
+  private final long validationFailures;
+  private final long detectedLeaks;
+  private final long statementCacheHits;
+  private final long statementCacheMisses;
+
+  /**
+   * Creates a new metrics snapshot.
+   *
+   * @param pActiveConnections    the amount of currently borrowed connections
+   * @param pIdleConnections      the amount of currently idle connections
+   * @param pWaitingRequests      the amount of requests currently waiting for a connection
+   * @param pCreatedConnections   the amount of physical connections created
+   * @param pClosedConnections    the amount of physical connections closed
+   * @param pBorrowedConnections  the amount of connections handed out
+   * @param pBorrowTimeouts       the amount of requests that failed because no connection became available in time
+   * @param pValidationFailures   the amount of idle connections that were invalid when they should have been handed out
+   * @param pDetectedLeaks        the amount of connections reported as possible leak
+   * @param pStatementCacheHits   the amount of prepared statements reused from a statement cache
+   * @param pStatementCacheMisses the amount of cacheable prepared statements that had to be prepared newly
+   */
+  ConnectionPoolMetrics(int pActiveConnections, int pIdleConnections, int pWaitingRequests, long pCreatedConnections,
+                        long pClosedConnections, long pBorrowedConnections, long pBorrowTimeouts, long pValidationFailures,
+                        long pDetectedLeaks, long pStatementCacheHits, long pStatementCacheMisses)
+  {
+    activeConnections = pActiveConnections;
+    idleConnections = pIdleConnections;
+    waitingRequests = pWaitingRequests;
+    createdConnections = pCreatedConnections;
+    closedConnections = pClosedConnections;
+    borrowedConnections = pBorrowedConnections;
+    borrowTimeouts = pBorrowTimeouts;
+    validationFailures = pValidationFailures;
+    detectedLeaks = pDetectedLeaks;
+    statementCacheHits = pStatementCacheHits;
+    statementCacheMisses = pStatementCacheMisses;
+  }
+
+  /**
+   * The amount of currently borrowed connections.
+   *
+   * @return the amount of active connections
+   */
+  public int getActiveConnections()
+  {
+    return activeConnections;
+  }
+
+  /**
+   * The amount of currently idle connections.
+   *
+   * @return the amount of idle connections
+   */
+  public int getIdleConnections()
+  {
+    return idleConnections;
+  }
+
+  /**
+   * The amount of requests currently waiting for a connection.
+   *
+   * @return the amount of waiting requests
+   */
+  public int getWaitingRequests()
+  {
+    return waitingRequests;
+  }
+
+  /**
+   * The amount of physical connections created by the pool.
+   *
+   * @return the amount of created connections
+   */
+  public long getCreatedConnections()
+  {
+    return createdConnections;
+  }
+
+  /**
+   * The amount of physical connections closed by the pool.
+   *
+   * @return the amount of closed connections
+   */
+  public long getClosedConnections()
+  {
+    return closedConnections;
+  }
+
+  /**
+   * The amount of connections handed out by the pool.
+   *
+   * @return the amount of borrowed connections
+   */
+  public long getBorrowedConnections()
+  {
+    return borrowedConnections;
+  }
+
+  /**
+   * The amount of requests that failed because no connection became available in time.
+   *
+   * @return the amount of borrow timeouts
+   */
+  public long getBorrowTimeouts()
+  {
+    return borrowTimeouts;
+  }
+
+  /**
+   * The amount of idle connections that were invalid when they should have been handed out.
+   *
+   * @return the amount of validation failures
+   */
+  public long getValidationFailures()
+  {
+    return validationFailures;
+  }
+
+  /**
+   * The amount of connections reported as possible leak.
+   *
+   * @return the amount of detected leaks
+   */
+  public long getDetectedLeaks()
+  {
+    return detectedLeaks;
+  }
+
+  /**
+   * The amount of prepared statements reused from the statement caches of the pooled connections.
+   *
+   * @return the amount of statement cache hits
+   */
+  public long getStatementCacheHits()
+  {
+    return statementCacheHits;
+  }
+
+  /**
+   * The amount of cacheable prepared statements that had to be prepared newly.
+   *
+   * @return the amount of statement cache misses
+   */
+  public long getStatementCacheMisses()
+  {
+    return statementCacheMisses;
+  }
+
+  /**
+   * The ratio of statement cache hits to all requests for cacheable prepared statements.
+   *
+   * @return the hit rate between zero and one, zero if no statement has been requested yet
+   */
+  public double getStatementCacheHitRate()
+  {
+    final long requests = statementCacheHits + statementCacheMisses;
+    return requests == 0 ? 0 : (double) statementCacheHits / requests;
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "{" + "active=" + activeConnections + ", idle=" + idleConnections + ", waiting=" + waitingRequests +
+        ", created=" + createdConnections + ", closed=" + closedConnections + ", borrowed=" + borrowedConnections + ", timeouts=" +
+        borrowTimeouts + ", validationFailures=" + validationFailures + ", leaks=" + detectedLeaks +
+        ", statementCacheHits=" + statementCacheHits + ", statementCacheMisses=" + statementCacheMisses + "}";
+  }
+}
@@ -0,0 +1,233 @@
+package de.adito.ojcms.sqlbuilder.platform.connection;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for a {@link PooledConnectionSupplier}.
+ * Instances are created with default values via {@link #defaults()} and may be adapted in a pipelining mechanism.
+ * A maximum size of zero or less disables pooling.
+ *
+ * @author agent, 17.10.2026
+ */
+public final class ConnectionPoolSettings
+{
+  private int minSize = 1;
+  private int maxSize = 10;
+  private long idleTimeout = TimeUnit.MINUTES.toMillis(10);
+  private long borrowTimeout = TimeUnit.SECONDS.toMillis(30);
+  private int validationTimeoutSeconds = 5;
+  private long leakDetectionThreshold = 0;
+  private long housekeepingInterval = TimeUnit.SECONDS.toMillis(30);
+  private int statementCacheSize = 64;
+
+  private ConnectionPoolSettings()
+  {
+  }
+
+  /**
+   * Creates settings with default values. A pool keeps at least one and at most ten connections then.
+   *
+   * @return the newly created settings
+   */
+  public static ConnectionPoolSettings defaults()
+  {
+    return new ConnectionPoolSettings();
+  }
+
+  /**
+   * Creates settings that disable pooling. Every requested connection is a new physical connection then.
+   *
+   * @return the newly created settings
+   */
+  public static ConnectionPoolSettings disabled()
+  {
+    return new ConnectionPoolSettings().maxSize(0);
+  }
+
+  /**
+   * Sets the minimum amount of connections the pool keeps open, also if they are idle.
+   *
+   * @param pMinSize the minimum amount of connections
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings minSize(int pMinSize)
+  {
+    minSize = Math.max(0, pMinSize);
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of connections of the pool. Requests have to wait for a returned connection if the limit is reached.
+   *
+   * @param pMaxSize the maximum amount of connections, zero or less disables pooling
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings maxSize(int pMaxSize)
+  {
+    maxSize = pMaxSize;
+    return this;
+  }
+
+  /**
+   * Sets the time after an idle connection is closed if the pool contains more than the minimum amount of connections.
+   *
+   * @param pIdleTimeout the idle timeout in milliseconds, zero or less keeps idle connections open
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings idleTimeout(long pIdleTimeout)
+  {
+    idleTimeout = pIdleTimeout;
+    return this;
+  }
+
+  /**
+   * Sets the maximum time a request waits for a connection if the pool is exhausted.
+   *
+   * @param pBorrowTimeout the borrow timeout in milliseconds
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings borrowTimeout(long pBorrowTimeout)
+  {
+    borrowTimeout = pBorrowTimeout;
+    return this;
+  }
+
+  /**
+   * Sets the maximum time to validate an idle connection before it is handed out.
+   *
+   * @param pValidationTimeoutSeconds the validation timeout in seconds, zero or less disables the validation
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings validationTimeoutSeconds(int pValidationTimeoutSeconds)
+  {
+    validationTimeoutSeconds = pValidationTimeoutSeconds;
+    return this;
+  }
+
+  /**
+   * Sets the time after a borrowed connection that has not been returned is reported as possible leak.
+   *
+   * @param pLeakDetectionThreshold the leak detection threshold in milliseconds, zero or less disables the detection
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings leakDetectionThreshold(long pLeakDetectionThreshold)
+  {
+    leakDetectionThreshold = pLeakDetectionThreshold;
+    return this;
+  }
+
+  /**
+   * Sets the interval of the background task that evicts idle connections, refills the pool and detects leaks.
+   *
+   * @param pHousekeepingInterval the housekeeping interval in milliseconds, zero or less disables the background task
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings housekeepingInterval(long pHousekeepingInterval)
+  {
+    housekeepingInterval = pHousekeepingInterval;
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of prepared statements cached per pooled connection.
+   * Cached statements are reused for the same SQL text within and across transactions.
+   *
+   * @param pStatementCacheSize the maximum amount of cached statements per connection, zero or less disables the cache
+   * @return the settings itself to enable a pipelining mechanism
+   */
+  public ConnectionPoolSettings statementCacheSize(int pStatementCacheSize)
+  {
+    statementCacheSize = pStatementCacheSize;
+    return this;
+  }
+
+  /**
+   * Determines if pooling is enabled by these settings.
+   *
+   * @return <tt>true</tt> if connections should be pooled
+   */
+  public boolean isEnabled()
+  {
+    return maxSize > 0;
+  }
+
+  /**
+   * The minimum amount of connections the pool keeps open. Never greater than the maximum size.
+   *
+   * @return the minimum amount of connections
+   */
+  public int getMinSize()
+  {
+    return Math.min(minSize, maxSize);
+  }
+
+  /**
+   * The maximum amount of connections of the pool.
+   *
+   * @return the maximum amount of connections
+   */
+  public int getMaxSize()
+  {
+    return maxSize;
+  }
+
+  /**
+   * The time after an idle connection is closed.
+   *
+   * @return the idle timeout in milliseconds
+   */
+  public long getIdleTimeout()
+  {
+    return idleTimeout;
+  }
+
+  /**
+   * The maximum time a request waits for a connection.
+   *
+   * @return the borrow timeout in milliseconds
+   */
+  public long getBorrowTimeout()
+  {
+    return borrowTimeout;
+  }
+
+  /**
+   * The maximum time to validate an idle connection before it is handed out.
+   *
+   * @return the validation timeout in seconds
+   */
+  public int getValidationTimeoutSeconds()
+  {
+    return validationTimeoutSeconds;
+  }
+
+  /**
+   * The time after a borrowed connection is reported as possible leak.
+   *
+   * @return the leak detection threshold in milliseconds
+   */
+  public long getLeakDetectionThreshold()
+  {
+    return leakDetectionThreshold;
+  }
+
+  /**
+   * The interval of the background housekeeping task.
+   *
+   * @return the housekeeping interval in milliseconds
+   */
+  public long getHousekeepingInterval()
+  {
+    return housekeepingInterval;
+  }
+
+  /**
+   * The maximum amount of prepared statements cached per pooled connection.
+   *
+   * @return the statement cache size
+   */
+  public int getStatementCacheSize()
+  {
+    return statementCacheSize;
+  }
+}
@@ -0,0 +1,533 @@
+package de.adito.ojcms.sqlbuilder.platform.connection;
+
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
+import de.adito.ojcms.sqlbuilder.util.OJDatabaseException;
+
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link IDatabaseConnectionSupplier} that pools the physical connections of another connection supplier.
+ * The supplied connections return their physical connection to the pool when they are closed. Uncommitted changes are rolled back
+ * and the auto commit and read-only state is reset then.
+ * <p>
+ * Idle connections are validated before they are handed out. A background task closes connections that have been idle for too long,
+ * refills the pool to its minimum size and reports connections that have been borrowed for too long as possible leaks.
+ * Every physical connection may cache its prepared statements (see {@link PreparedStatementCache}), so they are reused across
+ * transactions.
+ * The pool should be closed if it is not needed anymore.
+ *
+ * @author agent, 17.10.2026
+ */
+public final class PooledConnectionSupplier implements IDatabaseConnectionSupplier, AutoCloseable
+{
+  private static final Logger LOGGER = Logger.getLogger(PooledConnectionSupplier.class.getName());
+
+  private final IDatabaseConnectionSupplier physicalSupplier;
+  private final ConnectionPoolSettings settings;
+  private final Deque<_PooledConnection> idleConnections = new ArrayDeque<>();
+  private final Set<_PooledConnection> borrowedConnections = new HashSet<>();
+  private final ScheduledExecutorService housekeeper;
+  private final AtomicLong statementCacheHits = new AtomicLong();
+  private final AtomicLong statementCacheMisses = new AtomicLong();
+
+  //Guarded by this instance
+  private int totalConnections; //Including connections that are being created
+  private int waitingRequests;
+  private long createdConnections, closedConnections, borrowCount, borrowTimeouts, validationFailures, detectedLeaks;
+  private boolean closed;
+
+  /**
+   * Creates a new connection pool. The minimum amount of connections will be created by the background task.
+   *
+   * @param pPhysicalSupplier the connection supplier to create the physical connections
+   * @param pSettings         the settings of the pool
+   */
+  public PooledConnectionSupplier(IDatabaseConnectionSupplier pPhysicalSupplier, ConnectionPoolSettings pSettings)
+  {
+    physicalSupplier = requireNonNull(pPhysicalSupplier);
+    settings = requireNonNull(pSettings);
+
+    if (!settings.isEnabled())
+      throw new IllegalArgumentException("The maximum size of a connection pool has to be positive!");
+
+    if (settings.getHousekeepingInterval() <= 0)
+    {
+      housekeeper = null;
+      return;
+    }
+
+    housekeeper = Executors.newSingleThreadScheduledExecutor(pRunnable ->
+    {
+      final Thread thread = new Thread(pRunnable, "ojcms-connection-pool-housekeeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    final long interval = settings.getHousekeepingInterval();
+    housekeeper.scheduleWithFixedDelay(this::_houseKeepSafely, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Borrows a connection from the pool. Idle connections are reused, new ones are created as long as the maximum size is not reached.
+   * Otherwise the request waits for a returned connection up to the configured borrow timeout.
+   * Closing the supplied connection returns it to the pool.
+   *
+   * @return a pooled connection
+   */
+  @Override
+  public Connection createNewConnection()
+  {
+    final long deadline = System.currentTimeMillis() + settings.getBorrowTimeout();
+
+    while (true)
+    {
+      final _PooledConnection idleConnection = _pollIdleOrReserve(deadline);
+
+      if (idleConnection == null)
+        return _lend(_createPhysical());
+
+      if (_isValid(idleConnection))
+        return _lend(idleConnection);
+
+      synchronized (this)
+      {
+        validationFailures++;
+      }
+      _discard(idleConnection);
+    }
+  }
+
+  @Override
+  public IDatabasePlatform getPlatform()
+  {
+    return physicalSupplier.getPlatform();
+  }
+
+  /**
+   * A snapshot of the current state and the counters of the pool.
+   *
+   * @return the metrics of the pool
+   */
+  public synchronized ConnectionPoolMetrics getMetrics()
+  {
+    return new ConnectionPoolMetrics(borrowedConnections.size(), idleConnections.size(), waitingRequests, createdConnections,
+                                     closedConnections, borrowCount, borrowTimeouts, validationFailures, detectedLeaks,
+                                     statementCacheHits.get(), statementCacheMisses.get());
+  }
+
+  /**
+   * Closes the pool. Idle connections are closed immediately, borrowed connections when they are returned.
+   */
+  @Override
+  public void close()
+  {
+    final List<_PooledConnection> toClose;
+    synchronized (this)
+    {
+      closed = true;
+      toClose = new ArrayList<>(idleConnections);
+      idleConnections.clear();
+      notifyAll();
+    }
+
+    if (housekeeper != null)
+      housekeeper.shutdown();
+
+    toClose.forEach(this::_discard);
+  }
+
+  /**
+   * Takes the most recently used idle connection or reserves a slot for a new connection if the maximum size is not reached.
+   * Waits for a returned connection otherwise.
+   *
+   * @param pDeadline the time up to the request may wait
+   * @return an idle connection or null if a slot for a new connection has been reserved
+   */
+  private synchronized _PooledConnection _pollIdleOrReserve(long pDeadline)
+  {
+    while (true)
+    {
+      if (closed)
+        throw new OJDatabaseException("The connection pool has been closed!");
+
+      if (!idleConnections.isEmpty())
+        return idleConnections.pollFirst();
+
+      if (totalConnections < settings.getMaxSize())
+      {
+        totalConnections++;
+        return null;
+      }
+
+      final long remaining = pDeadline - System.currentTimeMillis();
+      if (remaining <= 0)
+      {
+        borrowTimeouts++;
+        throw new OJDatabaseException("No database connection available within " + settings.getBorrowTimeout() + "ms! " + getMetrics());
+      }
+
+      waitingRequests++;
+      try
+      {
+        wait(remaining);
+      }
+      catch (InterruptedException pE)
+      {
+        Thread.currentThread().interrupt();
+        throw new OJDatabaseException(pE, "Interrupted while waiting for a database connection!");
+      }
+      finally
+      {
+        waitingRequests--;
+      }
+    }
+  }
+
+  /**
+   * Creates a new physical connection for a reserved slot of the pool.
+   *
+   * @return the new pooled connection
+   */
+  private _PooledConnection _createPhysical()
+  {
+    try
+    {
+      final _PooledConnection connection = new _PooledConnection(physicalSupplier.createNewConnection());
+      synchronized (this)
+      {
+        createdConnections++;
+      }
+      return connection;
+    }
+    catch (RuntimeException | SQLException pE)
+    {
+      synchronized (this)
+      {
+        totalConnections--;
+        notifyAll();
+      }
+
+      if (pE instanceof RuntimeException)
+        throw (RuntimeException) pE;
+      throw new OJDatabaseException(pE, "Unable to create a database connection for the pool!");
+    }
+  }
+
+  /**
+   * Hands out a pooled connection. The returned proxy gives the physical connection back to the pool when it is closed.
+   *
+   * @param pConnection the pooled connection to hand out
+   * @return a proxy for the physical connection
+   */
+  private Connection _lend(_PooledConnection pConnection)
+  {
+    pConnection.borrowedAt = System.currentTimeMillis();
+    pConnection.borrowTrace = settings.getLeakDetectionThreshold() > 0 ? new Throwable("Connection borrowed here") : null;
+    pConnection.leakReported = false;
+
+    synchronized (this)
+    {
+      borrowedConnections.add(pConnection);
+      borrowCount++;
+    }
+
+    return pConnection.createHandle();
+  }
+
+  /**
+   * Takes back a connection that has been closed by its borrower.
+   * The connection is reset to its initial state and becomes idle, or is discarded if resetting failed or the pool is closed.
+   *
+   * @param pConnection the returned connection
+   */
+  private void _giveBack(_PooledConnection pConnection)
+  {
+    final boolean reusable = pConnection.reset();
+
+    synchronized (this)
+    {
+      borrowedConnections.remove(pConnection);
+
+      if (reusable && !closed)
+      {
+        pConnection.lastUsed = System.currentTimeMillis();
+        idleConnections.addFirst(pConnection);
+        notifyAll();
+        return;
+      }
+    }
+
+    _discard(pConnection);
+  }
+
+  /**
+   * Closes the physical connection of a pooled connection and frees its slot.
+   *
+   * @param pConnection the connection to discard
+   */
+  private void _discard(_PooledConnection pConnection)
+  {
+    try
+    {
+      pConnection.physical.close();
+    }
+    catch (SQLException pE)
+    {
+      LOGGER.log(Level.FINE, "Unable to close pooled database connection", pE);
+    }
+
+    synchronized (this)
+    {
+      totalConnections--;
+      closedConnections++;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Validates an idle connection before it is handed out.
+   *
+   * @param pConnection the connection to validate
+   * @return <tt>true</tt> if the connection is valid
+   */
+  private boolean _isValid(_PooledConnection pConnection)
+  {
+    if (settings.getValidationTimeoutSeconds() <= 0)
+      return true;
+
+    try
+    {
+      return pConnection.physical.isValid(settings.getValidationTimeoutSeconds());
+    }
+    catch (SQLException pE)
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Executes the house keeping and logs unexpected failures instead of stopping the background task.
+   */
+  private void _houseKeepSafely()
+  {
+    try
+    {
+      _evictIdleConnections();
+      _fillToMinimumSize();
+      _detectLeaks();
+
+      if (LOGGER.isLoggable(Level.FINE))
+        LOGGER.fine(getMetrics().toString());
+    }
+    catch (RuntimeException pE)
+    {
+      LOGGER.log(Level.WARNING, "Connection pool house keeping failed", pE);
+    }
+  }
+
+  /**
+   * Closes connections that have been idle for longer than the idle timeout, as long as the pool keeps its minimum size.
+   */
+  private void _evictIdleConnections()
+  {
+    if (settings.getIdleTimeout() <= 0)
+      return;
+
+    final List<_PooledConnection> toEvict = new ArrayList<>();
+    final long threshold = System.currentTimeMillis() - settings.getIdleTimeout();
+
+    synchronized (this)
+    {
+      //The least recently used connections are at the end
+      final Iterator<_PooledConnection> it = idleConnections.descendingIterator();
+      while (it.hasNext() && totalConnections - toEvict.size() > settings.getMinSize())
+      {
+        final _PooledConnection connection = it.next();
+        if (connection.lastUsed > threshold)
+          break;
+
+        it.remove();
+        toEvict.add(connection);
+      }
+    }
+
+    toEvict.forEach(this::_discard);
+  }
+
+  /**
+   * Creates idle connections until the pool has its minimum size.
+   */
+  private void _fillToMinimumSize()
+  {
+    while (true)
+    {
+      synchronized (this)
+      {
+        if (closed || totalConnections >= settings.getMinSize())
+          return;
+        totalConnections++;
+      }
+
+      final _PooledConnection connection = _createPhysical();
+      connection.lastUsed = System.currentTimeMillis();
+
+      synchronized (this)
+      {
+        if (!closed)
+        {
+          idleConnections.addLast(connection);
+          notifyAll();
+          continue;
+        }
+      }
+
+      //The pool has been closed in the meantime
+      _discard(connection);
+      return;
+    }
+  }
+
+  /**
+   * Reports connections that have been borrowed for longer than the leak detection threshold. Every borrowing is reported once.
+   */
+  private void _detectLeaks()
+  {
+    if (settings.getLeakDetectionThreshold() <= 0)
+      return;
+
+    final long threshold = System.currentTimeMillis() - settings.getLeakDetectionThreshold();
+    final List<_PooledConnection> leaks = new ArrayList<>();
+
+    synchronized (this)
+    {
+      for (_PooledConnection connection : borrowedConnections)
+      {
+        if (!connection.leakReported && connection.borrowedAt < threshold)
+        {
+          connection.leakReported = true;
+          detectedLeaks++;
+          leaks.add(connection);
+        }
+      }
+    }
+
+    for (_PooledConnection leak : leaks)
+      LOGGER.log(Level.WARNING, "Possible connection leak: connection borrowed for more than " + settings.getLeakDetectionThreshold() +
+          "ms without being returned", leak.borrowTrace);
+  }
+
+  /**
+   * A physical connection managed by the pool.
+   */
+  private class _PooledConnection
+  {
+    private final Connection physical;
+    private final boolean initialAutoCommit;
+    private final PreparedStatementCache statementCache;
+    private volatile long borrowedAt;
+    private volatile long lastUsed;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+
+    _PooledConnection(Connection pPhysical) throws SQLException
+    {
+      physical = pPhysical;
+      initialAutoCommit = pPhysical.getAutoCommit();
+      statementCache = settings.getStatementCacheSize() > 0 ?
+          new PreparedStatementCache(pPhysical, settings.getStatementCacheSize(), statementCacheHits, statementCacheMisses) : null;
+    }
+
+    /**
+     * Creates a proxy for the physical connection that returns it to the pool when it is closed.
+     * Statements prepared without further options are taken from the statement cache, if enabled.
+     * The proxy cannot be used anymore after it has been closed.
+     *
+     * @return the proxy connection to hand out
+     */
+    Connection createHandle()
+    {
+      final boolean[] handleClosed = {false};
+
+      final InvocationHandler handler = (pProxy, pMethod, pArgs) ->
+      {
+        switch (pMethod.getName())
+        {
+          case "close":
+            if (!handleClosed[0])
+            {
+              handleClosed[0] = true;
+              _giveBack(this);
+            }
+            return null;
+
+          case "isClosed":
+            return handleClosed[0] || physical.isClosed();
+
+          case "equals":
+            return pProxy == pArgs[0];
+
+          case "hashCode":
+            return System.identityHashCode(pProxy);
+
+          case "toString":
+            return "Pooled" + physical;
+        }
+
+        if (handleClosed[0])
+          throw new SQLException("The connection has already been returned to the pool!");
+
+        if (statementCache != null && "prepareStatement".equals(pMethod.getName()) && pArgs.length == 1)
+          return statementCache.prepare((String) pArgs[0], (Connection) pProxy);
+
+        try
+        {
+          return pMethod.invoke(physical, pArgs);
+        }
+        catch (InvocationTargetException pE)
+        {
+          throw pE.getCause();
+        }
+      };
+
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * Rolls back uncommitted changes and resets the auto commit and read-only state of the physical connection.
+     *
+     * @return <tt>true</tt> if the connection can be reused
+     */
+    boolean reset()
+    {
+      try
+      {
+        if (physical.isClosed())
+          return false;
+
+        if (!physical.getAutoCommit())
+          physical.rollback();
+
+        if (physical.getAutoCommit() != initialAutoCommit)
+          physical.setAutoCommit(initialAutoCommit);
+
+        if (physical.isReadOnly())
+          physical.setReadOnly(false);
+
+        physical.clearWarnings();
+        return true;
+      }
+      catch (SQLException pE)
+      {
+        LOGGER.log(Level.FINE, "Unable to reset pooled database connection", pE);
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package de.adito.ojcms.sqlbuilder.platform.connection;
+
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+/**
+ * A bounded cache of {@link PreparedStatement} instances of one physical connection keyed by their SQL text.
+ * The least recently used statement is closed if the cache exceeds its maximum size.
+ * <p>
+ * Statements are handed out as proxies. Closing a proxy keeps the physical statement open for the next preparation of the same SQL.
+ * Its open result set is closed, its parameters and batches are cleared and its fetch size is reset then.
+ * If a statement for the same SQL is still in use, a separate uncached statement is prepared.
+ * Only data manipulating and query statements are cached, DDL statements are prepared separately every time.
+ * <p>
+ * A cache must only be used by the thread that has currently borrowed its connection.
+ *
+ * @author agent, 17.10.2026
+ */
+final class PreparedStatementCache
+{
+  private static final Logger LOGGER = Logger.getLogger(PreparedStatementCache.class.getName());
+  private static final Set<String> CACHEABLE_KEYWORDS = new HashSet<>(Arrays.asList("SELECT", "INSERT", "UPDATE", "DELETE"));
+
+  private final Connection physical;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final Map<String, _CachedStatement> statements;
+
+  /**
+   * Creates a new statement cache for a physical connection.
+   *
+   * @param pPhysical the physical connection to prepare statements for
+   * @param pMaxSize  the maximum amount of cached statements
+   * @param pHits     a counter for cache hits
+   * @param pMisses   a counter for cache misses
+   */
+  PreparedStatementCache(Connection pPhysical, int pMaxSize, AtomicLong pHits, AtomicLong pMisses)
+  {
+    physical = pPhysical;
+    hits = pHits;
+    misses = pMisses;
+    statements = new LinkedHashMap<String, _CachedStatement>(pMaxSize + 1, 1f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, _CachedStatement> pEldest)
+      {
+        if (size() <= pMaxSize)
+          return false;
+
+        pEldest.getValue().evict();
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Prepares a statement for a SQL text. A cached statement is reused if it is not in use currently.
+   *
+   * @param pSQLStatement the SQL text of the statement
+   * @param pConnection   the connection the statement should belong to from the perspective of its user
+   * @return a statement for the SQL text
+   * @throws SQLException if the statement cannot be prepared
+   */
+  PreparedStatement prepare(String pSQLStatement, Connection pConnection) throws SQLException
+  {
+    if (!_isCacheable(pSQLStatement))
+      return physical.prepareStatement(pSQLStatement);
+
+    final _CachedStatement cached = statements.get(pSQLStatement);
+    if (cached != null && !cached.inUse)
+    {
+      hits.incrementAndGet();
+      return cached.createHandle(pConnection);
+    }
+
+    misses.incrementAndGet();
+    final PreparedStatement statement = physical.prepareStatement(pSQLStatement);
+    if (cached != null)
+      return statement;
+
+    final _CachedStatement newCached = new _CachedStatement(pSQLStatement, statement);
+    statements.put(pSQLStatement, newCached);
+    return newCached.createHandle(pConnection);
+  }
+
+  /**
+   * Determines if a SQL statement should be cached. Only queries and data manipulating statements are cached.
+   *
+   * @param pSQLStatement the SQL text of the statement
+   * @return <tt>true</tt> if the statement should be cached
+   */
+  private static boolean _isCacheable(String pSQLStatement)
+  {
+    final String trimmed = pSQLStatement.trim();
+    final int keywordEnd = trimmed.indexOf(' ');
+    final String keyword = keywordEnd == -1 ? trimmed : trimmed.substring(0, keywordEnd);
+    return CACHEABLE_KEYWORDS.contains(keyword.toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * A cached physical statement.
+   */
+  private class _CachedStatement
+  {
+    private final String sql;
+    private final PreparedStatement statement;
+    private final int initialFetchSize;
+    private boolean inUse;
+    private boolean evicted;
+
+    _CachedStatement(String pSql, PreparedStatement pStatement) throws SQLException
+    {
+      sql = pSql;
+      statement = pStatement;
+      initialFetchSize = pStatement.getFetchSize();
+    }
+
+    /**
+     * Creates a proxy for the physical statement that releases it to the cache when it is closed.
+     * The proxy cannot be used anymore after it has been closed.
+     *
+     * @param pConnection the connection the statement belongs to from the perspective of its user
+     * @return the proxy statement to hand out
+     */
+    PreparedStatement createHandle(Connection pConnection)
+    {
+      inUse = true;
+      final boolean[] handleClosed = {false};
+      final ResultSet[] lastResult = {null};
+
+      final InvocationHandler handler = (pProxy, pMethod, pArgs) ->
+      {
+        switch (pMethod.getName())
+        {
+          case "close":
+            if (!handleClosed[0])
+            {
+              handleClosed[0] = true;
+              _release(lastResult[0]);
+            }
+            return null;
+
+          case "isClosed":
+            return handleClosed[0] || statement.isClosed();
+
+          case "getConnection":
+            return pConnection;
+
+          case "equals":
+            return pProxy == pArgs[0];
+
+          case "hashCode":
+            return System.identityHashCode(pProxy);
+
+          case "toString":
+            return "Cached" + statement;
+        }
+
+        if (handleClosed[0])
+          throw new SQLException("The statement has already been closed!");
+
+        try
+        {
+          final Object result = pMethod.invoke(statement, pArgs);
+          if (result instanceof ResultSet)
+            lastResult[0] = (ResultSet) result;
+          return result;
+        }
+        catch (InvocationTargetException pE)
+        {
+          throw pE.getCause();
+        }
+      };
+
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                                                        handler);
+    }
+
+    /**
+     * Removes the statement from the cache. It is closed immediately if it is not in use, otherwise when its user closes it.
+     */
+    void evict()
+    {
+      evicted = true;
+      if (!inUse)
+        _closePhysical();
+    }
+
+    /**
+     * Releases the statement after its user closed it. Cleans up the statement for the next usage.
+     *
+     * @param pLastResult the last result set created by the user, may be null
+     */
+    private void _release(ResultSet pLastResult)
+    {
+      inUse = false;
+
+      if (evicted)
+      {
+        _closePhysical();
+        return;
+      }
+
+      try
+      {
+        if (pLastResult != null)
+          pLastResult.close();
+
+        statement.clearParameters();
+        statement.clearBatch();
+        statement.clearWarnings();
+
+        if (statement.getFetchSize() != initialFetchSize)
+          statement.setFetchSize(initialFetchSize);
+      }
+      catch (SQLException pE)
+      {
+        statements.remove(sql, this);
+        _closePhysical();
+      }
+    }
+
+    /**
+     * Closes the physical statement.
+     */
+    private void _closePhysical()
+    {
+      try
+      {
+        statement.close();
+      }
+      catch (SQLException pE)
+      {
+        LOGGER.log(Level.FINE, "Unable to close cached prepared statement", pE);
+      }
+    }
+  }
+}
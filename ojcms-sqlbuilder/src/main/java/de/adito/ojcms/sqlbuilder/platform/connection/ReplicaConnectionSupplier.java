@@ -0,0 +1,167 @@
+package de.adito.ojcms.sqlbuilder.platform.connection;
+
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
+
+import java.lang.reflect.*;
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.*;
+import java.util.stream.Collectors;
+
+/**
+ * Distributes connection requests to multiple replicas of a database.
+ * A new connection is created by the replica with the least open connections of this supplier.
+ * Equally loaded replicas are chosen in a round-robin manner. Closing a supplied connection releases it from its replica.
+ * All replicas have to use the same database platform.
+ *
+ * @author agent, 17.10.2026
+ */
+public final class ReplicaConnectionSupplier implements IDatabaseConnectionSupplier, AutoCloseable
+{
+  private static final Logger LOGGER = Logger.getLogger(ReplicaConnectionSupplier.class.getName());
+
+  private final List<IDatabaseConnectionSupplier> replicas;
+  private final List<AtomicInteger> openConnections;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  /**
+   * Creates a new connection supplier for database replicas.
+   *
+   * @param pReplicas the connection suppliers of the replicas
+   */
+  public ReplicaConnectionSupplier(List<IDatabaseConnectionSupplier> pReplicas)
+  {
+    if (pReplicas.isEmpty())
+      throw new IllegalArgumentException("At least one replica is required!");
+
+    replicas = new ArrayList<>(pReplicas);
+    openConnections = replicas.stream() //
+        .map(pReplica -> new AtomicInteger()) //
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Connection createNewConnection()
+  {
+    final int replicaIndex = _reserveLeastLoadedReplica();
+
+    try
+    {
+      return _releasingOnClose(replicas.get(replicaIndex).createNewConnection(), openConnections.get(replicaIndex));
+    }
+    catch (RuntimeException pE)
+    {
+      openConnections.get(replicaIndex).decrementAndGet();
+      throw pE;
+    }
+  }
+
+  @Override
+  public IDatabasePlatform getPlatform()
+  {
+    return replicas.get(0).getPlatform();
+  }
+
+  /**
+   * The amount of open connections of this supplier for every replica.
+   *
+   * @return a list of connection counts in the order of the replicas
+   */
+  public List<Integer> getOpenConnections()
+  {
+    return openConnections.stream() //
+        .map(AtomicInteger::get) //
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Closes all replica suppliers that hold resources, connection pools for example.
+   */
+  @Override
+  public void close()
+  {
+    for (IDatabaseConnectionSupplier replica : replicas)
+    {
+      if (!(replica instanceof AutoCloseable))
+        continue;
+
+      try
+      {
+        ((AutoCloseable) replica).close();
+      }
+      catch (Exception pE)
+      {
+        LOGGER.log(Level.WARNING, "Unable to close connection supplier of replica", pE);
+      }
+    }
+  }
+
+  /**
+   * Determines the replica with the least open connections and reserves a connection for it.
+   * The search starts at the next replica in round-robin order, so equally loaded replicas are chosen alternately.
+   *
+   * @return the index of the reserved replica
+   */
+  private int _reserveLeastLoadedReplica()
+  {
+    final int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    int selected = start;
+
+    for (int i = 1; i < replicas.size(); i++)
+    {
+      final int candidate = (start + i) % replicas.size();
+      if (openConnections.get(candidate).get() < openConnections.get(selected).get())
+        selected = candidate;
+    }
+
+    openConnections.get(selected).incrementAndGet();
+    return selected;
+  }
+
+  /**
+   * Creates a proxy for a replica connection that releases the connection from the replica's counter when it is closed.
+   *
+   * @param pConnection      the connection created by the replica
+   * @param pOpenConnections the counter of open connections of the replica
+   * @return the proxy connection to hand out
+   */
+  private static Connection _releasingOnClose(Connection pConnection, AtomicInteger pOpenConnections)
+  {
+    final boolean[] released = {false};
+
+    final InvocationHandler handler = (pProxy, pMethod, pArgs) ->
+    {
+      switch (pMethod.getName())
+      {
+        case "close":
+          synchronized (released)
+          {
+            if (!released[0])
+            {
+              released[0] = true;
+              pOpenConnections.decrementAndGet();
+            }
+          }
+          break;
+
+        case "equals":
+          return pProxy == pArgs[0];
+
+        case "hashCode":
+          return System.identityHashCode(pProxy);
+      }
+
+      try
+      {
+        return pMethod.invoke(pConnection, pArgs);
+      }
+      catch (InvocationTargetException pE)
+      {
+        throw pE.getCause();
+      }
+    };
+
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+  }
+}
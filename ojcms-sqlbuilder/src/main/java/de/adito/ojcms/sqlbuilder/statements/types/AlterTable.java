@@ -1,6 +1,7 @@
 package de.adito.ojcms.sqlbuilder.statements.types;
 
 import de.adito.ojcms.sqlbuilder.*;
+import de.adito.ojcms.sqlbuilder.definition.IIndexDefinition;
 import de.adito.ojcms.sqlbuilder.definition.column.IColumnDefinition;
 import de.adito.ojcms.sqlbuilder.executors.IStatementExecutor;
 import de.adito.ojcms.sqlbuilder.format.*;
@@ -19,6 +20,8 @@ public class AlterTable extends AbstractSQLStatement<Void, AlterTable>
 {
   private final Set<IColumnDefinition> columnsToAdd = new HashSet<>();
   private final Set<String> columnsToDrop = new HashSet<>();
+  private final List<IIndexDefinition> indexesToCreate = new ArrayList<>();
+  private final Set<String> indexesToDrop = new HashSet<>();
 
   /**
    * Creates the alter table statement.
@@ -92,13 +95,64 @@ public class AlterTable extends AbstractSQLStatement<Void, AlterTable>
     return this;
   }
 
+  /**
+   * Defines secondary indexes to create for the table.
+   *
+   * @param pIndexesToCreate multiple index definitions to create
+   * @return the alter table statement itself to enable a pipelining mechanism
+   */
+  public AlterTable indexesToCreate(IIndexDefinition... pIndexesToCreate)
+  {
+    return indexesToCreate(Arrays.asList(pIndexesToCreate));
+  }
+
+  /**
+   * Defines secondary indexes to create for the table.
+   *
+   * @param pIndexesToCreate multiple index definitions to create
+   * @return the alter table statement itself to enable a pipelining mechanism
+   */
+  public AlterTable indexesToCreate(Collection<IIndexDefinition> pIndexesToCreate)
+  {
+    indexesToCreate.addAll(pIndexesToCreate);
+    return this;
+  }
+
+  /**
+   * Defines secondary indexes of the table to drop.
+   *
+   * @param pIndexesToDrop multiple index names to drop
+   * @return the alter table statement itself to enable a pipelining mechanism
+   */
+  public AlterTable indexesToDrop(String... pIndexesToDrop)
+  {
+    return indexesToDrop(Arrays.asList(pIndexesToDrop));
+  }
+
+  /**
+   * Defines secondary indexes of the table to drop.
+   *
+   * @param pIndexesToDrop multiple index names to drop
+   * @return the alter table statement itself to enable a pipelining mechanism
+   */
+  public AlterTable indexesToDrop(Collection<String> pIndexesToDrop)
+  {
+    indexesToDrop.addAll(pIndexesToDrop);
+    return this;
+  }
+
   /**
    * Executes the statement and alters the table in the database.
+   * Indexes to drop are dropped before the columns are changed, indexes to create are created afterwards.
    */
   public void alter()
   {
-    if (columnsToAdd.isEmpty() && columnsToDrop.isEmpty())
-      throw new OJDatabaseException("At least one column must be defined to be altered!");
+    if (columnsToAdd.isEmpty() && columnsToDrop.isEmpty() && indexesToCreate.isEmpty() && indexesToDrop.isEmpty())
+      throw new OJDatabaseException("At least one column or index must be defined to be altered!");
+
+    for (String indexNameToDrop : indexesToDrop)
+      executeStatement(EFormatter.DROP.create(databasePlatform, idColumnIdentification.getColumnName()) //
+          .appendConstant(EFormatConstant.INDEX, indexNameToDrop));
 
     for (IColumnDefinition columnToAdd : columnsToAdd)
       executeStatement(EFormatter.ALTER.create(databasePlatform, idColumnIdentification.getColumnName()) //
@@ -110,5 +164,8 @@ public class AlterTable extends AbstractSQLStatement<Void, AlterTable>
       executeStatement(EFormatter.ALTER.create(databasePlatform, idColumnIdentification.getColumnName()) //
           .appendTableName(getTableName()) //
           .appendConstant(EFormatConstant.DROP_COLUMN, columnNameToDrop));
+
+    for (IIndexDefinition indexToCreate : indexesToCreate)
+      executeStatement(Create.createIndexFormat(databasePlatform, idColumnIdentification.getColumnName(), getTableName(), indexToCreate));
   }
 }
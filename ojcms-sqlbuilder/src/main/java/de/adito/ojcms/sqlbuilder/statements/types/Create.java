@@ -1,6 +1,7 @@
 package de.adito.ojcms.sqlbuilder.statements.types;
 
 import de.adito.ojcms.sqlbuilder.*;
+import de.adito.ojcms.sqlbuilder.definition.IIndexDefinition;
 import de.adito.ojcms.sqlbuilder.definition.column.*;
 import de.adito.ojcms.sqlbuilder.executors.IStatementExecutor;
 import de.adito.ojcms.sqlbuilder.format.StatementFormatter;
@@ -26,6 +27,7 @@ public class Create extends AbstractSQLStatement<Void, Create>
 {
   private final IColumnDefinition idColumnDefinition;
   private final List<IColumnDefinition> columns = new ArrayList<>();
+  private final List<IIndexDefinition> indexes = new ArrayList<>();
 
   /**
    * Creates the create statement.
@@ -80,6 +82,29 @@ public class Create extends AbstractSQLStatement<Void, Create>
     return this;
   }
 
+  /**
+   * Determines secondary indexes to create for the table after the table has been created.
+   *
+   * @param pIndexDefinitions the index definitions to create
+   * @return the create statement itself to enable a pipelining mechanism
+   */
+  public Create indexes(IIndexDefinition... pIndexDefinitions)
+  {
+    return indexes(Arrays.asList(pIndexDefinitions));
+  }
+
+  /**
+   * Determines secondary indexes to create for the table after the table has been created.
+   *
+   * @param pIndexDefinitions the index definitions to create
+   * @return the create statement itself to enable a pipelining mechanism
+   */
+  public Create indexes(Collection<IIndexDefinition> pIndexDefinitions)
+  {
+    indexes.addAll(pIndexDefinitions);
+    return this;
+  }
+
   /**
    * Configures the create statement to include an id column additionally.
    *
@@ -92,7 +117,7 @@ public class Create extends AbstractSQLStatement<Void, Create>
   }
 
   /**
-   * Executes the statement and creates the table in the database.
+   * Executes the statement and creates the table and its secondary indexes in the database.
    */
   public void create()
   {
@@ -106,6 +131,28 @@ public class Create extends AbstractSQLStatement<Void, Create>
         .appendFunctional(this::_primaryKeys) //
         .appendFunctional(this::_foreignKeys) //
         .closeBracket());
+
+    for (IIndexDefinition index : indexes)
+      executeStatement(createIndexFormat(databasePlatform, idColumnDefinition.getColumnName(), getTableName(), index));
+  }
+
+  /**
+   * Creates the statement format to create a secondary index for a table.
+   *
+   * @param pPlatform     the database platform used for the statement
+   * @param pIdColumnName the global id column name
+   * @param pTableName    the name of the table to create the index for
+   * @param pIndex        the definition of the index
+   * @return the statement format of the create index statement
+   */
+  static StatementFormatter createIndexFormat(IDatabasePlatform pPlatform, String pIdColumnName, String pTableName, IIndexDefinition pIndex)
+  {
+    final String columnNames = pIndex.getColumnNames().stream() //
+        .map(String::toUpperCase) //
+        .collect(Collectors.joining(", "));
+
+    return CREATE.create(pPlatform, pIdColumnName) //
+        .appendConstant(INDEX_ON, pIndex.getIndexName().toUpperCase(), pTableName, columnNames);
   }
 
   /**
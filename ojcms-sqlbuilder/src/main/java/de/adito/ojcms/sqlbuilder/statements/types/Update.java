@@ -20,7 +20,7 @@ import static de.adito.ojcms.sqlbuilder.format.ESeparator.COMMA_WITH_WHITESPACE;
  *
  * @author Simon Danner, 26.04.2018
  */
-public class Update extends AbstractConditionStatement<WhereModifiers, Void, Void, Update>
+public class Update extends AbstractConditionStatement<WhereModifiers, Integer, Integer, Update>
 {
   private final List<IColumnValueTuple<?>> changes = new ArrayList<>();
   private final List<INumericValueAdaption<?>> updateOldValues = new ArrayList<>();
@@ -34,7 +34,7 @@ public class Update extends AbstractConditionStatement<WhereModifiers, Void, Voi
    * @param pSerializer        the value serializer
    * @param pIdColumnName      the id column name
    */
-  public Update(IStatementExecutor<Void> pStatementExecutor, AbstractSQLBuilder pBuilder, IDatabasePlatform pPlatform,
+  public Update(IStatementExecutor<Integer> pStatementExecutor, AbstractSQLBuilder pBuilder, IDatabasePlatform pPlatform,
                 IValueSerializer pSerializer, String pIdColumnName)
   {
     super(pStatementExecutor, pBuilder, pPlatform, pSerializer, new WhereModifiers(), pIdColumnName);
@@ -111,14 +111,16 @@ public class Update extends AbstractConditionStatement<WhereModifiers, Void, Voi
 
   /**
    * Performs the update in the database.
+   *
+   * @return the amount of updated rows
    */
-  public void update()
+  public int update()
   {
-    doQuery();
+    return doQuery();
   }
 
   @Override
-  protected Void doQuery()
+  protected Integer doQuery()
   {
     if (changes.isEmpty() && updateOldValues.isEmpty())
       throw new OJDatabaseException("At least one value must be updated in an update statement!");
@@ -4,6 +4,7 @@ import de.adito.ojcms.sqlbuilder.AbstractSQLBuilder;
 import de.adito.ojcms.sqlbuilder.definition.IColumnIdentification;
 import de.adito.ojcms.sqlbuilder.executors.IStatementExecutor;
 import de.adito.ojcms.sqlbuilder.format.*;
+import de.adito.ojcms.sqlbuilder.format.EFormatConstant.StaticConstants;
 import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 import de.adito.ojcms.sqlbuilder.result.Result;
 import de.adito.ojcms.sqlbuilder.serialization.IValueSerializer;
@@ -27,6 +28,11 @@ import static de.adito.ojcms.sqlbuilder.format.ESeparator.COMMA_WITH_WHITESPACE;
 public abstract class AbstractSelect<SELECT extends AbstractSelect<SELECT>>
     extends AbstractConditionStatement<SelectModifiers, Result, ResultSet, SELECT>
 {
+  /**
+   * The column that holds the rank of every selected row, if requested by {@link #withRankBy(IColumnIdentification)}.
+   */
+  public static final IColumnIdentification<Integer> RANK_COLUMN = IColumnIdentification.of(StaticConstants.RANK_AS, Integer.class);
+
   private final List<IColumnIdentification<?>> columnsToSelect = new ArrayList<>();
 
   /**
@@ -112,6 +118,85 @@ public abstract class AbstractSelect<SELECT extends AbstractSelect<SELECT>>
     return (SELECT) this;
   }
 
+  /**
+   * Orders the selected rows by the values of a column (ascending).
+   * Counting rows ignores the order, the offset and the limit.
+   *
+   * @param pColumn the column to order by
+   * @return the select statement itself to enable a pipelining mechanism
+   */
+  public SELECT orderBy(IColumnIdentification<?> pColumn)
+  {
+    modifiers.setOrderByColumnName(pColumn.getColumnName());
+    //noinspection unchecked
+    return (SELECT) this;
+  }
+
+  /**
+   * Adds the rank of every selected row by the values of a column to the result (see {@link #RANK_COLUMN}).
+   * The rank is the amount of rows of the whole table with a lower value in the column, which is the zero based position of the row
+   * within the table ordered by this column. The ranks are determined by a correlated sub query within the same statement.
+   * Counting rows ignores the rank.
+   *
+   * @param pColumn the column to rank by, its values should be unique
+   * @return the select statement itself to enable a pipelining mechanism
+   */
+  public SELECT withRankBy(IColumnIdentification<?> pColumn)
+  {
+    modifiers.setRankColumnName(pColumn.getColumnName());
+    //noinspection unchecked
+    return (SELECT) this;
+  }
+
+  /**
+   * Skips an amount of rows from the beginning of the result. Should be combined with {@link #orderBy(IColumnIdentification)}.
+   *
+   * @param pOffset the amount of rows to skip
+   * @return the select statement itself to enable a pipelining mechanism
+   */
+  public SELECT offset(int pOffset)
+  {
+    if (pOffset < 0)
+      throw new OJDatabaseException("The offset must not be negative! offset: " + pOffset);
+
+    modifiers.setOffset(pOffset);
+    //noinspection unchecked
+    return (SELECT) this;
+  }
+
+  /**
+   * Limits the amount of selected rows.
+   *
+   * @param pLimit the maximum amount of rows to select
+   * @return the select statement itself to enable a pipelining mechanism
+   */
+  public SELECT limit(int pLimit)
+  {
+    if (pLimit < 0)
+      throw new OJDatabaseException("The limit must not be negative! limit: " + pLimit);
+
+    modifiers.setLimit(pLimit);
+    //noinspection unchecked
+    return (SELECT) this;
+  }
+
+  /**
+   * Gives the database driver a hint about the amount of rows to fetch at once while iterating through the result.
+   * Large results can be read with bounded memory this way, if the driver supports it.
+   *
+   * @param pFetchSize the amount of rows to fetch at once, zero for the default of the driver
+   * @return the select statement itself to enable a pipelining mechanism
+   */
+  public SELECT fetchSize(int pFetchSize)
+  {
+    if (pFetchSize < 0)
+      throw new OJDatabaseException("The fetch size must not be negative! fetch size: " + pFetchSize);
+
+    modifiers.setFetchSize(pFetchSize);
+    //noinspection unchecked
+    return (SELECT) this;
+  }
+
   /**
    * Adds columns to select through the statement. Must be at least one column.
    *
@@ -131,7 +216,11 @@ public abstract class AbstractSelect<SELECT extends AbstractSelect<SELECT>>
   @Override
   protected Result doQuery()
   {
-    return new Result(columnsToSelect, idColumnIdentification, serializer, _query());
+    final List<IColumnIdentification<?>> resultColumns = new ArrayList<>(columnsToSelect);
+    if (modifiers.rankColumnName().isPresent())
+      resultColumns.add(RANK_COLUMN);
+
+    return new Result(resultColumns, idColumnIdentification, serializer, _query());
   }
 
   /**
@@ -144,14 +233,25 @@ public abstract class AbstractSelect<SELECT extends AbstractSelect<SELECT>>
     final Supplier<String> columnSupplier = () -> StatementFormatter.join(columnsToSelect.stream() //
         .map(IColumnIdentification::getColumnName), COMMA_WITH_WHITESPACE);
 
+    applyFetchSize(modifiers.fetchSize());
     return executeStatement(EFormatter.SELECT.create(databasePlatform, idColumnIdentification.getColumnName()) //
         .conditional(modifiers.distinct(), pFormat -> pFormat.appendConstant(DISTINCT)) //
         .conditionalOrElse(modifiers.count(), //
             //with count
             pFormat -> pFormat.appendConstant(COUNT, columnSupplier.get()), //
             //without count
-            pFormat -> pFormat.appendMultiple(columnsToSelect.stream(), COMMA_WITH_WHITESPACE)) //
+            pFormat -> pFormat //
+                .appendMultiple(columnsToSelect.stream(), COMMA_WITH_WHITESPACE) //
+                .conditional(modifiers.rankColumnName().isPresent(), pRankFormat -> pRankFormat //
+                    .appendSeparator(ESeparator.COMMA) //
+                    .appendConstant(RANK, getTableName(), modifiers.rankColumnName().orElse("")))) //
         .appendTableName(getTableName()) //
-        .appendWhereCondition(modifiers));
+        .appendWhereCondition(modifiers) //
+        .conditional(!modifiers.count(), pFormat -> pFormat //
+            .conditional(modifiers.orderByColumnName().isPresent(), //
+                pOrderFormat -> pOrderFormat.appendConstant(ORDER_BY, modifiers.orderByColumnName().orElse(""))) //
+            .conditional(modifiers.offset() > 0, pOffsetFormat -> pOffsetFormat.appendConstant(OFFSET, String.valueOf(modifiers.offset()))) //
+            .conditional(modifiers.limit() >= 0, //
+                pLimitFormat -> pLimitFormat.appendConstant(FETCH_NEXT, String.valueOf(modifiers.limit())))));
   }
 }
@@ -2,6 +2,8 @@ package de.adito.ojcms.sqlbuilder.util;
 
 import de.adito.ojcms.sqlbuilder.definition.condition.WhereModifiers;
 
+import java.util.Optional;
+
 /**
  * The modifiers for a select statement.
  * It provides methods to build query strings based on the different modifiers.
@@ -12,6 +14,11 @@ public class SelectModifiers extends WhereModifiers
 {
   private boolean distinct = false;
   private boolean count = false;
+  private String orderByColumnName;
+  private String rankColumnName;
+  private int offset = 0;
+  private int limit = -1;
+  private int fetchSize = 0;
 
   /**
    * Sets a count flag for the SQL statement.
@@ -33,6 +40,56 @@ public class SelectModifiers extends WhereModifiers
     distinct = pDistinct;
   }
 
+  /**
+   * Sets the name of the column to order the selected rows by (ascending).
+   *
+   * @param pColumnName the name of the column to order by
+   */
+  public void setOrderByColumnName(String pColumnName)
+  {
+    orderByColumnName = pColumnName;
+  }
+
+  /**
+   * Sets the name of the column to determine the rank of every selected row by.
+   *
+   * @param pColumnName the name of the column to rank by
+   */
+  public void setRankColumnName(String pColumnName)
+  {
+    rankColumnName = pColumnName;
+  }
+
+  /**
+   * Sets the amount of rows to skip from the beginning of the result.
+   *
+   * @param pOffset the amount of rows to skip
+   */
+  public void setOffset(int pOffset)
+  {
+    offset = pOffset;
+  }
+
+  /**
+   * Sets the maximum amount of rows to select.
+   *
+   * @param pLimit the maximum amount of rows, -1 for no limit
+   */
+  public void setLimit(int pLimit)
+  {
+    limit = pLimit;
+  }
+
+  /**
+   * Sets the amount of rows the database driver should fetch at once.
+   *
+   * @param pFetchSize the amount of rows to fetch at once, zero for the default of the driver
+   */
+  public void setFetchSize(int pFetchSize)
+  {
+    fetchSize = pFetchSize;
+  }
+
   /**
    * Determines, if the select statement should return distinct values.
    *
@@ -52,4 +109,54 @@ public class SelectModifiers extends WhereModifiers
   {
     return count;
   }
+
+  /**
+   * The name of the column to order the selected rows by, if present.
+   *
+   * @return an optional column name to order by
+   */
+  public Optional<String> orderByColumnName()
+  {
+    return Optional.ofNullable(orderByColumnName);
+  }
+
+  /**
+   * The name of the column to determine the rank of every selected row by, if present.
+   *
+   * @return an optional column name to rank by
+   */
+  public Optional<String> rankColumnName()
+  {
+    return Optional.ofNullable(rankColumnName);
+  }
+
+  /**
+   * The amount of rows to skip from the beginning of the result.
+   *
+   * @return the amount of rows to skip
+   */
+  public int offset()
+  {
+    return offset;
+  }
+
+  /**
+   * The maximum amount of rows to select.
+   *
+   * @return the maximum amount of rows or -1 if unlimited
+   */
+  public int limit()
+  {
+    return limit;
+  }
+
+  /**
+   * The amount of rows the database driver should fetch at once.
+   *
+   * @return the fetch size or zero for the default of the driver
+   */
+  public int fetchSize()
+  {
+    return fetchSize;
+  }
 }
@@ -1,16 +1,23 @@
 package de.adito.ojcms.sql.datasource.cleanup;
 
-import de.adito.ojcms.sql.datasource.model.PersistenceModels;
+import de.adito.ojcms.sql.datasource.model.*;
 import de.adito.ojcms.sql.datasource.startup.IDatabaseCleanup;
 import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.*;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static java.util.function.Function.identity;
 
 /**
  * Removes all obsolete bean container tables.
  * Compares the still existing tables with the actual tables within the database.
+ * The internal tables for single beans, bean types, the commit log and the schema fingerprint are never removed.
+ * The typed tables of registered single beans are kept as well, they may have to be migrated when the storage layout changed.
+ * Table names are compared case insensitive, because the database may store them in upper case.
  *
  * @author Simon Danner, 02.01.2020
  */
@@ -23,9 +30,19 @@ class ObsoleteTableCleanup implements IDatabaseCleanup
   @Override
   public void cleanup(OJSQLBuilder pBuilder)
   {
-    final Set<String> allTables = pBuilder.getAllTableNames();
-    allTables.removeAll(models.getAllContainerTableNames());
+    final Stream<String> singleBeanTableNames = models.getAllSingleBeanIds().stream() //
+        .map(SingleBeanPersistenceModel::typedTableNameOf);
+
+    final Set<String> tablesToKeep = Stream.of(models.getAllContainerTableNames().stream(), singleBeanTableNames,
+        Stream.of(BEAN_TABLE_NAME, BEAN_TYPE_TABLE_NAME, COMMIT_LOG_TABLE_NAME, COMMIT_SEQUENCE_TABLE_NAME,
+                  SCHEMA_FINGERPRINT_TABLE_NAME)) //
+        .flatMap(identity()) //
+        .map(String::toUpperCase) //
+        .collect(Collectors.toSet());
+
     //Drop all remaining/obsolete tables
-    allTables.forEach(pBuilder::dropTable);
+    pBuilder.getAllTableNames().stream() //
+        .filter(pTableName -> !tablesToKeep.contains(pTableName.toUpperCase())) //
+        .forEach(pBuilder::dropTable);
   }
 }
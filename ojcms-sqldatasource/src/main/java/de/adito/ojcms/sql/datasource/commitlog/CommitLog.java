@@ -0,0 +1,256 @@
+package de.adito.ojcms.sql.datasource.commitlog;
+
+import de.adito.ojcms.sql.datasource.connection.IDatabaseConfig;
+import de.adito.ojcms.sql.datasource.util.OJSQLException;
+import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.definition.*;
+import de.adito.ojcms.sqlbuilder.definition.column.*;
+import de.adito.ojcms.sqlbuilder.result.ResultRow;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.ADD;
+import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
+import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.*;
+
+/**
+ * Log of committed changes within the database to keep the caches of multiple application instances that use the same database valid.
+ * Every transaction writes the containers (by index range) and single beans it changed to the commit log table within its own database
+ * transaction. The entries of a commit share a sequence number that is taken from a single row counter table as the last action
+ * before the commit. The lock on the counter row assures that the sequence numbers become visible in ascending order.
+ * <p>
+ * Other application instances poll the commit log for new entries via {@link CommitLogPoller}.
+ * Entries are only kept for a limited time.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+public class CommitLog
+{
+  private static final long MIN_ENTRY_RETENTION = TimeUnit.MINUTES.toMillis(10);
+  private static final int ENTRY_RETENTION_POLLING_INTERVALS = 10;
+
+  //Columns of the commit log table
+  private static final IColumnIdentification<Long> SEQUENCE_COLUMN = IColumnIdentification.of(COMMIT_SEQUENCE_COLUMN_NAME, Long.class);
+  private static final IColumnIdentification<String> NODE_ID_COLUMN = IColumnIdentification.of("NODE_ID", String.class);
+  private static final IColumnIdentification<String> TARGET_ID_COLUMN = IColumnIdentification.of("TARGET_ID", String.class);
+  private static final IColumnIdentification<Integer> FROM_INDEX_COLUMN = IColumnIdentification.of("FROM_INDEX", Integer.class);
+  private static final IColumnIdentification<Integer> TO_INDEX_COLUMN = IColumnIdentification.of("TO_INDEX", Integer.class);
+  private static final IColumnIdentification<Long> CREATED_AT_COLUMN = IColumnIdentification.of("CREATED_AT", Long.class);
+
+  @Inject
+  private IDatabaseConfig config;
+  @Inject
+  private PendingCommitLogEntries pendingEntries;
+
+  //Identifies the entries of this application instance
+  private final String nodeId = UUID.randomUUID().toString();
+
+  /**
+   * Determines if the commit log is enabled by the {@link IDatabaseConfig}.
+   *
+   * @return <tt>true</tt> if the commit log is enabled
+   */
+  public boolean isEnabled()
+  {
+    return config.getCommitLogPollingInterval() > 0;
+  }
+
+  /**
+   * Creates the commit log table and the sequence counter table if necessary.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   */
+  public void initInDatabase(OJSQLBuilder pBuilder)
+  {
+    pBuilder.ifTableNotExistingCreate(COMMIT_LOG_TABLE_NAME, pCreate -> pCreate //
+        .withIdColumn() //
+        .columns(_definitionOf(SEQUENCE_COLUMN, EColumnType.LONG), _definitionOf(NODE_ID_COLUMN, EColumnType.STRING),
+            _definitionOf(TARGET_ID_COLUMN, EColumnType.STRING), _definitionOf(FROM_INDEX_COLUMN, EColumnType.INT),
+            _definitionOf(TO_INDEX_COLUMN, EColumnType.INT), _definitionOf(CREATED_AT_COLUMN, EColumnType.LONG)) //
+        .create());
+
+    pBuilder.ifTableNotExistingCreate(COMMIT_SEQUENCE_TABLE_NAME, pCreate -> pCreate //
+        .withIdColumn() //
+        .columns(_definitionOf(SEQUENCE_COLUMN, EColumnType.LONG)) //
+        .create());
+
+    final boolean hasCounterRow = pBuilder.doSelect(pSelect -> pSelect.from(COMMIT_SEQUENCE_TABLE_NAME).hasResult());
+    if (!hasCounterRow)
+      pBuilder.doInsert(pInsert -> pInsert //
+          .into(COMMIT_SEQUENCE_TABLE_NAME) //
+          .values(IColumnValueTuple.of(SEQUENCE_COLUMN, 0L)) //
+          .insert());
+  }
+
+  /**
+   * Records a changed bean within a container for the commit of the current transaction.
+   *
+   * @param pContainerId the id of the container
+   * @param pIndex       the index of the changed bean
+   */
+  public void recordContainerBeanChange(String pContainerId, int pIndex)
+  {
+    _record(CommitLogEntry.forContainerBean(pContainerId, pIndex));
+  }
+
+  /**
+   * Records a container changed in size for the commit of the current transaction.
+   *
+   * @param pContainerId the id of the container
+   * @param pFromIndex   the lowest index affected by the additions or removals
+   */
+  public void recordContainerSizeChange(String pContainerId, int pFromIndex)
+  {
+    _record(CommitLogEntry.forContainerSizeChange(pContainerId, pFromIndex));
+  }
+
+  /**
+   * Records a changed single bean for the commit of the current transaction.
+   *
+   * @param pBeanId the id of the single bean
+   */
+  public void recordSingleBeanChange(String pBeanId)
+  {
+    _record(CommitLogEntry.forSingleBean(pBeanId));
+  }
+
+  /**
+   * Writes the recorded entries of the current transaction to the commit log.
+   * Has to be called right before the database transaction commits.
+   *
+   * @param pBuilder the builder of the current transaction
+   */
+  public void writePendingEntries(OJSQLBuilder pBuilder)
+  {
+    final List<CommitLogEntry> entries = pendingEntries.drain();
+    if (!isEnabled() || entries.isEmpty())
+      return;
+
+    final long createdAt = System.currentTimeMillis();
+
+    //The counter row stays locked until the commit, so the sequence has to be taken as the last action
+    pBuilder.doUpdate(pUpdate -> pUpdate //
+        .table(COMMIT_SEQUENCE_TABLE_NAME) //
+        .adaptNumericValue(of(SEQUENCE_COLUMN, ADD, 1L)) //
+        .update());
+
+    final long sequence = pBuilder.doSelectOne(SEQUENCE_COLUMN, pSelect -> pSelect //
+        .from(COMMIT_SEQUENCE_TABLE_NAME) //
+        .firstResult()) //
+        .orIfNotPresentThrow(() -> new OJSQLException("Commit log sequence counter not initialized!"));
+
+    for (CommitLogEntry entry : entries)
+      pBuilder.doInsert(pInsert -> pInsert //
+          .into(COMMIT_LOG_TABLE_NAME) //
+          .values(IColumnValueTuple.of(SEQUENCE_COLUMN, sequence), IColumnValueTuple.of(NODE_ID_COLUMN, nodeId),
+              IColumnValueTuple.of(TARGET_ID_COLUMN, entry.getTargetId()), IColumnValueTuple.of(FROM_INDEX_COLUMN, entry.getFromIndex()),
+              IColumnValueTuple.of(TO_INDEX_COLUMN, entry.getToIndex()), IColumnValueTuple.of(CREATED_AT_COLUMN, createdAt)) //
+          .insert());
+  }
+
+  /**
+   * Discards the recorded entries of the current transaction. Has to be called if the transaction is rolled back.
+   */
+  public void discardPendingEntries()
+  {
+    pendingEntries.drain();
+  }
+
+  /**
+   * The time entries are kept in the commit log. At least ten polling intervals.
+   *
+   * @return the retention time of entries in milliseconds
+   */
+  long getEntryRetention()
+  {
+    return Math.max(MIN_ENTRY_RETENTION, ENTRY_RETENTION_POLLING_INTERVALS * config.getCommitLogPollingInterval());
+  }
+
+  /**
+   * Resolves the sequence number of the latest commit.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @return the latest sequence number
+   */
+  long getLatestSequence(OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelectOne(SEQUENCE_COLUMN, pSelect -> pSelect //
+        .from(COMMIT_SEQUENCE_TABLE_NAME) //
+        .firstResult()) //
+        .orIfNotPresent(0L);
+  }
+
+  /**
+   * Reads all entries of other application instances that have been committed after a given sequence number.
+   *
+   * @param pSequence      the sequence number of the last known commit
+   * @param pBuilder       a builder to execute SQL statements
+   * @param pEntryConsumer a consumer for the entries of other application instances
+   * @return the highest sequence number read or the given one if there are no new entries
+   */
+  long readForeignEntriesSince(long pSequence, OJSQLBuilder pBuilder, Consumer<CommitLogEntry> pEntryConsumer)
+  {
+    final List<ResultRow> rows = pBuilder.doSelect(pSelect -> pSelect //
+        .select(SEQUENCE_COLUMN, NODE_ID_COLUMN, TARGET_ID_COLUMN, FROM_INDEX_COLUMN, TO_INDEX_COLUMN) //
+        .from(COMMIT_LOG_TABLE_NAME) //
+        .where(greaterThan(SEQUENCE_COLUMN, pSequence)) //
+        .fullResult() //
+        .stream() //
+        .collect(Collectors.toList()));
+
+    long highestSequence = pSequence;
+    for (ResultRow row : rows)
+    {
+      highestSequence = Math.max(highestSequence, row.get(SEQUENCE_COLUMN));
+
+      if (!nodeId.equals(row.get(NODE_ID_COLUMN)))
+        pEntryConsumer.accept(new CommitLogEntry(row.get(TARGET_ID_COLUMN), row.get(FROM_INDEX_COLUMN), row.get(TO_INDEX_COLUMN)));
+    }
+
+    return highestSequence;
+  }
+
+  /**
+   * Removes all entries from the commit log that have been created before a given point in time.
+   *
+   * @param pTimestamp the point in time (epoch millis)
+   * @param pBuilder   a builder to execute SQL statements
+   */
+  void removeEntriesCreatedBefore(long pTimestamp, OJSQLBuilder pBuilder)
+  {
+    pBuilder.doDelete(pDelete -> pDelete //
+        .from(COMMIT_LOG_TABLE_NAME) //
+        .where(lessThan(CREATED_AT_COLUMN, pTimestamp)) //
+        .delete());
+  }
+
+  /**
+   * Records an entry for the commit of the current transaction if the commit log is enabled.
+   *
+   * @param pEntry the entry to record
+   */
+  private void _record(CommitLogEntry pEntry)
+  {
+    if (isEnabled())
+      pendingEntries.add(pEntry);
+  }
+
+  /**
+   * Creates the column definition for a column of the commit log tables.
+   *
+   * @param pColumn the column identification
+   * @param pType   the type of the column
+   * @return the created column definition
+   */
+  private static IColumnDefinition _definitionOf(IColumnIdentification<?> pColumn, EColumnType pType)
+  {
+    return IColumnDefinition.of(pColumn.getColumnName(), pType.create());
+  }
+}
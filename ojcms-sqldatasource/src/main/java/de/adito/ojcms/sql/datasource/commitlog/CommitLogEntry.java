@@ -0,0 +1,135 @@
+package de.adito.ojcms.sql.datasource.commitlog;
+
+import java.util.Objects;
+
+/**
+ * An entry of the commit log. Describes the data changed by a committed transaction.
+ * The target is either an index range of a persistent container or a persistent single bean.
+ *
+ * @author agent, 16.10.2026
+ */
+final class CommitLogEntry
+{
+  private static final int SINGLE_BEAN_INDEX = -1;
+
+  private final String targetId;
+  private final int fromIndex;
+  private final int toIndex;
+
+  /**
+   * Creates an entry for a changed bean within a container.
+   *
+   * @param pContainerId the id of the container
+   * @param pIndex       the index of the changed bean
+   * @return the created commit log entry
+   */
+  static CommitLogEntry forContainerBean(String pContainerId, int pIndex)
+  {
+    return new CommitLogEntry(pContainerId, pIndex, pIndex + 1);
+  }
+
+  /**
+   * Creates an entry for a container changed in size. All beans from the given index on may have been shifted.
+   *
+   * @param pContainerId the id of the container
+   * @param pFromIndex   the lowest index affected by the additions or removals
+   * @return the created commit log entry
+   */
+  static CommitLogEntry forContainerSizeChange(String pContainerId, int pFromIndex)
+  {
+    return new CommitLogEntry(pContainerId, pFromIndex, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates an entry for a changed single bean.
+   *
+   * @param pBeanId the id of the single bean
+   * @return the created commit log entry
+   */
+  static CommitLogEntry forSingleBean(String pBeanId)
+  {
+    return new CommitLogEntry(pBeanId, SINGLE_BEAN_INDEX, SINGLE_BEAN_INDEX);
+  }
+
+  /**
+   * Creates a new commit log entry.
+   *
+   * @param pTargetId  the id of the changed container or single bean
+   * @param pFromIndex the first index of the changed range (inclusive), -1 for single beans
+   * @param pToIndex   the end of the changed range (exclusive), {@link Integer#MAX_VALUE} if unbounded, -1 for single beans
+   */
+  CommitLogEntry(String pTargetId, int pFromIndex, int pToIndex)
+  {
+    targetId = pTargetId;
+    fromIndex = pFromIndex;
+    toIndex = pToIndex;
+  }
+
+  /**
+   * The id of the changed container or single bean.
+   *
+   * @return the id of the target
+   */
+  String getTargetId()
+  {
+    return targetId;
+  }
+
+  /**
+   * The first index of the changed range (inclusive).
+   *
+   * @return the first index of the range
+   */
+  int getFromIndex()
+  {
+    return fromIndex;
+  }
+
+  /**
+   * The end of the changed range (exclusive).
+   *
+   * @return the end index of the range or {@link Integer#MAX_VALUE} if unbounded
+   */
+  int getToIndex()
+  {
+    return toIndex;
+  }
+
+  /**
+   * Determines if this entry describes a changed single bean.
+   *
+   * @return <tt>true</tt> if the target is a single bean
+   */
+  boolean isSingleBean()
+  {
+    return fromIndex == SINGLE_BEAN_INDEX;
+  }
+
+  @Override
+  public boolean equals(Object pOther)
+  {
+    if (this == pOther)
+      return true;
+    if (pOther == null || getClass() != pOther.getClass())
+      return false;
+
+    final CommitLogEntry that = (CommitLogEntry) pOther;
+    return fromIndex == that.fromIndex && toIndex == that.toIndex && Objects.equals(targetId, that.targetId);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(targetId, fromIndex, toIndex);
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "{" + //
+        "targetId='" + targetId + '\'' + //
+        ", fromIndex=" + fromIndex + //
+        ", toIndex=" + toIndex + //
+        '}';
+  }
+}
@@ -0,0 +1,133 @@
+package de.adito.ojcms.sql.datasource.commitlog;
+
+import de.adito.ojcms.cdi.startup.IStartupCallback;
+import de.adito.ojcms.sql.datasource.connection.*;
+import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.transactions.api.*;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.concurrent.*;
+import java.util.logging.*;
+
+/**
+ * Polls the {@link CommitLog} for commits of other application instances in the configured interval.
+ * The data changed by such commits will be invalidated in the {@link IBeanDataCache} of this application instance.
+ * If the last poll is longer ago than the retention time of the commit log, entries may have been missed. The whole cache is
+ * invalidated then.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+class CommitLogPoller implements IStartupCallback
+{
+  private static final Logger LOGGER = Logger.getLogger(CommitLogPoller.class.getName());
+
+  @Inject
+  private IDatabaseConfig config;
+  @Inject
+  private CommitLog commitLog;
+  @Inject
+  private IBeanDataCache cache;
+  @Inject
+  @GlobalBuilder
+  private OJSQLBuilder builder;
+
+  private ScheduledExecutorService poller;
+  private long lastSequence;
+  private long lastPollTime;
+  private long lastRemovalTime;
+
+  @Override
+  public void onCdiStartup()
+  {
+    if (!commitLog.isEnabled())
+      return;
+
+    synchronized (this)
+    {
+      lastSequence = commitLog.getLatestSequence(builder);
+      lastPollTime = System.currentTimeMillis();
+    }
+
+    poller = Executors.newSingleThreadScheduledExecutor(pRunnable ->
+    {
+      final Thread thread = new Thread(pRunnable, "ojcms-commit-log-poller");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    final long interval = config.getCommitLogPollingInterval();
+    poller.scheduleWithFixedDelay(this::_pollSafely, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public int priority()
+  {
+    //After the database initialization
+    return -1;
+  }
+
+  @PreDestroy
+  private void _stopPolling()
+  {
+    if (poller != null)
+      poller.shutdown();
+  }
+
+  /**
+   * Reads all commit log entries of other application instances since the last poll and invalidates the changed data in the cache.
+   * Also removes expired entries from the commit log from time to time.
+   */
+  synchronized void poll()
+  {
+    final long pollTime = System.currentTimeMillis();
+    final long retention = commitLog.getEntryRetention();
+
+    if (pollTime - lastPollTime > retention)
+    {
+      //Entries may have been removed in the meantime
+      lastSequence = commitLog.readForeignEntriesSince(lastSequence, builder, pEntry -> {});
+      cache.invalidateAll();
+    }
+    else
+      lastSequence = commitLog.readForeignEntriesSince(lastSequence, builder, this::_invalidate);
+
+    lastPollTime = pollTime;
+
+    if (pollTime - lastRemovalTime > retention / 2)
+    {
+      commitLog.removeEntriesCreatedBefore(pollTime - retention, builder);
+      lastRemovalTime = pollTime;
+    }
+  }
+
+  /**
+   * Polls the commit log on the poller thread. A failing poll is only logged to keep the polling alive.
+   */
+  private void _pollSafely()
+  {
+    try
+    {
+      poll();
+    }
+    catch (RuntimeException pE)
+    {
+      LOGGER.log(Level.WARNING, "Polling the commit log failed!", pE);
+    }
+  }
+
+  /**
+   * Invalidates the data described by a commit log entry in the cache.
+   *
+   * @param pEntry the commit log entry of another application instance
+   */
+  private void _invalidate(CommitLogEntry pEntry)
+  {
+    if (pEntry.isSingleBean())
+      cache.invalidateSingleBean(new SingleBeanKey(pEntry.getTargetId()));
+    else
+      cache.invalidateContainerRange(pEntry.getTargetId(), pEntry.getFromIndex(), pEntry.getToIndex());
+  }
+}
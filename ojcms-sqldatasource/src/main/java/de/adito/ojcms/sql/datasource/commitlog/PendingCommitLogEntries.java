@@ -0,0 +1,38 @@
+package de.adito.ojcms.sql.datasource.commitlog;
+
+import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+
+import java.util.*;
+
+/**
+ * The commit log entries of a transaction that will be written to the commit log when the transaction commits.
+ *
+ * @author agent, 16.10.2026
+ */
+@TransactionalScoped
+class PendingCommitLogEntries
+{
+  private final Set<CommitLogEntry> entries = new LinkedHashSet<>();
+
+  /**
+   * Adds an entry for changed data of the transaction.
+   *
+   * @param pEntry the commit log entry to add
+   */
+  void add(CommitLogEntry pEntry)
+  {
+    entries.add(pEntry);
+  }
+
+  /**
+   * Removes all pending entries of the transaction.
+   *
+   * @return the removed entries
+   */
+  List<CommitLogEntry> drain()
+  {
+    final List<CommitLogEntry> drained = new ArrayList<>(entries);
+    entries.clear();
+    return drained;
+  }
+}
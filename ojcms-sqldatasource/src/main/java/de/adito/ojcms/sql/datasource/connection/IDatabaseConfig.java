@@ -4,6 +4,7 @@ import de.adito.ojcms.sql.datasource.util.DatabaseConstants;
 import de.adito.ojcms.sqlbuilder.platform.connection.*;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.*;
 
 /**
  * Defines a database configuration that should be implemented by a module using this SQL datasource.
@@ -23,6 +24,20 @@ public interface IDatabaseConfig
    */
   IDatabaseConnectionSupplier createConnectionSupplier(ConnectionSupplierFactory pSupplierFactory);
 
+  /**
+   * Creates {@link IDatabaseConnectionSupplier} instances for read-only replicas of the database.
+   * Read-only transactions load their data from the replica with the least open connections. All other transactions use the primary
+   * database, because their changes have to be based on the latest committed state. Data read from a replica is never put into the
+   * shared bean data cache, because the replica may lag behind the primary database. The replicas have to use the same platform.
+   *
+   * @param pSupplierFactory the factory to create connection suppliers with
+   * @return the connection suppliers of the replicas, empty if all transactions should use the primary database
+   */
+  default List<IDatabaseConnectionSupplier> createReadReplicaConnectionSuppliers(ConnectionSupplierFactory pSupplierFactory)
+  {
+    return Collections.emptyList();
+  }
+
   /**
    * The name for the id columns created by the SQL builders.
    *
@@ -32,4 +47,149 @@ public interface IDatabaseConfig
   {
     return DatabaseConstants.ID_COLUMN;
   }
+
+  /**
+   * The settings for the pool of the database connections of the application.
+   * Transactions and the global builder borrow connections from the pool and return them when they are finished.
+   * Use {@link ConnectionPoolSettings#disabled()} to open a new physical connection every time instead.
+   *
+   * @return the settings of the connection pool
+   */
+  default ConnectionPoolSettings getConnectionPoolSettings()
+  {
+    return ConnectionPoolSettings.defaults();
+  }
+
+  /**
+   * Determines if committed bean data should be cached in a second level cache that is shared between all transactions.
+   * The cache is only consistent if this application instance is the only writer to the database or if the commit log is enabled
+   * (see {@link #getCommitLogPollingInterval()}). Changes of other writers will not be visible to cached data otherwise.
+   * Therefore the cache is only enabled by default if the commit log is enabled.
+   *
+   * @return <tt>true</tt> if committed bean data should be shared between transactions
+   */
+  default boolean useSharedBeanDataCache()
+  {
+    return getCommitLogPollingInterval() > 0;
+  }
+
+  /**
+   * The maximum amount of entries of the shared bean data cache. The least recently used entries will be evicted beyond that.
+   * Only relevant if the cache is enabled (see {@link #useSharedBeanDataCache()}).
+   *
+   * @return the maximum amount of cached entries
+   */
+  default int getSharedBeanDataCacheSize()
+  {
+    return DatabaseConstants.DEFAULT_SHARED_CACHE_SIZE;
+  }
+
+  /**
+   * Determines if the sizes of persistent containers should be shared between all transactions, independently of the shared bean
+   * data cache. A shared size is counted once and adapted by every commit of the application afterwards.
+   * Disable this if other writers add or remove rows of container tables without the commit log being enabled
+   * (see {@link #getCommitLogPollingInterval()}).
+   *
+   * @return <tt>true</tt> if container sizes should be shared between transactions
+   */
+  default boolean shareContainerSizes()
+  {
+    return true;
+  }
+
+  /**
+   * Determines if the tables for persistent containers and single beans should have a version column for every row.
+   * Updates will then only be applied if the version of a row has not changed since it has been loaded.
+   * This detects concurrent modifications of multiple application instances that use the same database.
+   *
+   * @return <tt>true</tt> if row versions should be used for optimistic concurrency control
+   */
+  default boolean useRowVersions()
+  {
+    return false;
+  }
+
+  /**
+   * Determines if the order of the beans of persistent containers should be stored by sparse ordering keys instead of a dense index.
+   * Additions and removals then only touch the added or removed rows instead of all following rows, but loading beans by index
+   * requires ordered queries. Existing container tables will be migrated when this setting changes.
+   *
+   * @return <tt>true</tt> if sparse ordering keys should be used for persistent containers
+   */
+  default boolean useSparseOrderingKeys()
+  {
+    return false;
+  }
+
+  /**
+   * Determines if every persistent single bean should be stored in a table of its own with a typed column per bean field.
+   * Changes then only update the changed columns and loading requires no JSON conversion. Otherwise all single beans are stored
+   * as JSON content within one shared table. Existing single beans will be migrated when this setting changes.
+   *
+   * @return <tt>true</tt> if single beans should be stored with typed columns
+   */
+  default boolean useTypedSingleBeanTables()
+  {
+    return false;
+  }
+
+  /**
+   * The maximum amount of statements sent to the database in one JDBC batch.
+   * Insertions of new beans and value changes of multiple beans are batched when a transaction is committed.
+   * A value of one or less executes every statement separately.
+   *
+   * @return the maximum amount of statements per batch
+   */
+  default int getStatementBatchSize()
+  {
+    return DatabaseConstants.DEFAULT_STATEMENT_BATCH_SIZE;
+  }
+
+  /**
+   * The amount of rows the database driver should fetch at once when the data of a whole persistent container is loaded.
+   * The rows are streamed from the database, so this bounds the memory needed to read large containers.
+   * A value of zero uses the default of the driver.
+   *
+   * @return the fetch size for full container loads
+   */
+  default int getFetchSize()
+  {
+    return DatabaseConstants.DEFAULT_FETCH_SIZE;
+  }
+
+  /**
+   * Determines if the database initialization on startup should be skipped if the persistence models did not change.
+   * A fingerprint of the structures of all persistence models is stored in the database for that purpose.
+   * Disable this if the database schema may be changed by other means than this application.
+   *
+   * @return <tt>true</tt> if the initialization should be skipped for unchanged persistence models
+   */
+  default boolean skipInitializationForUnchangedModels()
+  {
+    return true;
+  }
+
+  /**
+   * The maximum amount of threads to initialize the persistence models in the database with on startup.
+   * The models are initialized sequentially if the database platform does not support parallel schema changes.
+   * A value of one or less initializes the models sequentially.
+   *
+   * @return the amount of threads for the initialization of the persistence models
+   */
+  default int getModelInitializationThreads()
+  {
+    return DatabaseConstants.DEFAULT_MODEL_INITIALIZATION_THREADS;
+  }
+
+  /**
+   * The interval to poll the commit log of the database for changes of other application instances that use the same database.
+   * Cached bean data changed by other instances will be invalidated then. Every instance has to use the same setting.
+   * A value of zero or less disables the commit log.
+   *
+   * @return the polling interval of the commit log in milliseconds
+   */
+  default long getCommitLogPollingInterval()
+  {
+    return 0;
+  }
 }
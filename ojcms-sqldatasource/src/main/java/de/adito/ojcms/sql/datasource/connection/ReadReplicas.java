@@ -0,0 +1,84 @@
+package de.adito.ojcms.sql.datasource.connection;
+
+import de.adito.ojcms.sqlbuilder.platform.connection.*;
+import de.adito.ojcms.transactions.api.ITransaction;
+
+import javax.annotation.*;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.sql.Connection;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Manages the read-only replicas of the database defined by the {@link IDatabaseConfig}.
+ * Read-only transactions load their data from the replica with the least open connections, all other transactions use the primary database.
+ * The connections of every replica are pooled separately if pooling is enabled by the config.
+ *
+ * @author agent, 17.10.2026
+ */
+@ApplicationScoped
+public class ReadReplicas
+{
+  @Inject
+  private IDatabaseConfig config;
+
+  //Null if no replicas are configured
+  private ReplicaConnectionSupplier replicaSupplier;
+
+  @PostConstruct
+  private void _createReplicaSupplier()
+  {
+    final ConnectionPoolSettings poolSettings = config.getConnectionPoolSettings();
+    final List<IDatabaseConnectionSupplier> replicas = config.createReadReplicaConnectionSuppliers(new ConnectionSupplierFactory(false)) //
+        .stream() //
+        .map(pReplica -> poolSettings.isEnabled() ? new PooledConnectionSupplier(pReplica, poolSettings) : pReplica) //
+        .collect(Collectors.toList());
+
+    if (!replicas.isEmpty())
+      replicaSupplier = new ReplicaConnectionSupplier(replicas);
+  }
+
+  @PreDestroy
+  private void _closeReplicaSupplier()
+  {
+    if (replicaSupplier != null)
+      replicaSupplier.close();
+  }
+
+  /**
+   * Determines if a transaction loads its data from a replica.
+   * This is the case for read-only transactions if at least one replica is configured.
+   *
+   * @param pTransaction the transaction to check
+   * @return <tt>true</tt> if the transaction uses a replica
+   */
+  public boolean isUsedBy(ITransaction pTransaction)
+  {
+    return replicaSupplier != null && pTransaction.isReadOnly();
+  }
+
+  /**
+   * The amount of open connections for every replica.
+   *
+   * @return a list of connection counts in the order of the configured replicas, empty if there are no replicas
+   */
+  public List<Integer> getOpenConnections()
+  {
+    return replicaSupplier == null ? Collections.emptyList() : replicaSupplier.getOpenConnections();
+  }
+
+  /**
+   * Creates a new connection to the replica with the least open connections.
+   * Only available if {@link #isUsedBy(ITransaction)} is <tt>true</tt> for any transaction.
+   *
+   * @return a connection to a replica
+   */
+  Connection createNewConnection()
+  {
+    if (replicaSupplier == null)
+      throw new IllegalStateException("No read replicas configured!");
+
+    return replicaSupplier.createNewConnection();
+  }
+}
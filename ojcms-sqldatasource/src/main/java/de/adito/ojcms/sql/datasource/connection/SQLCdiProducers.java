@@ -5,6 +5,7 @@ import de.adito.ojcms.sqlbuilder.*;
 import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 import de.adito.ojcms.sqlbuilder.platform.connection.*;
 import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+import de.adito.ojcms.transactions.api.ITransaction;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.*;
@@ -24,6 +25,7 @@ final class SQLCdiProducers
 
   /**
    * Produces a database connection supplier from a {@link IDatabaseConfig} for the application.
+   * The connections are pooled if enabled by the config.
    *
    * @param pDatabaseConfig the config to resolve the connection supplier from
    * @return the database connection supplier for the application
@@ -32,7 +34,21 @@ final class SQLCdiProducers
   @Produces
   private static IDatabaseConnectionSupplier _produceConnectionSupplier(IDatabaseConfig pDatabaseConfig)
   {
-    return pDatabaseConfig.createConnectionSupplier(new ConnectionSupplierFactory(false));
+    final IDatabaseConnectionSupplier connectionSupplier = pDatabaseConfig.createConnectionSupplier(new ConnectionSupplierFactory(false));
+    final ConnectionPoolSettings poolSettings = pDatabaseConfig.getConnectionPoolSettings();
+
+    return poolSettings.isEnabled() ? new PooledConnectionSupplier(connectionSupplier, poolSettings) : connectionSupplier;
+  }
+
+  /**
+   * Closes the connection pool of the application, if pooling is enabled.
+   *
+   * @param pConnectionSupplier the connection supplier to dispose
+   */
+  private static void _disposeConnectionSupplier(@Disposes IDatabaseConnectionSupplier pConnectionSupplier)
+  {
+    if (pConnectionSupplier instanceof PooledConnectionSupplier)
+      ((PooledConnectionSupplier) pConnectionSupplier).close();
   }
 
   /**
@@ -50,19 +66,40 @@ final class SQLCdiProducers
 
   /**
    * Produces the {@link Connection} for every single transaction.
+   * Read-only transactions receive a read-only connection in auto commit mode because there is nothing to commit.
+   * The connection is created by a replica of the database if configured.
    *
    * @param pConnectionSupplier the applications's connection supplier/creator
+   * @param pReadReplicas       the read-only replicas of the database
+   * @param pTransaction        the transaction to produce the connection for
    * @return the connection for a transaction
    */
   @TransactionalScoped
   @Produces
-  private static Connection _produceConnection(IDatabaseConnectionSupplier pConnectionSupplier)
+  private static Connection _produceConnection(IDatabaseConnectionSupplier pConnectionSupplier, ReadReplicas pReadReplicas,
+                                               ITransaction pTransaction)
   {
-    return pConnectionSupplier.createNewConnection();
+    final Connection connection =
+        pReadReplicas.isUsedBy(pTransaction) ? pReadReplicas.createNewConnection() : pConnectionSupplier.createNewConnection();
+
+    if (!pTransaction.isReadOnly())
+      return connection;
+
+    try
+    {
+      connection.setAutoCommit(true);
+      connection.setReadOnly(true);
+      return connection;
+    }
+    catch (SQLException pE)
+    {
+      throw new OJSQLException("Unable to configure read-only database connection", pE);
+    }
   }
 
   /**
    * Disposes the {@link Connection} after a transaction has been finished.
+   * A pooled connection is returned to the pool.
    *
    * @param pConnection the connection to dispose
    */
@@ -81,23 +118,46 @@ final class SQLCdiProducers
   /**
    * Produces a global {@link OJSQLBuilder} that works outside of transactions to initialize the database etc.
    * Use {@link GlobalBuilder} at injection points to receive this one.
+   * The builder uses the connections of the application in auto commit mode, every connection is closed after its statement.
    *
-   * @param pConfig           the database config to use for the application
-   * @param pDatabasePlatform the database platform to use for the application
-   * @param pSerializer       the serializer for the SQL builder
+   * @param pConfig             the database config to use for the application
+   * @param pDatabasePlatform   the database platform to use for the application
+   * @param pConnectionSupplier the applications's connection supplier/creator
+   * @param pSerializer         the serializer for the SQL builder
    * @return the global SQL builder
    */
   @ApplicationScoped
   @GlobalBuilder
   @Produces
   private static OJSQLBuilder _produceSQLBuilderForInitialization(IDatabaseConfig pConfig, IDatabasePlatform pDatabasePlatform,
+                                                                  IDatabaseConnectionSupplier pConnectionSupplier,
                                                                   BeanSQLSerializer pSerializer)
   {
-    final IDatabaseConnectionSupplier connectionSupplier = pConfig.createConnectionSupplier(new ConnectionSupplierFactory(true));
-
     return OJSQLBuilderFactory.newSQLBuilder(pDatabasePlatform, pConfig.getDefaultIdColumnName()) //
         .withCustomSerializer(pSerializer) //
-        .withClosingAndRenewingConnection(connectionSupplier) //
+        .withClosingAndRenewingConnection(new IDatabaseConnectionSupplier()
+        {
+          @Override
+          public Connection createNewConnection()
+          {
+            final Connection connection = pConnectionSupplier.createNewConnection();
+            try
+            {
+              connection.setAutoCommit(true);
+              return connection;
+            }
+            catch (SQLException pE)
+            {
+              throw new OJSQLException("Unable to configure auto commit database connection", pE);
+            }
+          }
+
+          @Override
+          public IDatabasePlatform getPlatform()
+          {
+            return pDatabasePlatform;
+          }
+        }) //
         .create();
   }
 
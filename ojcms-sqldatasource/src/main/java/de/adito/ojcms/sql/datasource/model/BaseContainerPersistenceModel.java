@@ -4,17 +4,18 @@ import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.beans.util.BeanReflector;
 import de.adito.ojcms.sql.datasource.model.column.*;
-import de.adito.ojcms.sql.datasource.util.OJSQLException;
-import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.*;
 import de.adito.ojcms.sqlbuilder.definition.*;
 import de.adito.ojcms.sqlbuilder.definition.column.*;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 import de.adito.ojcms.sqlbuilder.result.ResultRow;
 import de.adito.ojcms.transactions.api.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.BEAN_TYPE_COLUMN_NAME;
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.isEqual;
 import static java.util.Collections.singleton;
 import static java.util.function.Function.identity;
 
@@ -23,25 +24,36 @@ import static java.util.function.Function.identity;
  * Provides meta information to initialize the database table.
  * Also handles the requesting of bean data and processing of changes.
  * Defines special handling for different bean sub types.
+ * The bean type of every row is stored as integer discriminator that is assigned by the {@link BeanTypeRegistry}.
+ * Tables that still store the full class name of the bean type are migrated when the model is initialized.
  *
  * @author Simon Danner, 18.03.2020
  */
 public class BaseContainerPersistenceModel extends ContainerPersistenceModel
 {
-  private static final IColumnDefinition BEAN_TYPE_COLUMN = IColumnDefinition.of(BEAN_TYPE_COLUMN_NAME, EColumnType.STRING.create());
-  private static final IColumnIdentification<String> BEAN_TYPE_COLUMN_ID = IColumnIdentification.of(BEAN_TYPE_COLUMN_NAME, String.class);
+  private static final IColumnDefinition BEAN_TYPE_COLUMN = IColumnDefinition.of(BEAN_TYPE_ID_COLUMN_NAME, EColumnType.INT.create());
+  private static final IColumnIdentification<Integer> BEAN_TYPE_COLUMN_ID = IColumnIdentification.of(BEAN_TYPE_ID_COLUMN_NAME, Integer.class);
+  private static final IColumnIdentification<String> LEGACY_BEAN_TYPE_COLUMN_ID = IColumnIdentification.of(BEAN_TYPE_COLUMN_NAME, String.class);
 
   private final Map<Class<? extends IBean>, Set<BeanColumnIdentification<?>>> columnsBySubType;
+  //Resolved when the model is initialized in the database
+  private volatile Map<Class<? extends IBean>, Integer> discriminatorsByType = Collections.emptyMap();
+  private volatile Class<? extends IBean>[] typesByDiscriminator;
 
   /**
    * Initializes the persistence model for a persistent base bean container.
    *
-   * @param pContainerId the id of the persistent container
-   * @param pSubTypes    all supported sub bean types of the container
+   * @param pContainerId           the id of the persistent container
+   * @param pSubTypes              all supported sub bean types of the container
+   * @param pUseRowVersions        <tt>true</tt> if the rows should be versioned for optimistic concurrency control
+   * @param pUseSparseOrderingKeys <tt>true</tt> if the order of the rows should be stored by sparse ordering keys
+   * @param pStatementBatchSize    the maximum amount of statements per JDBC batch
    */
-  BaseContainerPersistenceModel(String pContainerId, Set<Class<? extends IBean>> pSubTypes)
+  BaseContainerPersistenceModel(String pContainerId, Set<Class<? extends IBean>> pSubTypes, boolean pUseRowVersions,
+                                boolean pUseSparseOrderingKeys, int pStatementBatchSize)
   {
-    super(pContainerId, _resolveAllColumns(pSubTypes), BEAN_TYPE_COLUMN_ID);
+    super(pContainerId, _resolveAllColumns(pSubTypes), pUseRowVersions, pUseSparseOrderingKeys, pStatementBatchSize,
+          BEAN_TYPE_COLUMN_ID);
     columnsBySubType = pSubTypes.stream() //
         .collect(Collectors.toMap(identity(), BaseContainerPersistenceModel::columnIdentificationsFromBeanType));
   }
@@ -54,10 +66,53 @@ public class BaseContainerPersistenceModel extends ContainerPersistenceModel
    * @return the type of the bean at the requested index
    */
   public <BEAN extends IBean> Class<BEAN> loadBeanType(InitialIndexKey pKey, OJSQLBuilder pBuilder)
+  {
+    return loadBeanType(pKey, new OrderingKeyTranslations(), pBuilder);
+  }
+
+  /**
+   * Loads a concrete bean type of a database entry by index.
+   * With sparse ordering keys the index is translated by the given translations of the transaction.
+   *
+   * @param pKey          the index based key to identify the bean
+   * @param pTranslations the translations of indexes to ordering keys of the current transaction
+   * @param pBuilder      a builder to execute SQL statements
+   * @return the type of the bean at the requested index
+   */
+  public <BEAN extends IBean> Class<BEAN> loadBeanType(InitialIndexKey pKey, OrderingKeyTranslations pTranslations, OJSQLBuilder pBuilder)
   {
     //noinspection unchecked
-    return (Class<BEAN>) selectSingleResultByIndex(pKey, singleton(BEAN_TYPE_COLUMN_ID), pBuilder,
-        BaseContainerPersistenceModel::_resolveBeanType);
+    return (Class<BEAN>) selectSingleResultByIndex(pKey, singleton(BEAN_TYPE_COLUMN_ID), pTranslations, pBuilder,
+                                                   this::_resolveBeanType);
+  }
+
+  @Override
+  public void initModelInDatabase(OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
+  {
+    _resolveDiscriminators(pBuilder);
+
+    final Set<String> existingColumnNames = pSchema.getColumnNames(containerId);
+    super.initModelInDatabase(pBuilder, pSchema);
+
+    if (pSchema.hasTable(containerId) && !existingColumnNames.contains(BEAN_TYPE_ID_COLUMN_NAME))
+      _migrateToDiscriminators(pBuilder, existingColumnNames.contains(BEAN_TYPE_COLUMN_NAME));
+  }
+
+  @Override
+  public void initModelForExistingStructures(OJSQLBuilder pBuilder)
+  {
+    _resolveDiscriminators(pBuilder);
+  }
+
+  @Override
+  public String describeStructure(IDatabasePlatform pPlatform)
+  {
+    final String subTypes = columnsBySubType.keySet().stream() //
+        .map(Class::getName) //
+        .sorted() //
+        .collect(Collectors.joining(", "));
+
+    return "base " + super.describeStructure(pPlatform) + " (types=[" + subTypes + "])";
   }
 
   @Override
@@ -72,7 +127,11 @@ public class BaseContainerPersistenceModel extends ContainerPersistenceModel
   protected List<IColumnValueTuple<?>> tuplesToInsertForNewBean(BeanAddition pBeanAddition)
   {
     final List<IColumnValueTuple<?>> tuplesToInsert = super.tuplesToInsertForNewBean(pBeanAddition);
-    tuplesToInsert.add(IColumnValueTuple.of(BEAN_TYPE_COLUMN_ID, pBeanAddition.getBeanType().getName()));
+    final Integer discriminator = discriminatorsByType.get(pBeanAddition.getBeanType());
+    if (discriminator == null)
+      throw new IllegalStateException("Bean type " + pBeanAddition.getBeanType().getName() + " not registered for persistence model!");
+
+    tuplesToInsert.add(IColumnValueTuple.of(BEAN_TYPE_COLUMN_ID, discriminator));
     return tuplesToInsert;
   }
 
@@ -87,22 +146,67 @@ public class BaseContainerPersistenceModel extends ContainerPersistenceModel
   }
 
   /**
-   * Resolves the bean type from a {@link ResultRow} from the bean type column.
+   * Resolves the bean type from a {@link ResultRow} from the discriminator in the bean type column.
    *
    * @param pResultRow the result row to obtain the bean type from
    * @return the resolved bean type
    */
-  private static Class<? extends IBean> _resolveBeanType(ResultRow pResultRow)
+  private Class<? extends IBean> _resolveBeanType(ResultRow pResultRow)
+  {
+    final Integer discriminator = pResultRow.get(BEAN_TYPE_COLUMN_ID);
+    final Class<? extends IBean>[] types = typesByDiscriminator;
+
+    if (discriminator == null || discriminator < 0 || discriminator >= types.length || types[discriminator] == null)
+      throw new IllegalStateException("Bean type with discriminator " + discriminator + " not registered for persistence model!");
+
+    return types[discriminator];
+  }
+
+  /**
+   * Registers the supported bean types of the container and resolves their discriminators.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   */
+  private void _resolveDiscriminators(OJSQLBuilder pBuilder)
+  {
+    final Map<Class<? extends IBean>, Integer> discriminators = BeanTypeRegistry.registerBeanTypes(columnsBySubType.keySet(), pBuilder);
+    final int maxDiscriminator = discriminators.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+    //noinspection unchecked
+    final Class<? extends IBean>[] types = new Class[maxDiscriminator + 1];
+    discriminators.forEach((pType, pDiscriminator) -> types[pDiscriminator] = pType);
+
+    discriminatorsByType = discriminators;
+    typesByDiscriminator = types;
+  }
+
+  /**
+   * Migrates an existing table that stores the full class name of the bean type to integer discriminators.
+   * Rows of bean types that are not supported by the container anymore keep no discriminator.
+   *
+   * @param pBuilder             a builder to execute SQL statements
+   * @param pHasLegacyTypeColumn <tt>true</tt> if the table contains the column with the full class names
+   */
+  private void _migrateToDiscriminators(OJSQLBuilder pBuilder, boolean pHasLegacyTypeColumn)
   {
-    try
-    {
-      //noinspection unchecked
-      return (Class<? extends IBean>) Class.forName(pResultRow.get(BEAN_TYPE_COLUMN_ID));
-    }
-    catch (ClassNotFoundException pE)
-    {
-      throw new OJSQLException("Unable to resolve bean type!", pE);
-    }
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(containerId) //
+        .columnsToAdd(BEAN_TYPE_COLUMN) //
+        .alter());
+
+    if (!pHasLegacyTypeColumn)
+      return;
+
+    discriminatorsByType.forEach((pType, pDiscriminator) -> pBuilder.doUpdate(pUpdate -> pUpdate //
+        .table(containerId) //
+        .set(IColumnValueTuple.of(BEAN_TYPE_COLUMN_ID, pDiscriminator)) //
+        .where(isEqual(LEGACY_BEAN_TYPE_COLUMN_ID, pType.getName())) //
+        .update()));
+
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(containerId) //
+        .columnsToDrop(BEAN_TYPE_COLUMN_NAME) //
+        .alter());
   }
 
   /**
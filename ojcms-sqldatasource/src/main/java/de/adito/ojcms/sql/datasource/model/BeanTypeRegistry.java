@@ -0,0 +1,99 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.definition.*;
+import de.adito.ojcms.sqlbuilder.definition.column.*;
+import de.adito.ojcms.sqlbuilder.util.OJDatabaseException;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+
+/**
+ * Registry for the bean types of persistent base containers within a database table.
+ * Every registered bean type is identified by a small integer discriminator (the generated id of its row),
+ * so the rows of base containers do not have to store the full class name of their bean type.
+ * Discriminators never change once assigned, also if a bean type is not used anymore.
+ * The type names are unique, so application instances that register a bean type concurrently resolve the same discriminator.
+ * Registry tables created before may contain a type name multiple times. The smallest id is the discriminator of such a type then.
+ *
+ * @author agent, 16.10.2026
+ */
+final class BeanTypeRegistry
+{
+  private static final IColumnIdentification<Long> TYPE_ID_COLUMN = IColumnIdentification.of(ID_COLUMN, Long.class);
+  private static final IColumnIdentification<String> TYPE_NAME_COLUMN = IColumnIdentification.of(BEAN_TYPE_NAME_COLUMN_NAME, String.class);
+  private static final IColumnDefinition TYPE_NAME_COLUMN_DEFINITION = IColumnDefinition.of(BEAN_TYPE_NAME_COLUMN_NAME, //
+      EColumnType.STRING.create().modifiers(EColumnModifier.NOT_NULL, EColumnModifier.UNIQUE));
+
+  private BeanTypeRegistry()
+  {
+  }
+
+  /**
+   * Registers bean types and resolves their discriminators.
+   * The registry table is created if not existing yet. Bean types that are not registered yet receive a new discriminator.
+   * Synchronized because base containers may be initialized concurrently. Other application instances may register the same bean type
+   * concurrently. If the insertion of a type name fails, the registered types are loaded again to resolve the discriminator of the
+   * other instance.
+   *
+   * @param pBeanTypes the bean types to register
+   * @param pBuilder   a builder to execute SQL statements
+   * @return the discriminator for every given bean type
+   */
+  static synchronized Map<Class<? extends IBean>, Integer> registerBeanTypes(Set<Class<? extends IBean>> pBeanTypes, OJSQLBuilder pBuilder)
+  {
+    pBuilder.ifTableNotExistingCreate(BEAN_TYPE_TABLE_NAME, pCreate -> pCreate //
+        .withIdColumn() //
+        .columns(TYPE_NAME_COLUMN_DEFINITION) //
+        .create());
+
+    final Map<String, Integer> registeredTypes = _loadRegisteredTypes(pBuilder);
+    final Map<Class<? extends IBean>, Integer> discriminators = new HashMap<>();
+
+    for (Class<? extends IBean> beanType : pBeanTypes)
+    {
+      if (!registeredTypes.containsKey(beanType.getName()))
+      {
+        try
+        {
+          pBuilder.doInsert(pInsert -> pInsert //
+              .into(BEAN_TYPE_TABLE_NAME) //
+              .values(IColumnValueTuple.of(TYPE_NAME_COLUMN, beanType.getName())) //
+              .insert());
+        }
+        catch (OJDatabaseException pE)
+        {
+          //The type may have been registered by another instance in the meantime
+          if (!_loadRegisteredTypes(pBuilder).containsKey(beanType.getName()))
+            throw pE;
+        }
+
+        registeredTypes.putAll(_loadRegisteredTypes(pBuilder));
+      }
+
+      discriminators.put(beanType, registeredTypes.get(beanType.getName()));
+    }
+
+    return discriminators;
+  }
+
+  /**
+   * Loads all registered bean type names with their discriminators.
+   * If a type name has been registered multiple times, the smallest id is its discriminator.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @return the discriminators of all registered bean types by type name
+   */
+  private static Map<String, Integer> _loadRegisteredTypes(OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelect(pSelect -> pSelect //
+        .select(TYPE_ID_COLUMN, TYPE_NAME_COLUMN) //
+        .from(BEAN_TYPE_TABLE_NAME) //
+        .fullResult() //
+        .stream() //
+        .collect(Collectors.toMap(pRow -> pRow.get(TYPE_NAME_COLUMN), pRow -> Math.toIntExact(pRow.get(TYPE_ID_COLUMN)), Math::min)));
+  }
+}
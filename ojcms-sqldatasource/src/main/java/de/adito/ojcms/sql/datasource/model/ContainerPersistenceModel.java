@@ -1,38 +1,49 @@
 package de.adito.ojcms.sql.datasource.model;
 
 import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.beans.annotations.Identifier;
 import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.beans.util.BeanReflector;
 import de.adito.ojcms.sql.datasource.model.column.*;
-import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.*;
 import de.adito.ojcms.sqlbuilder.definition.*;
 import de.adito.ojcms.sqlbuilder.definition.column.*;
 import de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 import de.adito.ojcms.sqlbuilder.result.ResultRow;
+import de.adito.ojcms.sqlbuilder.statements.types.select.*;
 import de.adito.ojcms.transactions.api.*;
-import de.adito.ojcms.transactions.exceptions.BeanDataNotFoundException;
+import de.adito.ojcms.transactions.exceptions.*;
 import de.adito.ojcms.utils.StringUtility;
 
+import java.sql.Statement;
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.*;
 import java.util.stream.Collectors;
 
 import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
 import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.*;
 import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
-import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.greaterThan;
 import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.greaterThanOrEqual;
 import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.isEqual;
-import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereConditionsForId.create;
-import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereOperator.greaterThan;
-import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereOperator.lessThan;
+import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.lessThan;
 import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.*;
 
 /**
  * The persistence model for a database table for a persistent bean container.
  * Provides meta information to initialize the database table.
  * Also handles the requesting of bean data and processing of changes.
+ * <p>
+ * By default the order of the beans is stored in a dense index column, so additions and removals shift the indexes of all following rows.
+ * Alternatively rows carry sparse {@link OrderingKeys}. The dense index of a row is then derived from its rank by ordered queries,
+ * so additions and removals only touch the added or removed rows (until the gaps between the keys are exhausted).
+ * The ranks of rows found by other criteria are determined within the same statement. Indexes are translated to ordering keys
+ * for a window of rows at once and these translations are kept per transaction (see {@link OrderingKeyTranslations}).
+ * <p>
+ * New rows and value changes of multiple beans are sent to the database in JDBC batches of the configured size.
+ * <p>
+ * The ordering column and every identifier field are backed by secondary indexes that are maintained on initialization.
  *
  * @author Simon Danner, 01.01.2020
  */
@@ -40,77 +51,218 @@ public class ContainerPersistenceModel implements IPersistenceModel
 {
   private static final IColumnDefinition INDEX_COLUMN_DEFINITION = IColumnDefinition.of(INDEX_COLUMN_NAME, EColumnType.INT.create());
   protected static final IColumnIdentification<Integer> INDEX_COLUMN = IColumnIdentification.of(INDEX_COLUMN_NAME, Integer.class);
+  private static final IColumnDefinition ORDER_KEY_COLUMN_DEFINITION =
+      IColumnDefinition.of(ORDER_KEY_COLUMN_NAME, EColumnType.LONG.create());
+  private static final IColumnIdentification<Long> ORDER_KEY_COLUMN = IColumnIdentification.of(ORDER_KEY_COLUMN_NAME, Long.class);
+  private static final int ORDERING_KEY_TRANSLATION_WINDOW = 100;
+  private static final IColumnIdentification<Long> ROW_ID_COLUMN = IColumnIdentification.of(ID_COLUMN, Long.class);
+  private static final IColumnDefinition ROW_VERSION_COLUMN_DEFINITION =
+      IColumnDefinition.of(ROW_VERSION_COLUMN_NAME, EColumnType.LONG.create());
+  private static final IColumnIdentification<Long> ROW_VERSION_COLUMN = IColumnIdentification.of(ROW_VERSION_COLUMN_NAME, Long.class);
 
   protected final String containerId;
+  private final boolean useRowVersions;
+  private final boolean useSparseOrderingKeys;
+  private final int statementBatchSize;
   private final Set<IColumnDefinition> columnDefinitions;
   private final Set<BeanColumnIdentification<?>> beanColumnIdentifications;
   private final Set<IColumnIdentification<?>> columnsToSelect;
+  private volatile boolean batchUpdateCountsUnknown;
 
   /**
    * Initializes the persistence model for a persistent bean container.
    *
-   * @param pContainerId the container id of the persistent container
-   * @param pBeanType    the types of the beans in the container
+   * @param pContainerId           the container id of the persistent container
+   * @param pBeanType              the types of the beans in the container
+   * @param pUseRowVersions        <tt>true</tt> if the rows should be versioned for optimistic concurrency control
+   * @param pUseSparseOrderingKeys <tt>true</tt> if the order of the rows should be stored by sparse ordering keys
+   * @param pStatementBatchSize    the maximum amount of statements per JDBC batch
    */
-  ContainerPersistenceModel(String pContainerId, Class<? extends IBean> pBeanType)
+  ContainerPersistenceModel(String pContainerId, Class<? extends IBean> pBeanType, boolean pUseRowVersions, boolean pUseSparseOrderingKeys,
+                            int pStatementBatchSize)
   {
-    this(pContainerId, BeanColumnDefinition.ofFields(BeanReflector.reflectBeanFields(pBeanType)));
+    this(pContainerId, BeanColumnDefinition.ofFields(BeanReflector.reflectBeanFields(pBeanType)), pUseRowVersions,
+        pUseSparseOrderingKeys, pStatementBatchSize);
   }
 
   /**
    * Initializes the persistence model for a persistent bean container.
    *
-   * @param pContainerId      the container id of the persistent container
-   * @param pColumns          the bean based column definitions for this container model
-   * @param pAdditionsColumns optional additional columns to select
+   * @param pContainerId           the container id of the persistent container
+   * @param pColumns               the bean based column definitions for this container model
+   * @param pUseRowVersions        <tt>true</tt> if the rows should be versioned for optimistic concurrency control
+   * @param pUseSparseOrderingKeys <tt>true</tt> if the order of the rows should be stored by sparse ordering keys
+   * @param pStatementBatchSize    the maximum amount of statements per JDBC batch
+   * @param pAdditionsColumns      optional additional columns to select
    */
-  ContainerPersistenceModel(String pContainerId, Set<BeanColumnDefinition<?>> pColumns, IColumnIdentification<?>... pAdditionsColumns)
+  ContainerPersistenceModel(String pContainerId, Set<BeanColumnDefinition<?>> pColumns, boolean pUseRowVersions,
+                            boolean pUseSparseOrderingKeys, int pStatementBatchSize, IColumnIdentification<?>... pAdditionsColumns)
   {
     containerId = StringUtility.requireNotEmpty(pContainerId, "container id");
+    useRowVersions = pUseRowVersions;
+    useSparseOrderingKeys = pUseSparseOrderingKeys;
+    statementBatchSize = pStatementBatchSize;
     columnDefinitions = new HashSet<>(pColumns);
     beanColumnIdentifications = pColumns.stream().map(BeanColumnDefinition::toColumnIdentification).collect(toSet());
 
     columnsToSelect = new HashSet<>();
-    columnsToSelect.add(INDEX_COLUMN);
+    columnsToSelect.add(useSparseOrderingKeys ? ORDER_KEY_COLUMN : INDEX_COLUMN);
     columnsToSelect.addAll(beanColumnIdentifications);
     columnsToSelect.addAll(Arrays.asList(pAdditionsColumns));
+
+    if (useRowVersions)
+    {
+      columnDefinitions.add(ROW_VERSION_COLUMN_DEFINITION);
+      columnsToSelect.add(ROW_ID_COLUMN);
+      columnsToSelect.add(ROW_VERSION_COLUMN);
+    }
   }
 
   @Override
-  public void initModelInDatabase(OJSQLBuilder pBuilder)
+  public void initModelInDatabase(OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
   {
-    if (!pBuilder.hasTable(containerId))
+    if (!pSchema.hasTable(containerId))
       pBuilder.doCreate(pCreate -> pCreate //
           .tableName(containerId) //
           .withIdColumn() //
           .columns(getColumnsToCreateInitially()) //
+          .indexes(_indexesToMaintain()) //
           .create());
     else
     {
-      final Set<String> existingColumnNames = pBuilder.getAllColumnNames(containerId);
+      //Dropped columns may have taken indexes with them, so the snapshot is outdated then
+      final boolean columnsChanged = _adaptColumns(pBuilder, pSchema);
+      _adaptIndexes(pBuilder, columnsChanged ? pBuilder.getAllIndexNames(containerId) : pSchema.getIndexNames(containerId));
+    }
+  }
+
+  @Override
+  public String describeStructure(IDatabasePlatform pPlatform)
+  {
+    final String columns = columnDefinitions.stream() //
+        .map(pColumn -> pColumn.toStatementFormat(pPlatform, ID_COLUMN)) //
+        .sorted() //
+        .collect(joining(", "));
+
+    return "container " + containerId + " (sparse=" + useSparseOrderingKeys + ", columns=[" + columns + "])";
+  }
+
+  /**
+   * Adds new and drops obsolete columns of an existing container table.
+   * Migrates the table if it has been stored in the other ordering mode before.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @param pSchema  a snapshot of the database schema before the initialization
+   * @return <tt>true</tt> if the columns of the table have been changed
+   */
+  private boolean _adaptColumns(OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
+  {
+    final Set<String> existingColumnNames = pSchema.getColumnNames(containerId);
+    final IColumnDefinition orderingColumn = useSparseOrderingKeys ? ORDER_KEY_COLUMN_DEFINITION : INDEX_COLUMN_DEFINITION;
+    final boolean hasOrderingColumn = existingColumnNames.contains(orderingColumn.getColumnName());
+
+    final Set<IColumnDefinition> columnsToAdd = columnDefinitions.stream() //
+        .filter(pColumn -> !existingColumnNames.contains(pColumn.getColumnName())) //
+        .collect(toSet());
+
+    if (!hasOrderingColumn)
+      columnsToAdd.add(orderingColumn);
 
-      final Set<IColumnDefinition> columnsToAdd = columnDefinitions.stream() //
-          .filter(pColumn -> !existingColumnNames.contains(pColumn.getColumnName())) //
-          .collect(toSet());
+    //After the removal the remaining columns must be dropped
+    existingColumnNames.remove(ID_COLUMN);
+    existingColumnNames.remove(INDEX_COLUMN_NAME);
+    existingColumnNames.remove(ORDER_KEY_COLUMN_NAME);
+    existingColumnNames.remove(BEAN_TYPE_COLUMN_NAME);
+    existingColumnNames.remove(BEAN_TYPE_ID_COLUMN_NAME);
+    existingColumnNames.removeAll(columnDefinitions.stream() //
+        .map(IColumnDefinition::getColumnName) //
+        .collect(toSet()));
 
-      //After the removal the remaining columns must be dropped
-      existingColumnNames.remove(ID_COLUMN);
-      existingColumnNames.remove(INDEX_COLUMN_NAME);
-      existingColumnNames.remove(BEAN_TYPE_COLUMN_NAME);
-      existingColumnNames.removeAll(columnDefinitions.stream() //
-          .map(IColumnDefinition::getColumnName) //
-          .collect(toSet()));
+    if (existingColumnNames.isEmpty() && columnsToAdd.isEmpty())
+      return false;
 
-      if (existingColumnNames.isEmpty() && columnsToAdd.isEmpty())
-        return;
+    //Add new columns and drop obsolete columns
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(containerId) //
+        .columnsToAdd(columnsToAdd) //
+        .columnsToDrop(existingColumnNames) //
+        .alter());
 
-      //Add new columns and drop obsolete columns
-      pBuilder.doAlterTable(pAlter -> pAlter //
+    //Existing rows start with the initial version
+    if (columnsToAdd.contains(ROW_VERSION_COLUMN_DEFINITION))
+      pBuilder.doUpdate(pUpdate -> pUpdate //
           .table(containerId) //
-          .columnsToAdd(columnsToAdd) //
-          .columnsToDrop(existingColumnNames) //
-          .alter());
-    }
+          .set(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L)) //
+          .update());
+
+    //The container has been stored in the other ordering mode before
+    if (!hasOrderingColumn)
+      _migrateOrdering(pBuilder);
+
+    return true;
+  }
+
+  /**
+   * Creates missing and drops obsolete secondary indexes of an existing container table.
+   * Only indexes named by this model are considered, other indexes of the table are left untouched.
+   *
+   * @param pBuilder            a builder to execute SQL statements
+   * @param pExistingIndexNames the names of all existing indexes of the table
+   */
+  private void _adaptIndexes(OJSQLBuilder pBuilder, Set<String> pExistingIndexNames)
+  {
+    final String ownIndexPrefix = _indexNameOf("").toUpperCase();
+    final Set<String> existingIndexNames = pExistingIndexNames.stream() //
+        .map(String::toUpperCase) //
+        .filter(pIndexName -> pIndexName.startsWith(ownIndexPrefix)) //
+        .collect(toSet());
+
+    final List<IIndexDefinition> indexesToCreate = _indexesToMaintain().stream() //
+        .filter(pIndex -> !existingIndexNames.remove(pIndex.getIndexName().toUpperCase())) //
+        .collect(toList());
+
+    if (indexesToCreate.isEmpty() && existingIndexNames.isEmpty())
+      return;
+
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(containerId) //
+        .indexesToDrop(existingIndexNames) //
+        .indexesToCreate(indexesToCreate) //
+        .alter());
+  }
+
+  /**
+   * The secondary indexes this model maintains for the container table.
+   * The ordering column is indexed for lookups by index and index shifts, every identifier field for lookups by identifiers.
+   *
+   * @return a list of index definitions
+   */
+  private List<IIndexDefinition> _indexesToMaintain()
+  {
+    final List<IIndexDefinition> indexes = new ArrayList<>();
+    final String orderingColumnName = useSparseOrderingKeys ? ORDER_KEY_COLUMN_NAME : INDEX_COLUMN_NAME;
+    indexes.add(IIndexDefinition.of(_indexNameOf(orderingColumnName), orderingColumnName));
+
+    columnDefinitions.stream() //
+        .filter(pColumn -> pColumn instanceof BeanColumnDefinition) //
+        .map(pColumn -> ((BeanColumnDefinition<?>) pColumn).getBeanField()) //
+        .filter(pField -> pField.hasAnnotation(Identifier.class)) //
+        .map(IField::getName) //
+        .sorted() //
+        .forEach(pColumnName -> indexes.add(IIndexDefinition.of(_indexNameOf(pColumnName), pColumnName)));
+
+    return indexes;
+  }
+
+  /**
+   * The name of a secondary index of the container table maintained by this model.
+   *
+   * @param pColumnName the name of the indexed column
+   * @return the name of the index
+   */
+  private String _indexNameOf(String pColumnName)
+  {
+    return INDEX_NAME_PREFIX + containerId + "_" + pColumnName;
   }
 
   /**
@@ -133,7 +285,57 @@ public class ContainerPersistenceModel implements IPersistenceModel
    */
   public PersistentBeanData loadDataByIndex(InitialIndexKey pKey, OJSQLBuilder pBuilder)
   {
-    return selectSingleResultByIndex(pKey, columnsToSelect, pBuilder, this::_toBeanData);
+    return loadDataByIndex(pKey, new OrderingKeyTranslations(), pBuilder);
+  }
+
+  /**
+   * Loads persistent bean data from a container by index.
+   * With sparse ordering keys the index is translated by the given translations of the transaction.
+   *
+   * @param pKey          the index based to key to identify the bean to load
+   * @param pTranslations the translations of indexes to ordering keys of the current transaction
+   * @param pBuilder      a builder to execute SQL statements
+   * @return the loaded persistent bean data
+   */
+  public PersistentBeanData loadDataByIndex(InitialIndexKey pKey, OrderingKeyTranslations pTranslations, OJSQLBuilder pBuilder)
+  {
+    return selectSingleResultByIndex(pKey, columnsToSelect, pTranslations, pBuilder, pRow -> _toBeanData(pKey.getIndex(), pRow));
+  }
+
+  /**
+   * Loads persistent bean data from a container for an index range with a single query.
+   *
+   * @param pFromIndex the first index of the range (inclusive)
+   * @param pToIndex   the end of the range (exclusive)
+   * @param pBuilder   a builder to execute SQL statements
+   * @return the loaded persistent bean data mapped by index
+   */
+  public Map<Integer, PersistentBeanData> loadDataByIndexRange(int pFromIndex, int pToIndex, OJSQLBuilder pBuilder)
+  {
+    if (!useSparseOrderingKeys)
+      return pBuilder.doSelect(pSelect -> pSelect //
+          .select(columnsToSelect) //
+          .from(containerId) //
+          .where(greaterThanOrEqual(INDEX_COLUMN, pFromIndex), lessThan(INDEX_COLUMN, pToIndex)) //
+          .fullResult() //
+          .stream() //
+          .map(pRow -> _toBeanData(pRow.get(INDEX_COLUMN), pRow)) //
+          .collect(Collectors.toMap(PersistentBeanData::getIndex, identity())));
+
+    if (pToIndex <= pFromIndex)
+      return new HashMap<>();
+
+    final List<ResultRow> rows = pBuilder.doSelect(pSelect -> pSelect //
+        .select(columnsToSelect) //
+        .from(containerId) //
+        .orderBy(ORDER_KEY_COLUMN) //
+        .offset(pFromIndex) //
+        .limit(pToIndex - pFromIndex) //
+        .fullResult() //
+        .stream() //
+        .collect(toList()));
+
+    return _toBeanDataByRank(pFromIndex, rows);
   }
 
   /**
@@ -145,12 +347,50 @@ public class ContainerPersistenceModel implements IPersistenceModel
    */
   public Optional<PersistentBeanData> loadDataByIdentifiers(Map<IField<?>, Object> pIdentifiers, OJSQLBuilder pBuilder)
   {
-    return pBuilder.doSelect(pSelect -> pSelect //
-        .select(columnsToSelect) //
-        .from(containerId) //
+    return pBuilder.doSelect(pSelect -> _selectWithIndexes(pSelect) //
         .where(BeanWhereCondition.conditionsOfMap(pIdentifiers)) //
         .firstResult() //
-        .map(this::_toBeanData));
+        .map(pRow -> _toBeanData(_indexOf(pRow), pRow)));
+  }
+
+  /**
+   * Loads the data of all beans within the persistent bean container that have specific values for certain fields.
+   * The conditions are evaluated by the database, so only matching rows are transferred.
+   * If the order is stored by sparse ordering keys, the index of every matching row is determined within the same statement.
+   *
+   * @param pFieldValues the values the beans must have mapped by field
+   * @param pBuilder     a builder to execute SQL statements
+   * @return the data of all matching beans in the order of the container
+   */
+  public List<PersistentBeanData> loadDataByFieldValues(Map<IField<?>, Object> pFieldValues, OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelect(pSelect -> _selectWithIndexes(pSelect) //
+        .where(BeanWhereCondition.conditionsOfMap(pFieldValues)) //
+        .orderBy(useSparseOrderingKeys ? ORDER_KEY_COLUMN : INDEX_COLUMN) //
+        .fullResult() //
+        .stream() //
+        .map(pRow -> _toBeanData(_indexOf(pRow), pRow)) //
+        .collect(toList()));
+  }
+
+  /**
+   * Loads all distinct non-null values of a bean field within the persistent bean container.
+   * The values are determined by the database, so every value is transferred only once.
+   *
+   * @param pField   the bean field to load the distinct values for
+   * @param pBuilder a builder to execute SQL statements
+   * @param <VALUE>  the value type of the field
+   * @return a set of all distinct values of the field
+   */
+  public <VALUE> Set<VALUE> loadDistinctValues(IField<VALUE> pField, OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelectOne(new BeanColumnIdentification<>(pField), pSelect -> pSelect //
+        .from(containerId) //
+        .distinct() //
+        .fullResult() //
+        .stream() //
+        .filter(Objects::nonNull) //
+        .collect(toSet()));
   }
 
   /**
@@ -162,57 +402,122 @@ public class ContainerPersistenceModel implements IPersistenceModel
    */
   public Map<Integer, PersistentBeanData> loadFullData(OJSQLBuilder pBuilder)
   {
-    return pBuilder.doSelect(pSelect -> pSelect //
-        .select(columnsToSelect)//
-        .from(containerId) //
-        .fullResult() //
-        .stream() //
-        .map(this::_toBeanData) //
-        .collect(Collectors.toMap(PersistentBeanData::getIndex, identity())));
+    final Map<Integer, PersistentBeanData> fullData = new HashMap<>();
+    loadFullData(0, pBeanData -> fullData.put(pBeanData.getIndex(), pBeanData), pBuilder);
+    return fullData;
+  }
+
+  /**
+   * Performs a full data load for the persistent bean container and provides the data bean by bean in the order of the container.
+   * The rows are read from an open cursor, so the data of the whole container is never held in memory at once.
+   * The consumer is called while the cursor is open.
+   *
+   * @param pFetchSize        the amount of rows the database driver should fetch at once, zero for the default of the driver
+   * @param pBeanDataConsumer a consumer for the data of every bean within this container
+   * @param pBuilder          a builder to execute SQL statements
+   */
+  public void loadFullData(int pFetchSize, Consumer<PersistentBeanData> pBeanDataConsumer, OJSQLBuilder pBuilder)
+  {
+    final int[] rank = {0};
+
+    pBuilder.doSelect(pSelect ->
+    {
+      pSelect //
+          .select(columnsToSelect) //
+          .from(containerId) //
+          .orderBy(useSparseOrderingKeys ? ORDER_KEY_COLUMN : INDEX_COLUMN) //
+          .fetchSize(pFetchSize) //
+          .fullResult() //
+          .forEach(pRow -> pBeanDataConsumer
+              .accept(_toBeanData(useSparseOrderingKeys ? rank[0]++ : pRow.get(INDEX_COLUMN), pRow)));
+      return null;
+    });
   }
 
   /**
    * Process values changes of a bean within the persistent bean container.
+   * If rows are versioned, the row will only be updated if its version is still the version the changes are based on.
    *
    * @param pIndex         the index of the bean the values have been changed
    * @param pChangedValues the changed value as field value tuples
+   * @param pVersion       the version of the bean data the changes are based on, null if unknown
    * @param pBuilder       a builder to execute SQL statements
+   * @throws ConcurrentTransactionException if the versioned row has been changed by another transaction or application instance
    */
-  public void processValueChanges(int pIndex, Map<IField<?>, Object> pChangedValues, OJSQLBuilder pBuilder)
+  public void processValueChanges(int pIndex, Map<IField<?>, Object> pChangedValues, Object pVersion, OJSQLBuilder pBuilder)
   {
-    pBuilder.doUpdate(pUpdate -> pUpdate //
-        .table(containerId) //
-        .set(BeanColumnValueTuple.ofMap(pChangedValues)) //
-        .where(isEqual(INDEX_COLUMN, pIndex)) //
-        .update());
+    final Map<Integer, Object> versionsByIndex = new HashMap<>();
+    if (pVersion != null)
+      versionsByIndex.put(pIndex, pVersion);
+
+    processValueChanges(Collections.singletonMap(pIndex, pChangedValues), versionsByIndex, pBuilder);
+  }
+
+  /**
+   * Process values changes of multiple beans within the persistent bean container.
+   * The updates are executed in JDBC batches, updates of the same columns share one prepared statement.
+   * If rows are versioned, a row will only be updated if its version is still the version the changes are based on.
+   *
+   * @param pChangedValuesByIndex the changed values as field value tuples grouped by the index of the changed bean
+   * @param pVersionsByIndex      the versions of the bean data the changes are based on grouped by index (only required for row versions)
+   * @param pBuilder              a builder to execute SQL statements
+   * @throws ConcurrentTransactionException if a versioned row has been changed by another transaction or application instance
+   */
+  public void processValueChanges(Map<Integer, Map<IField<?>, Object>> pChangedValuesByIndex, Map<Integer, Object> pVersionsByIndex,
+                                  OJSQLBuilder pBuilder)
+  {
+    if (pChangedValuesByIndex.isEmpty())
+      return;
+
+    if (useRowVersions)
+    {
+      _processVersionedValueChanges(pChangedValuesByIndex, pVersionsByIndex, pBuilder);
+      return;
+    }
+
+    final Map<Integer, IWhereCondition<?>> rowConditions = _rowConditionsByIndex(pChangedValuesByIndex.keySet(), pBuilder);
+
+    pBuilder.doBatch(statementBatchSize, pBatch -> pChangedValuesByIndex.forEach((pIndex, pChangedValues) -> pBatch //
+        .addUpdate(pUpdate -> pUpdate //
+            .table(containerId) //
+            .set(BeanColumnValueTuple.ofMap(pChangedValues)) //
+            .where(rowConditions.get(pIndex)) //
+            .update())));
   }
 
   /**
    * Processes bean additions for the persistent bean container.
+   * With a dense index the existing rows are shifted by an {@link IndexShiftPlanner} before the new rows are inserted at their final
+   * indexes. With sparse ordering keys the new rows receive keys between their existing neighbours.
    *
-   * @param pBeanAdditions data of all added beans
+   * @param pBeanAdditions data of all added beans (the indexes are the final indexes after all additions)
    * @param pBuilder       a builder to execute SQL statements
    */
   public void processAdditions(Set<BeanAddition> pBeanAdditions, OJSQLBuilder pBuilder)
   {
-    for (BeanAddition addition : pBeanAdditions)
+    if (useSparseOrderingKeys)
     {
-      //Increase index of every row above the inserted index
-      pBuilder.doUpdate(pUpdate -> pUpdate //
-          .table(containerId) //
-          .adaptNumericValue(of(INDEX_COLUMN, ADD, 1)) //
-          .where(greaterThanOrEqual(INDEX_COLUMN, addition.getIndex())) //
-          .update());
-
-      pBuilder.doInsert(pInsert -> pInsert //
-          .into(containerId) //
-          .values(tuplesToInsertForNewBean(addition)) //
-          .insert());
+      _processAdditionsWithOrderingKeys(pBeanAdditions, pBuilder);
+      return;
     }
+
+    final List<Integer> finalIndexes = pBeanAdditions.stream() //
+        .map(BeanAddition::getIndex) //
+        .collect(Collectors.toList());
+
+    IndexShiftPlanner.planAdditions(finalIndexes).forEach(pShift -> _shiftIndexes(pShift, pBuilder));
+
+    pBuilder.doBatch(statementBatchSize, pBatch ->
+    {
+      for (BeanAddition addition : pBeanAdditions)
+        _addInsert(addition, IColumnValueTuple.of(INDEX_COLUMN, addition.getIndex()), pBatch);
+    });
   }
 
   /**
    * Processes bean removals for the persistent bean container.
+   * With a dense index the remaining rows are shifted by an {@link IndexShiftPlanner} after the deletion.
+   * With sparse ordering keys the remaining rows stay untouched.
    *
    * @param pKeysToRemove a collection of index based keys to remove
    * @param pBuilder      a builder to execute SQL statements
@@ -224,53 +529,75 @@ public class ContainerPersistenceModel implements IPersistenceModel
         .sorted() //
         .collect(Collectors.toList());
 
+    if (useSparseOrderingKeys)
+    {
+      //Resolve all keys before the deletion changes the ranks
+      final int lowestIndex = indexesToDelete.get(0);
+      final List<Long> keysInRange =
+          _orderingKeysInRange(lowestIndex, indexesToDelete.get(indexesToDelete.size() - 1) - lowestIndex + 1, pBuilder);
+      final List<Long> keysToDelete = indexesToDelete.stream() //
+          .filter(pIndex -> pIndex - lowestIndex < keysInRange.size()) //
+          .map(pIndex -> keysInRange.get(pIndex - lowestIndex)) //
+          .collect(Collectors.toList());
+
+      pBuilder.doDelete(pDelete -> pDelete //
+          .from(containerId) //
+          .where(IWhereCondition.in(ORDER_KEY_COLUMN, keysToDelete)) //
+          .delete());
+      return;
+    }
+
     pBuilder.doDelete(pDelete -> pDelete //
         .from(containerId) //
         .where(IWhereCondition.in(INDEX_COLUMN, indexesToDelete)) //
         .delete());
 
-    //Update all indexes between the deleted indexes
-    for (int i = 0; i < indexesToDelete.size() - 1; i++)
-    {
-      final int indexToDelete = indexesToDelete.get(i);
-      final int nextIndexToDelete = indexesToDelete.get(i + 1);
-      final int offset = i + 1;
-
-      pBuilder.doUpdate(pUpdate -> pUpdate //
-          .table(containerId) //
-          .adaptNumericValue(of(INDEX_COLUMN, SUBTRACT, offset)) //
-          .whereId(create(greaterThan(), indexToDelete).and(lessThan(), nextIndexToDelete)) //
-          .update());
-    }
-
-    //Update all row indexes after the last index to delete
-    pBuilder.doUpdate(pUpdate -> pUpdate //
-        .table(containerId) //
-        .adaptNumericValue(of(INDEX_COLUMN, SUBTRACT, indexesToDelete.size())) //
-        .where(greaterThan(INDEX_COLUMN, indexesToDelete.get(indexesToDelete.size() - 1))) //
-        .update());
+    IndexShiftPlanner.planRemovals(indexesToDelete).forEach(pShift -> _shiftIndexes(pShift, pBuilder));
   }
 
   /**
    * Selects a generic result from a single row in the database by index.
    * Throws a {@link BeanDataNotFoundException} if there is not data at the given index.
+   * <p>
+   * With sparse ordering keys the row is selected by its ordering key. The index is translated by the translations of the transaction.
+   * If there is no translation for the index yet or if the translated row does not exist anymore, the ordering keys of a window of
+   * rows starting at the index are resolved by one ordered query and registered for further loads.
    *
    * @param pIndexKey        the index based key to determine the row to select
    * @param pColumnsToSelect the columns to select from the single row
+   * @param pTranslations    the translations of indexes to ordering keys of the current transaction
    * @param pBuilder         a builder to execute SQL statements
    * @param pResultMapper    a mapper to convert the single {@link ResultRow} to the requested result
    * @return the generic result for the single row
    */
   protected <RESULT> RESULT selectSingleResultByIndex(InitialIndexKey pIndexKey, Set<IColumnIdentification<?>> pColumnsToSelect,
-                                                      OJSQLBuilder pBuilder, Function<ResultRow, RESULT> pResultMapper)
+                                                      OrderingKeyTranslations pTranslations, OJSQLBuilder pBuilder,
+                                                      Function<ResultRow, RESULT> pResultMapper)
   {
-    return pBuilder.doSelect(pSelect -> pSelect //
-        .select(pColumnsToSelect) //
-        .from(containerId) //
-        .where(isEqual(INDEX_COLUMN, pIndexKey.getIndex())) //
-        .firstResult() //
+    final int index = pIndexKey.getIndex();
+
+    if (!useSparseOrderingKeys)
+      return _selectSingleRow(isEqual(INDEX_COLUMN, index), pColumnsToSelect, pBuilder) //
+          .map(pResultMapper) //
+          .orElseThrow(() -> new BeanDataNotFoundException(pIndexKey));
+
+    final Optional<ResultRow> translatedRow = pTranslations.getOrderingKey(containerId, index) //
+        .flatMap(pOrderingKey -> _selectSingleRow(isEqual(ORDER_KEY_COLUMN, pOrderingKey), pColumnsToSelect, pBuilder));
+
+    if (translatedRow.isPresent())
+      return pResultMapper.apply(translatedRow.get());
+
+    //The translation is missing or outdated
+    pTranslations.invalidate(containerId);
+    final List<Long> orderingKeys = _orderingKeysInRange(index, ORDERING_KEY_TRANSLATION_WINDOW, pBuilder);
+    pTranslations.putOrderingKeys(containerId, index, orderingKeys);
+
+    if (orderingKeys.isEmpty())
+      throw new BeanDataNotFoundException(pIndexKey);
+
+    return _selectSingleRow(isEqual(ORDER_KEY_COLUMN, orderingKeys.get(0)), pColumnsToSelect, pBuilder) //
         .map(pResultMapper) //
-        .orElseThrow(() -> new BeanDataNotFoundException(pIndexKey)));
+        .orElseThrow(() -> new BeanDataNotFoundException(pIndexKey));
   }
 
   /**
@@ -281,23 +608,25 @@ public class ContainerPersistenceModel implements IPersistenceModel
   protected List<IColumnDefinition> getColumnsToCreateInitially()
   {
     final List<IColumnDefinition> columnsToCreate = new ArrayList<>();
-    columnsToCreate.add(INDEX_COLUMN_DEFINITION);
+    columnsToCreate.add(useSparseOrderingKeys ? ORDER_KEY_COLUMN_DEFINITION : INDEX_COLUMN_DEFINITION);
     columnsToCreate.addAll(columnDefinitions);
     return columnsToCreate;
   }
 
   /**
    * Creates a list of {@link IColumnValueTuple} to perform an insertion based on some {@link PersistentBeanData}.
-   * The index value tuple will be included as well.
+   * The value tuple for the ordering column will be added by the caller.
    *
    * @param pBeanAddition data describing the addition
    * @return a list of column value tuples for an insertion
    */
   protected List<IColumnValueTuple<?>> tuplesToInsertForNewBean(BeanAddition pBeanAddition)
   {
-    final List<IColumnValueTuple<?>> tuplesToInsert = new ArrayList<>();
-    tuplesToInsert.add(IColumnValueTuple.of(INDEX_COLUMN, pBeanAddition.getIndex()));
-    tuplesToInsert.addAll(BeanColumnValueTuple.ofMap(pBeanAddition.getData()));
+    final List<IColumnValueTuple<?>> tuplesToInsert = new ArrayList<>(BeanColumnValueTuple.ofMap(pBeanAddition.getData()));
+
+    if (useRowVersions)
+      tuplesToInsert.add(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L));
+
     return tuplesToInsert;
   }
 
@@ -312,16 +641,365 @@ public class ContainerPersistenceModel implements IPersistenceModel
     return pResultRow.toMap(beanColumnIdentifications, BeanColumnIdentification::getBeanField);
   }
 
+  /**
+   * Executes a single planned index shift for all rows within the shift's index range.
+   *
+   * @param pShift   the index shift to execute
+   * @param pBuilder a builder to execute SQL statements
+   */
+  private void _shiftIndexes(IndexShiftPlanner.IndexShift pShift, OJSQLBuilder pBuilder)
+  {
+    final int offset = pShift.getOffset();
+    final List<IWhereCondition<?>> conditions = new ArrayList<>();
+    conditions.add(greaterThanOrEqual(INDEX_COLUMN, pShift.getFromIndex()));
+
+    if (!pShift.isUnbounded())
+      conditions.add(lessThan(INDEX_COLUMN, pShift.getToIndex()));
+
+    pBuilder.doUpdate(pUpdate -> pUpdate //
+        .table(containerId) //
+        .adaptNumericValue(of(INDEX_COLUMN, offset > 0 ? ADD : SUBTRACT, Math.abs(offset))) //
+        .where(conditions) //
+        .update());
+  }
+
+  /**
+   * Adds the insertion of a new row for an added bean to a statement batch.
+   *
+   * @param pAddition      data describing the addition
+   * @param pOrderingTuple the value tuple for the ordering column of the new row
+   * @param pBatch         the statement batch to add the insertion to
+   */
+  private void _addInsert(BeanAddition pAddition, IColumnValueTuple<?> pOrderingTuple, StatementBatch pBatch)
+  {
+    final List<IColumnValueTuple<?>> tuples = tuplesToInsertForNewBean(pAddition);
+    tuples.add(pOrderingTuple);
+
+    pBatch.addInsert(pInsert -> pInsert //
+        .into(containerId) //
+        .values(tuples) //
+        .insert());
+  }
+
+  /**
+   * Processes bean additions with sparse ordering keys.
+   * The additions are grouped by the existing rows they are inserted in front of. The groups are processed from the highest
+   * insertion point to the lowest, so the ranks of the existing neighbours of the remaining groups stay valid.
+   *
+   * @param pBeanAdditions data of all added beans (the indexes are the final indexes after all additions)
+   * @param pBuilder       a builder to execute SQL statements
+   */
+  private void _processAdditionsWithOrderingKeys(Set<BeanAddition> pBeanAdditions, OJSQLBuilder pBuilder)
+  {
+    final List<BeanAddition> sortedAdditions = pBeanAdditions.stream() //
+        .sorted(Comparator.comparingInt(BeanAddition::getIndex)) //
+        .collect(toList());
+
+    //The amount of existing rows before an added bean is its final index minus the beans added before
+    final NavigableMap<Integer, List<BeanAddition>> additionsByInsertionPoint = new TreeMap<>();
+    for (int i = 0; i < sortedAdditions.size(); i++)
+      additionsByInsertionPoint.computeIfAbsent(sortedAdditions.get(i).getIndex() - i, pPoint -> new ArrayList<>()) //
+          .add(sortedAdditions.get(i));
+
+    //Every group is inserted before the next one, because a rebalancing of the next group has to include the inserted rows
+    additionsByInsertionPoint.descendingMap().forEach((pInsertionPoint, pAdditions) ->
+    {
+      final List<Long> keys = _newOrderingKeys(pInsertionPoint, pAdditions.size(), pBuilder);
+      pBuilder.doBatch(statementBatchSize, pBatch ->
+      {
+        for (int i = 0; i < pAdditions.size(); i++)
+          _addInsert(pAdditions.get(i), IColumnValueTuple.of(ORDER_KEY_COLUMN, keys.get(i)), pBatch);
+      });
+    });
+  }
+
+  /**
+   * Calculates ordering keys for new rows inserted in front of an existing row.
+   * Rebalances all rows of the container if the gap between the neighbours is exhausted.
+   *
+   * @param pInsertionPoint the rank of the existing row to insert the new rows in front of
+   * @param pCount          the amount of new rows
+   * @param pBuilder        a builder to execute SQL statements
+   * @return the ascending ordering keys for the new rows
+   */
+  private List<Long> _newOrderingKeys(int pInsertionPoint, int pCount, OJSQLBuilder pBuilder)
+  {
+    final Optional<List<Long>> keys = _newOrderingKeysBetweenNeighbours(pInsertionPoint, pCount, pBuilder);
+    if (keys.isPresent())
+      return keys.get();
+
+    _rebalanceOrderingKeys(pBuilder);
+    return _newOrderingKeysBetweenNeighbours(pInsertionPoint, pCount, pBuilder) //
+        .orElseThrow(() -> new IllegalStateException("No ordering keys available after rebalancing! container: " + containerId));
+  }
+
+  /**
+   * Tries to calculate ordering keys for new rows within the gap of the existing neighbours.
+   *
+   * @param pInsertionPoint the rank of the existing row to insert the new rows in front of
+   * @param pCount          the amount of new rows
+   * @param pBuilder        a builder to execute SQL statements
+   * @return the ascending ordering keys for the new rows or empty if the gap is exhausted
+   */
+  private Optional<List<Long>> _newOrderingKeysBetweenNeighbours(int pInsertionPoint, int pCount, OJSQLBuilder pBuilder)
+  {
+    final int firstNeighbour = Math.max(pInsertionPoint - 1, 0);
+    final List<Long> neighbourKeys = _orderingKeysInRange(firstNeighbour, pInsertionPoint - firstNeighbour + 1, pBuilder);
+
+    final Long lowerKey = pInsertionPoint > 0 && !neighbourKeys.isEmpty() ? neighbourKeys.get(0) : null;
+    final int upperPosition = pInsertionPoint > 0 ? 1 : 0;
+    final Long upperKey = neighbourKeys.size() > upperPosition ? neighbourKeys.get(upperPosition) : null;
+
+    return OrderingKeys.keysBetween(lowerKey, upperKey, pCount);
+  }
+
+  /**
+   * Assigns evenly spaced ordering keys to all rows of the container without changing their order.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   */
+  private void _rebalanceOrderingKeys(OJSQLBuilder pBuilder)
+  {
+    _reassignOrdering(ORDER_KEY_COLUMN, ORDER_KEY_COLUMN, pRank -> IColumnValueTuple.of(ORDER_KEY_COLUMN, OrderingKeys.keyForRank(pRank)),
+                      pBuilder);
+  }
+
+  /**
+   * Migrates the order of the rows from the column of the other ordering mode and drops that column afterwards.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   */
+  private void _migrateOrdering(OJSQLBuilder pBuilder)
+  {
+    final IColumnIdentification<?> previousColumn = useSparseOrderingKeys ? INDEX_COLUMN : ORDER_KEY_COLUMN;
+    if (!pBuilder.getAllColumnNames(containerId).contains(previousColumn.getColumnName()))
+      return;
+
+    if (useSparseOrderingKeys)
+      _reassignOrdering(previousColumn, ORDER_KEY_COLUMN, pRank -> IColumnValueTuple.of(ORDER_KEY_COLUMN, OrderingKeys.keyForRank(pRank)),
+                        pBuilder);
+    else
+      _reassignOrdering(previousColumn, INDEX_COLUMN, pRank -> IColumnValueTuple.of(INDEX_COLUMN, pRank), pBuilder);
+
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(containerId) //
+        .columnsToDrop(previousColumn.getColumnName()) //
+        .alter());
+  }
+
+  /**
+   * Assigns a new ordering value to every row of the container based on the rank of the row by a source column.
+   * Touches every row, so this should only be used in rare cases.
+   *
+   * @param pSourceColumn the column that defines the current order of the rows
+   * @param pTargetColumn the column to assign the new values to
+   * @param pValueForRank a function to create the value tuple for a row by its rank
+   * @param pBuilder      a builder to execute SQL statements
+   */
+  private void _reassignOrdering(IColumnIdentification<?> pSourceColumn, IColumnIdentification<?> pTargetColumn,
+                                 Function<Integer, IColumnValueTuple<?>> pValueForRank, OJSQLBuilder pBuilder)
+  {
+    final List<Long> rowIds = pBuilder.doSelect(pSelect -> pSelect //
+        .withId() //
+        .from(containerId) //
+        .orderBy(pSourceColumn) //
+        .fullResult() //
+        .stream() //
+        .map(ResultRow::getId) //
+        .collect(toList()));
+
+    pBuilder.doBatch(statementBatchSize, pBatch ->
+    {
+      for (int rank = 0; rank < rowIds.size(); rank++)
+      {
+        final IColumnValueTuple<?> value = pValueForRank.apply(rank);
+        final long rowId = rowIds.get(rank);
+
+        pBatch.addUpdate(pUpdate -> pUpdate //
+            .table(containerId) //
+            .set(value) //
+            .whereId(rowId) //
+            .update());
+      }
+    });
+  }
+
+  /**
+   * Processes value changes of multiple beans with versioned rows.
+   * The rows are identified by the ids of their {@link RowVersion}, so the updates do not depend on the current indexes of the rows.
+   * The updates are only applied if the versions of the rows are still the versions the changes are based on.
+   * Every update has to report exactly one updated row. If the JDBC driver does not report the updated rows of a batch
+   * ({@link Statement#SUCCESS_NO_INFO}), a conflict cannot be ruled out. The changes are rejected then and every following
+   * versioned update of this model is executed as separate statement, which always reports the updated rows.
+   *
+   * @param pChangedValuesByIndex the changed values as field value tuples grouped by the index of the changed bean
+   * @param pVersionsByIndex      the row versions of the read bean data grouped by the index of the changed bean
+   * @param pBuilder              a builder to execute SQL statements
+   * @throws ConcurrentTransactionException if a versioned row has been changed by another transaction or application instance
+   */
+  private void _processVersionedValueChanges(Map<Integer, Map<IField<?>, Object>> pChangedValuesByIndex,
+                                             Map<Integer, Object> pVersionsByIndex, OJSQLBuilder pBuilder)
+  {
+    //Without a version the changes are not based on loaded data of this model, the next try will load the row again
+    final Map<Integer, RowVersion> readVersions = new HashMap<>();
+    for (Integer index : pChangedValuesByIndex.keySet())
+    {
+      final Object version = pVersionsByIndex.get(index);
+      if (!(version instanceof RowVersion))
+        throw new ConcurrentTransactionException(new InitialIndexKey(containerId, index));
+
+      readVersions.put(index, (RowVersion) version);
+    }
+
+    final Map<Integer, Integer> batchPositions = new HashMap<>();
+    final int batchSize = batchUpdateCountsUnknown ? 1 : statementBatchSize;
+    final int[] updatedRows = pBuilder.doBatch(batchSize, pBatch -> pChangedValuesByIndex.forEach((pIndex, pChangedValues) ->
+    {
+      final RowVersion readVersion = readVersions.get(pIndex);
+      batchPositions.put(pIndex, pBatch.addUpdate(pUpdate -> pUpdate //
+          .table(containerId) //
+          .set(BeanColumnValueTuple.ofMap(pChangedValues)) //
+          .adaptNumericValue(of(ROW_VERSION_COLUMN, ADD, 1L)) //
+          .whereId(readVersion.getRowId()) //
+          .where(isEqual(ROW_VERSION_COLUMN, readVersion.getVersion())) //
+          .update()));
+    }));
+
+    for (Map.Entry<Integer, Integer> batchPosition : batchPositions.entrySet())
+    {
+      final int updatedRowCount = updatedRows[batchPosition.getValue()];
+      if (updatedRowCount == Statement.SUCCESS_NO_INFO)
+        batchUpdateCountsUnknown = true;
+
+      //Any other count than one means the row has been changed or the update cannot be verified
+      if (updatedRowCount != 1)
+        throw new ConcurrentTransactionException(new InitialIndexKey(containerId, batchPosition.getKey()));
+    }
+  }
+
+  /**
+   * Creates the where conditions to identify the rows of beans by their indexes.
+   * With sparse ordering keys the keys of all rows are resolved by one query for the whole index span.
+   *
+   * @param pIndexes the indexes of the beans
+   * @param pBuilder a builder to execute SQL statements
+   * @return the where conditions mapped by index
+   * @throws BeanDataNotFoundException if there is no row at one of the given indexes
+   */
+  private Map<Integer, IWhereCondition<?>> _rowConditionsByIndex(Set<Integer> pIndexes, OJSQLBuilder pBuilder)
+  {
+    final Map<Integer, IWhereCondition<?>> conditions = new HashMap<>();
+
+    if (!useSparseOrderingKeys)
+    {
+      pIndexes.forEach(pIndex -> conditions.put(pIndex, isEqual(INDEX_COLUMN, pIndex)));
+      return conditions;
+    }
+
+    final int lowestIndex = Collections.min(pIndexes);
+    final List<Long> keysInRange = _orderingKeysInRange(lowestIndex, Collections.max(pIndexes) - lowestIndex + 1, pBuilder);
+
+    for (Integer index : pIndexes)
+    {
+      if (index - lowestIndex >= keysInRange.size())
+        throw new BeanDataNotFoundException(new InitialIndexKey(containerId, index));
+
+      conditions.put(index, isEqual(ORDER_KEY_COLUMN, keysInRange.get(index - lowestIndex)));
+    }
+
+    return conditions;
+  }
+
+  /**
+   * Selects some columns of a single row identified by a condition.
+   *
+   * @param pCondition       the condition to identify the row
+   * @param pColumnsToSelect the columns to select
+   * @param pBuilder         a builder to execute SQL statements
+   * @return the selected row or empty if there is no such row
+   */
+  private Optional<ResultRow> _selectSingleRow(IWhereCondition<?> pCondition, Set<IColumnIdentification<?>> pColumnsToSelect,
+                                               OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelect(pSelect -> pSelect //
+        .select(pColumnsToSelect) //
+        .from(containerId) //
+        .where(pCondition) //
+        .firstResult());
+  }
+
+  /**
+   * Prepares a select statement for the data of the beans of this container that also determines the indexes of the selected rows.
+   * With sparse ordering keys the index is the rank of the ordering key, which is determined within the same statement.
+   *
+   * @param pSelect the select statement to prepare
+   * @return the prepared select statement
+   */
+  private Select _selectWithIndexes(Select pSelect)
+  {
+    pSelect.select(columnsToSelect).from(containerId);
+    return useSparseOrderingKeys ? pSelect.withRankBy(ORDER_KEY_COLUMN) : pSelect;
+  }
+
+  /**
+   * Resolves the index of a row selected by a statement prepared via {@link #_selectWithIndexes(Select)}.
+   *
+   * @param pRow the selected row
+   * @return the index of the row
+   */
+  private int _indexOf(ResultRow pRow)
+  {
+    return useSparseOrderingKeys ? pRow.get(AbstractSelect.RANK_COLUMN) : pRow.get(INDEX_COLUMN);
+  }
+
+  /**
+   * Resolves the ordering keys of the rows within a range of ranks.
+   *
+   * @param pFromIndex the rank of the first row
+   * @param pCount     the amount of rows
+   * @param pBuilder   a builder to execute SQL statements
+   * @return the ascending ordering keys within the range (may contain less keys if the container has less rows)
+   */
+  private List<Long> _orderingKeysInRange(int pFromIndex, int pCount, OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelectOne(ORDER_KEY_COLUMN, pSelect -> pSelect //
+        .from(containerId) //
+        .orderBy(ORDER_KEY_COLUMN) //
+        .offset(pFromIndex) //
+        .limit(pCount) //
+        .fullResult() //
+        .stream() //
+        .collect(toList()));
+  }
+
+  /**
+   * Converts SQL {@link ResultRow} instances ordered by their ordering keys to {@link PersistentBeanData} mapped by index.
+   *
+   * @param pFirstIndex the index of the first row
+   * @param pRows       the ordered result rows
+   * @return the converted persistent bean data mapped by index
+   */
+  private Map<Integer, PersistentBeanData> _toBeanDataByRank(int pFirstIndex, List<ResultRow> pRows)
+  {
+    final Map<Integer, PersistentBeanData> dataByIndex = new HashMap<>();
+    for (int i = 0; i < pRows.size(); i++)
+      dataByIndex.put(pFirstIndex + i, _toBeanData(pFirstIndex + i, pRows.get(i)));
+
+    return dataByIndex;
+  }
+
   /**
    * Converts a SQL {@link ResultRow} to {@link PersistentBeanData}.
+   * If rows are versioned, the {@link RowVersion} of the row is attached to the bean data.
    *
+   * @param pIndex     the index of the row
    * @param pResultRow the SQL result row to convert
    * @return the converted persistent bean data
    */
-  private PersistentBeanData _toBeanData(ResultRow pResultRow)
+  private PersistentBeanData _toBeanData(int pIndex, ResultRow pResultRow)
   {
     final Map<IField<?>, Object> beanContent = resultRowToBeanContent(pResultRow);
-    final int index = pResultRow.get(INDEX_COLUMN);
-    return new PersistentBeanData(index, beanContent);
+    final RowVersion version = useRowVersions ? new RowVersion(pResultRow.get(ROW_ID_COLUMN), pResultRow.get(ROW_VERSION_COLUMN)) : null;
+    return new PersistentBeanData(pIndex, beanContent, version);
   }
 }
@@ -1,6 +1,7 @@
 package de.adito.ojcms.sql.datasource.model;
 
-import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.*;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 
 /**
  * Defines a generic persistence model that must be initializes in the database.
@@ -11,8 +12,41 @@ public interface IPersistenceModel
 {
   /**
    * Initializes the structures defined by this persistence model within the database.
+   * Loads a new snapshot of the database schema to compare the existing structures with.
    *
    * @param pBuilder a builder to execute SQL statements
    */
-  void initModelInDatabase(OJSQLBuilder pBuilder);
+  default void initModelInDatabase(OJSQLBuilder pBuilder)
+  {
+    initModelInDatabase(pBuilder, pBuilder.loadSchemaSnapshot());
+  }
+
+  /**
+   * Initializes the structures defined by this persistence model within the database.
+   * The existing structures are compared with a snapshot of the database schema, so the schema has not to be examined per model.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @param pSchema  a snapshot of the database schema taken before the initialization of the models
+   */
+  void initModelInDatabase(OJSQLBuilder pBuilder, SchemaSnapshot pSchema);
+
+  /**
+   * Initializes this persistence model for a database that already contains the structures defined by the model.
+   * The database schema is neither examined nor changed, only the state the model requires at runtime is loaded.
+   * Nothing has to be loaded by default.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   */
+  default void initModelForExistingStructures(OJSQLBuilder pBuilder)
+  {
+  }
+
+  /**
+   * Describes the structures defined by this persistence model within the database.
+   * Models with equal descriptions require the same structures, so the descriptions may be used to detect schema changes.
+   *
+   * @param pPlatform the database platform to describe column types for
+   * @return a textual description of the database structures of the model
+   */
+  String describeStructure(IDatabasePlatform pPlatform);
 }
@@ -0,0 +1,185 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the index shifts required to persist the additions and removals of a transaction for a container.
+ * Every row is shifted at most once by the resulting plan, so the amount of update statements only depends on the amount
+ * of distinct positions of the changes and not on the amount of changed beans.
+ * The shifts of a plan have to be executed in the given order.
+ *
+ * @author agent, 16.10.2026
+ */
+final class IndexShiftPlanner
+{
+  private IndexShiftPlanner()
+  {
+  }
+
+  /**
+   * Plans the shifts of the existing rows for bean additions. After the shifts have been executed,
+   * the added rows can be inserted at their final indexes directly.
+   * The existing rows are expected to be numbered without gaps (all removals have been processed).
+   *
+   * @param pFinalIndexes the final indexes of the added beans
+   * @return the index shifts to execute in order (from the highest rows to the lowest)
+   */
+  static List<IndexShift> planAdditions(Collection<Integer> pFinalIndexes)
+  {
+    final List<Integer> sortedIndexes = _sorted(pFinalIndexes);
+    final List<IndexShift> shifts = new ArrayList<>();
+
+    //The amount of existing rows before an added bean is its final index minus the beans added before
+    int rangeStart = -1;
+    for (int i = 0; i < sortedIndexes.size(); i++)
+    {
+      final int insertionPoint = sortedIndexes.get(i) - i;
+      if (insertionPoint == rangeStart)
+        continue;
+
+      if (rangeStart >= 0)
+        shifts.add(new IndexShift(rangeStart, insertionPoint, i));
+
+      rangeStart = insertionPoint;
+    }
+
+    if (rangeStart >= 0)
+      shifts.add(new IndexShift(rangeStart, Integer.MAX_VALUE, sortedIndexes.size()));
+
+    //Shifting upwards has to start with the highest rows to avoid that rows are moved into a range that is shifted afterwards
+    Collections.reverse(shifts);
+    return shifts;
+  }
+
+  /**
+   * Plans the shifts of the remaining rows after some rows have been removed.
+   *
+   * @param pRemovedIndexes the indexes of the removed rows
+   * @return the index shifts to execute in order (from the lowest rows to the highest)
+   */
+  static List<IndexShift> planRemovals(Collection<Integer> pRemovedIndexes)
+  {
+    final List<Integer> sortedIndexes = _sorted(pRemovedIndexes);
+    final List<IndexShift> shifts = new ArrayList<>();
+
+    for (int i = 0; i < sortedIndexes.size(); i++)
+    {
+      final int removedIndex = sortedIndexes.get(i);
+      final boolean isLast = i == sortedIndexes.size() - 1;
+      final int nextRemovedIndex = isLast ? Integer.MAX_VALUE : sortedIndexes.get(i + 1);
+
+      //Consecutive removed rows leave no rows to shift in between
+      if (nextRemovedIndex > removedIndex + 1)
+        shifts.add(new IndexShift(removedIndex + 1, nextRemovedIndex, -(i + 1)));
+    }
+
+    return shifts;
+  }
+
+  /**
+   * Sorts a collection of indexes and removes duplicates.
+   *
+   * @param pIndexes the indexes to sort
+   * @return the sorted distinct indexes
+   */
+  private static List<Integer> _sorted(Collection<Integer> pIndexes)
+  {
+    return pIndexes.stream() //
+        .distinct() //
+        .sorted() //
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Shift of the indexes of all rows within an index range by a specific offset.
+   */
+  static final class IndexShift
+  {
+    private final int fromIndex;
+    private final int toIndex;
+    private final int offset;
+
+    /**
+     * Creates a new index shift.
+     *
+     * @param pFromIndex the first index of the range (inclusive)
+     * @param pToIndex   the end of the range (exclusive), {@link Integer#MAX_VALUE} if unbounded
+     * @param pOffset    the offset to add to the indexes
+     */
+    IndexShift(int pFromIndex, int pToIndex, int pOffset)
+    {
+      fromIndex = pFromIndex;
+      toIndex = pToIndex;
+      offset = pOffset;
+    }
+
+    /**
+     * The first index of the range to shift (inclusive).
+     *
+     * @return the first index of the range
+     */
+    int getFromIndex()
+    {
+      return fromIndex;
+    }
+
+    /**
+     * The end of the range to shift (exclusive).
+     *
+     * @return the end index of the range or {@link Integer#MAX_VALUE} if unbounded
+     */
+    int getToIndex()
+    {
+      return toIndex;
+    }
+
+    /**
+     * Determines if the range to shift is unbounded at the end.
+     *
+     * @return <tt>true</tt> if all rows from the first index on have to be shifted
+     */
+    boolean isUnbounded()
+    {
+      return toIndex == Integer.MAX_VALUE;
+    }
+
+    /**
+     * The offset to add to the indexes within the range.
+     *
+     * @return the offset (negative for shifts downwards)
+     */
+    int getOffset()
+    {
+      return offset;
+    }
+
+    @Override
+    public boolean equals(Object pOther)
+    {
+      if (this == pOther)
+        return true;
+      if (pOther == null || getClass() != pOther.getClass())
+        return false;
+
+      final IndexShift that = (IndexShift) pOther;
+      return fromIndex == that.fromIndex && toIndex == that.toIndex && offset == that.offset;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(fromIndex, toIndex, offset);
+    }
+
+    @Override
+    public String toString()
+    {
+      return getClass().getSimpleName() + "{" + //
+          "fromIndex=" + fromIndex + //
+          ", toIndex=" + toIndex + //
+          ", offset=" + offset + //
+          '}';
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+
+import java.util.*;
+
+/**
+ * The translations of indexes to sparse {@link OrderingKeys} of persistent containers resolved within a transaction.
+ * The ordering keys are resolved for a window of indexes at once, so repeated loads by index within the transaction only require
+ * a lookup by ordering key instead of an ordered query that skips all preceding rows.
+ *
+ * @author agent, 17.10.2026
+ */
+@TransactionalScoped
+public class OrderingKeyTranslations
+{
+  private final Map<String, Map<Integer, Long>> orderingKeysByContainer = new HashMap<>();
+
+  /**
+   * Resolves the translated ordering key for an index of a container.
+   *
+   * @param pContainerId the id of the container
+   * @param pIndex       the index to translate
+   * @return the ordering key of the row at the index or empty if not translated yet
+   */
+  Optional<Long> getOrderingKey(String pContainerId, int pIndex)
+  {
+    return Optional.ofNullable(orderingKeysByContainer.getOrDefault(pContainerId, Collections.emptyMap()).get(pIndex));
+  }
+
+  /**
+   * Registers the ordering keys of consecutive indexes of a container.
+   *
+   * @param pContainerId  the id of the container
+   * @param pFirstIndex   the index of the first ordering key
+   * @param pOrderingKeys the ascending ordering keys starting at the first index
+   */
+  void putOrderingKeys(String pContainerId, int pFirstIndex, List<Long> pOrderingKeys)
+  {
+    final Map<Integer, Long> orderingKeys = orderingKeysByContainer.computeIfAbsent(pContainerId, pId -> new HashMap<>());
+    for (int i = 0; i < pOrderingKeys.size(); i++)
+      orderingKeys.put(pFirstIndex + i, pOrderingKeys.get(i));
+  }
+
+  /**
+   * Removes all translations of a container, because they do not match the rows of the container anymore.
+   * This has to be called if rows are added to or removed from the container within the transaction.
+   *
+   * @param pContainerId the id of the container
+   */
+  public void invalidate(String pContainerId)
+  {
+    orderingKeysByContainer.remove(pContainerId);
+  }
+}
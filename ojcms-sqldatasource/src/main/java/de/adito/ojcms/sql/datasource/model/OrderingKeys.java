@@ -0,0 +1,78 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import java.util.*;
+
+/**
+ * Calculates sparse ordering keys for the rows of persistent containers.
+ * The rows are ordered by their keys, the dense index of a row is its rank among all keys.
+ * New rows receive keys within the gap between their neighbours, so no other row has to be changed.
+ * Only if a gap is exhausted all rows of a container have to be rebalanced to evenly spaced keys.
+ *
+ * @author agent, 16.10.2026
+ */
+final class OrderingKeys
+{
+  //Allows about 20 bisections of the same gap before a rebalancing is required
+  static final long SPACING = 1L << 20;
+
+  private OrderingKeys()
+  {
+  }
+
+  /**
+   * The key of a row at a certain rank after a rebalancing.
+   *
+   * @param pRank the rank (dense index) of the row
+   * @return the evenly spaced key for the rank
+   */
+  static long keyForRank(int pRank)
+  {
+    return SPACING * (pRank + 1);
+  }
+
+  /**
+   * Calculates evenly distributed keys for new rows between two neighbouring keys.
+   * A missing neighbour is replaced by a key that leaves the regular spacing.
+   *
+   * @param pLowerKey the key of the row before the new rows, null if the new rows are inserted at the beginning
+   * @param pUpperKey the key of the row after the new rows, null if the new rows are inserted at the end
+   * @param pCount    the amount of new rows
+   * @return the ascending keys for the new rows or empty if the gap is exhausted (a rebalancing is required)
+   */
+  static Optional<List<Long>> keysBetween(Long pLowerKey, Long pUpperKey, int pCount)
+  {
+    final long regularRange = SPACING * (pCount + 1);
+    final long lowerKey, upperKey;
+
+    if (pLowerKey == null && pUpperKey == null)
+    {
+      lowerKey = 0;
+      upperKey = regularRange;
+    }
+    else if (pLowerKey == null)
+    {
+      upperKey = pUpperKey;
+      lowerKey = upperKey - regularRange;
+    }
+    else if (pUpperKey == null)
+    {
+      lowerKey = pLowerKey;
+      upperKey = lowerKey + regularRange;
+    }
+    else
+    {
+      lowerKey = pLowerKey;
+      upperKey = pUpperKey;
+    }
+
+    final long step = (upperKey - lowerKey) / (pCount + 1);
+    if (step <= 0)
+      return Optional.empty();
+
+    final List<Long> keys = new ArrayList<>(pCount);
+    for (int i = 1; i <= pCount; i++)
+      keys.add(lowerKey + step * i);
+
+    return Optional.of(keys);
+  }
+}
@@ -1,11 +1,17 @@
 package de.adito.ojcms.sql.datasource.model;
 
 import de.adito.ojcms.beans.IBean;
-import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sql.datasource.connection.IDatabaseConfig;
+import de.adito.ojcms.sql.datasource.util.OJSQLException;
+import de.adito.ojcms.sqlbuilder.*;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
 
 /**
  * Manages all {@link IPersistenceModel} of the application.
@@ -15,6 +21,9 @@ import java.util.concurrent.ConcurrentHashMap;
 @ApplicationScoped
 public class PersistenceModels
 {
+  @Inject
+  private IDatabaseConfig config;
+
   private final Map<String, ContainerPersistenceModel> containerModels = new ConcurrentHashMap<>();
   private final Map<String, SingleBeanPersistenceModel> singleBeanModels = new ConcurrentHashMap<>();
 
@@ -26,7 +35,9 @@ public class PersistenceModels
    */
   public void registerPersistentContainerBean(Class<? extends IBean> pBeanType, String pContainerId)
   {
-    containerModels.putIfAbsent(pContainerId, new ContainerPersistenceModel(pContainerId, pBeanType));
+    containerModels.putIfAbsent(pContainerId, new ContainerPersistenceModel(pContainerId, pBeanType, config.useRowVersions(),
+                                                                            config.useSparseOrderingKeys(),
+                                                                            config.getStatementBatchSize()));
   }
 
   /**
@@ -37,7 +48,9 @@ public class PersistenceModels
    */
   public void registerPersistentBaseContainer(Set<Class<? extends IBean>> pSubTypes, String pContainerId)
   {
-    containerModels.putIfAbsent(pContainerId, new BaseContainerPersistenceModel(pContainerId, pSubTypes));
+    containerModels.putIfAbsent(pContainerId, new BaseContainerPersistenceModel(pContainerId, pSubTypes, config.useRowVersions(),
+                                                                                config.useSparseOrderingKeys(),
+                                                                                config.getStatementBatchSize()));
   }
 
   /**
@@ -48,7 +61,8 @@ public class PersistenceModels
    */
   public void registerPersistentSingleBean(Class<? extends IBean> pBeanType, String pBeanId)
   {
-    singleBeanModels.putIfAbsent(pBeanId, new SingleBeanPersistenceModel(pBeanId, pBeanType));
+    final boolean useTypedColumns = config.useTypedSingleBeanTables();
+    singleBeanModels.putIfAbsent(pBeanId, new SingleBeanPersistenceModel(pBeanId, pBeanType, config.useRowVersions(), useTypedColumns));
   }
 
   /**
@@ -93,13 +107,82 @@ public class PersistenceModels
 
   /**
    * Initializes all registered {@link IPersistenceModel} instances in the database.
+   * The database schema is examined once for all models. The models are initialized concurrently
+   * if configured and supported by the database platform. The builder has to use a new connection per statement then.
    *
    * @param pBuilder a builder to execute SQL statement.
    */
   public void initAllModels(OJSQLBuilder pBuilder)
   {
-    containerModels.values().forEach(pModel -> pModel.initModelInDatabase(pBuilder));
-    singleBeanModels.values().forEach(pModel -> pModel.initModelInDatabase(pBuilder));
+    final SchemaSnapshot schema = pBuilder.loadSchemaSnapshot();
+    final List<IPersistenceModel> allModels = new ArrayList<>(containerModels.values());
+    allModels.addAll(singleBeanModels.values());
+
+    final int threadCount = Math.min(config.getModelInitializationThreads(), allModels.size());
+    if (threadCount <= 1 || !pBuilder.getPlatformConnectionSupplier().getPlatform().supportsParallelSchemaChanges())
+    {
+      allModels.forEach(pModel -> pModel.initModelInDatabase(pBuilder, schema));
+      return;
+    }
+
+    final AtomicInteger threadNumber = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount, pRunnable ->
+    {
+      final Thread thread = new Thread(pRunnable, "ojcms-model-init-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    try
+    {
+      final List<Future<?>> initializations = allModels.stream() //
+          .map(pModel -> executor.submit(() -> pModel.initModelInDatabase(pBuilder, schema))) //
+          .collect(Collectors.toList());
+
+      for (Future<?> initialization : initializations)
+        initialization.get();
+    }
+    catch (InterruptedException pE)
+    {
+      Thread.currentThread().interrupt();
+      throw new OJSQLException("Interrupted while initializing the persistence models!", pE);
+    }
+    catch (ExecutionException pE)
+    {
+      if (pE.getCause() instanceof RuntimeException)
+        throw (RuntimeException) pE.getCause();
+
+      throw new OJSQLException("Unable to initialize the persistence models!", pE.getCause());
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Initializes all registered {@link IPersistenceModel} instances for a database that already contains their structures.
+   * The database schema is neither examined nor changed.
+   *
+   * @param pBuilder a builder to execute SQL statement.
+   */
+  public void initAllModelsForExistingStructures(OJSQLBuilder pBuilder)
+  {
+    containerModels.values().forEach(pModel -> pModel.initModelForExistingStructures(pBuilder));
+    singleBeanModels.values().forEach(pModel -> pModel.initModelForExistingStructures(pBuilder));
+  }
+
+  /**
+   * Describes the database structures of all registered {@link IPersistenceModel} instances.
+   *
+   * @param pPlatform the database platform to describe column types for
+   * @return a list of structure descriptions in no specific order
+   */
+  public List<String> describeAllModels(IDatabasePlatform pPlatform)
+  {
+    return Stream.concat(containerModels.values().stream(), singleBeanModels.values().stream()) //
+        .map(pModel -> pModel.describeStructure(pPlatform)) //
+        .collect(Collectors.toList());
   }
 
   /**
@@ -0,0 +1,57 @@
+package de.adito.ojcms.sql.datasource.model;
+
+/**
+ * The version of a row of the table of a persistent container identified by the id of the row.
+ * It is attached to the loaded {@link de.adito.ojcms.transactions.api.PersistentBeanData} of the row.
+ * An update will only be applied to the row, if its version within the database is still the version the transaction has read.
+ * Otherwise another transaction or application instance has changed or removed the row in the meantime.
+ * The row id stays the same if the index of the row is shifted by additions or removals.
+ *
+ * @author agent, 16.10.2026
+ */
+final class RowVersion
+{
+  private final long rowId;
+  private final long version;
+
+  /**
+   * Creates a new row version.
+   *
+   * @param pRowId   the id of the row
+   * @param pVersion the version of the row
+   */
+  RowVersion(long pRowId, long pVersion)
+  {
+    rowId = pRowId;
+    version = pVersion;
+  }
+
+  /**
+   * The id of the row.
+   *
+   * @return the row id
+   */
+  long getRowId()
+  {
+    return rowId;
+  }
+
+  /**
+   * The version of the row.
+   *
+   * @return the row version
+   */
+  long getVersion()
+  {
+    return version;
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "{" + //
+        "rowId=" + rowId + //
+        ", version=" + version + //
+        '}';
+  }
+}
@@ -5,11 +5,16 @@ import com.google.gson.reflect.TypeToken;
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.beans.util.BeanReflector;
-import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sql.datasource.model.column.*;
+import de.adito.ojcms.sql.datasource.util.DatabaseConstants;
+import de.adito.ojcms.sqlbuilder.*;
 import de.adito.ojcms.sqlbuilder.definition.*;
 import de.adito.ojcms.sqlbuilder.definition.column.*;
+import de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
+import de.adito.ojcms.sqlbuilder.result.ResultRow;
 import de.adito.ojcms.transactions.api.*;
-import de.adito.ojcms.transactions.exceptions.BeanDataNotFoundException;
+import de.adito.ojcms.transactions.exceptions.*;
 import de.adito.ojcms.utils.StringUtility;
 
 import java.lang.reflect.Type;
@@ -18,13 +23,19 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.ADD;
+import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
 import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.isEqual;
 import static java.util.function.Function.identity;
 
 /**
  * Persistence model for persistent single beans.
- * All single beans are stored in a special database table.
+ * By default all single beans are stored in a special database table.
  * Each row represents a bean by id and all its data converted to a JSON format.
+ * <p>
+ * Alternatively every single bean is stored in a table of its own with a typed column per bean field and exactly one row.
+ * Changes then only update the changed columns and loading does not require any JSON conversion.
+ * The data is migrated between both layouts when the model is initialized in the database.
  *
  * @author Simon Danner, 01.01.2020
  */
@@ -36,6 +47,9 @@ public class SingleBeanPersistenceModel implements IPersistenceModel
       IColumnDefinition.of(BEAN_TABLE_BEAN_ID, EColumnType.STRING.create().primaryKey().modifiers(EColumnModifier.NOT_NULL));
   private static final IColumnIdentification<byte[]> CONTENT_COLUMN = IColumnIdentification.of(BEAN_TABLE_CONTENT, byte[].class);
   private static final IColumnDefinition CONTENT_COLUMN_DEFINITION = IColumnDefinition.of(BEAN_TABLE_CONTENT, EColumnType.BLOB.create());
+  private static final IColumnIdentification<Long> ROW_VERSION_COLUMN = IColumnIdentification.of(ROW_VERSION_COLUMN_NAME, Long.class);
+  private static final IColumnDefinition ROW_VERSION_COLUMN_DEFINITION =
+      IColumnDefinition.of(ROW_VERSION_COLUMN_NAME, EColumnType.LONG.create());
 
   //Used for JSON serialization
   private static final Gson GSON = new GsonBuilder() //
@@ -49,34 +63,84 @@ public class SingleBeanPersistenceModel implements IPersistenceModel
 
   private final String beanId;
   private final Map<String, IField<?>> fieldNameMapping;
+  private final boolean useRowVersions;
+  private final boolean useTypedColumns;
+  private final String typedTableName;
+  private final Set<BeanColumnDefinition<?>> columnDefinitions;
+  private final Set<BeanColumnIdentification<?>> beanColumnIdentifications;
 
   /**
    * Creates the database table for single beans if not created yet.
+   * If rows should be versioned, the version column will be added to an existing table if necessary.
    *
-   * @param pBuilder a builder to execute SQL statements
+   * @param pBuilder        a builder to execute SQL statements
+   * @param pUseRowVersions <tt>true</tt> if the rows should be versioned for optimistic concurrency control
    */
-  public static void createSingleBeanTableIfNecessary(OJSQLBuilder pBuilder)
+  public static void createSingleBeanTableIfNecessary(OJSQLBuilder pBuilder, boolean pUseRowVersions)
   {
+    final List<IColumnDefinition> columns = new ArrayList<>(Arrays.asList(ID_COLUMN_DEFINITION, CONTENT_COLUMN_DEFINITION));
+    if (pUseRowVersions)
+      columns.add(ROW_VERSION_COLUMN_DEFINITION);
+
     pBuilder.ifTableNotExistingCreate(BEAN_TABLE_NAME, pCreate -> pCreate //
-        .columns(ID_COLUMN_DEFINITION, CONTENT_COLUMN_DEFINITION) //
+        .columns(columns) //
         .create());
+
+    if (pUseRowVersions && !pBuilder.getAllColumnNames(BEAN_TABLE_NAME).contains(ROW_VERSION_COLUMN_NAME))
+    {
+      pBuilder.doAlterTable(pAlter -> pAlter //
+          .table(BEAN_TABLE_NAME) //
+          .columnsToAdd(ROW_VERSION_COLUMN_DEFINITION) //
+          .alter());
+
+      //Existing rows start with the initial version
+      pBuilder.doUpdate(pUpdate -> pUpdate //
+          .table(BEAN_TABLE_NAME) //
+          .set(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L)) //
+          .update());
+    }
+  }
+
+  /**
+   * The name of the table of a single bean that is stored with typed columns.
+   *
+   * @param pBeanId the id of the single bean
+   * @return the name of the table of the single bean
+   */
+  public static String typedTableNameOf(String pBeanId)
+  {
+    return SINGLE_BEAN_TABLE_PREFIX + pBeanId;
   }
 
   /**
    * Initializes the single bean persistence model.
    *
-   * @param pBeanId   the id of the single bean, identifies the row within the database table
-   * @param pBeanType the bean type of the single bean
+   * @param pBeanId          the id of the single bean, identifies the row within the database table
+   * @param pBeanType        the bean type of the single bean
+   * @param pUseRowVersions  <tt>true</tt> if the row should be versioned for optimistic concurrency control
+   * @param pUseTypedColumns <tt>true</tt> if the single bean should be stored in a table of its own with a column per bean field
    */
-  SingleBeanPersistenceModel(String pBeanId, Class<? extends IBean> pBeanType)
+  SingleBeanPersistenceModel(String pBeanId, Class<? extends IBean> pBeanType, boolean pUseRowVersions, boolean pUseTypedColumns)
   {
     beanId = StringUtility.requireNotEmpty(pBeanId, "single bean id");
-    fieldNameMapping = BeanReflector.reflectBeanFields(pBeanType).stream().collect(Collectors.toMap(IField::getName, identity()));
+    final List<IField<?>> fields = BeanReflector.reflectBeanFields(pBeanType);
+    fieldNameMapping = fields.stream().collect(Collectors.toMap(IField::getName, identity()));
+    useRowVersions = pUseRowVersions;
+    useTypedColumns = pUseTypedColumns;
+    typedTableName = typedTableNameOf(beanId);
+    columnDefinitions = BeanColumnDefinition.ofFieldsWithoutKeys(fields);
+    beanColumnIdentifications = columnDefinitions.stream().map(BeanColumnDefinition::toColumnIdentification).collect(Collectors.toSet());
   }
 
   @Override
-  public void initModelInDatabase(OJSQLBuilder pBuilder)
+  public void initModelInDatabase(OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
   {
+    if (useTypedColumns)
+    {
+      _initTypedTable(pBuilder, pSchema);
+      return;
+    }
+
     final boolean doesRowExist = pBuilder.doSelectOne(ID_COLUMN, pSelect -> pSelect //
         .from(BEAN_TABLE_NAME) //
         .where(isEqual(ID_COLUMN, beanId)) //
@@ -85,10 +149,32 @@ public class SingleBeanPersistenceModel implements IPersistenceModel
     if (doesRowExist)
       return;
 
-    pBuilder.doInsert(pInsert -> pInsert //
-        .into(BEAN_TABLE_NAME) //
-        .values(IColumnValueTuple.of(ID_COLUMN, beanId), _contentTuple(_createInitialContent())) //
-        .insert());
+    //The single bean has been stored with typed columns before
+    if (pSchema.hasTable(typedTableName))
+    {
+      final Map<IField<?>, Object> content = _loadTypedRow(pBuilder) //
+          .map(this::_typedRowToBeanContent) //
+          .orElseGet(this::_createInitialContent);
+
+      _insertContentRow(content, pBuilder);
+      pBuilder.dropTable(typedTableName);
+    }
+    else
+      _insertContentRow(_createInitialContent(), pBuilder);
+  }
+
+  @Override
+  public String describeStructure(IDatabasePlatform pPlatform)
+  {
+    if (!useTypedColumns)
+      return "single bean " + beanId + " (rowVersions=" + useRowVersions + ")";
+
+    final String columns = columnDefinitions.stream() //
+        .map(pColumn -> pColumn.toStatementFormat(pPlatform, DatabaseConstants.ID_COLUMN)) //
+        .sorted() //
+        .collect(Collectors.joining(", "));
+
+    return "typed single bean " + beanId + " (rowVersions=" + useRowVersions + ", columns=[" + columns + "])";
   }
 
   /**
@@ -100,31 +186,237 @@ public class SingleBeanPersistenceModel implements IPersistenceModel
    */
   public PersistentBeanData loadSingleBeanData(SingleBeanKey pKey, OJSQLBuilder pBuilder)
   {
-    return pBuilder.doSelectOne(CONTENT_COLUMN, pSelect -> pSelect //
+    if (useTypedColumns)
+      return _loadTypedRow(pBuilder) //
+          .map(pRow -> new PersistentBeanData(-1, _typedRowToBeanContent(pRow), useRowVersions ? pRow.get(ROW_VERSION_COLUMN) : null)) //
+          .orElseThrow(() -> new BeanDataNotFoundException(pKey));
+
+    if (!useRowVersions)
+      return _loadContent(pKey, pBuilder);
+
+    return pBuilder.doSelect(pSelect -> pSelect //
+        .select(CONTENT_COLUMN, ROW_VERSION_COLUMN) //
         .from(BEAN_TABLE_NAME) //
         .where(isEqual(ID_COLUMN, beanId)) //
         .firstResult() //
-        .map(this::_fromPersistent) //
-        .map(pBeanContent -> new PersistentBeanData(-1, pBeanContent))) //
-        .orIfNotPresentThrow(() -> new BeanDataNotFoundException(pKey));
+        .map(pRow -> new PersistentBeanData(-1, _fromPersistent(pRow.get(CONTENT_COLUMN)), pRow.get(ROW_VERSION_COLUMN)))) //
+        .orElseThrow(() -> new BeanDataNotFoundException(pKey));
   }
 
   /**
    * Processes changes to the single bean values.
+   * With typed columns only the columns of the changed fields are updated, otherwise the whole JSON content is rewritten.
+   * If the row is versioned, it will only be updated if its version is still the version the changes are based on.
    *
    * @param pChangedValues the changed values mapped by bean fields
+   * @param pVersion       the version of the bean data the changes are based on, null if unknown
    * @param pBuilder       a builder to execute SQL statements
+   * @throws ConcurrentTransactionException if the versioned row has been changed by another transaction or application instance
+   */
+  public void processChanges(Map<IField<?>, Object> pChangedValues, Object pVersion, OJSQLBuilder pBuilder)
+  {
+    final SingleBeanKey key = new SingleBeanKey(beanId);
+    //Without a version the changes are not based on loaded data of this model, the next try will load the row again
+    if (useRowVersions && !(pVersion instanceof Long))
+      throw new ConcurrentTransactionException(key);
+
+    final String tableName;
+    final List<IColumnValueTuple<?>> changedColumns;
+    final List<IWhereCondition<?>> conditions = new ArrayList<>();
+
+    if (useTypedColumns)
+    {
+      tableName = typedTableName;
+      changedColumns = BeanColumnValueTuple.ofMap(pChangedValues);
+    }
+    else
+    {
+      tableName = BEAN_TABLE_NAME;
+      changedColumns = Collections.singletonList(_contentTuple(_loadContent(key, pBuilder).integrateChanges(pChangedValues).getData()));
+      conditions.add(isEqual(ID_COLUMN, beanId));
+    }
+
+    final int updatedRows = pBuilder.doUpdate(pUpdate ->
+    {
+      pUpdate.table(tableName).set(changedColumns);
+
+      if (!useRowVersions)
+        return pUpdate.where(conditions).update();
+
+      conditions.add(isEqual(ROW_VERSION_COLUMN, (Long) pVersion));
+      return pUpdate //
+          .adaptNumericValue(of(ROW_VERSION_COLUMN, ADD, 1L)) //
+          .where(conditions) //
+          .update();
+    });
+
+    if (useRowVersions && updatedRows == 0)
+      throw new ConcurrentTransactionException(key);
+  }
+
+  /**
+   * Creates or adapts the table of the single bean with typed columns and assures that it contains the row of the bean.
+   * The initial content of the row is migrated from the JSON based single bean table if the bean has been stored there before.
+   * Columns added for new bean fields are set to the initial values of the fields.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @param pSchema  a snapshot of the database schema before the initialization
    */
-  public void processChanges(Map<IField<?>, Object> pChangedValues, OJSQLBuilder pBuilder)
+  private void _initTypedTable(OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
   {
-    //This may be improved later to avoid redundant loading by query
-    final PersistentBeanData changedData = loadSingleBeanData(new SingleBeanKey(beanId), pBuilder).integrateChanges(pChangedValues);
+    final List<IColumnDefinition> columns = new ArrayList<>(columnDefinitions);
+    if (useRowVersions)
+      columns.add(ROW_VERSION_COLUMN_DEFINITION);
+
+    if (!pSchema.hasTable(typedTableName))
+      pBuilder.doCreate(pCreate -> pCreate //
+          .tableName(typedTableName) //
+          .withIdColumn() //
+          .columns(columns) //
+          .create());
+    else
+      _adaptTypedColumns(columns, pBuilder, pSchema);
 
-    pBuilder.doUpdate(pUpdate -> pUpdate //
-        .table(BEAN_TABLE_NAME) //
-        .set(_contentTuple(changedData.getData())) //
+    final boolean doesRowExist = pBuilder.doSelect(pSelect -> pSelect.from(typedTableName).hasResult());
+    if (doesRowExist)
+      return;
+
+    final boolean isStoredAsContent = pSchema.hasTable(BEAN_TABLE_NAME) && pBuilder.doSelectOne(ID_COLUMN, pSelect -> pSelect //
+        .from(BEAN_TABLE_NAME) //
         .where(isEqual(ID_COLUMN, beanId)) //
-        .update());
+        .countRows() > 0);
+
+    final Map<IField<?>, Object> content =
+        isStoredAsContent ? _loadContent(new SingleBeanKey(beanId), pBuilder).getData() : _createInitialContent();
+
+    final List<IColumnValueTuple<?>> values = new ArrayList<>(BeanColumnValueTuple.ofMap(content));
+    if (useRowVersions)
+      values.add(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L));
+
+    pBuilder.doInsert(pInsert -> pInsert //
+        .into(typedTableName) //
+        .values(values) //
+        .insert());
+
+    if (isStoredAsContent)
+      pBuilder.doDelete(pDelete -> pDelete //
+          .from(BEAN_TABLE_NAME) //
+          .where(isEqual(ID_COLUMN, beanId)) //
+          .delete());
+  }
+
+  /**
+   * Adds missing and drops obsolete columns of an existing table with typed columns.
+   *
+   * @param pColumns the columns the table should have (except the id column)
+   * @param pBuilder a builder to execute SQL statements
+   * @param pSchema  a snapshot of the database schema before the initialization
+   */
+  private void _adaptTypedColumns(List<IColumnDefinition> pColumns, OJSQLBuilder pBuilder, SchemaSnapshot pSchema)
+  {
+    final Set<String> existingColumnNames = pSchema.getColumnNames(typedTableName);
+    final List<IColumnDefinition> columnsToAdd = pColumns.stream() //
+        .filter(pColumn -> !existingColumnNames.contains(pColumn.getColumnName())) //
+        .collect(Collectors.toList());
+
+    existingColumnNames.remove(DatabaseConstants.ID_COLUMN);
+    pColumns.forEach(pColumn -> existingColumnNames.remove(pColumn.getColumnName()));
+
+    if (columnsToAdd.isEmpty() && existingColumnNames.isEmpty())
+      return;
+
+    pBuilder.doAlterTable(pAlter -> pAlter //
+        .table(typedTableName) //
+        .columnsToAdd(columnsToAdd) //
+        .columnsToDrop(existingColumnNames) //
+        .alter());
+
+    //Existing rows start with the initial values of the new fields and the initial version
+    final List<IColumnValueTuple<?>> initialValues = new ArrayList<>();
+    for (IColumnDefinition column : columnsToAdd)
+    {
+      if (column instanceof BeanColumnDefinition)
+      {
+        final IField<?> field = ((BeanColumnDefinition<?>) column).getBeanField();
+        initialValues.addAll(BeanColumnValueTuple.ofMap(Collections.singletonMap(field, field.getInitialValue())));
+      }
+      else
+        initialValues.add(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L));
+    }
+
+    if (!initialValues.isEmpty())
+      pBuilder.doUpdate(pUpdate -> pUpdate //
+          .table(typedTableName) //
+          .set(initialValues) //
+          .update());
+  }
+
+  /**
+   * Loads the row of the table with typed columns of the single bean.
+   *
+   * @param pBuilder a builder to execute SQL statements
+   * @return the result row of the single bean or empty if not existing
+   */
+  private Optional<ResultRow> _loadTypedRow(OJSQLBuilder pBuilder)
+  {
+    final Set<IColumnIdentification<?>> columnsToSelect = new HashSet<>(beanColumnIdentifications);
+    if (useRowVersions)
+      columnsToSelect.add(ROW_VERSION_COLUMN);
+
+    return pBuilder.doSelect(pSelect -> pSelect //
+        .select(columnsToSelect) //
+        .from(typedTableName) //
+        .firstResult());
+  }
+
+  /**
+   * Resolves the bean content from the row of the table with typed columns.
+   *
+   * @param pRow the result row of the single bean
+   * @return the bean's content as field value tuples
+   */
+  private Map<IField<?>, Object> _typedRowToBeanContent(ResultRow pRow)
+  {
+    return pRow.toMap(beanColumnIdentifications, BeanColumnIdentification::getBeanField);
+  }
+
+  /**
+   * Inserts the row of the single bean into the JSON based single bean table.
+   *
+   * @param pContent the content of the single bean
+   * @param pBuilder a builder to execute SQL statements
+   */
+  private void _insertContentRow(Map<IField<?>, Object> pContent, OJSQLBuilder pBuilder)
+  {
+    final List<IColumnValueTuple<?>> values = new ArrayList<>();
+    values.add(IColumnValueTuple.of(ID_COLUMN, beanId));
+    values.add(_contentTuple(pContent));
+
+    if (useRowVersions)
+      values.add(IColumnValueTuple.of(ROW_VERSION_COLUMN, 0L));
+
+    pBuilder.doInsert(pInsert -> pInsert //
+        .into(BEAN_TABLE_NAME) //
+        .values(values) //
+        .insert());
+  }
+
+  /**
+   * Loads the content of the single bean without recording the version of the row.
+   *
+   * @param pKey     the key to identify the single bean
+   * @param pBuilder a builder to execute SQL statements
+   * @return the loaded persistent single bean data
+   */
+  private PersistentBeanData _loadContent(SingleBeanKey pKey, OJSQLBuilder pBuilder)
+  {
+    return pBuilder.doSelectOne(CONTENT_COLUMN, pSelect -> pSelect //
+        .from(BEAN_TABLE_NAME) //
+        .where(isEqual(ID_COLUMN, beanId)) //
+        .firstResult() //
+        .map(this::_fromPersistent) //
+        .map(pBeanContent -> new PersistentBeanData(-1, pBeanContent))) //
+        .orIfNotPresentThrow(() -> new BeanDataNotFoundException(pKey));
   }
 
   /**
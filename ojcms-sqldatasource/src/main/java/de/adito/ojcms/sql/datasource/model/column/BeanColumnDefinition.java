@@ -21,16 +21,28 @@ public class BeanColumnDefinition<VALUE> implements IColumnDefinition, IBeanFiel
 
   /**
    * Creates a column definition for a bean field.
+   * The column will be part of the primary key if the field is annotated as {@link Identifier}.
    *
    * @param pBeanField the bean field the column is based on
    */
   public BeanColumnDefinition(IField<VALUE> pBeanField)
+  {
+    this(pBeanField, true);
+  }
+
+  /**
+   * Creates a column definition for a bean field.
+   *
+   * @param pBeanField         the bean field the column is based on
+   * @param pIdentifiersAsKeys <tt>true</tt> if the column should be part of the primary key if the field is an {@link Identifier}
+   */
+  public BeanColumnDefinition(IField<VALUE> pBeanField, boolean pIdentifiersAsKeys)
   {
     beanField = pBeanField;
     columnType = EColumnType.getByDataType(pBeanField.getDataType()) //
         .orElse(EColumnType.STRING.create());
 
-    if (beanField.hasAnnotation(Identifier.class))
+    if (pIdentifiersAsKeys && beanField.hasAnnotation(Identifier.class))
       columnType.primaryKey();
   }
 
@@ -79,4 +91,18 @@ public class BeanColumnDefinition<VALUE> implements IColumnDefinition, IBeanFiel
         .map(BeanColumnDefinition::new) //
         .collect(Collectors.toSet());
   }
+
+  /**
+   * Creates a set of column definitions from a collection of bean fields that are never part of the primary key.
+   * Used for tables that store exactly one bean.
+   *
+   * @param pBeanFields the bean fields to create the array from
+   * @return a set of columns definitions
+   */
+  public static Set<BeanColumnDefinition<?>> ofFieldsWithoutKeys(Collection<IField<?>> pBeanFields)
+  {
+    return pBeanFields.stream() //
+        .map(pField -> new BeanColumnDefinition<>(pField, false)) //
+        .collect(Collectors.toSet());
+  }
 }
@@ -2,7 +2,8 @@ package de.adito.ojcms.sql.datasource.persistence;
 
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
-import de.adito.ojcms.sql.datasource.model.PersistenceModels;
+import de.adito.ojcms.sql.datasource.connection.*;
+import de.adito.ojcms.sql.datasource.model.*;
 import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
 import de.adito.ojcms.transactions.annotations.TransactionalScoped;
 import de.adito.ojcms.transactions.api.*;
@@ -12,6 +13,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.sql.Connection;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Application wide {@link IBeanDataLoader} to load bean related data from a SQL database.
@@ -29,6 +31,14 @@ public class SQLBeanDataLoader implements IBeanDataLoader
   private OJSQLBuilder builder;
   @Inject
   private PersistenceModels models;
+  @Inject
+  private IDatabaseConfig config;
+  @Inject
+  private ReadReplicas readReplicas;
+  @Inject
+  private ITransaction transaction;
+  @Inject
+  private OrderingKeyTranslations orderingKeyTranslations;
 
   @Override
   public int loadContainerSize(String pContainerId)
@@ -39,13 +49,19 @@ public class SQLBeanDataLoader implements IBeanDataLoader
   @Override
   public PersistentBeanData loadContainerBeanDataByIndex(InitialIndexKey pKey)
   {
-    return models.getContainerPersistenceModel(pKey.getContainerId()).loadDataByIndex(pKey, builder);
+    return models.getContainerPersistenceModel(pKey.getContainerId()).loadDataByIndex(pKey, orderingKeyTranslations, builder);
+  }
+
+  @Override
+  public Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+  {
+    return models.getContainerPersistenceModel(pContainerId).loadDataByIndexRange(pFromIndex, pToIndex, builder);
   }
 
   @Override
   public <BEAN extends IBean> Class<BEAN> loadBeanTypeWithinContainer(InitialIndexKey pKey)
   {
-    return models.getBaseContainerPersistenceModel(pKey.getContainerId()).loadBeanType(pKey, builder);
+    return models.getBaseContainerPersistenceModel(pKey.getContainerId()).loadBeanType(pKey, orderingKeyTranslations, builder);
   }
 
   @Override
@@ -54,6 +70,18 @@ public class SQLBeanDataLoader implements IBeanDataLoader
     return models.getContainerPersistenceModel(pContainerId).loadDataByIdentifiers(pIdentifiers, builder);
   }
 
+  @Override
+  public List<PersistentBeanData> loadContainerBeanDataByFieldValues(String pContainerId, Map<IField<?>, Object> pFieldValues)
+  {
+    return models.getContainerPersistenceModel(pContainerId).loadDataByFieldValues(pFieldValues, builder);
+  }
+
+  @Override
+  public <VALUE> Set<VALUE> loadDistinctFieldValues(String pContainerId, IField<VALUE> pField)
+  {
+    return models.getContainerPersistenceModel(pContainerId).loadDistinctValues(pField, builder);
+  }
+
   @Override
   public PersistentBeanData loadSingleBeanData(SingleBeanKey pKey)
   {
@@ -65,4 +93,28 @@ public class SQLBeanDataLoader implements IBeanDataLoader
   {
     return models.getContainerPersistenceModel(pContainerId).loadFullData(builder);
   }
+
+  @Override
+  public void fullContainerLoad(String pContainerId, Consumer<PersistentBeanData> pBeanDataConsumer)
+  {
+    models.getContainerPersistenceModel(pContainerId).loadFullData(config.getFetchSize(), pBeanDataConsumer, builder);
+  }
+
+  @Override
+  public boolean mayLoadOutdatedData()
+  {
+    return readReplicas.isUsedBy(transaction);
+  }
+
+  @Override
+  public int getSharedCacheSize()
+  {
+    return config.useSharedBeanDataCache() ? config.getSharedBeanDataCacheSize() : 0;
+  }
+
+  @Override
+  public boolean shareContainerSizes()
+  {
+    return config.shareContainerSizes();
+  }
 }
@@ -2,7 +2,9 @@ package de.adito.ojcms.sql.datasource.persistence;
 
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
-import de.adito.ojcms.sql.datasource.model.PersistenceModels;
+import de.adito.ojcms.sql.datasource.commitlog.CommitLog;
+import de.adito.ojcms.sql.datasource.connection.IDatabaseConfig;
+import de.adito.ojcms.sql.datasource.model.*;
 import de.adito.ojcms.sql.datasource.util.OJSQLException;
 import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
 import de.adito.ojcms.transactions.api.*;
@@ -16,6 +18,7 @@ import java.util.*;
 /**
  * Application wide {@link IBeanDataStorage} to process bean related data changes to a SQL database.
  * Also commits or rolls back changes to the transactional {@link Connection}.
+ * The changed data is recorded in the {@link CommitLog} and written within the same database transaction.
  *
  * @author Simon Danner, 01.01.2020
  */
@@ -28,6 +31,12 @@ public class SQLBeanDataStorage implements IBeanDataStorage
   private PersistenceModels models;
   @Inject
   private Connection connection;
+  @Inject
+  private CommitLog commitLog;
+  @Inject
+  private IDatabaseConfig config;
+  @Inject
+  private OrderingKeyTranslations orderingKeyTranslations;
 
   @Override
   public void registerPersistentContainerBean(Class<? extends IBean> pBeanType, String pContainerId)
@@ -50,26 +59,58 @@ public class SQLBeanDataStorage implements IBeanDataStorage
   @Override
   public void processChangesForContainerBean(InitialIndexKey pKey, Map<IField<?>, Object> pChangedValues)
   {
-    models.getContainerPersistenceModel(pKey.getContainerId()).processValueChanges(pKey.getIndex(), pChangedValues, builder);
+    processChangesForContainerBeans(pKey.getContainerId(), Collections.singletonMap(pKey, pChangedValues), Collections.emptyMap());
+  }
+
+  @Override
+  public void processChangesForContainerBeans(String pContainerId, Map<InitialIndexKey, Map<IField<?>, Object>> pChangedValuesByKey,
+                                              Map<InitialIndexKey, Object> pVersionsByKey)
+  {
+    final Map<Integer, Map<IField<?>, Object>> changedValuesByIndex = new HashMap<>();
+    pChangedValuesByKey.forEach((pKey, pChangedValues) -> changedValuesByIndex.put(pKey.getIndex(), pChangedValues));
+    final Map<Integer, Object> versionsByIndex = new HashMap<>();
+    pVersionsByKey.forEach((pKey, pVersion) -> versionsByIndex.put(pKey.getIndex(), pVersion));
+
+    models.getContainerPersistenceModel(pContainerId).processValueChanges(changedValuesByIndex, versionsByIndex, builder);
+    changedValuesByIndex.keySet().forEach(pIndex -> commitLog.recordContainerBeanChange(pContainerId, pIndex));
   }
 
   @Override
   public void processChangesForSingleBean(SingleBeanKey pKey, Map<IField<?>, Object> pChangedValues)
   {
-    models.getSingleBeanPersistenceModel(pKey.getBeanId()).processChanges(pChangedValues, builder);
+    processChangesForSingleBean(pKey, pChangedValues, null);
+  }
+
+  @Override
+  public void processChangesForSingleBean(SingleBeanKey pKey, Map<IField<?>, Object> pChangedValues, Object pVersion)
+  {
+    models.getSingleBeanPersistenceModel(pKey.getBeanId()).processChanges(pChangedValues, pVersion, builder);
+    commitLog.recordSingleBeanChange(pKey.getBeanId());
   }
 
   @Override
   public void processAdditionsForContainer(String pContainerId, Set<BeanAddition> pBeanAdditions)
   {
     models.getContainerPersistenceModel(pContainerId).processAdditions(pBeanAdditions, builder);
+    orderingKeyTranslations.invalidate(pContainerId);
+    pBeanAdditions.stream() //
+        .mapToInt(BeanAddition::getIndex) //
+        .min() //
+        .ifPresent(pLowestIndex -> commitLog.recordContainerSizeChange(pContainerId, pLowestIndex));
   }
 
   @Override
   public void processRemovals(Map<String, Set<InitialIndexKey>> pKeysToRemoveByContainer)
   {
-    pKeysToRemoveByContainer //
-        .forEach((pContainerId, pRemovedKeys) -> models.getContainerPersistenceModel(pContainerId).processRemovals(pRemovedKeys, builder));
+    pKeysToRemoveByContainer.forEach((pContainerId, pRemovedKeys) ->
+    {
+      models.getContainerPersistenceModel(pContainerId).processRemovals(pRemovedKeys, builder);
+      orderingKeyTranslations.invalidate(pContainerId);
+      pRemovedKeys.stream() //
+          .mapToInt(InitialIndexKey::getIndex) //
+          .min() //
+          .ifPresent(pLowestIndex -> commitLog.recordContainerSizeChange(pContainerId, pLowestIndex));
+    });
   }
 
   @Override
@@ -77,6 +118,7 @@ public class SQLBeanDataStorage implements IBeanDataStorage
   {
     try
     {
+      commitLog.writePendingEntries(builder);
       connection.commit();
     }
     catch (SQLException pE)
@@ -88,6 +130,8 @@ public class SQLBeanDataStorage implements IBeanDataStorage
   @Override
   public void rollbackChanges()
   {
+    commitLog.discardPendingEntries();
+
     try
     {
       connection.rollback();
@@ -97,4 +141,12 @@ public class SQLBeanDataStorage implements IBeanDataStorage
       throw new OJSQLException("Rollback failed!", pE);
     }
   }
+
+  @Override
+  public int getMaxParallelTransactions()
+  {
+    //Every transaction holds a connection, so more parallel transactions would only wait for the pool
+    final int maxPoolSize = config.getConnectionPoolSettings().getMaxSize();
+    return maxPoolSize > 0 ? maxPoolSize : IBeanDataStorage.super.getMaxParallelTransactions();
+  }
 }
@@ -1,42 +1,68 @@
 package de.adito.ojcms.sql.datasource.startup;
 
 import de.adito.ojcms.cdi.startup.IStartupCallback;
-import de.adito.ojcms.sql.datasource.connection.GlobalBuilder;
+import de.adito.ojcms.sql.datasource.commitlog.CommitLog;
+import de.adito.ojcms.sql.datasource.connection.*;
 import de.adito.ojcms.sql.datasource.model.*;
 import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import java.util.*;
 
 /**
  * Database initialization that will be executed on application startup.
- * Creates the single bean table if necessary.
+ * Creates the single bean table and the commit log tables if necessary.
  * Then performs all {@link IDatabaseCleanup}.
  * Finally initializes all still existing {@link PersistenceModels}.
+ * <p>
+ * The initialization is skipped if the {@link SchemaFingerprint} of the persistence models did not change since the last startup.
+ * The models only load their runtime state then.
  *
  * @author Simon Danner, 02.01.2020
  */
 @ApplicationScoped
 class DatabaseInitialization implements IStartupCallback
 {
+  @Inject
+  private IDatabaseConfig config;
   @Inject
   private PersistenceModels models;
   @Inject
+  private CommitLog commitLog;
+  @Inject
   private Instance<IDatabaseCleanup> cleaners;
   @Inject
+  private IDatabasePlatform platform;
+  @Inject
   @GlobalBuilder
   private OJSQLBuilder builder;
 
   @Override
   public void onCdiStartup()
   {
+    final List<String> structureDescriptions = new ArrayList<>(models.describeAllModels(platform));
+    structureDescriptions.add("commit log (enabled=" + commitLog.isEnabled() + ")");
+    final String fingerprint = SchemaFingerprint.compute(structureDescriptions);
+
+    if (config.skipInitializationForUnchangedModels() && SchemaFingerprint.isStored(fingerprint, builder))
+    {
+      models.initAllModelsForExistingStructures(builder);
+      return;
+    }
+
     if (!models.getAllSingleBeanIds().isEmpty())
-      SingleBeanPersistenceModel.createSingleBeanTableIfNecessary(builder);
+      SingleBeanPersistenceModel.createSingleBeanTableIfNecessary(builder, config.useRowVersions());
+
+    if (commitLog.isEnabled())
+      commitLog.initInDatabase(builder);
 
     for (IDatabaseCleanup cleaner : cleaners)
       cleaner.cleanup(builder);
 
     models.initAllModels(builder);
+    SchemaFingerprint.store(fingerprint, builder);
   }
 }
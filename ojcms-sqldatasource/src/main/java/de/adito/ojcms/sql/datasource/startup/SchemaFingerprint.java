@@ -0,0 +1,101 @@
+package de.adito.ojcms.sql.datasource.startup;
+
+import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.sqlbuilder.definition.*;
+import de.adito.ojcms.sqlbuilder.definition.column.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.util.*;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+
+/**
+ * A hash of the structure descriptions of all persistence models that is stored in the database.
+ * If the stored fingerprint equals the fingerprint of the current models, the database already contains all required structures.
+ * The fingerprint table contains one row at most.
+ *
+ * @author agent, 17.10.2026
+ */
+final class SchemaFingerprint
+{
+  private static final IColumnIdentification<String> FINGERPRINT_COLUMN =
+      IColumnIdentification.of(SCHEMA_FINGERPRINT_COLUMN_NAME, String.class);
+
+  private SchemaFingerprint()
+  {
+  }
+
+  /**
+   * Computes the fingerprint for the structure descriptions of the persistence models.
+   * The order of the descriptions is not relevant.
+   *
+   * @param pStructureDescriptions the structure descriptions to compute the fingerprint for
+   * @return the fingerprint as hexadecimal SHA-256 hash
+   */
+  static String compute(Collection<String> pStructureDescriptions)
+  {
+    final List<String> sortedDescriptions = new ArrayList<>(pStructureDescriptions);
+    Collections.sort(sortedDescriptions);
+
+    try
+    {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      final byte[] hash = digest.digest(String.join("\n", sortedDescriptions).getBytes(StandardCharsets.UTF_8));
+
+      final StringBuilder fingerprint = new StringBuilder();
+      for (byte hashByte : hash)
+        fingerprint.append(String.format("%02x", hashByte));
+
+      return fingerprint.toString();
+    }
+    catch (NoSuchAlgorithmException pE)
+    {
+      throw new IllegalStateException("SHA-256 is not supported by this Java runtime!", pE);
+    }
+  }
+
+  /**
+   * Determines if a fingerprint equals the fingerprint stored in the database.
+   *
+   * @param pFingerprint the fingerprint to check
+   * @param pBuilder     a builder to execute SQL statements
+   * @return <tt>true</tt> if the fingerprint is stored in the database
+   */
+  static boolean isStored(String pFingerprint, OJSQLBuilder pBuilder)
+  {
+    if (!pBuilder.hasTable(SCHEMA_FINGERPRINT_TABLE_NAME))
+      return false;
+
+    final String storedFingerprint = pBuilder.doSelectOne(FINGERPRINT_COLUMN, pSelect -> pSelect //
+        .from(SCHEMA_FINGERPRINT_TABLE_NAME) //
+        .firstResult()) //
+        .orIfNotPresent(null);
+
+    return pFingerprint.equals(storedFingerprint);
+  }
+
+  /**
+   * Stores a fingerprint in the database and replaces the previous one.
+   * The fingerprint table is created if not existing yet.
+   *
+   * @param pFingerprint the fingerprint to store
+   * @param pBuilder     a builder to execute SQL statements
+   */
+  static void store(String pFingerprint, OJSQLBuilder pBuilder)
+  {
+    pBuilder.ifTableNotExistingCreate(SCHEMA_FINGERPRINT_TABLE_NAME, pCreate -> pCreate //
+        .withIdColumn() //
+        .columns(IColumnDefinition.of(SCHEMA_FINGERPRINT_COLUMN_NAME, EColumnType.STRING.create().modifiers(EColumnModifier.NOT_NULL))) //
+        .create());
+
+    pBuilder.doDelete(pDelete -> pDelete //
+        .from(SCHEMA_FINGERPRINT_TABLE_NAME) //
+        .delete());
+
+    pBuilder.doInsert(pInsert -> pInsert //
+        .into(SCHEMA_FINGERPRINT_TABLE_NAME) //
+        .values(IColumnValueTuple.of(FINGERPRINT_COLUMN, pFingerprint)) //
+        .insert());
+  }
+}
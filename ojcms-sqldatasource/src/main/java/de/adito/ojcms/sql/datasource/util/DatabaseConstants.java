@@ -14,7 +14,23 @@ public final class DatabaseConstants
   public static final String BEAN_TABLE_NAME = "OJbeans";
   public static final String BEAN_TABLE_BEAN_ID = "beanId";
   public static final String BEAN_TABLE_CONTENT = "beanContent";
+  public static final String SINGLE_BEAN_TABLE_PREFIX = "OJsingle_";
   public static final String ID_COLUMN = "ID";
   public static final String INDEX_COLUMN_NAME = "INDEX";
+  public static final String ORDER_KEY_COLUMN_NAME = "ORDER_KEY";
   public static final String BEAN_TYPE_COLUMN_NAME = "BEAN_TYPE";
+  public static final String BEAN_TYPE_ID_COLUMN_NAME = "BEAN_TYPE_ID";
+  public static final String BEAN_TYPE_TABLE_NAME = "OJbeanTypes";
+  public static final String BEAN_TYPE_NAME_COLUMN_NAME = "TYPE_NAME";
+  public static final String ROW_VERSION_COLUMN_NAME = "ROW_VERSION";
+  public static final String INDEX_NAME_PREFIX = "OJIX_";
+  public static final String COMMIT_LOG_TABLE_NAME = "OJcommitLog";
+  public static final String COMMIT_SEQUENCE_TABLE_NAME = "OJcommitSequence";
+  public static final String COMMIT_SEQUENCE_COLUMN_NAME = "COMMIT_SEQUENCE";
+  public static final String SCHEMA_FINGERPRINT_TABLE_NAME = "OJschemaFingerprint";
+  public static final String SCHEMA_FINGERPRINT_COLUMN_NAME = "FINGERPRINT";
+  public static final int DEFAULT_STATEMENT_BATCH_SIZE = 100;
+  public static final int DEFAULT_FETCH_SIZE = 500;
+  public static final int DEFAULT_MODEL_INITIALIZATION_THREADS = 4;
+  public static final int DEFAULT_SHARED_CACHE_SIZE = 10_000;
 }
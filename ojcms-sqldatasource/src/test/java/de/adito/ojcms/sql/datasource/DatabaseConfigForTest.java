@@ -5,10 +5,12 @@ import de.adito.ojcms.sqlbuilder.platform.EEmbeddedDatabasePlatform;
 import de.adito.ojcms.sqlbuilder.platform.connection.*;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The database config for test scenarios.
  * Uses an in-memory derby database.
+ * The commit log is enabled with a long polling interval, the tests poll it manually.
  *
  * @author Simon Danner, 04.01.2020
  */
@@ -20,4 +22,10 @@ public class DatabaseConfigForTest implements IDatabaseConfig
   {
     return pSupplierFactory.forEmbeddedDatabase(EEmbeddedDatabasePlatform.DERBY, true);
   }
+
+  @Override
+  public long getCommitLogPollingInterval()
+  {
+    return TimeUnit.HOURS.toMillis(1);
+  }
 }
@@ -0,0 +1,188 @@
+package de.adito.ojcms.sql.datasource.commitlog;
+
+import de.adito.ojcms.sql.datasource.model.*;
+import de.adito.ojcms.sqlbuilder.definition.*;
+import de.adito.ojcms.transactions.api.*;
+import org.junit.jupiter.api.*;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Alternative;
+import javax.inject.Inject;
+import java.util.*;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.ADD;
+import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link CommitLog} and the {@link CommitLogPoller} with an actual database connection (in-memory).
+ * Commits of another application instance are simulated by writing foreign entries to the commit log directly.
+ *
+ * @author agent, 16.10.2026
+ */
+public class CommitLogTest extends AbstractDatabaseTest<ContainerPersistenceModel>
+{
+  private static final IColumnIdentification<Long> SEQUENCE_COLUMN = IColumnIdentification.of(COMMIT_SEQUENCE_COLUMN_NAME, Long.class);
+  private static final IColumnIdentification<String> NODE_ID_COLUMN = IColumnIdentification.of("NODE_ID", String.class);
+  private static final IColumnIdentification<String> TARGET_ID_COLUMN = IColumnIdentification.of("TARGET_ID", String.class);
+  private static final IColumnIdentification<Integer> FROM_INDEX_COLUMN = IColumnIdentification.of("FROM_INDEX", Integer.class);
+  private static final IColumnIdentification<Integer> TO_INDEX_COLUMN = IColumnIdentification.of("TO_INDEX", Integer.class);
+  private static final IColumnIdentification<Long> CREATED_AT_COLUMN = IColumnIdentification.of("CREATED_AT", Long.class);
+  private static final String OTHER_NODE_ID = "otherNode";
+
+  @Inject
+  private CommitLogPoller poller;
+  @Inject
+  private RecordingBeanDataCache cache;
+
+  @BeforeEach
+  public void resetInvalidations()
+  {
+    poller.poll();
+    cache.getInvalidations().clear();
+  }
+
+  @AfterEach
+  public void removeCommittedData()
+  {
+    builder.doDelete(pDelete -> pDelete.from(CONTAINER_ID).delete());
+    builder.doDelete(pDelete -> pDelete.from(COMMIT_LOG_TABLE_NAME).delete());
+    storage.commitChanges();
+  }
+
+  @Test
+  public void testCommitWritesEntries()
+  {
+    addContentToContainer(0, 1, "1", true);
+    storage.processChangesForContainerBean(new InitialIndexKey(CONTAINER_ID, 0), Collections.singletonMap(SomeBean.FIELD1, 2));
+    storage.commitChanges();
+
+    assertEquals(2, _countCommitLogEntries());
+  }
+
+  @Test
+  public void testRollbackDiscardsEntries()
+  {
+    //Keep the created container table
+    storage.commitChanges();
+
+    addContentToContainer(0, 1, "1", true);
+    storage.rollbackChanges();
+    storage.commitChanges();
+
+    assertEquals(0, _countCommitLogEntries());
+  }
+
+  @Test
+  public void testOwnCommitsAreIgnored()
+  {
+    addContentToContainer(0, 1, "1", true);
+    storage.commitChanges();
+
+    poller.poll();
+    assertTrue(cache.getInvalidations().isEmpty());
+  }
+
+  @Test
+  public void testForeignCommitsInvalidateCache()
+  {
+    _commitForeignEntry(CONTAINER_ID, 2, 3);
+    _commitForeignEntry(CONTAINER_ID, 0, Integer.MAX_VALUE);
+    _commitForeignEntry("singleBean", -1, -1);
+
+    poller.poll();
+    assertEquals(Arrays.asList("container:" + CONTAINER_ID + "[2,3)", "container:" + CONTAINER_ID + "[0," + Integer.MAX_VALUE + ")",
+                               "single:singleBean"), cache.getInvalidations());
+
+    //Entries are only applied once
+    cache.getInvalidations().clear();
+    poller.poll();
+    assertTrue(cache.getInvalidations().isEmpty());
+  }
+
+  @Override
+  protected Class<ContainerPersistenceModel> getModelType()
+  {
+    return ContainerPersistenceModel.class;
+  }
+
+  /**
+   * Counts the entries within the commit log.
+   *
+   * @return the amount of commit log entries
+   */
+  private int _countCommitLogEntries()
+  {
+    return builder.doSelect(pSelect -> pSelect.from(COMMIT_LOG_TABLE_NAME).countRows());
+  }
+
+  /**
+   * Simulates a commit of another application instance that writes one entry to the commit log.
+   *
+   * @param pTargetId  the id of the changed container or single bean
+   * @param pFromIndex the first index of the changed range
+   * @param pToIndex   the end of the changed range (exclusive)
+   */
+  private void _commitForeignEntry(String pTargetId, int pFromIndex, int pToIndex)
+  {
+    builder.doUpdate(pUpdate -> pUpdate //
+        .table(COMMIT_SEQUENCE_TABLE_NAME) //
+        .adaptNumericValue(of(SEQUENCE_COLUMN, ADD, 1L)) //
+        .update());
+
+    final long sequence = builder.doSelectOne(SEQUENCE_COLUMN, pSelect -> pSelect //
+        .from(COMMIT_SEQUENCE_TABLE_NAME) //
+        .firstResult()) //
+        .orIfNotPresent(0L);
+
+    builder.doInsert(pInsert -> pInsert //
+        .into(COMMIT_LOG_TABLE_NAME) //
+        .values(IColumnValueTuple.of(SEQUENCE_COLUMN, sequence), IColumnValueTuple.of(NODE_ID_COLUMN, OTHER_NODE_ID),
+            IColumnValueTuple.of(TARGET_ID_COLUMN, pTargetId), IColumnValueTuple.of(FROM_INDEX_COLUMN, pFromIndex),
+            IColumnValueTuple.of(TO_INDEX_COLUMN, pToIndex), IColumnValueTuple.of(CREATED_AT_COLUMN, System.currentTimeMillis())) //
+        .insert());
+
+    storage.commitChanges();
+  }
+
+  /**
+   * {@link IBeanDataCache} that records all invalidations.
+   */
+  @ApplicationScoped
+  @Alternative
+  @Priority(100)
+  private static class RecordingBeanDataCache implements IBeanDataCache
+  {
+    private final List<String> invalidations = new ArrayList<>();
+
+    /**
+     * The recorded invalidations in the order of their occurrence.
+     *
+     * @return a modifiable list of the recorded invalidations
+     */
+    List<String> getInvalidations()
+    {
+      return invalidations;
+    }
+
+    @Override
+    public void invalidateContainerRange(String pContainerId, int pFromIndex, int pToIndex)
+    {
+      invalidations.add("container:" + pContainerId + "[" + pFromIndex + "," + pToIndex + ")");
+    }
+
+    @Override
+    public void invalidateSingleBean(SingleBeanKey pKey)
+    {
+      invalidations.add("single:" + pKey.getBeanId());
+    }
+
+    @Override
+    public void invalidateAll()
+    {
+      invalidations.add("all");
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package de.adito.ojcms.sql.datasource.connection;
+
+import de.adito.ojcms.sqlbuilder.platform.*;
+import de.adito.ojcms.sqlbuilder.platform.connection.*;
+import de.adito.ojcms.sqlbuilder.util.OJDatabaseException;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link PooledConnectionSupplier} with connections to an in-memory derby database.
+ *
+ * @author agent, 17.10.2026
+ */
+public class PooledConnectionSupplierTest
+{
+  private static final String DUMMY_QUERY = "SELECT CAST(? AS INT) FROM SYSIBM.SYSDUMMY1";
+
+  private final List<Connection> physicalConnections = Collections.synchronizedList(new ArrayList<>());
+  private PooledConnectionSupplier pool;
+
+  @AfterEach
+  public void closePool()
+  {
+    if (pool != null)
+      pool.close();
+  }
+
+  @Test
+  public void testReuseReturnedConnection() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0));
+
+    pool.createNewConnection().close();
+    pool.createNewConnection().close();
+
+    final ConnectionPoolMetrics metrics = pool.getMetrics();
+    assertEquals(1, metrics.getCreatedConnections());
+    assertEquals(2, metrics.getBorrowedConnections());
+    assertEquals(1, metrics.getIdleConnections());
+    assertEquals(0, metrics.getActiveConnections());
+  }
+
+  @Test
+  public void testResetOnReturn() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0));
+
+    final Connection connection = pool.createNewConnection();
+    connection.setAutoCommit(true);
+    connection.setReadOnly(true);
+    connection.close();
+
+    assertTrue(connection.isClosed());
+    assertThrows(SQLException.class, connection::createStatement);
+
+    try (Connection reused = pool.createNewConnection())
+    {
+      assertFalse(reused.getAutoCommit());
+      assertFalse(reused.isReadOnly());
+    }
+
+    assertEquals(1, pool.getMetrics().getCreatedConnections());
+  }
+
+  @Test
+  public void testBorrowTimeout() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().maxSize(1).borrowTimeout(50).housekeepingInterval(0));
+
+    try (Connection ignored = pool.createNewConnection())
+    {
+      assertThrows(OJDatabaseException.class, pool::createNewConnection);
+    }
+
+    assertEquals(1, pool.getMetrics().getBorrowTimeouts());
+    pool.createNewConnection().close();
+  }
+
+  @Test
+  public void testReplaceInvalidConnection() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0));
+
+    pool.createNewConnection().close();
+    physicalConnections.get(0).close();
+
+    try (Connection connection = pool.createNewConnection())
+    {
+      assertTrue(connection.isValid(1));
+    }
+
+    final ConnectionPoolMetrics metrics = pool.getMetrics();
+    assertEquals(1, metrics.getValidationFailures());
+    assertEquals(2, metrics.getCreatedConnections());
+  }
+
+  @Test
+  public void testEvictIdleConnections() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().minSize(0).idleTimeout(1).housekeepingInterval(10));
+
+    pool.createNewConnection().close();
+    _awaitMetrics(pMetrics -> pMetrics.getClosedConnections() == 1);
+
+    assertEquals(0, pool.getMetrics().getIdleConnections());
+  }
+
+  @Test
+  public void testFillToMinimumSize()
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().minSize(2).housekeepingInterval(10));
+
+    _awaitMetrics(pMetrics -> pMetrics.getIdleConnections() == 2);
+    assertEquals(0, pool.getMetrics().getBorrowedConnections());
+  }
+
+  @Test
+  public void testDetectLeak() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().leakDetectionThreshold(1).housekeepingInterval(10));
+
+    try (Connection ignored = pool.createNewConnection())
+    {
+      _awaitMetrics(pMetrics -> pMetrics.getDetectedLeaks() == 1);
+    }
+  }
+
+  @Test
+  public void testReuseCachedStatements() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0));
+
+    try (Connection connection = pool.createNewConnection())
+    {
+      _queryDummy(connection, 1);
+      _queryDummy(connection, 2);
+    }
+
+    //Also across transactions
+    try (Connection connection = pool.createNewConnection())
+    {
+      _queryDummy(connection, 3);
+    }
+
+    final ConnectionPoolMetrics metrics = pool.getMetrics();
+    assertEquals(2, metrics.getStatementCacheHits());
+    assertEquals(1, metrics.getStatementCacheMisses());
+    assertEquals(2.0 / 3, metrics.getStatementCacheHitRate(), 0.001);
+  }
+
+  @Test
+  public void testStatementInUseIsNotShared() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0));
+
+    try (Connection connection = pool.createNewConnection();
+         PreparedStatement first = connection.prepareStatement(DUMMY_QUERY);
+         PreparedStatement second = connection.prepareStatement(DUMMY_QUERY))
+    {
+      assertNotSame(first, second);
+      first.setInt(1, 1);
+      second.setInt(1, 2);
+
+      try (ResultSet firstResult = first.executeQuery(); ResultSet secondResult = second.executeQuery())
+      {
+        assertTrue(firstResult.next());
+        assertTrue(secondResult.next());
+        assertEquals(1, firstResult.getInt(1));
+        assertEquals(2, secondResult.getInt(1));
+      }
+    }
+
+    assertEquals(0, pool.getMetrics().getStatementCacheHits());
+    assertEquals(2, pool.getMetrics().getStatementCacheMisses());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsedStatement() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0).statementCacheSize(1));
+
+    try (Connection connection = pool.createNewConnection())
+    {
+      _queryDummy(connection, 1);
+      connection.prepareStatement(DUMMY_QUERY + " WHERE 1 = 1").close();
+      _queryDummy(connection, 2);
+    }
+
+    assertEquals(0, pool.getMetrics().getStatementCacheHits());
+    assertEquals(3, pool.getMetrics().getStatementCacheMisses());
+  }
+
+  @Test
+  public void testDisabledStatementCache() throws SQLException
+  {
+    pool = _createPool(ConnectionPoolSettings.defaults().housekeepingInterval(0).statementCacheSize(0));
+
+    try (Connection connection = pool.createNewConnection())
+    {
+      _queryDummy(connection, 1);
+      _queryDummy(connection, 2);
+    }
+
+    assertEquals(0, pool.getMetrics().getStatementCacheHits());
+    assertEquals(0, pool.getMetrics().getStatementCacheMisses());
+  }
+
+  /**
+   * Executes the dummy query with a parameter and checks the result.
+   *
+   * @param pConnection the connection to query with
+   * @param pValue      the parameter value that should be selected
+   */
+  private static void _queryDummy(Connection pConnection, int pValue) throws SQLException
+  {
+    try (PreparedStatement statement = pConnection.prepareStatement(DUMMY_QUERY))
+    {
+      statement.setInt(1, pValue);
+      try (ResultSet result = statement.executeQuery())
+      {
+        assertTrue(result.next());
+        assertEquals(pValue, result.getInt(1));
+      }
+    }
+  }
+
+  /**
+   * Creates a pool for the in-memory derby database. All created physical connections are recorded.
+   *
+   * @param pSettings the settings of the pool
+   * @return the created pool
+   */
+  private PooledConnectionSupplier _createPool(ConnectionPoolSettings pSettings)
+  {
+    final IDatabaseConnectionSupplier derbySupplier =
+        new ConnectionSupplierFactory(false).forEmbeddedDatabase(EEmbeddedDatabasePlatform.DERBY, true);
+
+    return new PooledConnectionSupplier(new IDatabaseConnectionSupplier()
+    {
+      @Override
+      public Connection createNewConnection()
+      {
+        final Connection connection = derbySupplier.createNewConnection();
+        physicalConnections.add(connection);
+        return connection;
+      }
+
+      @Override
+      public IDatabasePlatform getPlatform()
+      {
+        return derbySupplier.getPlatform();
+      }
+    }, pSettings);
+  }
+
+  /**
+   * Waits until the metrics of the pool fulfill a condition. Fails after two seconds.
+   *
+   * @param pCondition the condition to wait for
+   */
+  private void _awaitMetrics(Predicate<ConnectionPoolMetrics> pCondition)
+  {
+    final long deadline = System.currentTimeMillis() + 2000;
+    while (!pCondition.test(pool.getMetrics()))
+    {
+      if (System.currentTimeMillis() > deadline)
+        fail("Condition not reached in time: " + pool.getMetrics());
+
+      try
+      {
+        Thread.sleep(10);
+      }
+      catch (InterruptedException pE)
+      {
+        throw new AssertionError(pE);
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package de.adito.ojcms.sql.datasource.connection;
+
+import de.adito.ojcms.sqlbuilder.platform.EEmbeddedDatabasePlatform;
+import de.adito.ojcms.sqlbuilder.platform.connection.*;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link ReplicaConnectionSupplier} with two replicas connecting to an in-memory derby database.
+ *
+ * @author agent, 17.10.2026
+ */
+public class ReplicaConnectionSupplierTest
+{
+  private ReplicaConnectionSupplier supplier;
+
+  @BeforeEach
+  public void createSupplier()
+  {
+    final IDatabaseConnectionSupplier derbySupplier =
+        new ConnectionSupplierFactory(false).forEmbeddedDatabase(EEmbeddedDatabasePlatform.DERBY, true);
+
+    supplier = new ReplicaConnectionSupplier(Arrays.asList(derbySupplier, derbySupplier));
+  }
+
+  @Test
+  public void testRequireReplica()
+  {
+    assertThrows(IllegalArgumentException.class, () -> new ReplicaConnectionSupplier(Collections.emptyList()));
+  }
+
+  @Test
+  public void testDistributeToLeastLoadedReplica() throws SQLException
+  {
+    try (Connection ignored = supplier.createNewConnection())
+    {
+      assertEquals(1, _overallOpenConnections());
+
+      try (Connection ignored2 = supplier.createNewConnection())
+      {
+        assertEquals(Arrays.asList(1, 1), supplier.getOpenConnections());
+      }
+    }
+
+    assertEquals(Arrays.asList(0, 0), supplier.getOpenConnections());
+  }
+
+  @Test
+  public void testRoundRobinForEqualLoad() throws SQLException
+  {
+    supplier.createNewConnection().close();
+
+    try (Connection ignored = supplier.createNewConnection())
+    {
+      assertEquals(Arrays.asList(0, 1), supplier.getOpenConnections());
+    }
+  }
+
+  @Test
+  public void testReleaseOnlyOnce() throws SQLException
+  {
+    final Connection connection = supplier.createNewConnection();
+    connection.close();
+    connection.close();
+
+    try (Connection ignored = supplier.createNewConnection())
+    {
+      assertEquals(1, _overallOpenConnections());
+    }
+  }
+
+  /**
+   * The amount of open connections of all replicas.
+   *
+   * @return the overall number of open connections
+   */
+  private int _overallOpenConnections()
+  {
+    return supplier.getOpenConnections().stream() //
+        .mapToInt(Integer::intValue) //
+        .sum();
+  }
+}
@@ -17,6 +17,7 @@ import javax.enterprise.inject.Alternative;
 import javax.inject.Inject;
 import java.util.*;
 
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.DEFAULT_STATEMENT_BATCH_SIZE;
 import static java.util.Collections.singleton;
 
 /**
@@ -45,6 +46,46 @@ public abstract class AbstractDatabaseTest<MODEL extends IPersistenceModel> exte
    */
   protected abstract Class<MODEL> getModelType();
 
+  /**
+   * Determines if the persistence model of this test should use row versions for optimistic concurrency control.
+   *
+   * @return <tt>true</tt> if the rows should be versioned
+   */
+  protected boolean useRowVersions()
+  {
+    return false;
+  }
+
+  /**
+   * Determines if the container persistence model of this test should store the order of the rows by sparse ordering keys.
+   *
+   * @return <tt>true</tt> if sparse ordering keys should be used
+   */
+  protected boolean useSparseOrderingKeys()
+  {
+    return false;
+  }
+
+  /**
+   * Determines if the single bean persistence model of this test should store the bean in a table with typed columns.
+   *
+   * @return <tt>true</tt> if typed columns should be used
+   */
+  protected boolean useTypedSingleBeanTables()
+  {
+    return false;
+  }
+
+  /**
+   * The maximum amount of statements per JDBC batch for the container persistence model of this test.
+   *
+   * @return the maximum amount of statements per batch
+   */
+  protected int getStatementBatchSize()
+  {
+    return DEFAULT_STATEMENT_BATCH_SIZE;
+  }
+
   @BeforeEach
   public void setupDatabase()
   {
@@ -70,11 +111,25 @@ public abstract class AbstractDatabaseTest<MODEL extends IPersistenceModel> exte
    * @return the persistent bean data of the added bean
    */
   protected PersistentBeanData addContentToContainer(int pIndex, int pFirstValue, String pSecondValue, boolean pThirdValue)
+  {
+    final BeanAddition addition = createContainerAddition(pIndex, pFirstValue, pSecondValue, pThirdValue);
+    storage.processAdditionsForContainer(CONTAINER_ID, singleton(addition));
+    return new PersistentBeanData(pIndex, addition.getData());
+  }
+
+  /**
+   * Creates a {@link BeanAddition} of a {@link SomeBean} for the persistent bean container.
+   *
+   * @param pIndex       the index to add the bean at
+   * @param pFirstValue  the first value of the new bean
+   * @param pSecondValue the second value of the new bean
+   * @param pThirdValue  the third value of the new bean
+   * @return the created bean addition
+   */
+  protected BeanAddition createContainerAddition(int pIndex, int pFirstValue, String pSecondValue, boolean pThirdValue)
   {
     final SomeBean bean = new SomeBean(pFirstValue, pSecondValue, pThirdValue);
-    final Set<BeanAddition> additions = singleton(new BeanAddition(pIndex, bean.toMap(), SomeBean.class, CONTAINER_ID));
-    storage.processAdditionsForContainer(CONTAINER_ID, additions);
-    return new PersistentBeanData(pIndex, bean.toMap());
+    return new BeanAddition(pIndex, bean.toMap(), SomeBean.class, CONTAINER_ID);
   }
 
   /**
@@ -133,18 +188,18 @@ public abstract class AbstractDatabaseTest<MODEL extends IPersistenceModel> exte
 
     if (modelType == ContainerPersistenceModel.class)
       //noinspection unchecked
-      return (MODEL) new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class);
+      return (MODEL) new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, useRowVersions(), useSparseOrderingKeys(), getStatementBatchSize());
     else if (modelType == BaseContainerPersistenceModel.class)
     {
       final Set<Class<? extends IBean>> subTypes = new HashSet<>(Arrays.asList(SomeOtherBean.class, SomeSpecialBean.class));
       //noinspection unchecked
-      return (MODEL) new BaseContainerPersistenceModel(CONTAINER_ID, subTypes);
+      return (MODEL) new BaseContainerPersistenceModel(CONTAINER_ID, subTypes, useRowVersions(), useSparseOrderingKeys(), getStatementBatchSize());
     }
     else if (modelType == SingleBeanPersistenceModel.class)
     {
-      SingleBeanPersistenceModel.createSingleBeanTableIfNecessary(builder);
+      SingleBeanPersistenceModel.createSingleBeanTableIfNecessary(builder, useRowVersions());
       //noinspection unchecked
-      return (MODEL) new SingleBeanPersistenceModel(CONTAINER_ID, SomeBean.class);
+      return (MODEL) new SingleBeanPersistenceModel(CONTAINER_ID, SomeBean.class, useRowVersions(), useTypedSingleBeanTables());
     }
     else
       throw new OJSQLException("Unsupported model type: " + modelType.getName());
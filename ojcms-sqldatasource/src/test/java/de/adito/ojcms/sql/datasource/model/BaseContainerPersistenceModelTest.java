@@ -1,11 +1,16 @@
 package de.adito.ojcms.sql.datasource.model;
 
 import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.sqlbuilder.definition.*;
+import de.adito.ojcms.sqlbuilder.definition.column.*;
+import de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition;
+import de.adito.ojcms.sqlbuilder.util.OJDatabaseException;
 import de.adito.ojcms.transactions.api.*;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
 
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -19,7 +24,8 @@ public class BaseContainerPersistenceModelTest extends AbstractDatabaseTest<Base
   public void testInitModelInDatabase()
   {
     final Set<Class<? extends IBean>> subTypes = new HashSet<>(Arrays.asList(SomeOtherBean.class, SomeSpecialBean.class));
-    final BaseContainerPersistenceModel otherModel = new BaseContainerPersistenceModel(CONTAINER_ID + 2, subTypes);
+    final BaseContainerPersistenceModel otherModel =
+        new BaseContainerPersistenceModel(CONTAINER_ID + 2, subTypes, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
     otherModel.initModelInDatabase(builder);
     otherModel.initModelInDatabase(builder); //Try it another time
 
@@ -27,7 +33,8 @@ public class BaseContainerPersistenceModelTest extends AbstractDatabaseTest<Base
     assertEquals(8, builder.getColumnCount(CONTAINER_ID + 2)); //Five bean fields + id, index and type column -> 8
 
     subTypes.remove(SomeSpecialBean.class);
-    final BaseContainerPersistenceModel otherModel2 = new BaseContainerPersistenceModel(CONTAINER_ID + 2, subTypes);
+    final BaseContainerPersistenceModel otherModel2 =
+        new BaseContainerPersistenceModel(CONTAINER_ID + 2, subTypes, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
     otherModel2.initModelInDatabase(builder);
     assertEquals(7, builder.getColumnCount(CONTAINER_ID + 2)); //Four bean fields + id, index and type column -> 7
   }
@@ -44,6 +51,74 @@ public class BaseContainerPersistenceModelTest extends AbstractDatabaseTest<Base
     assertSame(SomeSpecialBean.class, type2);
   }
 
+  @Test
+  public void testMigrateClassNamesToDiscriminators()
+  {
+    addContentToBaseContainer(0, new SomeOtherBean(1, "1", true, 2));
+    addContentToBaseContainer(1, new SomeSpecialBean(2, "2", false, 3, "3"));
+
+    //Restore the former layout that stores the full class name of the bean type
+    final IColumnIdentification<String> legacyTypeColumn = IColumnIdentification.of(BEAN_TYPE_COLUMN_NAME, String.class);
+    builder.doAlterTable(pAlter -> pAlter //
+        .table(CONTAINER_ID) //
+        .columnsToAdd(IColumnDefinition.of(BEAN_TYPE_COLUMN_NAME, EColumnType.STRING.create())) //
+        .alter());
+
+    _setLegacyBeanType(0, SomeOtherBean.class, legacyTypeColumn);
+    _setLegacyBeanType(1, SomeSpecialBean.class, legacyTypeColumn);
+
+    builder.doAlterTable(pAlter -> pAlter //
+        .table(CONTAINER_ID) //
+        .columnsToDrop(BEAN_TYPE_ID_COLUMN_NAME) //
+        .alter());
+
+    model.initModelInDatabase(builder);
+
+    final Set<String> columnNames = builder.getAllColumnNames(CONTAINER_ID);
+    assertTrue(columnNames.contains(BEAN_TYPE_ID_COLUMN_NAME));
+    assertFalse(columnNames.contains(BEAN_TYPE_COLUMN_NAME));
+    assertSame(SomeOtherBean.class, model.loadBeanType(new InitialIndexKey(CONTAINER_ID, 0), builder));
+    assertSame(SomeSpecialBean.class, model.loadBeanType(new InitialIndexKey(CONTAINER_ID, 1), builder));
+  }
+
+  @Test
+  public void testDuplicateBeanTypeRegistrations()
+  {
+    //Restore a former registry table that allows a type name multiple times
+    final IColumnIdentification<String> typeNameColumn = IColumnIdentification.of(BEAN_TYPE_NAME_COLUMN_NAME, String.class);
+    builder.dropTable(BEAN_TYPE_TABLE_NAME);
+    builder.doCreate(pCreate -> pCreate //
+        .withIdColumn() //
+        .tableName(BEAN_TYPE_TABLE_NAME) //
+        .columns(IColumnDefinition.of(BEAN_TYPE_NAME_COLUMN_NAME, EColumnType.STRING.create().modifiers(EColumnModifier.NOT_NULL))) //
+        .create());
+
+    for (Class<? extends IBean> beanType : Arrays.asList(SomeOtherBean.class, SomeSpecialBean.class, SomeOtherBean.class))
+      builder.doInsert(pInsert -> pInsert //
+          .into(BEAN_TYPE_TABLE_NAME) //
+          .values(IColumnValueTuple.of(typeNameColumn, beanType.getName())) //
+          .insert());
+
+    final Set<Class<? extends IBean>> beanTypes = new HashSet<>(Arrays.asList(SomeOtherBean.class, SomeSpecialBean.class));
+    final Map<Class<? extends IBean>, Integer> discriminators = BeanTypeRegistry.registerBeanTypes(beanTypes, builder);
+    //The first registration of a type name determines the discriminator
+    assertTrue(discriminators.get(SomeOtherBean.class) < discriminators.get(SomeSpecialBean.class));
+
+    model.initModelInDatabase(builder);
+    addContentToBaseContainer(0, new SomeOtherBean(1, "1", true, 2));
+    assertSame(SomeOtherBean.class, model.loadBeanType(new InitialIndexKey(CONTAINER_ID, 0), builder));
+  }
+
+  @Test
+  public void testBeanTypeNamesUnique()
+  {
+    final IColumnIdentification<String> typeNameColumn = IColumnIdentification.of(BEAN_TYPE_NAME_COLUMN_NAME, String.class);
+    assertThrows(OJDatabaseException.class, () -> builder.doInsert(pInsert -> pInsert //
+        .into(BEAN_TYPE_TABLE_NAME) //
+        .values(IColumnValueTuple.of(typeNameColumn, SomeOtherBean.class.getName())) //
+        .insert()));
+  }
+
   @Test
   public void testLoadData()
   {
@@ -64,6 +139,22 @@ public class BaseContainerPersistenceModelTest extends AbstractDatabaseTest<Base
     return BaseContainerPersistenceModel.class;
   }
 
+  /**
+   * Sets the full class name of the bean type at an index like in the former table layout.
+   *
+   * @param pIndex      the index of the bean
+   * @param pBeanType   the bean type to set
+   * @param pTypeColumn the former bean type column
+   */
+  private void _setLegacyBeanType(int pIndex, Class<? extends IBean> pBeanType, IColumnIdentification<String> pTypeColumn)
+  {
+    builder.doUpdate(pUpdate -> pUpdate //
+        .table(CONTAINER_ID) //
+        .set(IColumnValueTuple.of(pTypeColumn, pBeanType.getName())) //
+        .where(IWhereCondition.isEqual(ContainerPersistenceModel.INDEX_COLUMN, pIndex)) //
+        .update());
+  }
+
   /**
    * Adds some content/beans to the container.
    *
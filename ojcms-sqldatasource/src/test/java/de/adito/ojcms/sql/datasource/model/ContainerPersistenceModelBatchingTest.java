@@ -0,0 +1,160 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.sqlbuilder.OJSQLBuilder;
+import de.adito.ojcms.transactions.api.*;
+import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.*;
+import java.sql.Statement;
+import java.util.*;
+import java.util.logging.Logger;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.DEFAULT_STATEMENT_BATCH_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the batched processing of additions and value changes of the {@link ContainerPersistenceModel} with the processing of
+ * separate statements (batch size one) on the embedded database. Both have to lead to the same data, the timings are logged.
+ *
+ * @author agent, 16.10.2026
+ */
+public class ContainerPersistenceModelBatchingTest extends AbstractDatabaseTest<ContainerPersistenceModel>
+{
+  private static final Logger LOGGER = Logger.getLogger(ContainerPersistenceModelBatchingTest.class.getName());
+  private static final int BEAN_COUNT = 500;
+
+  @Test
+  public void testBatchedProcessingEqualsSeparateStatements()
+  {
+    final ContainerPersistenceModel separateModel =
+        new ContainerPersistenceModel(CONTAINER_ID + "Separate", SomeBean.class, false, false, 1);
+    final ContainerPersistenceModel batchedModel =
+        new ContainerPersistenceModel(CONTAINER_ID + "Batched", SomeBean.class, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
+
+    //Warm up both paths once, so the timings are not distorted by class loading and statement compilation
+    _processChanges(separateModel, 10);
+    _processChanges(batchedModel, 10);
+
+    final long separateTime = _processChanges(separateModel, BEAN_COUNT);
+    final long batchedTime = _processChanges(batchedModel, BEAN_COUNT);
+    LOGGER.info(String.format("%d additions and value changes: separate statements %d ms, batches of %d %d ms", BEAN_COUNT,
+                              separateTime / 1_000_000, DEFAULT_STATEMENT_BATCH_SIZE, batchedTime / 1_000_000));
+
+    final Map<Integer, PersistentBeanData> separateData = separateModel.loadFullData(builder);
+    final Map<Integer, PersistentBeanData> batchedData = batchedModel.loadFullData(builder);
+    assertEquals(BEAN_COUNT + 10, batchedData.size());
+    assertEquals(separateData, batchedData);
+  }
+
+  @Test
+  public void testVersionedUpdatesWithoutBatchUpdateCounts()
+  {
+    final ContainerPersistenceModel versionedModel =
+        new ContainerPersistenceModel(CONTAINER_ID + "Versioned", SomeBean.class, true, false, DEFAULT_STATEMENT_BATCH_SIZE);
+    versionedModel.initModelInDatabase(builder);
+    final Set<BeanAddition> additions = new LinkedHashSet<>();
+    additions.add(createContainerAddition(0, 0, "0", false));
+    additions.add(createContainerAddition(1, 1, "1", false));
+    versionedModel.processAdditions(additions, builder);
+
+    final Map<Integer, Map<IField<?>, Object>> changes = new HashMap<>();
+    changes.put(0, Collections.singletonMap(SomeBean.FIELD1, 22));
+    changes.put(1, Collections.singletonMap(SomeBean.FIELD1, 23));
+    final List<Integer> batchSizes = new ArrayList<>();
+    final OJSQLBuilder builderWithoutCounts = _builderWithoutBatchUpdateCounts(batchSizes);
+
+    //The updates cannot be verified without the updated rows
+    assertThrows(ConcurrentTransactionException.class,
+                 () -> versionedModel.processValueChanges(changes, _loadVersions(versionedModel), builderWithoutCounts));
+
+    //The next try executes the updates separately
+    versionedModel.processValueChanges(changes, _loadVersions(versionedModel), builderWithoutCounts);
+    assertEquals(Arrays.asList(DEFAULT_STATEMENT_BATCH_SIZE, 1), batchSizes);
+    assertEquals(23, versionedModel.loadDataByIndex(new InitialIndexKey(CONTAINER_ID + "Versioned", 1), builder).getData()
+        .get(SomeBean.FIELD1));
+  }
+
+  @Override
+  protected Class<ContainerPersistenceModel> getModelType()
+  {
+    return ContainerPersistenceModel.class;
+  }
+
+  /**
+   * Initializes a container model in the database, adds beans to the end of the container and changes a value of every new bean.
+   *
+   * @param pModel the model of the container
+   * @param pCount the amount of beans to add and change
+   * @return the elapsed time in nanoseconds
+   */
+  private long _processChanges(ContainerPersistenceModel pModel, int pCount)
+  {
+    pModel.initModelInDatabase(builder);
+    final int initialSize = pModel.loadSize(builder);
+
+    final Set<BeanAddition> additions = new LinkedHashSet<>();
+    final Map<Integer, Map<IField<?>, Object>> changes = new HashMap<>();
+    for (int i = 0; i < pCount; i++)
+    {
+      final int index = initialSize + i;
+      additions.add(createContainerAddition(index, index, String.valueOf(index), false));
+      changes.put(index, Collections.singletonMap(SomeBean.FIELD3, true));
+    }
+
+    final long start = System.nanoTime();
+    pModel.processAdditions(additions, builder);
+    pModel.processValueChanges(changes, Collections.emptyMap(), builder);
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Loads the versions of the bean data of a container by index.
+   *
+   * @param pModel the model of the container
+   * @return the versions of the bean data by index
+   */
+  private Map<Integer, Object> _loadVersions(ContainerPersistenceModel pModel)
+  {
+    final Map<Integer, Object> versions = new HashMap<>();
+    pModel.loadFullData(builder).forEach((pIndex, pData) -> versions.put(pIndex, pData.getVersion().orElseThrow(AssertionError::new)));
+    return versions;
+  }
+
+  /**
+   * Creates a builder that behaves like a JDBC driver that does not report the affected rows of statements executed in batches.
+   * Statements executed separately (batch size one) report the affected rows.
+   *
+   * @param pBatchSizes a list to collect the batch sizes of all batch executions
+   * @return the builder delegating to the builder of the test
+   */
+  private OJSQLBuilder _builderWithoutBatchUpdateCounts(List<Integer> pBatchSizes)
+  {
+    final Class<?>[] interfaces = {OJSQLBuilder.class};
+    return (OJSQLBuilder) Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, (pProxy, pMethod, pArgs) ->
+    {
+      final Object result;
+      try
+      {
+        //Most methods are declared by a package private interface of the builder module
+        pMethod.setAccessible(true);
+        result = pMethod.invoke(builder, pArgs);
+      }
+      catch (InvocationTargetException pE)
+      {
+        throw pE.getCause();
+      }
+
+      if (!"doBatch".equals(pMethod.getName()))
+        return result;
+
+      final int batchSize = (int) pArgs[0];
+      pBatchSizes.add(batchSize);
+      if (batchSize > 1)
+        Arrays.fill((int[]) result, Statement.SUCCESS_NO_INFO);
+
+      return result;
+    });
+  }
+}
@@ -1,11 +1,17 @@
 package de.adito.ojcms.sql.datasource.model;
 
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.sqlbuilder.SchemaSnapshot;
+import de.adito.ojcms.sqlbuilder.definition.IIndexDefinition;
+import de.adito.ojcms.sqlbuilder.platform.IDatabasePlatform;
 import de.adito.ojcms.transactions.api.*;
 import de.adito.ojcms.transactions.exceptions.BeanDataNotFoundException;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -18,13 +24,97 @@ public class ContainerPersistenceModelTest extends AbstractDatabaseTest<Containe
   @Test
   public void testInitModelInDatabase()
   {
-    final ContainerPersistenceModel otherModel = new ContainerPersistenceModel(CONTAINER_ID + 2, SomeBean.class);
+    final ContainerPersistenceModel otherModel =
+        new ContainerPersistenceModel(CONTAINER_ID + 2, SomeBean.class, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
     otherModel.initModelInDatabase(builder);
 
     assertTrue(builder.hasTable(CONTAINER_ID + 2));
     assertEquals(5, builder.getColumnCount(CONTAINER_ID + 2)); //Three bean fields + id and index column -> 5
   }
 
+  @Test
+  public void testInitModelsWithSchemaSnapshot()
+  {
+    final SchemaSnapshot schema = builder.loadSchemaSnapshot();
+    assertTrue(schema.hasTable(CONTAINER_ID));
+    assertFalse(schema.hasTable(CONTAINER_ID + 2));
+    assertEquals(builder.getAllColumnNames(CONTAINER_ID), schema.getColumnNames(CONTAINER_ID));
+    assertEquals(builder.getAllIndexNames(CONTAINER_ID), schema.getIndexNames(CONTAINER_ID));
+
+    //Several models can be initialized with the same snapshot
+    final ContainerPersistenceModel otherModel =
+        new ContainerPersistenceModel(CONTAINER_ID + 2, SomeBean.class, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID + 3, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    otherModel.initModelInDatabase(builder, schema);
+    sparseModel.initModelInDatabase(builder, schema);
+    model.initModelInDatabase(builder, schema);
+
+    final SchemaSnapshot newSchema = builder.loadSchemaSnapshot();
+    assertEquals(5, newSchema.getColumnNames(CONTAINER_ID + 2).size());
+    assertEquals(5, newSchema.getColumnNames(CONTAINER_ID + 3).size());
+    assertEquals(schema.getIndexNames(CONTAINER_ID), newSchema.getIndexNames(CONTAINER_ID));
+  }
+
+  @Test
+  public void testDescribeStructure()
+  {
+    final IDatabasePlatform platform = builder.getPlatformConnectionSupplier().getPlatform();
+    final ContainerPersistenceModel sameModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, false, DEFAULT_STATEMENT_BATCH_SIZE);
+    assertEquals(model.describeStructure(platform), sameModel.describeStructure(platform));
+
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    final ContainerPersistenceModel versionedModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, true, false, DEFAULT_STATEMENT_BATCH_SIZE);
+    assertNotEquals(model.describeStructure(platform), sparseModel.describeStructure(platform));
+    assertNotEquals(model.describeStructure(platform), versionedModel.describeStructure(platform));
+  }
+
+  @Test
+  public void testMaintainIndexes()
+  {
+    final Set<String> expectedIndexes =
+        new HashSet<>(Arrays.asList(_indexName(INDEX_COLUMN_NAME), _indexName("FIELD1"), _indexName("FIELD2")));
+    assertEquals(expectedIndexes, _loadOwnIndexNames());
+
+    //Obsolete indexes are dropped, missing ones created again
+    builder.doAlterTable(pAlter -> pAlter //
+        .table(CONTAINER_ID) //
+        .indexesToDrop(_indexName("FIELD1")) //
+        .indexesToCreate(IIndexDefinition.of(_indexName("FIELD3"), "FIELD3")) //
+        .alter());
+
+    model.initModelInDatabase(builder);
+    assertEquals(expectedIndexes, _loadOwnIndexNames());
+
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    sparseModel.initModelInDatabase(builder);
+
+    final Set<String> expectedSparseIndexes =
+        new HashSet<>(Arrays.asList(_indexName(ORDER_KEY_COLUMN_NAME), _indexName("FIELD1"), _indexName("FIELD2")));
+    assertEquals(expectedSparseIndexes, _loadOwnIndexNames());
+  }
+
+  @Test
+  public void testMigrateOrderingMode()
+  {
+    addContentToContainer(0, 1, "1", false);
+    addContentToContainer(1, 2, "2", false);
+    addContentToContainer(0, 3, "3", false);
+
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    sparseModel.initModelInDatabase(builder);
+    assertEquals(Arrays.asList(3, 1, 2), _loadFirstValuesInOrder(sparseModel));
+    assertEquals(5, builder.getColumnCount(CONTAINER_ID)); //The index column has been replaced by the ordering key column
+
+    model.initModelInDatabase(builder);
+    assertEquals(Arrays.asList(3, 1, 2), _loadFirstValuesInOrder(model));
+  }
+
   @Test
   public void testContainerSize()
   {
@@ -78,6 +168,104 @@ public class ContainerPersistenceModelTest extends AbstractDatabaseTest<Containe
     assertEquals(data.get(2), result.get(2));
   }
 
+  @Test
+  public void testLoadFullDataStreamed()
+  {
+    final List<PersistentBeanData> streamed = new ArrayList<>();
+    model.loadFullData(2, streamed::add, builder);
+    assertTrue(streamed.isEmpty());
+
+    final List<PersistentBeanData> data = _addSomeContent();
+    model.loadFullData(2, streamed::add, builder);
+    assertEquals(data, streamed);
+  }
+
+  @Test
+  public void testLoadDataByFieldValues()
+  {
+    final Map<IField<?>, Object> condition = Collections.singletonMap(SomeBean.FIELD3, true);
+    assertTrue(model.loadDataByFieldValues(condition, builder).isEmpty());
+
+    final List<PersistentBeanData> data = _addSomeContent();
+    assertEquals(data.subList(0, 2), model.loadDataByFieldValues(condition, builder));
+    assertEquals(Collections.singletonList(data.get(2)), model.loadDataByFieldValues(createIdentifiers(3, "3"), builder));
+
+    //The indexes are the ranks of the ordering keys with sparse ordering
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    sparseModel.initModelInDatabase(builder);
+    assertEquals(Collections.singletonList(data.get(1)), sparseModel.loadDataByFieldValues(createIdentifiers(2, "2"), builder));
+    assertEquals(data.subList(0, 2), sparseModel.loadDataByFieldValues(condition, builder));
+    assertEquals(Optional.of(data.get(2)), sparseModel.loadDataByIdentifiers(createIdentifiers(3, "3"), builder));
+  }
+
+  @Test
+  public void testLoadDataByIndexWithOrderingKeyTranslations()
+  {
+    final List<PersistentBeanData> data = _addSomeContent();
+    final ContainerPersistenceModel sparseModel =
+        new ContainerPersistenceModel(CONTAINER_ID, SomeBean.class, false, true, DEFAULT_STATEMENT_BATCH_SIZE);
+    sparseModel.initModelInDatabase(builder);
+    final OrderingKeyTranslations translations = new OrderingKeyTranslations();
+
+    //The first load translates the indexes of the following rows as well
+    assertEquals(data.get(1), sparseModel.loadDataByIndex(new InitialIndexKey(CONTAINER_ID, 1), translations, builder));
+    assertFalse(translations.getOrderingKey(CONTAINER_ID, 0).isPresent());
+    assertTrue(translations.getOrderingKey(CONTAINER_ID, 2).isPresent());
+    assertEquals(data.get(2), sparseModel.loadDataByIndex(new InitialIndexKey(CONTAINER_ID, 2), translations, builder));
+
+    //A translation of a row that does not exist anymore is resolved again
+    sparseModel.processRemovals(Collections.singleton(new InitialIndexKey(CONTAINER_ID, 1)), builder);
+    final PersistentBeanData reloaded = sparseModel.loadDataByIndex(new InitialIndexKey(CONTAINER_ID, 1), translations, builder);
+    assertEquals(data.get(2).getData(), reloaded.getData());
+    assertFalse(translations.getOrderingKey(CONTAINER_ID, 2).isPresent());
+  }
+
+  @Test
+  public void testLoadDistinctValues()
+  {
+    assertTrue(model.loadDistinctValues(SomeBean.FIELD3, builder).isEmpty());
+
+    _addSomeContent();
+    assertEquals(new HashSet<>(Arrays.asList(true, false)), model.loadDistinctValues(SomeBean.FIELD3, builder));
+  }
+
+  @Test
+  public void testLoadDataByIndexRange()
+  {
+    assertTrue(model.loadDataByIndexRange(0, 10, builder).isEmpty());
+
+    final List<PersistentBeanData> data = _addSomeContent();
+    final Map<Integer, PersistentBeanData> result = model.loadDataByIndexRange(1, 3, builder);
+    assertEquals(2, result.size());
+    assertEquals(data.get(1), result.get(1));
+    assertEquals(data.get(2), result.get(2));
+  }
+
+  /**
+   * Loads the names of the indexes of the container table that are maintained by the persistence model.
+   *
+   * @return a set of upper case index names
+   */
+  private Set<String> _loadOwnIndexNames()
+  {
+    return builder.getAllIndexNames(CONTAINER_ID).stream() //
+        .map(String::toUpperCase) //
+        .filter(pIndexName -> pIndexName.startsWith(INDEX_NAME_PREFIX.toUpperCase())) //
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * The upper case name of an index maintained by the persistence model for a column of the container table.
+   *
+   * @param pColumnName the name of the indexed column
+   * @return the name of the index
+   */
+  private static String _indexName(String pColumnName)
+  {
+    return (INDEX_NAME_PREFIX + CONTAINER_ID + "_" + pColumnName).toUpperCase();
+  }
+
   @Override
   protected Class<ContainerPersistenceModel> getModelType()
   {
@@ -98,4 +286,20 @@ public class ContainerPersistenceModelTest extends AbstractDatabaseTest<Containe
 
     return content;
   }
+
+  /**
+   * Loads the first field values of all beans of the container ordered by their index.
+   *
+   * @param pModel the model to load the beans with
+   * @return the first field values ordered by index
+   */
+  private List<Integer> _loadFirstValuesInOrder(ContainerPersistenceModel pModel)
+  {
+    final Map<Integer, PersistentBeanData> fullData = pModel.loadFullData(builder);
+    final List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < fullData.size(); i++)
+      values.add((Integer) fullData.get(i).getData().get(SomeBean.FIELD1));
+
+    return values;
+  }
 }
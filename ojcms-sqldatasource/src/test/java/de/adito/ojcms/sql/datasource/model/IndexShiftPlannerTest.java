@@ -0,0 +1,60 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the planning of index shifts by {@link IndexShiftPlanner}.
+ *
+ * @author agent, 16.10.2026
+ */
+public class IndexShiftPlannerTest
+{
+  @Test
+  public void testManyAdditionsAtHeadShiftOnce()
+  {
+    final List<Integer> finalIndexes = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    final List<IndexShiftPlanner.IndexShift> shifts = IndexShiftPlanner.planAdditions(finalIndexes);
+
+    assertEquals(Collections.singletonList(new IndexShiftPlanner.IndexShift(0, Integer.MAX_VALUE, 1000)), shifts);
+  }
+
+  @Test
+  public void testAdditionsAtDifferentPositions()
+  {
+    //Existing rows 0-9, additions at final indexes 1 and 5 -> rows 1-3 shift by one, rows from 4 on by two
+    final List<IndexShiftPlanner.IndexShift> shifts = IndexShiftPlanner.planAdditions(Arrays.asList(5, 1));
+
+    assertEquals(Arrays.asList(new IndexShiftPlanner.IndexShift(4, Integer.MAX_VALUE, 2), new IndexShiftPlanner.IndexShift(1, 4, 1)),
+                 shifts);
+  }
+
+  @Test
+  public void testConsecutiveRemovalsShiftOnce()
+  {
+    final List<Integer> removedIndexes = IntStream.range(10, 1010).boxed().collect(Collectors.toList());
+    final List<IndexShiftPlanner.IndexShift> shifts = IndexShiftPlanner.planRemovals(removedIndexes);
+
+    assertEquals(Collections.singletonList(new IndexShiftPlanner.IndexShift(1010, Integer.MAX_VALUE, -1000)), shifts);
+  }
+
+  @Test
+  public void testRemovalsWithGaps()
+  {
+    final List<IndexShiftPlanner.IndexShift> shifts = IndexShiftPlanner.planRemovals(Arrays.asList(4, 1, 2));
+
+    assertEquals(Arrays.asList(new IndexShiftPlanner.IndexShift(3, 4, -2), new IndexShiftPlanner.IndexShift(5, Integer.MAX_VALUE, -3)),
+                 shifts);
+  }
+
+  @Test
+  public void testNoChanges()
+  {
+    assertTrue(IndexShiftPlanner.planAdditions(Collections.emptyList()).isEmpty());
+    assertTrue(IndexShiftPlanner.planRemovals(Collections.emptyList()).isEmpty());
+  }
+}
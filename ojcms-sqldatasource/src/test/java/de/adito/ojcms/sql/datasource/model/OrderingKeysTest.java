@@ -0,0 +1,48 @@
+package de.adito.ojcms.sql.datasource.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the calculation of sparse ordering keys by {@link OrderingKeys}.
+ *
+ * @author agent, 16.10.2026
+ */
+public class OrderingKeysTest
+{
+  @Test
+  public void testKeysForEmptyContainer()
+  {
+    final List<Long> keys = OrderingKeys.keysBetween(null, null, 2).orElseThrow(AssertionError::new);
+    assertEquals(Arrays.asList(OrderingKeys.SPACING, 2 * OrderingKeys.SPACING), keys);
+  }
+
+  @Test
+  public void testKeysAtBoundaries()
+  {
+    final long existingKey = OrderingKeys.keyForRank(0);
+
+    final List<Long> keysAtHead = OrderingKeys.keysBetween(null, existingKey, 1).orElseThrow(AssertionError::new);
+    assertEquals(Collections.singletonList(existingKey - OrderingKeys.SPACING), keysAtHead);
+
+    final List<Long> keysAtTail = OrderingKeys.keysBetween(existingKey, null, 1).orElseThrow(AssertionError::new);
+    assertEquals(Collections.singletonList(existingKey + OrderingKeys.SPACING), keysAtTail);
+  }
+
+  @Test
+  public void testKeysWithinGapAreAscending()
+  {
+    final List<Long> keys = OrderingKeys.keysBetween(100L, 200L, 3).orElseThrow(AssertionError::new);
+    assertEquals(Arrays.asList(125L, 150L, 175L), keys);
+  }
+
+  @Test
+  public void testExhaustedGap()
+  {
+    assertFalse(OrderingKeys.keysBetween(100L, 101L, 1).isPresent());
+    assertFalse(OrderingKeys.keysBetween(100L, 102L, 2).isPresent());
+  }
+}
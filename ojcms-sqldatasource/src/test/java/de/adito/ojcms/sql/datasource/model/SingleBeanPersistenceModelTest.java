@@ -24,7 +24,7 @@ public class SingleBeanPersistenceModelTest extends AbstractDatabaseTest<SingleB
   @Test
   public void testInitModelInDatabase()
   {
-    final SingleBeanPersistenceModel otherModel = new SingleBeanPersistenceModel(BEAN_ID + 2, SomeBean.class);
+    final SingleBeanPersistenceModel otherModel = new SingleBeanPersistenceModel(BEAN_ID + 2, SomeBean.class, false, false);
     otherModel.initModelInDatabase(builder);
 
     assertTrue(builder.hasTable(BEAN_TABLE_NAME));
@@ -60,9 +60,56 @@ public class SingleBeanPersistenceModelTest extends AbstractDatabaseTest<SingleB
     assertEquals(true, changedValues.get(SomeBean.FIELD3));
   }
 
+  @Test
+  public void testMigrateStorageLayout()
+  {
+    setSingleBeanValues(42, "42", true);
+
+    final SingleBeanPersistenceModel typedModel = new SingleBeanPersistenceModel(CONTAINER_ID, SomeBean.class, false, true);
+    typedModel.initModelInDatabase(builder);
+
+    assertTrue(builder.hasTable(SingleBeanPersistenceModel.typedTableNameOf(CONTAINER_ID)));
+    assertFalse(_hasContentRow(CONTAINER_ID));
+    final Map<IField<?>, Object> migratedValues = typedModel.loadSingleBeanData(new SingleBeanKey(CONTAINER_ID), builder).getData();
+    assertEquals(3, migratedValues.size());
+    assertEquals(42, migratedValues.get(SomeBean.FIELD1));
+    assertEquals("42", migratedValues.get(SomeBean.FIELD2));
+    assertEquals(true, migratedValues.get(SomeBean.FIELD3));
+
+    typedModel.processChanges(Collections.singletonMap(SomeBean.FIELD2, "43"), null, builder);
+
+    final SingleBeanPersistenceModel contentModel = new SingleBeanPersistenceModel(CONTAINER_ID, SomeBean.class, false, false);
+    contentModel.initModelInDatabase(builder);
+
+    assertFalse(builder.hasTable(SingleBeanPersistenceModel.typedTableNameOf(CONTAINER_ID)));
+    assertTrue(_hasContentRow(CONTAINER_ID));
+    final Map<IField<?>, Object> values = contentModel.loadSingleBeanData(new SingleBeanKey(CONTAINER_ID), builder).getData();
+    assertEquals(42, values.get(SomeBean.FIELD1));
+    assertEquals("43", values.get(SomeBean.FIELD2));
+    assertEquals(true, values.get(SomeBean.FIELD3));
+  }
+
   @Override
   protected Class<SingleBeanPersistenceModel> getModelType()
   {
     return SingleBeanPersistenceModel.class;
   }
+
+  /**
+   * Determines if the JSON based single bean table contains a row for a bean id.
+   *
+   * @param pBeanId the id of the single bean
+   * @return <tt>true</tt> if the row exists
+   */
+  private boolean _hasContentRow(String pBeanId)
+  {
+    final IColumnIdentification<String> idColumn = IColumnIdentification.of(BEAN_TABLE_BEAN_ID, String.class);
+
+    return builder.doSelect(pSelect -> pSelect //
+        .select(idColumn) //
+        .from(BEAN_TABLE_NAME) //
+        .where(IWhereCondition.isEqual(idColumn, pBeanId)) //
+        .firstResult() //
+        .isPresent());
+  }
 }
@@ -0,0 +1,156 @@
+package de.adito.ojcms.sql.datasource.persistence;
+
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.sql.datasource.model.*;
+import de.adito.ojcms.sqlbuilder.definition.IColumnIdentification;
+import de.adito.ojcms.transactions.api.*;
+import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.*;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.ROW_VERSION_COLUMN_NAME;
+import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.ADD;
+import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
+import static de.adito.ojcms.sqlbuilder.definition.condition.IWhereCondition.isEqual;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SQLBeanDataStorage} for bean containers with versioned rows with an actual database connection (in-memory).
+ *
+ * @author agent, 16.10.2026
+ */
+public class SQLBeanDataStorageContainerRowVersionTest extends AbstractDatabaseTest<ContainerPersistenceModel>
+{
+  private static final IColumnIdentification<Long> ROW_VERSION_COLUMN = IColumnIdentification.of(ROW_VERSION_COLUMN_NAME, Long.class);
+  private static final InitialIndexKey INDEX_KEY = new InitialIndexKey(CONTAINER_ID, 0);
+
+  @Inject
+  private SQLBeanDataLoader loader;
+
+  @Test
+  public void testProcessChangesAfterLoad()
+  {
+    addContentToContainer(0, 42, "42", true);
+    final PersistentBeanData readData = loader.loadContainerBeanDataByIndex(INDEX_KEY);
+
+    _processChange(INDEX_KEY, 22, readData);
+    //The read version is outdated after the update
+    assertThrows(ConcurrentTransactionException.class, () -> _processChange(INDEX_KEY, 33, readData));
+
+    _processChange(INDEX_KEY, 33, loader.loadContainerBeanDataByIndex(INDEX_KEY));
+    assertEquals(33, loader.loadContainerBeanDataByIndex(INDEX_KEY).getData().get(SomeBean.FIELD1));
+  }
+
+  @Test
+  public void testProcessChangesAfterChangeOfOtherInstance()
+  {
+    addContentToContainer(0, 42, "42", true);
+    final PersistentBeanData readData = loader.loadContainerBeanDataByIndex(INDEX_KEY);
+
+    //Simulate a change of another application instance
+    builder.doUpdate(pUpdate -> pUpdate //
+        .table(CONTAINER_ID) //
+        .adaptNumericValue(of(ROW_VERSION_COLUMN, ADD, 1L)) //
+        .update());
+
+    //Loading the current version elsewhere does not affect the version the change is based on
+    final PersistentBeanData currentData = loader.loadContainerBeanDataByIndex(INDEX_KEY);
+    assertThrows(ConcurrentTransactionException.class, () -> _processChange(INDEX_KEY, 22, readData));
+
+    _processChange(INDEX_KEY, 22, currentData);
+    assertEquals(22, loader.loadContainerBeanDataByIndex(INDEX_KEY).getData().get(SomeBean.FIELD1));
+  }
+
+  @Test
+  public void testProcessChangesAfterIndexShift()
+  {
+    final InitialIndexKey secondKey = new InitialIndexKey(CONTAINER_ID, 1);
+    addContentToContainer(0, 42, "42", true);
+    addContentToContainer(1, 43, "43", true);
+    final PersistentBeanData readData = loader.loadContainerBeanDataByIndex(secondKey);
+
+    //The removal is processed before the value changes, the changed bean is at index 0 afterwards
+    storage.processRemovals(Collections.singletonMap(CONTAINER_ID, Collections.singleton(INDEX_KEY)));
+    _processChange(secondKey, 22, readData);
+
+    final PersistentBeanData changedData = loader.loadContainerBeanDataByIndex(INDEX_KEY);
+    assertEquals(22, changedData.getData().get(SomeBean.FIELD1));
+    assertEquals("43", changedData.getData().get(SomeBean.FIELD2));
+  }
+
+  @Test
+  public void testProcessChangesForMultipleBeansWithOneConflict()
+  {
+    final InitialIndexKey secondKey = new InitialIndexKey(CONTAINER_ID, 1);
+    addContentToContainer(0, 42, "42", true);
+    addContentToContainer(1, 43, "43", true);
+    final Map<Integer, PersistentBeanData> readData = loader.loadContainerBeanDataByIndexRange(CONTAINER_ID, 0, 2);
+
+    //Simulate a change of another application instance to the second bean
+    builder.doUpdate(pUpdate -> pUpdate //
+        .table(CONTAINER_ID) //
+        .adaptNumericValue(of(ROW_VERSION_COLUMN, ADD, 1L)) //
+        .where(isEqual(IColumnIdentification.of(SomeBean.FIELD1.getName(), Integer.class), 43)) //
+        .update());
+
+    final Map<InitialIndexKey, Map<IField<?>, Object>> changes = new HashMap<>();
+    changes.put(INDEX_KEY, Collections.singletonMap(SomeBean.FIELD1, 22));
+    changes.put(secondKey, Collections.singletonMap(SomeBean.FIELD1, 23));
+    final Map<InitialIndexKey, Object> versions = new HashMap<>();
+    versions.put(INDEX_KEY, _versionOf(readData.get(0)));
+    versions.put(secondKey, _versionOf(readData.get(1)));
+
+    final ConcurrentTransactionException exception =
+        assertThrows(ConcurrentTransactionException.class, () -> storage.processChangesForContainerBeans(CONTAINER_ID, changes, versions));
+    assertTrue(exception.getMessage().contains(secondKey.toString()));
+  }
+
+  @Test
+  public void testProcessChangesWithoutKnownVersion()
+  {
+    addContentToContainer(0, 42, "42", true);
+    loader.loadContainerBeanDataByIndex(INDEX_KEY);
+
+    assertThrows(ConcurrentTransactionException.class,
+        () -> storage.processChangesForContainerBean(INDEX_KEY, Collections.singletonMap(SomeBean.FIELD1, 22)));
+  }
+
+  /**
+   * Processes a change of the first field of a bean based on the version of some read bean data.
+   *
+   * @param pKey      the key of the changed bean
+   * @param pNewValue the new value of the first field
+   * @param pReadData the bean data the change is based on
+   */
+  private void _processChange(InitialIndexKey pKey, int pNewValue, PersistentBeanData pReadData)
+  {
+    final Map<IField<?>, Object> changedValues = Collections.singletonMap(SomeBean.FIELD1, pNewValue);
+    storage.processChangesForContainerBeans(CONTAINER_ID, Collections.singletonMap(pKey, changedValues),
+                                            Collections.singletonMap(pKey, _versionOf(pReadData)));
+  }
+
+  /**
+   * Resolves the version of loaded bean data.
+   *
+   * @param pBeanData the loaded bean data
+   * @return the version of the bean data
+   */
+  private static Object _versionOf(PersistentBeanData pBeanData)
+  {
+    return pBeanData.getVersion().orElseThrow(AssertionError::new);
+  }
+
+  @Override
+  protected Class<ContainerPersistenceModel> getModelType()
+  {
+    return ContainerPersistenceModel.class;
+  }
+
+  @Override
+  protected boolean useRowVersions()
+  {
+    return true;
+  }
+}
@@ -1,11 +1,13 @@
 package de.adito.ojcms.sql.datasource.persistence;
 
+import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.sql.datasource.model.*;
 import de.adito.ojcms.transactions.api.*;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
-import java.util.Collections;
+import java.util.*;
+import java.util.stream.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,6 +37,27 @@ public class SQLBeanDataStorageContainerTest extends AbstractDatabaseTest<Contai
     assertEquals(22, changedData1.getData().get(SomeBean.FIELD1));
   }
 
+  @Test
+  public void testProcessChangesForMultipleBeans()
+  {
+    for (int i = 0; i < 5; i++)
+      addContentToContainer(i, i, String.valueOf(i), false);
+
+    //Changes of different columns lead to different prepared statements within the batch
+    final Map<InitialIndexKey, Map<IField<?>, Object>> changes = new HashMap<>();
+    changes.put(new InitialIndexKey(CONTAINER_ID, 1), Collections.singletonMap(SomeBean.FIELD1, 11));
+    changes.put(new InitialIndexKey(CONTAINER_ID, 3), Collections.singletonMap(SomeBean.FIELD1, 33));
+    changes.put(new InitialIndexKey(CONTAINER_ID, 4), Collections.singletonMap(SomeBean.FIELD3, true));
+    storage.processChangesForContainerBeans(CONTAINER_ID, changes, Collections.emptyMap());
+
+    final Map<Integer, PersistentBeanData> fullData = loader.fullContainerLoad(CONTAINER_ID);
+    assertEquals(Arrays.asList(0, 11, 2, 33, 4), IntStream.range(0, 5) //
+        .mapToObj(pIndex -> fullData.get(pIndex).getData().get(SomeBean.FIELD1)) //
+        .collect(Collectors.toList()));
+    assertEquals(true, fullData.get(4).getData().get(SomeBean.FIELD3));
+    assertEquals(false, fullData.get(3).getData().get(SomeBean.FIELD3));
+  }
+
   @Test
   public void testProcessAdditionsForContainer()
   {
@@ -71,6 +94,35 @@ public class SQLBeanDataStorageContainerTest extends AbstractDatabaseTest<Contai
     assertEquals(expectedData.getData(), data.getData());
   }
 
+  @Test
+  public void testProcessMultipleAdditionsAndRemovals()
+  {
+    for (int i = 0; i < 6; i++)
+      addContentToContainer(i, i, String.valueOf(i), false);
+
+    //Remove 1, 2 and 4 -> remaining 0, 3, 5
+    final Set<InitialIndexKey> removals = Stream.of(1, 2, 4) //
+        .map(pIndex -> new InitialIndexKey(CONTAINER_ID, pIndex)) //
+        .collect(Collectors.toSet());
+    storage.processRemovals(Collections.singletonMap(CONTAINER_ID, removals));
+
+    //Add 10 and 11 at the head and 12 at the end -> 10, 11, 0, 3, 5, 12
+    final Set<BeanAddition> additions = new LinkedHashSet<>();
+    additions.add(createContainerAddition(0, 10, "10", true));
+    additions.add(createContainerAddition(1, 11, "11", true));
+    additions.add(createContainerAddition(5, 12, "12", true));
+    storage.processAdditionsForContainer(CONTAINER_ID, additions);
+
+    final List<Integer> expectedValues = Arrays.asList(10, 11, 0, 3, 5, 12);
+    assertEquals(expectedValues.size(), loader.loadContainerSize(CONTAINER_ID));
+
+    for (int i = 0; i < expectedValues.size(); i++)
+    {
+      final PersistentBeanData data = loader.loadContainerBeanDataByIndex(new InitialIndexKey(CONTAINER_ID, i));
+      assertEquals(expectedValues.get(i), data.getData().get(SomeBean.FIELD1));
+    }
+  }
+
   @Override
   protected Class<ContainerPersistenceModel> getModelType()
   {
@@ -0,0 +1,93 @@
+package de.adito.ojcms.sql.datasource.persistence;
+
+import de.adito.ojcms.sql.datasource.model.*;
+import de.adito.ojcms.sqlbuilder.definition.IColumnIdentification;
+import de.adito.ojcms.transactions.api.SingleBeanKey;
+import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.Collections;
+
+import static de.adito.ojcms.sql.datasource.util.DatabaseConstants.*;
+import static de.adito.ojcms.sqlbuilder.definition.ENumericOperation.ADD;
+import static de.adito.ojcms.sqlbuilder.definition.INumericValueAdaption.of;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SQLBeanDataStorage} for single beans with versioned rows with an actual database connection (in-memory).
+ *
+ * @author agent, 16.10.2026
+ */
+public class SQLBeanDataStorageSingleBeanRowVersionTest extends AbstractDatabaseTest<SingleBeanPersistenceModel>
+{
+  private static final IColumnIdentification<Long> ROW_VERSION_COLUMN = IColumnIdentification.of(ROW_VERSION_COLUMN_NAME, Long.class);
+  private static final SingleBeanKey KEY = new SingleBeanKey(CONTAINER_ID);
+
+  @Inject
+  private SQLBeanDataLoader loader;
+
+  @Test
+  public void testProcessChangesAfterLoad()
+  {
+    final Object readVersion = _loadVersion();
+    storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD1, 42), readVersion);
+    //The read version is outdated after the update
+    assertThrows(ConcurrentTransactionException.class,
+        () -> storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD2, "42"), readVersion));
+
+    storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD2, "42"), _loadVersion());
+    assertEquals(42, loader.loadSingleBeanData(KEY).getData().get(SomeBean.FIELD1));
+    assertEquals("42", loader.loadSingleBeanData(KEY).getData().get(SomeBean.FIELD2));
+  }
+
+  @Test
+  public void testProcessChangesAfterChangeOfOtherInstance()
+  {
+    final Object readVersion = _loadVersion();
+
+    //Simulate a change of another application instance
+    builder.doUpdate(pUpdate -> pUpdate //
+        .table(BEAN_TABLE_NAME) //
+        .adaptNumericValue(of(ROW_VERSION_COLUMN, ADD, 1L)) //
+        .update());
+
+    //Loading the current version elsewhere does not affect the version the change is based on
+    final Object currentVersion = _loadVersion();
+    assertThrows(ConcurrentTransactionException.class,
+        () -> storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD1, 42), readVersion));
+
+    storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD1, 42), currentVersion);
+    assertEquals(42, loader.loadSingleBeanData(KEY).getData().get(SomeBean.FIELD1));
+  }
+
+  @Test
+  public void testProcessChangesWithoutKnownVersion()
+  {
+    _loadVersion();
+    assertThrows(ConcurrentTransactionException.class,
+        () -> storage.processChangesForSingleBean(KEY, Collections.singletonMap(SomeBean.FIELD1, 42)));
+  }
+
+  /**
+   * Loads the single bean data and resolves its version.
+   *
+   * @return the version of the loaded bean data
+   */
+  private Object _loadVersion()
+  {
+    return loader.loadSingleBeanData(KEY).getVersion().orElseThrow(AssertionError::new);
+  }
+
+  @Override
+  protected Class<SingleBeanPersistenceModel> getModelType()
+  {
+    return SingleBeanPersistenceModel.class;
+  }
+
+  @Override
+  protected boolean useRowVersions()
+  {
+    return true;
+  }
+}
@@ -23,11 +23,11 @@ public class SQLBeanDataStorageSingleBeanTest extends AbstractDatabaseTest<Singl
   @Test
   public void testProcessChangesForBean()
   {
-    final Map<IField<?>, Object> initialData = _loadSingleBeanData();
+    final Map<IField<?>, Object> initialData = loadSingleBeanData();
     assertEquals(3, initialData.size());
 
     setSingleBeanValues(42, "42", true);
-    final Map<IField<?>, Object> data = _loadSingleBeanData();
+    final Map<IField<?>, Object> data = loadSingleBeanData();
 
     assertEquals(3, data.size());
     assertEquals(42, data.get(SomeBean.FIELD1));
@@ -35,7 +35,7 @@ public class SQLBeanDataStorageSingleBeanTest extends AbstractDatabaseTest<Singl
     assertEquals(true, data.get(SomeBean.FIELD3));
 
     setSingleBeanValues(100, "100", false);
-    final Map<IField<?>, Object> data2 = _loadSingleBeanData();
+    final Map<IField<?>, Object> data2 = loadSingleBeanData();
 
     assertEquals(3, data2.size());
     assertEquals(100, data2.get(SomeBean.FIELD1));
@@ -48,7 +48,7 @@ public class SQLBeanDataStorageSingleBeanTest extends AbstractDatabaseTest<Singl
    *
    * @return the bean data as map
    */
-  private Map<IField<?>, Object> _loadSingleBeanData()
+  protected Map<IField<?>, Object> loadSingleBeanData()
   {
     return loader.loadSingleBeanData(new SingleBeanKey(CONTAINER_ID)).getData();
   }
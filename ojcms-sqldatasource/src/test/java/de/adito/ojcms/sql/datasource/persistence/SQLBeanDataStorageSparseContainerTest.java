@@ -0,0 +1,71 @@
+package de.adito.ojcms.sql.datasource.persistence;
+
+import de.adito.ojcms.sql.datasource.model.*;
+import de.adito.ojcms.transactions.api.*;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SQLBeanDataStorage} for bean containers that store the order of their beans by sparse ordering keys.
+ * All tests for containers with a dense index are executed in this mode as well.
+ *
+ * @author agent, 16.10.2026
+ */
+public class SQLBeanDataStorageSparseContainerTest extends SQLBeanDataStorageContainerTest
+{
+  @Inject
+  private SQLBeanDataLoader loader;
+
+  @Test
+  public void testRebalanceExhaustedGap()
+  {
+    addContentToContainer(0, 0, "0", false);
+    addContentToContainer(1, 1000, "1000", false);
+
+    //Always inserting at the same position bisects the same gap until it is exhausted
+    for (int i = 1; i <= 30; i++)
+      addContentToContainer(1, i, String.valueOf(i), false);
+
+    final Map<Integer, PersistentBeanData> fullData = loader.fullContainerLoad(CONTAINER_ID);
+    assertEquals(32, fullData.size());
+    assertEquals(0, fullData.get(0).getData().get(SomeBean.FIELD1));
+    assertEquals(1000, fullData.get(31).getData().get(SomeBean.FIELD1));
+
+    for (int i = 1; i <= 30; i++)
+      assertEquals(31 - i, fullData.get(i).getData().get(SomeBean.FIELD1));
+  }
+
+  @Test
+  public void testLoadByIdentifiersResolvesIndex()
+  {
+    addContentToContainer(0, 1, "1", false);
+    addContentToContainer(1, 2, "2", false);
+    addContentToContainer(0, 3, "3", false);
+
+    final PersistentBeanData data = loader.loadContainerBeanDataByIdentifiers(CONTAINER_ID, createIdentifiers(2, "2")) //
+        .orElseThrow(AssertionError::new);
+
+    assertEquals(2, data.getIndex());
+  }
+
+  @Test
+  public void testLoadIndexRange()
+  {
+    for (int i = 0; i < 5; i++)
+      addContentToContainer(i, i, String.valueOf(i), false);
+
+    final Map<Integer, PersistentBeanData> range = loader.loadContainerBeanDataByIndexRange(CONTAINER_ID, 1, 3);
+    assertEquals(new HashSet<>(Arrays.asList(1, 2)), range.keySet());
+    assertEquals(2, range.get(2).getData().get(SomeBean.FIELD1));
+  }
+
+  @Override
+  protected boolean useSparseOrderingKeys()
+  {
+    return true;
+  }
+}
@@ -0,0 +1,44 @@
+package de.adito.ojcms.sql.datasource.persistence;
+
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.sql.datasource.model.SingleBeanPersistenceModel;
+import de.adito.ojcms.transactions.api.SingleBeanKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SQLBeanDataStorage} for single beans that are stored in a table with typed columns.
+ * All tests for single beans stored as JSON content are executed in this mode as well.
+ *
+ * @author agent, 16.10.2026
+ */
+public class SQLBeanDataStorageTypedSingleBeanTest extends SQLBeanDataStorageSingleBeanTest
+{
+  @Test
+  public void testProcessChangesOnlyForChangedFields()
+  {
+    setSingleBeanValues(42, "42", true);
+    storage.processChangesForSingleBean(new SingleBeanKey(CONTAINER_ID), Collections.singletonMap(SomeBean.FIELD2, "43"));
+
+    final Map<IField<?>, Object> data = loadSingleBeanData();
+    assertEquals(3, data.size());
+    assertEquals(42, data.get(SomeBean.FIELD1));
+    assertEquals("43", data.get(SomeBean.FIELD2));
+    assertEquals(true, data.get(SomeBean.FIELD3));
+  }
+
+  @Test
+  public void testTypedTableExists()
+  {
+    assertTrue(builder.hasTable(SingleBeanPersistenceModel.typedTableNameOf(CONTAINER_ID)));
+  }
+
+  @Override
+  protected boolean useTypedSingleBeanTables()
+  {
+    return true;
+  }
+}
@@ -0,0 +1,48 @@
+package de.adito.ojcms.sql.datasource.startup;
+
+import de.adito.ojcms.sql.datasource.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SchemaFingerprint} with an actual database connection (in-memory).
+ *
+ * @author agent, 17.10.2026
+ */
+public class SchemaFingerprintTest extends AbstractDatabaseTest<ContainerPersistenceModel>
+{
+  @Test
+  public void testCompute()
+  {
+    final String fingerprint = SchemaFingerprint.compute(Arrays.asList("model1", "model2"));
+    assertEquals(fingerprint, SchemaFingerprint.compute(Arrays.asList("model2", "model1")));
+    assertNotEquals(fingerprint, SchemaFingerprint.compute(Arrays.asList("model1", "model3")));
+    assertNotEquals(fingerprint, SchemaFingerprint.compute(Arrays.asList("model1", "model2", "model3")));
+  }
+
+  @Test
+  public void testStoreFingerprint()
+  {
+    final String fingerprint = SchemaFingerprint.compute(Arrays.asList("model1", "model2"));
+    final String otherFingerprint = SchemaFingerprint.compute(Arrays.asList("model1", "model3"));
+    assertFalse(SchemaFingerprint.isStored(fingerprint, builder));
+
+    SchemaFingerprint.store(fingerprint, builder);
+    assertTrue(SchemaFingerprint.isStored(fingerprint, builder));
+    assertFalse(SchemaFingerprint.isStored(otherFingerprint, builder));
+
+    //The previous fingerprint is replaced
+    SchemaFingerprint.store(otherFingerprint, builder);
+    assertTrue(SchemaFingerprint.isStored(otherFingerprint, builder));
+    assertFalse(SchemaFingerprint.isStored(fingerprint, builder));
+  }
+
+  @Override
+  protected Class<ContainerPersistenceModel> getModelType()
+  {
+    return ContainerPersistenceModel.class;
+  }
+}
@@ -0,0 +1,400 @@
+package de.adito.ojcms.transactions;
+
+import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.transactions.api.*;
+import de.adito.ojcms.transactions.spi.IBeanDataLoader;
+import de.adito.ojcms.transactions.util.BeanDataCacheStatistics;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Typed;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Application scoped second level cache for committed bean data that decorates the {@link IBeanDataLoader} of the application.
+ * Container sizes, bean data by index, bean types within containers and single bean data are shared between all transactions.
+ * The cache is size bounded and evicts the least recently used entries. Successful commits invalidate the changed entries.
+ * Container sizes are kept separately and are never evicted. Successful commits adapt them by their size difference,
+ * so the size of a container is only loaded once as long as it is not changed outside of the application.
+ * Sharing container sizes is configured separately by {@link IBeanDataLoader#shareContainerSizes()} and enabled by default.
+ *
+ * Changes made outside of the application can be announced through {@link IBeanDataCache}.
+ * To avoid stale entries a loaded value is only cached if no invalidation happened while it was loaded.
+ * Data requested by index ranges fill the cache, but are always loaded. Data requested by identifiers or field values, distinct field
+ * values and full container loads are not cached. Data that may be outdated (read from a replica) is never cached.
+ *
+ * The cache is disabled by default. Its size is determined by {@link IBeanDataLoader#getSharedCacheSize()}. It should only be enabled
+ * if the application is the only writer to the storage system or if changes of other writers are announced through
+ * {@link IBeanDataCache}. A disabled cache passes every request for bean data to the decorated loader.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+@Typed({CachingBeanDataLoader.class, IBeanDataCache.class})
+class CachingBeanDataLoader implements IBeanDataLoader, IBeanDataCache
+{
+  @Inject
+  private IBeanDataLoader loader;
+  @Inject
+  private BeanDataCacheStatistics statistics;
+
+  private final Map<Object, Object> cache = new LinkedHashMap<Object, Object>(16, 0.75f, true)
+  {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Object, Object> pEldest)
+    {
+      final boolean evict = size() > maxEntries;
+      if (evict)
+        statistics.entryEvicted();
+      return evict;
+    }
+  };
+  private final Map<String, Integer> containerSizes = new HashMap<>();
+  private long invalidationCount;
+  private int maxEntries;
+  private boolean shareContainerSizes;
+
+  /**
+   * Creates the cache within the CDI container. The decorated loader will be injected.
+   */
+  CachingBeanDataLoader()
+  {
+  }
+
+  /**
+   * Creates a cache that decorates a specific loader.
+   *
+   * @param pLoader     the decorated loader
+   * @param pStatistics the statistics of the cache
+   */
+  CachingBeanDataLoader(IBeanDataLoader pLoader, BeanDataCacheStatistics pStatistics)
+  {
+    loader = pLoader;
+    statistics = pStatistics;
+    _readSettings();
+  }
+
+  @PostConstruct
+  private void _readSettings()
+  {
+    maxEntries = loader.getSharedCacheSize();
+    shareContainerSizes = loader.shareContainerSizes();
+  }
+
+  @Override
+  public int loadContainerSize(String pContainerId)
+  {
+    if (!shareContainerSizes)
+      return loader.loadContainerSize(pContainerId);
+
+    final long invalidationCountBeforeLoad;
+
+    synchronized (this)
+    {
+      final Integer cachedSize = containerSizes.get(pContainerId);
+      if (cachedSize != null)
+      {
+        statistics.cacheHit();
+        return cachedSize;
+      }
+
+      invalidationCountBeforeLoad = invalidationCount;
+    }
+
+    statistics.cacheMiss();
+    final int loadedSize = loader.loadContainerSize(pContainerId);
+
+    synchronized (this)
+    {
+      if (invalidationCount == invalidationCountBeforeLoad && !loader.mayLoadOutdatedData())
+        containerSizes.put(pContainerId, loadedSize);
+    }
+
+    return loadedSize;
+  }
+
+  @Override
+  public PersistentBeanData loadContainerBeanDataByIndex(InitialIndexKey pKey)
+  {
+    return _loadCached(pKey, loader::loadContainerBeanDataByIndex);
+  }
+
+  @Override
+  public Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+  {
+    if (!_isEnabled())
+      return loader.loadContainerBeanDataByIndexRange(pContainerId, pFromIndex, pToIndex);
+
+    final long invalidationCountBeforeLoad;
+    synchronized (this)
+    {
+      invalidationCountBeforeLoad = invalidationCount;
+    }
+
+    statistics.cacheMiss();
+    final Map<Integer, PersistentBeanData> loadedData = loader.loadContainerBeanDataByIndexRange(pContainerId, pFromIndex, pToIndex);
+
+    synchronized (this)
+    {
+      if (invalidationCount == invalidationCountBeforeLoad && !loader.mayLoadOutdatedData())
+        loadedData.forEach((pIndex, pData) -> cache.put(new InitialIndexKey(pContainerId, pIndex), pData));
+    }
+
+    return loadedData;
+  }
+
+  @Override
+  public <BEAN extends IBean> Class<BEAN> loadBeanTypeWithinContainer(InitialIndexKey pKey)
+  {
+    return _loadCached(new _BeanTypeKey(pKey), pTypeKey -> loader.loadBeanTypeWithinContainer(pKey));
+  }
+
+  @Override
+  public Optional<PersistentBeanData> loadContainerBeanDataByIdentifiers(String pContainerId, Map<IField<?>, Object> pIdentifiers)
+  {
+    return loader.loadContainerBeanDataByIdentifiers(pContainerId, pIdentifiers);
+  }
+
+  @Override
+  public Map<Integer, PersistentBeanData> fullContainerLoad(String pContainerId)
+  {
+    return loader.fullContainerLoad(pContainerId);
+  }
+
+  @Override
+  public void fullContainerLoad(String pContainerId, Consumer<PersistentBeanData> pBeanDataConsumer)
+  {
+    loader.fullContainerLoad(pContainerId, pBeanDataConsumer);
+  }
+
+  @Override
+  public List<PersistentBeanData> loadContainerBeanDataByFieldValues(String pContainerId, Map<IField<?>, Object> pFieldValues)
+  {
+    return loader.loadContainerBeanDataByFieldValues(pContainerId, pFieldValues);
+  }
+
+  @Override
+  public <VALUE> Set<VALUE> loadDistinctFieldValues(String pContainerId, IField<VALUE> pField)
+  {
+    return loader.loadDistinctFieldValues(pContainerId, pField);
+  }
+
+  @Override
+  public PersistentBeanData loadSingleBeanData(SingleBeanKey pKey)
+  {
+    return _loadCached(pKey, loader::loadSingleBeanData);
+  }
+
+  @Override
+  public boolean mayLoadOutdatedData()
+  {
+    return loader.mayLoadOutdatedData();
+  }
+
+  @Override
+  public int getSharedCacheSize()
+  {
+    return maxEntries;
+  }
+
+  @Override
+  public boolean shareContainerSizes()
+  {
+    return shareContainerSizes;
+  }
+
+  /**
+   * Updates the cache after the changes of a transaction have been committed.
+   * All cached entries affected by the changes will be invalidated, but cached container sizes are adapted by the size difference.
+   *
+   * @param pSizeDifferences   the size differences of the containers with additions or removals mapped by container id
+   * @param pContainerBeanKeys the keys of the changed beans within containers
+   * @param pSingleBeanKeys    the keys of the changed single beans
+   */
+  synchronized void changesCommitted(Map<String, Integer> pSizeDifferences, Collection<InitialIndexKey> pContainerBeanKeys,
+                                     Collection<SingleBeanKey> pSingleBeanKeys)
+  {
+    final Map<String, Integer> adaptedSizes = new HashMap<>();
+    pSizeDifferences.forEach((pContainerId, pDifference) ->
+    {
+      final Integer cachedSize = containerSizes.get(pContainerId);
+      if (cachedSize != null)
+        adaptedSizes.put(pContainerId, cachedSize + pDifference);
+    });
+
+    invalidate(pSizeDifferences.keySet(), pContainerBeanKeys, pSingleBeanKeys);
+    containerSizes.putAll(adaptedSizes);
+  }
+
+  /**
+   * Invalidates all cached entries affected by changes of a transaction.
+   * Every index based entry and the size of a container changed in size will be invalidated, because the indexes may have shifted.
+   *
+   * @param pContainerIds      the ids of the containers changed in size
+   * @param pContainerBeanKeys the keys of the changed beans within containers
+   * @param pSingleBeanKeys    the keys of the changed single beans
+   */
+  synchronized void invalidate(Collection<String> pContainerIds, Collection<InitialIndexKey> pContainerBeanKeys,
+                               Collection<SingleBeanKey> pSingleBeanKeys)
+  {
+    if (pContainerIds.isEmpty() && pContainerBeanKeys.isEmpty() && pSingleBeanKeys.isEmpty())
+      return;
+
+    invalidationCount++;
+    pContainerBeanKeys.forEach(cache::remove);
+    pSingleBeanKeys.forEach(cache::remove);
+
+    if (pContainerIds.isEmpty())
+      return;
+
+    final Set<String> containerIds = new HashSet<>(pContainerIds);
+    containerSizes.keySet().removeAll(containerIds);
+    cache.keySet().removeIf(pKey -> containerIds.contains(_containerIdOf(pKey)));
+  }
+
+  @Override
+  public synchronized void invalidateContainerRange(String pContainerId, int pFromIndex, int pToIndex)
+  {
+    invalidationCount++;
+
+    if (pToIndex == Integer.MAX_VALUE)
+      containerSizes.remove(pContainerId);
+
+    cache.keySet().removeIf(pKey ->
+    {
+      final InitialIndexKey indexKey = _indexKeyOf(pKey);
+      return indexKey != null && indexKey.getContainerId().equals(pContainerId) && indexKey.getIndex() >= pFromIndex &&
+          indexKey.getIndex() < pToIndex;
+    });
+  }
+
+  @Override
+  public synchronized void invalidateSingleBean(SingleBeanKey pKey)
+  {
+    invalidationCount++;
+    cache.remove(pKey);
+  }
+
+  @Override
+  public synchronized void invalidateAll()
+  {
+    invalidationCount++;
+    cache.clear();
+    containerSizes.clear();
+  }
+
+  /**
+   * Resolves a value from the cache or loads it through the decorated loader if not present.
+   * The loading itself is performed outside of the lock of the cache.
+   *
+   * @param pKey    the key of the cache entry
+   * @param pLoader a function to load the value for the key
+   * @param <KEY>   the type of the key
+   * @param <VALUE> the type of the value (the cast is unchecked)
+   * @return the cached or loaded value
+   */
+  private <KEY, VALUE> VALUE _loadCached(KEY pKey, Function<KEY, ?> pLoader)
+  {
+    if (!_isEnabled())
+      //noinspection unchecked
+      return (VALUE) pLoader.apply(pKey);
+
+    final long invalidationCountBeforeLoad;
+
+    synchronized (this)
+    {
+      final Object cachedValue = cache.get(pKey);
+      if (cachedValue != null)
+      {
+        statistics.cacheHit();
+        //noinspection unchecked
+        return (VALUE) cachedValue;
+      }
+
+      invalidationCountBeforeLoad = invalidationCount;
+    }
+
+    statistics.cacheMiss();
+    final Object loadedValue = pLoader.apply(pKey);
+
+    synchronized (this)
+    {
+      if (loadedValue != null && invalidationCount == invalidationCountBeforeLoad && !loader.mayLoadOutdatedData())
+        cache.put(pKey, loadedValue);
+    }
+
+    //noinspection unchecked
+    return (VALUE) loadedValue;
+  }
+
+  /**
+   * Determines if the cache for bean data is enabled. Requests for bean data are passed to the decorated loader directly otherwise.
+   *
+   * @return <tt>true</tt> if the cache is enabled
+   */
+  private boolean _isEnabled()
+  {
+    return maxEntries > 0;
+  }
+
+  /**
+   * Resolves the id of the container a cache key relates to.
+   *
+   * @param pKey the cache key
+   * @return the id of the related container or null for single bean keys
+   */
+  private static String _containerIdOf(Object pKey)
+  {
+    final InitialIndexKey indexKey = _indexKeyOf(pKey);
+    return indexKey != null ? indexKey.getContainerId() : null;
+  }
+
+  /**
+   * Resolves the index based key of a bean within a container a cache key relates to.
+   *
+   * @param pKey the cache key
+   * @return the related index based key or null if the cache key does not relate to a single bean within a container
+   */
+  private static InitialIndexKey _indexKeyOf(Object pKey)
+  {
+    if (pKey instanceof InitialIndexKey)
+      return (InitialIndexKey) pKey;
+    if (pKey instanceof _BeanTypeKey)
+      return ((_BeanTypeKey) pKey).indexKey;
+
+    return null;
+  }
+
+  /**
+   * Cache key for the type of a bean within a container. Separates the type from the bean data at the same index.
+   */
+  private static class _BeanTypeKey
+  {
+    private final InitialIndexKey indexKey;
+
+    _BeanTypeKey(InitialIndexKey pIndexKey)
+    {
+      indexKey = pIndexKey;
+    }
+
+    @Override
+    public boolean equals(Object pOther)
+    {
+      if (this == pOther)
+        return true;
+      if (pOther == null || getClass() != pOther.getClass())
+        return false;
+
+      return Objects.equals(indexKey, ((_BeanTypeKey) pOther).indexKey);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hashCode(indexKey);
+    }
+  }
+}
@@ -0,0 +1,527 @@
+package de.adito.ojcms.transactions;
+
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.transactions.api.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the additions and removals of a single bean container within one transaction.
+ * Translates indexes between the initial state of the transaction and the current state.
+ *
+ * Removals are stored by their initial index in a sparse Fenwick tree, so the number of removals up to an index can be counted
+ * and the n-th remaining initial index can be selected in logarithmic time.
+ * Additions are stored in an implicit treap in their current order. Each addition is anchored at the initial index of the
+ * persistent bean it has been inserted in front of. This anchor never changes, so additions do not have to be shifted manually when
+ * other beans are added or removed. The current index of an addition is its rank within the treap plus the number of remaining
+ * initial beans before its anchor. All operations are in O(log n).
+ *
+ * @author agent, 16.10.2026
+ */
+final class ContainerIndexChanges
+{
+  private final String containerId;
+  private final _RemovedIndexes removals = new _RemovedIndexes();
+  private final Random random = new Random();
+  private _AddedBean additionsRoot;
+
+  /**
+   * Creates the index changes for a bean container.
+   *
+   * @param pContainerId the id of the container
+   */
+  ContainerIndexChanges(String pContainerId)
+  {
+    containerId = pContainerId;
+  }
+
+  /**
+   * The size difference of the container. Simply the number of additions minus the number of removals.
+   *
+   * @return the size difference of the container within the transaction
+   */
+  int getSizeDifference()
+  {
+    return _size(additionsRoot) - removals.count();
+  }
+
+  /**
+   * Determines if the size of the container has been changed by additions or removals.
+   *
+   * @return <tt>true</tt> if there are additions or removals
+   */
+  boolean hasAdditionsOrRemovals()
+  {
+    return hasAdditions() || hasRemovals();
+  }
+
+  /**
+   * Determines if there are beans that have been added within the transaction.
+   *
+   * @return <tt>true</tt> if there are additions
+   */
+  boolean hasAdditions()
+  {
+    return additionsRoot != null;
+  }
+
+  /**
+   * Determines if there are beans that have been removed within the transaction.
+   *
+   * @return <tt>true</tt> if there are removals
+   */
+  boolean hasRemovals()
+  {
+    return removals.count() > 0;
+  }
+
+  /**
+   * Converts an initial index (not removed) to the current index of the transaction.
+   *
+   * @param pInitialIndex the initial index to convert
+   * @return the current index
+   */
+  int initialToCurrentIndex(int pInitialIndex)
+  {
+    final int remainingBefore = pInitialIndex - removals.countUpTo(pInitialIndex);
+    return remainingBefore + _countAdditionsAnchoredUpTo(pInitialIndex);
+  }
+
+  /**
+   * Converts a current index of the transaction back to the initial index.
+   * The index must not refer to an addition of this transaction.
+   *
+   * @param pCurrentIndex the current index to convert
+   * @return the initial index
+   */
+  int currentToInitialIndex(int pCurrentIndex)
+  {
+    return removals.selectRemaining(pCurrentIndex - _countAdditionsBefore(pCurrentIndex));
+  }
+
+  /**
+   * Determines if the bean at a current index has been added within the transaction.
+   *
+   * @param pCurrentIndex the current index to check
+   * @return <tt>true</tt> if the bean has been added
+   */
+  boolean isAdded(int pCurrentIndex)
+  {
+    return _findAddition(pCurrentIndex) != null;
+  }
+
+  /**
+   * Determines if the bean at an initial index has been removed within the transaction.
+   *
+   * @param pInitialIndex the initial index to check
+   * @return <tt>true</tt> if the bean has been removed
+   */
+  boolean isRemoved(int pInitialIndex)
+  {
+    return removals.contains(pInitialIndex);
+  }
+
+  /**
+   * Registers a new bean addition. All beans at and after the index of the addition are shifted by one.
+   *
+   * @param pBeanAddition data describing the addition
+   */
+  void beanAdded(BeanAddition pBeanAddition)
+  {
+    final int currentIndex = pBeanAddition.getIndex();
+    final int rank = _countAdditionsBefore(currentIndex);
+    final int anchor = removals.selectRemaining(currentIndex - rank);
+    final _AddedBean addedBean = new _AddedBean(pBeanAddition, anchor, random.nextInt());
+
+    final _AddedBean[] parts = _split(additionsRoot, rank);
+    additionsRoot = _merge(_merge(parts[0], addedBean), parts[1]);
+  }
+
+  /**
+   * Removes a bean that has been added within this transaction.
+   *
+   * @param pCurrentIndex the current index of the added bean
+   */
+  void addedBeanRemoved(int pCurrentIndex)
+  {
+    final _AddedBean[] parts = _split(additionsRoot, _countAdditionsBefore(pCurrentIndex));
+    final _AddedBean[] rest = _split(parts[1], 1);
+    additionsRoot = _merge(parts[0], rest[1]);
+  }
+
+  /**
+   * Registers the removal of a bean that existed at the start of the transaction.
+   *
+   * @param pInitialIndex the initial index of the removed bean
+   */
+  void initialBeanRemoved(int pInitialIndex)
+  {
+    removals.add(pInitialIndex);
+  }
+
+  /**
+   * The mutable content of a bean that has been added within this transaction.
+   *
+   * @param pCurrentIndex the current index of the added bean
+   * @return the content of the added bean
+   */
+  Map<IField<?>, Object> getAddedContent(int pCurrentIndex)
+  {
+    final _AddedBean addedBean = _findAddition(pCurrentIndex);
+    if (addedBean == null)
+      throw new IllegalArgumentException("No bean added at index " + pCurrentIndex + " within this transaction!");
+
+    return addedBean.content;
+  }
+
+  /**
+   * All additions of this container with their final indexes in the order of the indexes.
+   *
+   * @return a list of bean additions
+   */
+  List<BeanAddition> getAdditionsWithFinalIndex()
+  {
+    final List<BeanAddition> additions = new ArrayList<>(_size(additionsRoot));
+    final Deque<_AddedBean> stack = new ArrayDeque<>();
+    _AddedBean node = additionsRoot;
+
+    while (node != null || !stack.isEmpty())
+    {
+      while (node != null)
+      {
+        stack.push(node);
+        node = node.left;
+      }
+
+      node = stack.pop();
+      final int rank = additions.size();
+      additions.add(node.toBeanAdditionWithIndex(rank + _remainingBefore(node.anchor)));
+      node = node.right;
+    }
+
+    return additions;
+  }
+
+  /**
+   * All initial keys of removed beans of this container.
+   *
+   * @return a set of initial index based keys
+   */
+  Set<InitialIndexKey> getRemovedKeys()
+  {
+    return removals.indexes().stream() //
+        .map(pIndex -> new InitialIndexKey(containerId, pIndex)) //
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Counts the additions with a current index lower than a given index.
+   *
+   * @param pCurrentIndex the current index boundary
+   * @return the number of additions before the index
+   */
+  private int _countAdditionsBefore(int pCurrentIndex)
+  {
+    int offset = 0;
+    _AddedBean node = additionsRoot;
+
+    while (node != null)
+    {
+      final int rank = offset + _size(node.left);
+      if (rank + _remainingBefore(node.anchor) < pCurrentIndex)
+      {
+        offset = rank + 1;
+        node = node.right;
+      }
+      else
+        node = node.left;
+    }
+
+    return offset;
+  }
+
+  /**
+   * Counts the additions that have been anchored in front of initial indexes up to a given initial index.
+   *
+   * @param pInitialIndex the initial index boundary
+   * @return the number of additions located before the bean at the initial index
+   */
+  private int _countAdditionsAnchoredUpTo(int pInitialIndex)
+  {
+    int offset = 0;
+    _AddedBean node = additionsRoot;
+
+    while (node != null)
+    {
+      if (node.anchor <= pInitialIndex)
+      {
+        offset += _size(node.left) + 1;
+        node = node.right;
+      }
+      else
+        node = node.left;
+    }
+
+    return offset;
+  }
+
+  /**
+   * Finds the addition at a current index.
+   *
+   * @param pCurrentIndex the current index of the addition
+   * @return the added bean or null if there is no addition at the index
+   */
+  private _AddedBean _findAddition(int pCurrentIndex)
+  {
+    int offset = 0;
+    _AddedBean node = additionsRoot;
+
+    while (node != null)
+    {
+      final int rank = offset + _size(node.left);
+      final int index = rank + _remainingBefore(node.anchor);
+
+      if (index == pCurrentIndex)
+        return node;
+
+      if (index < pCurrentIndex)
+      {
+        offset = rank + 1;
+        node = node.right;
+      }
+      else
+        node = node.left;
+    }
+
+    return null;
+  }
+
+  /**
+   * The number of initial beans that have not been removed before a given initial index.
+   *
+   * @param pInitialIndex the initial index
+   * @return the number of remaining initial beans before the index
+   */
+  private int _remainingBefore(int pInitialIndex)
+  {
+    return pInitialIndex - removals.countUpTo(pInitialIndex - 1);
+  }
+
+  /**
+   * Splits a treap into the first n nodes and the rest.
+   *
+   * @param pNode  the root of the treap to split
+   * @param pCount the number of nodes for the first part
+   * @return an array containing the root of the first part and the root of the second part
+   */
+  private static _AddedBean[] _split(_AddedBean pNode, int pCount)
+  {
+    if (pNode == null)
+      return new _AddedBean[2];
+
+    if (_size(pNode.left) < pCount)
+    {
+      final _AddedBean[] parts = _split(pNode.right, pCount - _size(pNode.left) - 1);
+      pNode.right = parts[0];
+      pNode.updateSize();
+      parts[0] = pNode;
+      return parts;
+    }
+
+    final _AddedBean[] parts = _split(pNode.left, pCount);
+    pNode.left = parts[1];
+    pNode.updateSize();
+    parts[1] = pNode;
+    return parts;
+  }
+
+  /**
+   * Merges two treaps. All nodes of the first one will be located before the nodes of the second one.
+   *
+   * @param pFirst  the root of the first treap
+   * @param pSecond the root of the second treap
+   * @return the root of the merged treap
+   */
+  private static _AddedBean _merge(_AddedBean pFirst, _AddedBean pSecond)
+  {
+    if (pFirst == null)
+      return pSecond;
+    if (pSecond == null)
+      return pFirst;
+
+    if (pFirst.priority > pSecond.priority)
+    {
+      pFirst.right = _merge(pFirst.right, pSecond);
+      pFirst.updateSize();
+      return pFirst;
+    }
+
+    pSecond.left = _merge(pFirst, pSecond.left);
+    pSecond.updateSize();
+    return pSecond;
+  }
+
+  /**
+   * The size of a treap. Zero if the node is null.
+   *
+   * @param pNode the root node of the treap
+   * @return the number of nodes in the treap
+   */
+  private static int _size(_AddedBean pNode)
+  {
+    return pNode == null ? 0 : pNode.size;
+  }
+
+  /**
+   * Describes the addition of a bean within the transaction as node of the treap.
+   */
+  private static class _AddedBean
+  {
+    private final BeanAddition original;
+    private final Map<IField<?>, Object> content;
+    private final int anchor;
+    private final int priority;
+    private int size = 1;
+    private _AddedBean left;
+    private _AddedBean right;
+
+    /**
+     * Creates a new added bean node.
+     *
+     * @param pBeanAddition data describing the addition
+     * @param pAnchor       the initial index of the bean the addition has been inserted in front of
+     * @param pPriority     the random priority of the treap node
+     */
+    _AddedBean(BeanAddition pBeanAddition, int pAnchor, int pPriority)
+    {
+      original = pBeanAddition;
+      content = pBeanAddition.getData();
+      anchor = pAnchor;
+      priority = pPriority;
+    }
+
+    /**
+     * Return either the original {@link BeanAddition} if index and content didn't change or creates a copy with the new index.
+     *
+     * @param pIndex the final index of the addition
+     * @return the bean addition with a potential adapted index
+     */
+    BeanAddition toBeanAdditionWithIndex(int pIndex)
+    {
+      return original.getIndex() == pIndex && original.getData().equals(content) ? original : //
+          new BeanAddition(pIndex, content, original.getBeanType(), original.getContainerId());
+    }
+
+    /**
+     * Updates the size of the subtree of this node.
+     */
+    void updateSize()
+    {
+      size = 1 + _size(left) + _size(right);
+    }
+  }
+
+  /**
+   * Stores removed initial indexes in a sparse Fenwick tree over the whole positive integer range.
+   */
+  private static class _RemovedIndexes
+  {
+    private static final int HIGHEST_STEP = 1 << 30;
+
+    private final Map<Integer, Integer> tree = new HashMap<>();
+    private final Set<Integer> indexes = new HashSet<>();
+
+    /**
+     * Adds a removed initial index.
+     *
+     * @param pIndex the removed index
+     */
+    void add(int pIndex)
+    {
+      if (!indexes.add(pIndex))
+        return;
+
+      for (int i = pIndex + 1; i > 0; i += i & -i)
+        tree.merge(i, 1, Integer::sum);
+    }
+
+    /**
+     * Determines if an initial index has been removed.
+     *
+     * @param pIndex the index to check
+     * @return <tt>true</tt> if removed
+     */
+    boolean contains(int pIndex)
+    {
+      return indexes.contains(pIndex);
+    }
+
+    /**
+     * The number of removed indexes.
+     *
+     * @return the number of removals
+     */
+    int count()
+    {
+      return indexes.size();
+    }
+
+    /**
+     * All removed indexes.
+     *
+     * @return a set of removed initial indexes
+     */
+    Set<Integer> indexes()
+    {
+      return indexes;
+    }
+
+    /**
+     * Counts the removed indexes lower than or equal to a given index.
+     *
+     * @param pIndex the index boundary (inclusive)
+     * @return the number of removals up to the index
+     */
+    int countUpTo(int pIndex)
+    {
+      if (indexes.isEmpty())
+        return 0;
+
+      int count = 0;
+      for (int i = pIndex + 1; i > 0; i -= i & -i)
+        count += tree.getOrDefault(i, 0);
+
+      return count;
+    }
+
+    /**
+     * Selects the n-th (zero based) initial index that has not been removed.
+     *
+     * @param pRemainingIndex the position among all remaining initial indexes
+     * @return the initial index of the remaining bean
+     */
+    int selectRemaining(int pRemainingIndex)
+    {
+      if (indexes.isEmpty())
+        return pRemainingIndex;
+
+      int position = 0;
+      int remaining = pRemainingIndex + 1;
+
+      for (int step = HIGHEST_STEP; step > 0; step >>= 1)
+      {
+        final int next = position + step;
+        final int notRemovedInStep = step - tree.getOrDefault(next, 0);
+
+        if (notRemovedInStep < remaining)
+        {
+          position = next;
+          remaining -= notRemovedInStep;
+        }
+      }
+
+      return position;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package de.adito.ojcms.transactions;
+
+import de.adito.ojcms.cdi.ICdiControl;
+import de.adito.ojcms.cdi.context.IActiveContext;
+import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+import de.adito.ojcms.transactions.spi.IBeanDataStorage;
+
+import javax.annotation.*;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.*;
+
+/**
+ * Application scoped committer for transactions that opted in to group commits.
+ * Ready transactions queue their changes for a short window. A single committer thread then processes all changes of the group
+ * within one transactional context of its own and commits them together, which saves a commit (and a disk sync) per transaction.
+ *
+ * The transactions of a group never conflict, because they hold their claimed keys until they have been notified about the commit.
+ * If the group commit fails, every transaction of the group is committed on its own to isolate the failing one.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+class GroupCommitter
+{
+  private static final Logger LOGGER = Logger.getLogger(GroupCommitter.class.getName());
+
+  @Inject
+  private ICdiControl cdiControl;
+  @Inject
+  private IBeanDataStorage storage;
+
+  private final Object groupLock = new Object();
+  private List<_CommitRequest> openGroup;
+  private ScheduledExecutorService committer;
+
+  @PostConstruct
+  private void _startCommitter()
+  {
+    committer = Executors.newSingleThreadScheduledExecutor(pRunnable ->
+    {
+      final Thread thread = new Thread(pRunnable, "ojcms-group-committer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  private void _stopCommitter()
+  {
+    committer.shutdown();
+  }
+
+  /**
+   * Queues the changes of a transaction for the next group commit and waits until they have been committed.
+   * If no group is open, a new one will be opened and committed after the given window.
+   *
+   * @param pChanges the contextual instance of the changes to commit (not a client proxy)
+   * @param pWindow  the time to wait for other transactions if a new group is opened (in milliseconds)
+   * @throws RuntimeException the exception that caused the commit of the changes to fail
+   */
+  void commit(TransactionalChanges pChanges, long pWindow)
+  {
+    final _CommitRequest request = new _CommitRequest(pChanges);
+
+    synchronized (groupLock)
+    {
+      if (openGroup == null)
+      {
+        final List<_CommitRequest> newGroup = new ArrayList<>();
+        openGroup = newGroup;
+        committer.schedule(() -> _commitGroup(newGroup), pWindow, TimeUnit.MILLISECONDS);
+      }
+
+      openGroup.add(request);
+    }
+
+    try
+    {
+      request.result.join();
+    }
+    catch (CompletionException pE)
+    {
+      if (pE.getCause() instanceof RuntimeException)
+        throw (RuntimeException) pE.getCause();
+
+      throw pE;
+    }
+  }
+
+  /**
+   * Commits a group of changes in one transaction. Runs on the committer thread.
+   *
+   * @param pGroup the group of commit requests
+   */
+  private void _commitGroup(List<_CommitRequest> pGroup)
+  {
+    synchronized (groupLock)
+    {
+      if (openGroup == pGroup)
+        openGroup = null;
+    }
+
+    if (pGroup.size() == 1)
+    {
+      _commitSeparately(pGroup.get(0));
+      return;
+    }
+
+    final IActiveContext context = cdiControl.startContext(TransactionalScoped.class);
+    try
+    {
+      pGroup.forEach(pRequest -> pRequest.changes.commitChanges());
+      storage.commitChanges();
+      pGroup.forEach(pRequest -> pRequest.result.complete(null));
+      return;
+    }
+    catch (RuntimeException pE)
+    {
+      LOGGER.log(Level.WARNING, "Group commit of " + pGroup.size() + " transactions failed! Committing them separately...", pE);
+      _rollbackQuietly();
+    }
+    finally
+    {
+      context.destroy();
+    }
+
+    pGroup.forEach(this::_commitSeparately);
+  }
+
+  /**
+   * Commits the changes of a single request in a transactional context of its own.
+   *
+   * @param pRequest the commit request
+   */
+  private void _commitSeparately(_CommitRequest pRequest)
+  {
+    final IActiveContext context = cdiControl.startContext(TransactionalScoped.class);
+    try
+    {
+      pRequest.changes.commitChanges();
+      storage.commitChanges();
+      pRequest.result.complete(null);
+    }
+    catch (RuntimeException pE)
+    {
+      _rollbackQuietly();
+      pRequest.result.completeExceptionally(pE);
+    }
+    finally
+    {
+      context.destroy();
+    }
+  }
+
+  /**
+   * Rolls back the changes of the committer's transactional context. A failing rollback is only logged.
+   */
+  private void _rollbackQuietly()
+  {
+    try
+    {
+      storage.rollbackChanges();
+    }
+    catch (RuntimeException pE)
+    {
+      LOGGER.log(Level.WARNING, "Rollback of group commit failed!", pE);
+    }
+  }
+
+  /**
+   * A queued request to commit the changes of a transaction.
+   */
+  private static class _CommitRequest
+  {
+    private final TransactionalChanges changes;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    _CommitRequest(TransactionalChanges pChanges)
+    {
+      changes = pChanges;
+    }
+  }
+}
@@ -2,13 +2,14 @@ package de.adito.ojcms.transactions;
 
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
-import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+import de.adito.ojcms.transactions.annotations.*;
 import de.adito.ojcms.transactions.api.*;
+import de.adito.ojcms.transactions.exceptions.*;
 import de.adito.ojcms.transactions.spi.*;
 
 import javax.inject.Inject;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Implementation of a managed transaction that lives in a transactional scope.
@@ -21,35 +22,45 @@ import java.util.stream.Collectors;
 class ManagedTransaction implements ITransaction
 {
   @Inject
-  private IBeanDataLoader loader;
+  private CachingBeanDataLoader loader;
   @Inject
   private IBeanDataStorage storage;
   @Inject
   private OverallTransactionalChanges overallTransactionalChanges;
   @Inject
   private TransactionalChanges transactionalChanges;
+  @Inject
+  private GroupCommitter groupCommitter;
 
   private final Map<String, Integer> containerSizes = new HashMap<>();
   private final Map<InitialIndexKey, PersistentBeanData> containerBeanData = new HashMap<>();
   private final Map<InitialIndexKey, Class<? extends IBean>> beanTypesWithinContainer = new HashMap<>();
   private final Map<_RequestByIdentifiers, Optional<InitialIndexKey>> identifierRequestCache = new HashMap<>();
   private final Map<SingleBeanKey, PersistentBeanData> singleBeanData = new HashMap<>();
-  private final Map<String, Map<Integer, PersistentBeanData>> fullContainerData = new HashMap<>();
+
+  private boolean readOnly;
+  private ETransactionIsolation isolation = ETransactionIsolation.PESSIMISTIC;
+  private long groupCommitWindow = -1;
 
   @Override
   public int requestContainerSize(String pContainerId)
   {
-    overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, transactionalChanges);
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, _selfReference());
+
     final int initialSize = containerSizes.computeIfAbsent(pContainerId, loader::loadContainerSize);
-    final int differenceByChanges = transactionalChanges.getContainerSizeDifference(pContainerId);
-    return initialSize + differenceByChanges;
+    return readOnly ? initialSize : initialSize + transactionalChanges.getContainerSizeDifference(pContainerId);
   }
 
   @Override
   public PersistentBeanData requestBeanDataByIndex(CurrentIndexKey pKey)
   {
-    final InitialIndexKey initialKey = transactionalChanges.currentToInitialIndexKey(pKey);
-    overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, transactionalChanges);
+    final InitialIndexKey initialKey = _toInitialIndexKey(pKey);
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, _selfReference());
+
+    if (readOnly)
+      return containerBeanData.computeIfAbsent(initialKey, loader::loadContainerBeanDataByIndex);
 
     if (transactionalChanges.isAdded(pKey))
       throw new IllegalStateException("Cannot request bean data that has just been added within this transaction!");
@@ -61,16 +72,50 @@ class ManagedTransaction implements ITransaction
     return transactionalChanges.integrateContainerBeanChanges(initialKey, beanData);
   }
 
+  @Override
+  public Map<Integer, PersistentBeanData> requestBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+  {
+    final int size = requestContainerSize(pContainerId);
+    if (pFromIndex < 0 || pToIndex > size || pFromIndex > pToIndex)
+      throw new IndexOutOfBoundsException("Bad index range [" + pFromIndex + ", " + pToIndex + ") for container of size " + size);
+
+    final Map<Integer, InitialIndexKey> initialKeysByCurrentIndex = new LinkedHashMap<>();
+    for (int index = pFromIndex; index < pToIndex; index++)
+    {
+      final CurrentIndexKey currentKey = new CurrentIndexKey(pContainerId, index);
+      if (!readOnly && transactionalChanges.isAdded(currentKey))
+        continue;
+
+      final InitialIndexKey initialKey = _toInitialIndexKey(currentKey);
+      if (_checksConcurrentChanges())
+        overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, _selfReference());
+
+      initialKeysByCurrentIndex.put(index, initialKey);
+    }
+
+    _prefetchBeanData(pContainerId, initialKeysByCurrentIndex.values());
+
+    final Map<Integer, PersistentBeanData> result = new LinkedHashMap<>();
+    initialKeysByCurrentIndex.forEach((pIndex, pInitialKey) ->
+    {
+      final PersistentBeanData beanData = containerBeanData.get(pInitialKey);
+      result.put(pIndex, readOnly ? beanData : transactionalChanges.integrateContainerBeanChanges(pInitialKey, beanData));
+    });
+
+    return result;
+  }
+
   @Override
   public <BEAN extends IBean> Class<BEAN> requestBeanTypeWithinContainer(CurrentIndexKey pKey)
   {
-    final InitialIndexKey initialKey = transactionalChanges.currentToInitialIndexKey(pKey);
-    overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, transactionalChanges);
+    final InitialIndexKey initialKey = _toInitialIndexKey(pKey);
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, _selfReference());
 
-    if (transactionalChanges.isAdded(pKey))
+    if (!readOnly && transactionalChanges.isAdded(pKey))
       throw new IllegalStateException("Cannot request the type of a bean that has just been added within this transaction!");
 
-    if (transactionalChanges.isRemoved(initialKey))
+    if (!readOnly && transactionalChanges.isRemoved(initialKey))
       throw new IllegalStateException("Cannot request the type of a bean that has been removed within this transaction!");
 
     //noinspection unchecked
@@ -95,31 +140,114 @@ class ManagedTransaction implements ITransaction
       return Optional.empty();
     })
         //Integrate changes finally
-        .map(pIndexKey -> transactionalChanges.integrateContainerBeanChanges(pIndexKey, containerBeanData.get(pIndexKey)));
+        .map(pIndexKey -> readOnly ? containerBeanData.get(pIndexKey) :
+            transactionalChanges.integrateContainerBeanChanges(pIndexKey, containerBeanData.get(pIndexKey)));
   }
 
   @Override
   public PersistentBeanData requestSingleBeanData(SingleBeanKey pKey)
   {
-    overallTransactionalChanges.throwIfSingleBeanDirty(pKey, transactionalChanges);
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfSingleBeanDirty(pKey, _selfReference());
+
     final PersistentBeanData beanData = singleBeanData.computeIfAbsent(pKey, loader::loadSingleBeanData);
-    return transactionalChanges.integrateSingleBeanChanges(pKey, beanData);
+    return readOnly ? beanData : transactionalChanges.integrateSingleBeanChanges(pKey, beanData);
+  }
+
+  @Override
+  public void requestFullContainerLoad(String pContainerId, Consumer<PersistentBeanData> pBeanDataConsumer)
+  {
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, _selfReference());
+
+    if (readOnly)
+    {
+      loader.fullContainerLoad(pContainerId, pBeanDataConsumer);
+      return;
+    }
+
+    //Integrate changes here as well, beans removed within this transaction are skipped
+    loader.fullContainerLoad(pContainerId, pBeanData ->
+    {
+      final InitialIndexKey initialKey = new InitialIndexKey(pContainerId, pBeanData.getIndex());
+      if (!transactionalChanges.isRemoved(initialKey))
+        pBeanDataConsumer.accept(transactionalChanges.integrateContainerBeanChanges(initialKey, pBeanData));
+    });
+  }
+
+  @Override
+  public SortedMap<Integer, PersistentBeanData> requestBeanDataByFieldValues(String pContainerId, Map<IField<?>, Object> pFieldValues)
+  {
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, _selfReference());
+
+    final List<PersistentBeanData> loadedData = loader.loadContainerBeanDataByFieldValues(pContainerId, pFieldValues);
+    final SortedMap<Integer, PersistentBeanData> result = new TreeMap<>();
+
+    if (readOnly)
+    {
+      loadedData.forEach(pBeanData -> result.put(pBeanData.getIndex(), pBeanData));
+      return result;
+    }
+
+    final Set<InitialIndexKey> loadedKeys = new HashSet<>();
+    for (PersistentBeanData beanData : loadedData)
+    {
+      final InitialIndexKey initialKey = new InitialIndexKey(pContainerId, beanData.getIndex());
+      loadedKeys.add(initialKey);
+      containerBeanData.putIfAbsent(initialKey, beanData);
+      _addIfStillMatching(initialKey, pFieldValues, result);
+    }
+
+    //Beans that did not match initially may match because of changes within this transaction
+    transactionalChanges.getChangedContainerBeanValues(pContainerId).forEach((pInitialKey, pChangedValues) ->
+    {
+      if (!loadedKeys.contains(pInitialKey) && !Collections.disjoint(pChangedValues.keySet(), pFieldValues.keySet()))
+      {
+        containerBeanData.computeIfAbsent(pInitialKey, loader::loadContainerBeanDataByIndex);
+        _addIfStillMatching(pInitialKey, pFieldValues, result);
+      }
+    });
+
+    transactionalChanges.getAdditions(pContainerId).stream() //
+        .filter(pAddition -> pAddition.hasValues(pFieldValues)) //
+        .forEach(pAddition -> result.put(pAddition.getIndex(), pAddition));
+
+    return result;
   }
 
   @Override
-  public Map<Integer, PersistentBeanData> requestFullContainerLoad(String pContainerId)
+  public <VALUE> Optional<Set<VALUE>> requestDistinctFieldValues(String pContainerId, IField<VALUE> pField)
   {
-    overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, transactionalChanges);
-    final Map<Integer, PersistentBeanData> fullData = fullContainerData.computeIfAbsent(pContainerId, loader::fullContainerLoad);
-    //Integrate changes here as well
-    return fullData.entrySet().stream() //
-        .collect(Collectors.toMap(Map.Entry::getKey, pEntry -> transactionalChanges
-            .integrateContainerBeanChanges(new InitialIndexKey(pContainerId, pEntry.getKey()), pEntry.getValue())));
+    if (_checksConcurrentChanges())
+      overallTransactionalChanges.throwIfContainerDirtyInSize(pContainerId, _selfReference());
+
+    if (readOnly)
+      return Optional.of(loader.loadDistinctFieldValues(pContainerId, pField));
+
+    //Removed or changed values may have been the last occurrence of a value, which cannot be determined without the whole container
+    final boolean fieldChanged = transactionalChanges.getChangedContainerBeanValues(pContainerId).values().stream() //
+        .anyMatch(pChangedValues -> pChangedValues.containsKey(pField));
+
+    if (fieldChanged || transactionalChanges.hasRemovals(pContainerId))
+      return Optional.empty();
+
+    final Set<VALUE> values = new HashSet<>(loader.loadDistinctFieldValues(pContainerId, pField));
+    transactionalChanges.getAdditions(pContainerId).forEach(pAddition ->
+    {
+      //noinspection unchecked
+      final VALUE value = (VALUE) pAddition.getData().get(pField);
+      if (value != null)
+        values.add(value);
+    });
+
+    return Optional.of(values);
   }
 
   @Override
   public void registerBeanAddition(BeanAddition pBeanAddition)
   {
+    _throwIfReadOnly();
     overallTransactionalChanges.throwIfContainerDirtyInSize(pBeanAddition.getContainerId(), transactionalChanges);
     transactionalChanges.beanAdded(pBeanAddition);
   }
@@ -127,6 +255,7 @@ class ManagedTransaction implements ITransaction
   @Override
   public void registerBeanRemoval(CurrentIndexKey pKey)
   {
+    _throwIfReadOnly();
     overallTransactionalChanges.throwIfContainerDirtyInSize(pKey.getContainerId(), transactionalChanges);
     transactionalChanges.beanRemoved(pKey);
   }
@@ -134,25 +263,94 @@ class ManagedTransaction implements ITransaction
   @Override
   public <VALUE> void registerContainerBeanValueChange(CurrentIndexKey pKey, IField<VALUE> pChangedField, VALUE pNewValue)
   {
+    _throwIfReadOnly();
     final InitialIndexKey initialKey = transactionalChanges.currentToInitialIndexKey(pKey);
     overallTransactionalChanges.throwIfContainerBeanDirty(initialKey, transactionalChanges);
-    transactionalChanges.containerBeanValueHasChanged(pKey, pChangedField, pNewValue);
+    //The change is based on the data read within this transaction, the storage system may require its version
+    transactionalChanges.containerBeanValueHasChanged(pKey, pChangedField, pNewValue,
+        pInitialKey -> containerBeanData.computeIfAbsent(pInitialKey, loader::loadContainerBeanDataByIndex));
   }
 
   @Override
   public <VALUE> void registerSingleBeanValueChange(SingleBeanKey pKey, IField<VALUE> pChangedField, VALUE pNewValue)
   {
+    _throwIfReadOnly();
     overallTransactionalChanges.throwIfSingleBeanDirty(pKey, transactionalChanges);
-    transactionalChanges.singleBeanValueHasChanged(pKey, pChangedField, pNewValue);
+    transactionalChanges.singleBeanValueHasChanged(pKey, pChangedField, pNewValue,
+        singleBeanData.computeIfAbsent(pKey, loader::loadSingleBeanData));
+  }
+
+  @Override
+  public boolean isReadOnly()
+  {
+    return readOnly;
+  }
+
+  /**
+   * Configures this transaction. Read-only transactions never create a {@link TransactionalChanges} instance.
+   *
+   * @param pIsolation the isolation level for the transaction
+   * @param pReadOnly  <tt>true</tt> if the transaction only reads data
+   */
+  void configure(ETransactionIsolation pIsolation, boolean pReadOnly)
+  {
+    readOnly = pReadOnly;
+    isolation = pIsolation;
+
+    if (!readOnly)
+      transactionalChanges.useIsolation(pIsolation);
+  }
+
+  /**
+   * Enables the group commit for this transaction. The changes will be committed together with other transactions.
+   *
+   * @param pWindow the time to wait for other transactions if this transaction opens a new group (in milliseconds)
+   */
+  void useGroupCommit(long pWindow)
+  {
+    if (pWindow < 0)
+      throw new IllegalArgumentException("Bad group commit window: " + pWindow);
+
+    groupCommitWindow = pWindow;
   }
 
   /**
    * Commits all changes of this transaction to a persistent storage system.
+   * A read-only transaction has nothing to commit.
+   * If the storage system detects a concurrent modification, the changes will be rolled back.
+   *
+   * @throws ConcurrentTransactionException if the changes conflict with changes of another transaction
    */
   void commit()
   {
-    transactionalChanges.commitChanges();
-    storage.commitChanges();
+    if (readOnly)
+      return;
+
+    transactionalChanges.prepareCommit();
+
+    try
+    {
+      if (groupCommitWindow >= 0 && transactionalChanges.hasChanges())
+      {
+        //The committer runs on another thread, so it requires the actual instance instead of the client proxy
+        groupCommitter.commit(TransactionalChanges.unwrapProxy(transactionalChanges), groupCommitWindow);
+        //Ends the storage transaction of this context that has only been used for reading
+        storage.commitChanges();
+      }
+      else
+      {
+        transactionalChanges.commitChanges();
+        storage.commitChanges();
+      }
+    }
+    catch (ConcurrentTransactionException pE)
+    {
+      storage.rollbackChanges();
+      transactionalChanges.changesRejected();
+      throw pE;
+    }
+
+    transactionalChanges.changesCommitted();
   }
 
   /**
@@ -160,7 +358,98 @@ class ManagedTransaction implements ITransaction
    */
   void rollback()
   {
-    storage.rollbackChanges();
+    if (!readOnly)
+      storage.rollbackChanges();
+  }
+
+  /**
+   * Loads all bean data for initial index keys that have not been loaded within this transaction yet by one range request.
+   *
+   * @param pContainerId the id of the container
+   * @param pKeys        the initial index keys to assure the bean data for
+   */
+  private void _prefetchBeanData(String pContainerId, Collection<InitialIndexKey> pKeys)
+  {
+    final IntSummaryStatistics missingIndexes = pKeys.stream() //
+        .filter(pKey -> !containerBeanData.containsKey(pKey)) //
+        .mapToInt(InitialIndexKey::getIndex) //
+        .summaryStatistics();
+
+    if (missingIndexes.getCount() == 0)
+      return;
+
+    loader.loadContainerBeanDataByIndexRange(pContainerId, missingIndexes.getMin(), missingIndexes.getMax() + 1) //
+        .forEach((pIndex, pBeanData) -> containerBeanData.putIfAbsent(new InitialIndexKey(pContainerId, pIndex), pBeanData));
+
+    pKeys.stream() //
+        .filter(pKey -> !containerBeanData.containsKey(pKey)) //
+        .findAny() //
+        .ifPresent(pKey ->
+        {
+          throw new BeanDataNotFoundException(pKey);
+        });
+  }
+
+  /**
+   * Adds the data of a bean that existed at the start of the transaction to a result by current index,
+   * if the bean has not been removed and still has the requested values after the changes of this transaction have been integrated.
+   * The bean data has to be loaded already.
+   *
+   * @param pInitialKey  the initial index key of the bean
+   * @param pFieldValues the values the bean must have mapped by field
+   * @param pResult      the result to add the bean data to
+   */
+  private void _addIfStillMatching(InitialIndexKey pInitialKey, Map<IField<?>, Object> pFieldValues,
+                                   Map<Integer, PersistentBeanData> pResult)
+  {
+    if (transactionalChanges.isRemoved(pInitialKey))
+      return;
+
+    final PersistentBeanData beanData = transactionalChanges.integrateContainerBeanChanges(pInitialKey, containerBeanData.get(pInitialKey));
+    if (beanData.hasValues(pFieldValues))
+      pResult.put(beanData.getIndex(), beanData);
+  }
+
+  /**
+   * Translates a current index key to an initial index key. Read-only transactions do not change any index.
+   *
+   * @param pKey the current index key
+   * @return the initial index key
+   */
+  private InitialIndexKey _toInitialIndexKey(CurrentIndexKey pKey)
+  {
+    return readOnly ? new InitialIndexKey(pKey.getContainerId(), pKey.getIndex()) : transactionalChanges.currentToInitialIndexKey(pKey);
+  }
+
+  /**
+   * Determines if requested data has to be checked for changes of concurrent transactions.
+   * Read-only transactions in snapshot isolation just read the committed data.
+   *
+   * @return <tt>true</tt> if requests have to be checked for concurrent changes
+   */
+  private boolean _checksConcurrentChanges()
+  {
+    return !readOnly || isolation != ETransactionIsolation.SNAPSHOT;
+  }
+
+  /**
+   * The self reference for concurrency checks at {@link OverallTransactionalChanges}.
+   * Read-only transactions do not own any changes, so no reference is given for them.
+   *
+   * @return the transactional changes of this transaction or null if read-only
+   */
+  private TransactionalChanges _selfReference()
+  {
+    return readOnly ? null : transactionalChanges;
+  }
+
+  /**
+   * Throws an exception if this transaction is read-only to reject any change registration.
+   */
+  private void _throwIfReadOnly()
+  {
+    if (readOnly)
+      throw new IllegalStateException("Changes cannot be registered within a read-only transaction!");
   }
 
   /**
@@ -2,24 +2,33 @@ package de.adito.ojcms.transactions;
 
 import de.adito.ojcms.transactions.api.*;
 import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
-import org.jboss.weld.proxy.WeldClientProxy;
 
 import javax.enterprise.context.ApplicationScoped;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Application scoped registry for {@link TransactionalChanges}.
- * Each {@link TransactionalChanges} instances must register and deregister here.
- * Through this registry it is possible for a single transaction to determine if certain data is currently changed by another transaction.
+ * Application scoped ownership table for changes of {@link TransactionalChanges} instances.
+ * Each {@link TransactionalChanges} instance claims the keys of the data it changes here and releases them finally.
+ * Through this table it is possible for a single transaction to determine if certain data is currently changed by another transaction
+ * with a single lookup.
+ * <p>
+ * Transactions in snapshot isolation do not claim keys eagerly. They are registered with the commit sequence number at their start.
+ * At their commit the sequence number of the last commit of every changed key is compared to detect write-write conflicts.
  *
  * @author Simon Danner, 27.12.2019
  */
 @ApplicationScoped
 class OverallTransactionalChanges
 {
-  private final Set<TransactionalChanges> activeTransactionalChanges = ConcurrentHashMap.newKeySet();
+  private final Map<String, TransactionalChanges> sizeChangingTransactionByContainer = new ConcurrentHashMap<>();
+  private final Map<InitialIndexKey, TransactionalChanges> changingTransactionByContainerBean = new ConcurrentHashMap<>();
+  private final Map<SingleBeanKey, TransactionalChanges> changingTransactionBySingleBean = new ConcurrentHashMap<>();
+  //Snapshot isolation
+  private final AtomicLong commitSequence = new AtomicLong();
+  private final Map<TransactionalChanges, Long> startVersionBySnapshot = new ConcurrentHashMap<>();
+  private final Map<Object, Long> lastCommitVersionByKey = new ConcurrentHashMap<>();
 
   /**
    * Throws a {@link ConcurrentTransactionException} if a bean container has been modified by another transaction.
@@ -29,7 +38,7 @@ class OverallTransactionalChanges
    */
   void throwIfContainerDirtyInSize(String pContainerId, TransactionalChanges pSelfReference)
   {
-    _throwIfChangedInOtherTransaction(pContainerId, pChanges -> pChanges.isContainerDirtyInSize(pContainerId), pSelfReference);
+    _throwIfChangedInOtherTransaction(sizeChangingTransactionByContainer, pContainerId, pSelfReference);
   }
 
   /**
@@ -40,7 +49,7 @@ class OverallTransactionalChanges
    */
   void throwIfContainerBeanDirty(InitialIndexKey pKey, TransactionalChanges pSelfReference)
   {
-    _throwIfChangedInOtherTransaction(pKey, pChanges -> pChanges.isContainerBeanDirty(pKey), pSelfReference);
+    _throwIfChangedInOtherTransaction(changingTransactionByContainerBean, pKey, pSelfReference);
   }
 
   /**
@@ -51,46 +60,159 @@ class OverallTransactionalChanges
    */
   void throwIfSingleBeanDirty(SingleBeanKey pKey, TransactionalChanges pSelfReference)
   {
-    _throwIfChangedInOtherTransaction(pKey, pChanges -> pChanges.isSingleBeanDirty(pKey), pSelfReference);
+    _throwIfChangedInOtherTransaction(changingTransactionBySingleBean, pKey, pSelfReference);
   }
 
   /**
-   * Registers a changes instance from a transaction at this overall registry.
+   * Claims the size of a bean container for a transaction before it will be changed.
    *
-   * @param pChanges the transactional changes instance to register
+   * @param pContainerId the id of the container to claim
+   * @param pChanges     the changes instance of the transaction that changes the container
+   * @throws ConcurrentTransactionException if the container is already changed by another transaction
    */
-  void registerFromTransaction(TransactionalChanges pChanges)
+  void claimContainerSize(String pContainerId, TransactionalChanges pChanges)
   {
-    activeTransactionalChanges.add(pChanges);
+    _claim(sizeChangingTransactionByContainer, pContainerId, pChanges);
   }
 
   /**
-   * Deregisters a changes instances (mainly when a transaction terminates).
+   * Claims a bean within a container for a transaction before it will be changed.
    *
-   * @param pChanges the transactional changes instance to deregister
+   * @param pKey     the key identifying the bean by index
+   * @param pChanges the changes instance of the transaction that changes the bean
+   * @throws ConcurrentTransactionException if the bean is already changed by another transaction
    */
-  void deregister(TransactionalChanges pChanges)
+  void claimContainerBean(InitialIndexKey pKey, TransactionalChanges pChanges)
   {
-    activeTransactionalChanges.remove(pChanges);
+    _claim(changingTransactionByContainerBean, pKey, pChanges);
   }
 
   /**
-   * Checks all registered {@link TransactionalChanges} instances (apart from the self reference) for changes based on a predicate
-   * and throws a {@link ConcurrentTransactionException} if changes have been found.
+   * Claims a single bean for a transaction before it will be changed.
    *
-   * @param pKey           the key used in the predicate to identify a bean or container
-   * @param pPredicate     the predicate to determine if requested data is changed
-   * @param pSelfReference a self reference to the asking changes instance (to exclude its changes)
+   * @param pKey     the key identifying the single bean
+   * @param pChanges the changes instance of the transaction that changes the bean
+   * @throws ConcurrentTransactionException if the single bean is already changed by another transaction
+   */
+  void claimSingleBean(SingleBeanKey pKey, TransactionalChanges pChanges)
+  {
+    _claim(changingTransactionBySingleBean, pKey, pChanges);
+  }
+
+  /**
+   * Releases all claimed keys of a changes instance (mainly when a transaction terminates).
+   *
+   * @param pChanges           the transactional changes instance to release the keys for
+   * @param pContainerIds      the ids of the containers changed in size by the transaction
+   * @param pContainerBeanKeys the keys of the changed beans within containers
+   * @param pSingleBeanKeys    the keys of the changed single beans
+   */
+  void releaseAll(TransactionalChanges pChanges, Collection<String> pContainerIds, Collection<InitialIndexKey> pContainerBeanKeys,
+                  Collection<SingleBeanKey> pSingleBeanKeys)
+  {
+    pContainerIds.forEach(pContainerId -> sizeChangingTransactionByContainer.remove(pContainerId, pChanges));
+    pContainerBeanKeys.forEach(pKey -> changingTransactionByContainerBean.remove(pKey, pChanges));
+    pSingleBeanKeys.forEach(pKey -> changingTransactionBySingleBean.remove(pKey, pChanges));
+  }
+
+  /**
+   * Registers a transaction in snapshot isolation. From now on commits of other transactions will be recorded by changed keys.
+   *
+   * @param pChanges the changes instance of the snapshot transaction
+   * @return the commit sequence number at the start of the snapshot
+   */
+  long registerSnapshot(TransactionalChanges pChanges)
+  {
+    //Register before reading the sequence number to make sure no concurrent commit after the start will be missed
+    startVersionBySnapshot.put(pChanges, Long.MIN_VALUE);
+    final long startVersion = commitSequence.get();
+    startVersionBySnapshot.put(pChanges, startVersion);
+    return startVersion;
+  }
+
+  /**
+   * Deregisters a transaction in snapshot isolation (mainly when a transaction terminates).
+   * Commit records no longer required by any active snapshot will be discarded.
+   *
+   * @param pChanges the changes instance of the snapshot transaction
    */
-  private void _throwIfChangedInOtherTransaction(Object pKey, Predicate<TransactionalChanges> pPredicate,
-                                                 TransactionalChanges pSelfReference)
+  void deregisterSnapshot(TransactionalChanges pChanges)
   {
-    final TransactionalChanges selfReferences = pSelfReference instanceof WeldClientProxy ?
-        (TransactionalChanges) ((WeldClientProxy) pSelfReference).getMetadata().getContextualInstance() : pSelfReference;
+    startVersionBySnapshot.remove(pChanges);
+    final long oldestStartVersion = startVersionBySnapshot.values().stream() //
+        .mapToLong(Long::longValue) //
+        .min() //
+        .orElse(Long.MAX_VALUE);
+
+    lastCommitVersionByKey.values().removeIf(pVersion -> pVersion <= oldestStartVersion);
+  }
+
+  /**
+   * Registers a successful commit of a transaction. The changed keys are only recorded if snapshot transactions are active.
+   *
+   * @param pChangedKeys the keys of all data changed by the committed transaction
+   */
+  void registerCommit(Collection<Object> pChangedKeys)
+  {
+    final long commitVersion = commitSequence.incrementAndGet();
+    if (startVersionBySnapshot.isEmpty())
+      return;
+
+    pChangedKeys.forEach(pKey -> lastCommitVersionByKey.merge(pKey, commitVersion, Math::max));
+  }
+
+  /**
+   * Throws a {@link ConcurrentTransactionException} if any of the given keys has been changed by a commit after a snapshot started.
+   *
+   * @param pChangedKeys     the keys of the data changed by the snapshot transaction
+   * @param pSnapshotVersion the commit sequence number at the start of the snapshot
+   */
+  void throwIfCommittedSince(Collection<Object> pChangedKeys, long pSnapshotVersion)
+  {
+    for (Object key : pChangedKeys)
+    {
+      final Long lastCommitVersion = lastCommitVersionByKey.get(key);
+      if (lastCommitVersion != null && lastCommitVersion > pSnapshotVersion)
+        throw new ConcurrentTransactionException(key);
+    }
+  }
+
+  /**
+   * Claims a key within an ownership table for a changes instance.
+   *
+   * @param pOwnershipTable the ownership table to claim the key in
+   * @param pKey            the key to claim
+   * @param pChanges        the changes instance claiming the key
+   * @param <KEY>           the type of the key
+   * @throws ConcurrentTransactionException if the key has been claimed by another transaction
+   */
+  private static <KEY> void _claim(Map<KEY, TransactionalChanges> pOwnershipTable, KEY pKey, TransactionalChanges pChanges)
+  {
+    final TransactionalChanges owner = pOwnershipTable.putIfAbsent(pKey, pChanges);
+    if (owner != null && owner != pChanges)
+      throw new ConcurrentTransactionException(pKey);
+  }
+
+  /**
+   * Looks up the owner of a key within an ownership table and throws a {@link ConcurrentTransactionException}
+   * if the key has been claimed by another transaction than the self reference.
+   *
+   * @param pOwnershipTable the ownership table to look up the key in
+   * @param pKey            the key identifying a bean or container
+   * @param pSelfReference  a self reference to the asking changes instance (to exclude its changes), null for read-only transactions
+   * @param <KEY>           the type of the key
+   */
+  private static <KEY> void _throwIfChangedInOtherTransaction(Map<KEY, TransactionalChanges> pOwnershipTable, KEY pKey,
+                                                              TransactionalChanges pSelfReference)
+  {
+    final TransactionalChanges owner = pOwnershipTable.get(pKey);
+    if (owner == null)
+      return;
+
+    final TransactionalChanges selfReference = TransactionalChanges.unwrapProxy(pSelfReference);
 
-    if (activeTransactionalChanges.stream() //
-        .filter(pChanges -> pChanges != selfReferences) //
-        .anyMatch(pPredicate))
+    //Snapshot transactions never fail when reading, conflicts are detected at commit time
+    if (owner != selfReference && (selfReference == null || !selfReference.isSnapshotIsolation()))
       throw new ConcurrentTransactionException(pKey);
   }
 }
@@ -0,0 +1,35 @@
+package de.adito.ojcms.transactions;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * The time source for retries of transactions after concurrent modifications.
+ * Provides the current time to limit the overall retry duration and waits for the delays of the backoff strategy.
+ * May be replaced by a CDI alternative to simulate the time.
+ *
+ * @author agent, 17.10.2026
+ */
+@ApplicationScoped
+class RetryClock
+{
+  /**
+   * The current time.
+   *
+   * @return the current time in milliseconds
+   */
+  long currentTimeMillis()
+  {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * Waits before the next try of a transaction.
+   *
+   * @param pDelay the time to wait in milliseconds
+   * @throws InterruptedException if the waiting thread has been interrupted
+   */
+  void sleep(long pDelay) throws InterruptedException
+  {
+    Thread.sleep(pDelay);
+  }
+}
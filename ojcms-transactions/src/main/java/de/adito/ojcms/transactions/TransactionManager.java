@@ -1,10 +1,12 @@
 package de.adito.ojcms.transactions;
 
+import de.adito.ojcms.transactions.annotations.ETransactionIsolation;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 /**
- * An application scoped transaction manager that is able to either commit or roll back the current {@link ManagedTransaction}.
+ * An application scoped transaction manager that is able to configure, commit or roll back the current {@link ManagedTransaction}.
  *
  * @author Simon Danner, 26.12.2019
  */
@@ -14,6 +16,27 @@ class TransactionManager
   @Inject
   private ManagedTransaction transaction;
 
+  /**
+   * Configures the current transaction. Has to be done before any data is requested or changed.
+   *
+   * @param pIsolation the isolation level for the transaction
+   * @param pReadOnly  <tt>true</tt> if the transaction only reads data
+   */
+  void configure(ETransactionIsolation pIsolation, boolean pReadOnly)
+  {
+    transaction.configure(pIsolation, pReadOnly);
+  }
+
+  /**
+   * Enables the group commit for the current transaction.
+   *
+   * @param pWindow the time to wait for other transactions if the transaction opens a new group (in milliseconds)
+   */
+  void useGroupCommit(long pWindow)
+  {
+    transaction.useGroupCommit(pWindow);
+  }
+
   /**
    * Commits the changes of the current transaction to a persistent storage system.
    */
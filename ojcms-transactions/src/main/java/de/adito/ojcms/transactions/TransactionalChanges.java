@@ -1,15 +1,19 @@
 package de.adito.ojcms.transactions;
 
 import de.adito.ojcms.beans.literals.fields.IField;
-import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+import de.adito.ojcms.transactions.annotations.*;
 import de.adito.ojcms.transactions.api.*;
 import de.adito.ojcms.transactions.spi.IBeanDataStorage;
+import org.jboss.weld.proxy.WeldClientProxy;
 
-import javax.annotation.*;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static de.adito.ojcms.transactions.annotations.ETransactionIsolation.*;
+
 /**
  * Manages bean related changes for a single transaction.
  *
@@ -22,13 +26,50 @@ class TransactionalChanges
   private OverallTransactionalChanges overallTransactionalChanges;
   @Inject
   private IBeanDataStorage storage;
+  @Inject
+  private CachingBeanDataLoader beanDataCache;
 
   //Containers
-  private final Map<String, Set<_VariableBeanAddition>> additionsByContainer = new HashMap<>();
-  private final Map<String, Set<InitialIndexKey>> removalsByContainer = new HashMap<>();
+  private final Map<String, ContainerIndexChanges> indexChangesByContainer = new HashMap<>();
   private final Map<InitialIndexKey, Map<IField<?>, Object>> changedContainerValuesByContainer = new HashMap<>();
   //Single beans
   private final Map<SingleBeanKey, Map<IField<?>, Object>> changedSingleBeanValues = new HashMap<>();
+  //Versions of the read data the changes are based on
+  private final Map<InitialIndexKey, Object> readContainerBeanVersions = new HashMap<>();
+  private final Map<SingleBeanKey, Object> readSingleBeanVersions = new HashMap<>();
+  //Isolation
+  private ETransactionIsolation isolation = PESSIMISTIC;
+  private long snapshotVersion;
+
+  /**
+   * Defines the isolation level of the transaction. Has to be set before any changes are registered.
+   *
+   * @param pIsolation the isolation level of the transaction
+   */
+  void useIsolation(ETransactionIsolation pIsolation)
+  {
+    if (hasChanges())
+      throw new IllegalStateException("The isolation level cannot be changed after changes have been registered!");
+
+    if (isolation == SNAPSHOT)
+      overallTransactionalChanges.deregisterSnapshot(this);
+
+    isolation = pIsolation;
+
+    if (isolation == SNAPSHOT)
+      snapshotVersion = overallTransactionalChanges.registerSnapshot(this);
+  }
+
+  /**
+   * Determines if the transaction is in snapshot isolation.
+   * Such a transaction never fails when requesting data, conflicts will only be detected between writes at commit time.
+   *
+   * @return <tt>true</tt> if the transaction uses snapshot isolation
+   */
+  boolean isSnapshotIsolation()
+  {
+    return isolation == SNAPSHOT;
+  }
 
   /**
    * Evaluates the size difference of a bean container within the active transaction. This methods simply counts all additions
@@ -40,9 +81,8 @@ class TransactionalChanges
    */
   int getContainerSizeDifference(String pContainerId)
   {
-    final int additions = _countIfNotNull(additionsByContainer.get(pContainerId));
-    final int removals = _countIfNotNull(removalsByContainer.get(pContainerId));
-    return additions - removals;
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pContainerId);
+    return indexChanges == null ? 0 : indexChanges.getSizeDifference();
   }
 
   /**
@@ -59,8 +99,7 @@ class TransactionalChanges
         .map(pInitialData::integrateChanges) //
         .orElse(pInitialData);
 
-    final int currentIndex = initialToCurrentIndexKey(pKey).getIndex();
-    return beanData.getIndex() != currentIndex ? new PersistentBeanData(currentIndex, beanData.getData()) : beanData;
+    return beanData.withIndex(initialToCurrentIndexKey(pKey).getIndex());
   }
 
   /**
@@ -89,11 +128,9 @@ class TransactionalChanges
     if (isRemoved(pInitialKey))
       throw new IllegalArgumentException("Unable to convert initial to current key if the bean has been deleted!");
 
-    final String containerId = pInitialKey.getContainerId();
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pInitialKey.getContainerId());
     final int initialIndex = pInitialKey.getIndex();
-    final int indexAfterRemovals = initialIndex - _countRemovalsBeforeAndAtIndex(containerId, initialIndex);
-    final int currentIndex = indexAfterRemovals + _countAdditionsBeforeIndex(containerId, indexAfterRemovals);
-    return pInitialKey.toCurrentKey(currentIndex);
+    return pInitialKey.toCurrentKey(indexChanges == null ? initialIndex : indexChanges.initialToCurrentIndex(initialIndex));
   }
 
   /**
@@ -105,70 +142,70 @@ class TransactionalChanges
    */
   InitialIndexKey currentToInitialIndexKey(CurrentIndexKey pCurrentKey)
   {
-    final String containerId = pCurrentKey.getContainerId();
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pCurrentKey.getContainerId());
     final int currentIndex = pCurrentKey.getIndex();
-    final int indexAfterAdditions = currentIndex - _countAdditionsBeforeIndex(containerId, currentIndex);
-    final int initialIndex = indexAfterAdditions + _countRemovalsBeforeAndAtIndex(containerId, indexAfterAdditions);
-    return pCurrentKey.toInitialKey(initialIndex);
+    return pCurrentKey.toInitialKey(indexChanges == null ? currentIndex : indexChanges.currentToInitialIndex(currentIndex));
   }
 
   /**
-   * Determines if a bean container is changed related to its size.
+   * Determines if a bean related to a {@link CurrentIndexKey} has been added within the transaction.
    *
-   * @param pContainerId the id of the container to check
-   * @return <tt>true</tt> if the container has been changed related to its size
+   * @param pKey the index based key to check
+   * @return <tt>true</tt> if the bean data has been added within the transaction
    */
-  boolean isContainerDirtyInSize(String pContainerId)
+  boolean isAdded(CurrentIndexKey pKey)
   {
-    return additionsByContainer.containsKey(pContainerId) && !additionsByContainer.get(pContainerId).isEmpty() || //
-        removalsByContainer.containsKey(pContainerId) && !removalsByContainer.get(pContainerId).isEmpty();
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pKey.getContainerId());
+    return indexChanges != null && indexChanges.isAdded(pKey.getIndex());
   }
 
   /**
-   * Determines if specific bean data within a container has been changed.
+   * Determines if a bean related to a {@link InitialIndexKey} has been removed within the transaction.
    *
-   * @param pKey the key identifying the bean within the container by index
-   * @return <tt>true</tt> if the bean data has been changed
+   * @param pKey the index based key to check
+   * @return <tt>true</tt> if the bean data has removed within the transaction
    */
-  boolean isContainerBeanDirty(InitialIndexKey pKey)
+  boolean isRemoved(InitialIndexKey pKey)
   {
-    return changedContainerValuesByContainer.containsKey(pKey);
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pKey.getContainerId());
+    return indexChanges != null && indexChanges.isRemoved(pKey.getIndex());
   }
 
   /**
-   * Determines if specific single bean data has been changed.
+   * Determines if any bean has been removed from a container within the transaction.
    *
-   * @param pKey the key identifying the single bean
-   * @return <tt>true</tt> if the bean data has been changed
+   * @param pContainerId the id of the container to check
+   * @return <tt>true</tt> if beans have been removed from the container
    */
-  boolean isSingleBeanDirty(SingleBeanKey pKey)
+  boolean hasRemovals(String pContainerId)
   {
-    return changedSingleBeanValues.containsKey(pKey);
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pContainerId);
+    return indexChanges != null && indexChanges.hasRemovals();
   }
 
   /**
-   * Determines if a bean related to a {@link CurrentIndexKey} has been added within the transaction.
+   * Resolves all beans that have been added to a container within the transaction.
    *
-   * @param pKey the index based key to check
-   * @return <tt>true</tt> if the bean data has been added within the transaction
+   * @param pContainerId the id of the container to resolve the additions for
+   * @return the additions with their current index and values in ascending index order
    */
-  boolean isAdded(CurrentIndexKey pKey)
+  List<BeanAddition> getAdditions(String pContainerId)
   {
-    final String containerId = pKey.getContainerId();
-    return additionsByContainer.containsKey(containerId) && //
-        additionsByContainer.get(containerId).contains(new _VariableBeanAddition(pKey.getIndex()));
+    final ContainerIndexChanges indexChanges = indexChangesByContainer.get(pContainerId);
+    return indexChanges == null ? Collections.emptyList() : indexChanges.getAdditionsWithFinalIndex();
   }
 
   /**
-   * Determines if a bean related to a {@link InitialIndexKey} has been removed within the transaction.
+   * Resolves the changed values of all beans of a container that existed at the start of the transaction.
    *
-   * @param pKey the index based key to check
-   * @return <tt>true</tt> if the bean data has removed within the transaction
+   * @param pContainerId the id of the container to resolve the changed values for
+   * @return the changed values mapped by the initial index key of the changed bean
    */
-  boolean isRemoved(InitialIndexKey pKey)
+  Map<InitialIndexKey, Map<IField<?>, Object>> getChangedContainerBeanValues(String pContainerId)
   {
-    final String containerId = pKey.getContainerId();
-    return removalsByContainer.containsKey(containerId) && removalsByContainer.get(containerId).contains(pKey);
+    return changedContainerValuesByContainer.entrySet().stream() //
+        .filter(pEntry -> pEntry.getKey().getContainerId().equals(pContainerId)) //
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
   }
 
   /**
@@ -178,17 +215,10 @@ class TransactionalChanges
    */
   void beanAdded(BeanAddition pBeanAddition)
   {
-    final int index = pBeanAddition.getIndex();
-    final String containerId = pBeanAddition.getContainerId();
-    final _VariableBeanAddition addition = new _VariableBeanAddition(pBeanAddition);
-    final Set<_VariableBeanAddition> additionsForContainer = additionsByContainer.computeIfAbsent(containerId, pId -> new HashSet<>());
-
-    //Adapt indexes of prior additions for the same and the indexes above
-    additionsForContainer.stream() //
-        .filter(pAddition -> pAddition.getIndex() >= index) //
-        .forEach(_VariableBeanAddition::incrementIndex);
+    if (isolation == PESSIMISTIC)
+      overallTransactionalChanges.claimContainerSize(pBeanAddition.getContainerId(), this);
 
-    additionsForContainer.add(addition);
+    _indexChangesForContainer(pBeanAddition.getContainerId()).beanAdded(pBeanAddition);
   }
 
   /**
@@ -198,40 +228,34 @@ class TransactionalChanges
    */
   void beanRemoved(CurrentIndexKey pCurrentKey)
   {
-    if (isAdded(pCurrentKey)) //If the bean has been added in the same transaction, just removed the change again
-    {
-      final Set<_VariableBeanAddition> additionsOfContainer = additionsByContainer.get(pCurrentKey.getContainerId());
-      additionsOfContainer.remove(new _VariableBeanAddition(pCurrentKey.getIndex()));
-      //Adapt keys of additions
-      additionsOfContainer.stream().filter(pAddition -> pAddition.getIndex() > pCurrentKey.getIndex()) //
-          .forEach(_VariableBeanAddition::decrementIndex);
-    }
+    if (isolation == PESSIMISTIC)
+      overallTransactionalChanges.claimContainerSize(pCurrentKey.getContainerId(), this);
+
+    final ContainerIndexChanges indexChanges = _indexChangesForContainer(pCurrentKey.getContainerId());
+
+    if (indexChanges.isAdded(pCurrentKey.getIndex())) //If the bean has been added in the same transaction, just removed the change again
+      indexChanges.addedBeanRemoved(pCurrentKey.getIndex());
     else
-    {
-      final InitialIndexKey keyToRemove = currentToInitialIndexKey(pCurrentKey);
-      removalsByContainer.computeIfAbsent(keyToRemove.getContainerId(), pId -> new HashSet<>()).add(keyToRemove);
-    }
+      indexChanges.initialBeanRemoved(indexChanges.currentToInitialIndex(pCurrentKey.getIndex()));
   }
 
   /**
    * Notifies the change manager that a value of a bean within a container has been changed.
+   * The version of the bean data the change is based on is kept for the commit, if the bean existed at the start of the transaction.
    *
    * @param pCurrentKey   the key identifying the bean within the container by index
    * @param pChangedField the changed bean field
    * @param pNewValue     the new field value
+   * @param pReadData     resolves the bean data read by the transaction by initial index key (only used for beans not added)
    * @param <VALUE>       the data type of the changed field
    */
-  <VALUE> void containerBeanValueHasChanged(CurrentIndexKey pCurrentKey, IField<VALUE> pChangedField, VALUE pNewValue)
+  <VALUE> void containerBeanValueHasChanged(CurrentIndexKey pCurrentKey, IField<VALUE> pChangedField, VALUE pNewValue,
+                                            Function<InitialIndexKey, PersistentBeanData> pReadData)
   {
     if (isAdded(pCurrentKey))
     {
-      final _VariableBeanAddition addition = additionsByContainer.get(pCurrentKey.getContainerId()).stream() //
-          .filter(pBeanAddition -> pBeanAddition.getIndex() == pCurrentKey.getIndex()) //
-          .findAny() //
-          .orElseThrow(AssertionError::new);
-
       //Add changed value to addition data
-      addition.getContent().put(pChangedField, pNewValue);
+      indexChangesByContainer.get(pCurrentKey.getContainerId()).getAddedContent(pCurrentKey.getIndex()).put(pChangedField, pNewValue);
     }
     else
     {
@@ -240,192 +264,203 @@ class TransactionalChanges
         throw new IllegalArgumentException(
             "Cannot register change! Bean data for initial key " + changedInitialKey + " has been removed" + " within this transaction!");
 
+      if (isolation == PESSIMISTIC)
+        overallTransactionalChanges.claimContainerBean(changedInitialKey, this);
+
       changedContainerValuesByContainer.computeIfAbsent(changedInitialKey, pChangeKey -> new HashMap<>()).put(pChangedField, pNewValue);
+      pReadData.apply(changedInitialKey).getVersion() //
+          .ifPresent(pVersion -> readContainerBeanVersions.putIfAbsent(changedInitialKey, pVersion));
     }
   }
 
   /**
    * Notifies the change manager that a value of a single bean has been changed.
+   * The version of the bean data the change is based on is kept for the commit.
    *
    * @param pKey          the key identifying the single bean
    * @param pChangedField the changed bean field
    * @param pNewValue     the new field value
+   * @param pReadData     the single bean data read by the transaction
    * @param <VALUE>       the data type of the changed field
    */
-  <VALUE> void singleBeanValueHasChanged(SingleBeanKey pKey, IField<VALUE> pChangedField, VALUE pNewValue)
+  <VALUE> void singleBeanValueHasChanged(SingleBeanKey pKey, IField<VALUE> pChangedField, VALUE pNewValue, PersistentBeanData pReadData)
   {
+    if (isolation == PESSIMISTIC)
+      overallTransactionalChanges.claimSingleBean(pKey, this);
+
     changedSingleBeanValues.computeIfAbsent(pKey, key -> new HashMap<>()).put(pChangedField, pNewValue);
+    pReadData.getVersion().ifPresent(pVersion -> readSingleBeanVersions.putIfAbsent(pKey, pVersion));
+  }
+
+  /**
+   * Prepares the commit of this transaction. Transactions in snapshot isolation claim their changes and check for write-write conflicts.
+   * Has to be called on the thread of the transaction before {@link #commitChanges()}.
+   */
+  void prepareCommit()
+  {
+    if (isolation == SNAPSHOT)
+      _claimAndValidateSnapshotChanges();
+  }
+
+  /**
+   * Determines if any changes have been registered within this transaction.
+   *
+   * @return <tt>true</tt> if there are changes to commit
+   */
+  boolean hasChanges()
+  {
+    return !indexChangesByContainer.isEmpty() || !changedContainerValuesByContainer.isEmpty() || !changedSingleBeanValues.isEmpty();
   }
 
   /**
    * Commits all changes made in this transaction to the persistent storage system.
+   * The changes are processed by the storage of the transactional context that is active on the calling thread.
    */
   void commitChanges()
   {
     //The order is very important here: removals first, then additions and value changes at the end
+    final Map<String, Set<InitialIndexKey>> removalsByContainer = indexChangesByContainer.entrySet().stream() //
+        .filter(pEntry -> pEntry.getValue().hasRemovals()) //
+        .collect(Collectors.toMap(Map.Entry::getKey, pEntry -> pEntry.getValue().getRemovedKeys()));
+
     storage.processRemovals(removalsByContainer);
-    additionsByContainer.forEach((pContainerId, pAddition) -> storage.processAdditionsForContainer(pContainerId, pAddition.stream() //
-        .map(_VariableBeanAddition::toBeanAdditionWithNewIndex) //
-        .collect(Collectors.toSet())));
+    indexChangesByContainer.forEach((pContainerId, pIndexChanges) -> storage.processAdditionsForContainer(pContainerId, //
+        new LinkedHashSet<>(pIndexChanges.getAdditionsWithFinalIndex())));
+
+    final Map<String, Map<InitialIndexKey, Map<IField<?>, Object>>> containerValueChangesByContainerId = new HashMap<>();
+    changedContainerValuesByContainer.forEach((pKey, pValues) -> containerValueChangesByContainerId //
+        .computeIfAbsent(pKey.getContainerId(), pContainerId -> new HashMap<>()) //
+        .put(pKey, pValues));
 
-    changedContainerValuesByContainer.forEach((pKey, pValues) -> storage.processChangesForContainerBean(pKey, pValues));
-    changedSingleBeanValues.forEach((pKey, pValues) -> storage.processChangesForSingleBean(pKey, pValues));
+    containerValueChangesByContainerId.forEach((pContainerId, pChangedValuesByKey) ->
+    {
+      final Map<InitialIndexKey, Object> versionsByKey = new HashMap<>();
+      pChangedValuesByKey.keySet().stream() //
+          .filter(readContainerBeanVersions::containsKey) //
+          .forEach(pKey -> versionsByKey.put(pKey, readContainerBeanVersions.get(pKey)));
+
+      storage.processChangesForContainerBeans(pContainerId, pChangedValuesByKey, versionsByKey);
+    });
+
+    changedSingleBeanValues.forEach(
+        (pKey, pValues) -> storage.processChangesForSingleBean(pKey, pValues, readSingleBeanVersions.get(pKey)));
   }
 
   /**
-   * Counts the number of additions for a specific container before a given index within the transaction.
+   * Resolves the index changes for a bean container or creates them if not present yet.
    *
-   * @param pContainerId the id of the container to count additions for
-   * @param pIndex       the given index boundary
-   * @return the number of additions before the given index
+   * @param pContainerId the id of the container
+   * @return the index changes of the container
    */
-  private int _countAdditionsBeforeIndex(String pContainerId, int pIndex)
+  private ContainerIndexChanges _indexChangesForContainer(String pContainerId)
   {
-    return !additionsByContainer.containsKey(pContainerId) ? 0 : (int) additionsByContainer.get(pContainerId).stream() //
-        .mapToInt(_VariableBeanAddition::getIndex) //
-        .filter(pAddedIndex -> pAddedIndex < pIndex) //
-        .count();
+    return indexChangesByContainer.computeIfAbsent(pContainerId, ContainerIndexChanges::new);
   }
 
   /**
-   * Counts the number of removals for a specific container before and at a given index within the transaction.
-   *
-   * @param pContainerId the id of the container to count removals for
-   * @param pIndex       the given index boundary
-   * @return the number of removals before and at the given index
+   * Notifies the change manager that all changes have been committed to the persistent storage system successfully.
+   * Updates the shared bean data cache, registers the commit for concurrent snapshot transactions and releases all claimed keys.
    */
-  private int _countRemovalsBeforeAndAtIndex(String pContainerId, int pIndex)
+  void changesCommitted()
   {
-    return !removalsByContainer.containsKey(pContainerId) ? 0 : (int) removalsByContainer.get(pContainerId).stream() //
-        .mapToInt(InitialIndexKey::getIndex) //
-        .filter(pRemovedIndex -> pRemovedIndex <= pIndex) //
-        .count();
+    //Invalidate before releasing the keys, so other transactions cannot see stale cached data
+    final Map<String, Integer> sizeDifferences = new HashMap<>();
+    indexChangesByContainer.forEach((pContainerId, pIndexChanges) -> sizeDifferences.put(pContainerId, pIndexChanges.getSizeDifference()));
+    beanDataCache.changesCommitted(sizeDifferences, changedContainerValuesByContainer.keySet(), changedSingleBeanValues.keySet());
+    overallTransactionalChanges.registerCommit(_allChangedKeys());
+    _releaseClaimedKeys();
   }
 
   /**
-   * Counts the elements of a set. If the set is empty the result will be zero.
-   *
-   * @param pAnySet the set to count elements of
-   * @return the count of elements in the set or zero if the set is null
+   * Notifies the change manager that the persistent storage system rejected the changes due to a concurrent modification.
+   * The modification may have been performed by another application instance, so the cached data of all affected containers
+   * and beans will be invalidated to load the current data in the next try.
    */
-  private int _countIfNotNull(Set<?> pAnySet)
+  void changesRejected()
   {
-    return Optional.ofNullable(pAnySet) //
-        .map(Set::size) //
-        .orElse(0);
+    beanDataCache.invalidate(_affectedContainerIds(), changedContainerValuesByContainer.keySet(), changedSingleBeanValues.keySet());
   }
 
   /**
-   * Registers this transactional changes instance at {@link OverallTransactionalChanges}.
+   * Claims all keys of the changes of a snapshot transaction right before the commit and verifies
+   * that no other transaction has committed changes to the same data since this transaction started.
+   * Value changes of container beans are keyed by their initial index. So the sizes of all affected containers are claimed and validated
+   * as well, because a committed addition or removal shifts the indexes and the change would be applied to the wrong bean.
+   *
+   * @throws de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException if a write-write conflict has been detected
    */
-  @PostConstruct
-  private void _register()
+  private void _claimAndValidateSnapshotChanges()
   {
-    overallTransactionalChanges.registerFromTransaction(this);
+    final Set<String> affectedContainerIds = _affectedContainerIds();
+    affectedContainerIds.forEach(pContainerId -> overallTransactionalChanges.claimContainerSize(pContainerId, this));
+    changedContainerValuesByContainer.keySet().forEach(pKey -> overallTransactionalChanges.claimContainerBean(pKey, this));
+    changedSingleBeanValues.keySet().forEach(pKey -> overallTransactionalChanges.claimSingleBean(pKey, this));
+
+    final List<Object> keysToValidate = new ArrayList<>(affectedContainerIds);
+    keysToValidate.addAll(changedContainerValuesByContainer.keySet());
+    keysToValidate.addAll(changedSingleBeanValues.keySet());
+    overallTransactionalChanges.throwIfCommittedSince(keysToValidate, snapshotVersion);
   }
 
   /**
-   * Deregisters this transactional changes instance from {@link OverallTransactionalChanges}.
+   * The ids of all containers affected by this transaction. Either by size changes or by value changes of their beans.
+   *
+   * @return a set of container ids
    */
-  @PreDestroy
-  private void _deregister()
+  private Set<String> _affectedContainerIds()
   {
-    overallTransactionalChanges.deregister(this);
+    final Set<String> affectedContainerIds = new HashSet<>(indexChangesByContainer.keySet());
+    changedContainerValuesByContainer.keySet().forEach(pKey -> affectedContainerIds.add(pKey.getContainerId()));
+    return affectedContainerIds;
   }
 
   /**
-   * Describes the addition of a bean within the transaction.
-   * The index of added beans may be adapted within the transaction if beans get added or removed later on.
+   * All keys of data changed within this transaction. Container ids for size changes and the keys of changed beans.
+   *
+   * @return a list of all changed keys
    */
-  private static class _VariableBeanAddition
+  private List<Object> _allChangedKeys()
   {
-    private final BeanAddition original;
-    private final Map<IField<?>, Object> content;
-    private int index;
-
-    /**
-     * Creates an empty addition instance for comparisons.
-     *
-     * @param pIndex the index for the bean addition
-     */
-    _VariableBeanAddition(int pIndex)
-    {
-      original = null;
-      content = null;
-      index = pIndex;
-    }
-
-    /**
-     * Creates a new bean addition for given type, data and index.
-     *
-     * @param pBeanAddition data describing the addition
-     */
-    _VariableBeanAddition(BeanAddition pBeanAddition)
-    {
-      original = pBeanAddition;
-      content = pBeanAddition.getData();
-      index = pBeanAddition.getIndex();
-    }
-
-    /**
-     * Return either the original {@link BeanAddition} if the index didn't change or creates a copy with the new index.
-     *
-     * @return the bean addition with a potential adapted index
-     */
-    BeanAddition toBeanAdditionWithNewIndex()
-    {
-      return original.getIndex() == index && original.getData().equals(content) ? original : //
-          new BeanAddition(index, content, original.getBeanType(), original.getContainerId());
-    }
-
-    /**
-     * The content of the added bean.
-     */
-    Map<IField<?>, Object> getContent()
-    {
-      return content;
-    }
-
-    /**
-     * The index the bean has been added.
-     */
-    int getIndex()
-    {
-      return index;
-    }
-
-    /**
-     * Increments the index of the added bean by one.
-     */
-    void incrementIndex()
-    {
-      index++;
-    }
+    final List<Object> changedKeys = new ArrayList<>(indexChangesByContainer.keySet());
+    changedKeys.addAll(changedContainerValuesByContainer.keySet());
+    changedKeys.addAll(changedSingleBeanValues.keySet());
+    return changedKeys;
+  }
 
-    /**
-     * Decrements the index of the added bean by one.
-     */
-    void decrementIndex()
-    {
-      index--;
-    }
+  /**
+   * Releases all keys claimed by this transaction at {@link OverallTransactionalChanges}.
+   * Other transactions are allowed to access the changed data afterwards.
+   */
+  private void _releaseClaimedKeys()
+  {
+    //Snapshot transactions also claim the sizes of containers with value changes only
+    overallTransactionalChanges.releaseAll(this, _affectedContainerIds(), changedContainerValuesByContainer.keySet(),
+        changedSingleBeanValues.keySet());
+  }
 
-    @Override
-    public boolean equals(Object pOther)
-    {
-      if (this == pOther)
-        return true;
-      if (pOther == null || getClass() != pOther.getClass())
-        return false;
+  /**
+   * Releases all claimed keys and the snapshot registration when the transaction ends.
+   */
+  @PreDestroy
+  private void _endTransaction()
+  {
+    _releaseClaimedKeys();
 
-      final _VariableBeanAddition that = (_VariableBeanAddition) pOther;
-      return index == that.index;
-    }
+    if (isolation == SNAPSHOT)
+      overallTransactionalChanges.deregisterSnapshot(this);
+  }
 
-    @Override
-    public int hashCode()
-    {
-      return Objects.hash(index);
-    }
+  /**
+   * Resolves the actual changes instance behind a CDI client proxy.
+   * The actual instance is required to compare it with the instances of {@link OverallTransactionalChanges} and to access it
+   * outside of the transactional context, e.g. from another thread.
+   *
+   * @param pChanges the changes instance or its client proxy, may be null
+   * @return the actual changes instance or null if null has been given
+   */
+  static TransactionalChanges unwrapProxy(TransactionalChanges pChanges)
+  {
+    return pChanges instanceof WeldClientProxy ?
+        (TransactionalChanges) ((WeldClientProxy) pChanges).getMetadata().getContextualInstance() : pChanges;
   }
 }
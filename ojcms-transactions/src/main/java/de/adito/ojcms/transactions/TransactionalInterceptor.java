@@ -4,6 +4,7 @@ import de.adito.ojcms.cdi.ICdiControl;
 import de.adito.ojcms.cdi.context.IActiveContext;
 import de.adito.ojcms.transactions.annotations.*;
 import de.adito.ojcms.transactions.exceptions.*;
+import de.adito.ojcms.transactions.util.TransactionStatistics;
 
 import javax.annotation.Priority;
 import javax.inject.Inject;
@@ -18,6 +19,8 @@ import static javax.interceptor.Interceptor.Priority.APPLICATION;
 /**
  * Interceptor for methods or classes annotated by {@link Transactional}.
  * Starts the transactional context and commits or rolls back the changes after the execution of the transaction.
+ * Retries after concurrent modifications are delayed by the configured backoff strategy and counted in {@link TransactionStatistics}.
+ * The delays and the overall retry duration are based on the {@link RetryClock}.
  *
  * @author Simon Danner, 25.12.2019
  */
@@ -32,6 +35,10 @@ class TransactionalInterceptor
   private ICdiControl cdiControl;
   @Inject
   private TransactionManager transactionManager;
+  @Inject
+  private TransactionStatistics statistics;
+  @Inject
+  private RetryClock clock;
 
   @AroundInvoke
   private Object _manageTransaction(InvocationContext pInvocation) throws Exception
@@ -42,14 +49,25 @@ class TransactionalInterceptor
     if (tries < 1)
       throw new IllegalArgumentException("Bad try count for transaction: " + tries);
 
+    final TransactionStatistics.MethodStatistics methodStatistics = statistics.getStatistics(pInvocation.getMethod());
+    final long startTime = clock.currentTimeMillis();
     int tryCount = 0;
 
     while (tryCount < tries)
     {
       if (tryCount > 0)
+      {
+        final long delay = annotation.retryBackoff().computeDelay(tryCount, annotation.retryBaseDelay());
+        if (clock.currentTimeMillis() - startTime + delay > annotation.maxRetryDuration())
+          break;
+
         LOGGER.info("Retrying transaction...");
+        _awaitRetry(delay, methodStatistics);
+      }
 
+      methodStatistics.attemptStarted();
       final Optional<IActiveContext> activeContext = _tryToStartNewContext(annotation.mode() == REQUIRES_NEW);
+      activeContext.ifPresent(pNewContext -> _configureNewTransaction(annotation));
 
       try
       {
@@ -60,6 +78,7 @@ class TransactionalInterceptor
       catch (ConcurrentTransactionException pConcurrentException)
       {
         LOGGER.log(Level.WARNING, "Transaction failed due to concurrent bean modification! Reason: " + pConcurrentException.getMessage());
+        methodStatistics.conflictOccurred();
         tryCount++;
       }
       catch (Exception pE)
@@ -74,6 +93,7 @@ class TransactionalInterceptor
         }
 
         transactionManager.rollbackChanges();
+        methodStatistics.transactionFailed();
         throw new TransactionFailedException(pE);
       }
       finally
@@ -83,7 +103,44 @@ class TransactionalInterceptor
     }
 
     transactionManager.rollbackChanges();
-    throw new TransactionFailedException(tries);
+    methodStatistics.transactionFailed();
+    throw new TransactionFailedException(tryCount);
+  }
+
+  /**
+   * Waits before the next try of a transaction.
+   *
+   * @param pDelay            the time to wait in milliseconds
+   * @param pMethodStatistics the statistics of the transactional method to register a failure if interrupted
+   */
+  private void _awaitRetry(long pDelay, TransactionStatistics.MethodStatistics pMethodStatistics)
+  {
+    if (pDelay <= 0)
+      return;
+
+    try
+    {
+      clock.sleep(pDelay);
+    }
+    catch (InterruptedException pE)
+    {
+      Thread.currentThread().interrupt();
+      pMethodStatistics.transactionFailed();
+      throw new TransactionFailedException(pE);
+    }
+  }
+
+  /**
+   * Configures a newly started transaction by the settings of the {@link Transactional} annotation.
+   *
+   * @param pAnnotation the annotation defining the transaction
+   */
+  private void _configureNewTransaction(Transactional pAnnotation)
+  {
+    transactionManager.configure(pAnnotation.isolation(), pAnnotation.readOnly());
+
+    if (pAnnotation.groupCommit())
+      transactionManager.useGroupCommit(pAnnotation.groupCommitWindow());
   }
 
   /**
@@ -0,0 +1,60 @@
+package de.adito.ojcms.transactions.annotations;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Enumerates all possible backoff strategies to wait before a transaction is retried after a concurrent modification.
+ *
+ * @author agent, 16.10.2026
+ */
+public enum ERetryBackoff
+{
+  /**
+   * Retries the transaction immediately.
+   */
+  NONE
+      {
+        @Override
+        public long computeDelay(int pRetryNumber, long pBaseDelay)
+        {
+          return 0;
+        }
+      },
+
+  /**
+   * Waits the base delay before every retry.
+   */
+  FIXED
+      {
+        @Override
+        public long computeDelay(int pRetryNumber, long pBaseDelay)
+        {
+          return pBaseDelay;
+        }
+      },
+
+  /**
+   * Doubles the maximum delay with every retry and waits a random time up to that maximum.
+   * The randomness avoids that colliding transactions collide again at their next try.
+   */
+  EXPONENTIAL_WITH_JITTER
+      {
+        @Override
+        public long computeDelay(int pRetryNumber, long pBaseDelay)
+        {
+          final long maxDelay = pBaseDelay << Math.min(pRetryNumber - 1, MAX_EXPONENT);
+          return maxDelay <= 0 ? 0 : ThreadLocalRandom.current().nextLong(maxDelay + 1);
+        }
+      };
+
+  private static final int MAX_EXPONENT = 16;
+
+  /**
+   * Computes the time to wait before a retry.
+   *
+   * @param pRetryNumber the number of the retry (starting at 1)
+   * @param pBaseDelay   the configured base delay in milliseconds
+   * @return the delay in milliseconds
+   */
+  public abstract long computeDelay(int pRetryNumber, long pBaseDelay);
+}
@@ -0,0 +1,23 @@
+package de.adito.ojcms.transactions.annotations;
+
+import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
+
+/**
+ * Enumerates all possible isolation levels of a transaction.
+ *
+ * @author agent, 16.10.2026
+ */
+public enum ETransactionIsolation
+{
+  /**
+   * Every read or write of data that has been changed by another active transaction fails immediately with a
+   * {@link ConcurrentTransactionException}.
+   */
+  PESSIMISTIC,
+
+  /**
+   * Reads never fail and see the last committed data. Conflicts are only detected between writes at commit time,
+   * if another transaction has changed the same data concurrently or committed changes to it after this transaction started.
+   */
+  SNAPSHOT
+}
@@ -29,6 +29,44 @@ public @interface Transactional
   @Nonbinding
   ETransactionMode mode() default ETransactionMode.REQUIRES_NEW;
 
+  /**
+   * Defines the isolation level of the transaction.
+   * The isolation level only applies if a new transaction is started for the annotated scope.
+   *
+   * @return the defined isolation level or a default value
+   */
+  @Nonbinding
+  ETransactionIsolation isolation() default ETransactionIsolation.PESSIMISTIC;
+
+  /**
+   * Defines if the transaction only reads data. A read-only transaction does not track any changes and skips all commit work.
+   * Registering a change within a read-only transaction leads to an exception.
+   * This setting only applies if a new transaction is started for the annotated scope.
+   *
+   * @return <tt>true</tt> if the transaction is read-only
+   */
+  @Nonbinding
+  boolean readOnly() default false;
+
+  /**
+   * Enables the group commit for the transaction. The changes of concurrent transactions that are ready to commit will be
+   * collected for a short window and committed together in one transaction of the persistent storage system.
+   * This increases the throughput for many concurrent writing transactions at the cost of some latency.
+   * This setting only applies if a new transaction is started for the annotated scope.
+   *
+   * @return <tt>true</tt> if the transaction takes part in group commits
+   */
+  @Nonbinding
+  boolean groupCommit() default false;
+
+  /**
+   * The window to collect other transactions for a group commit if the transaction opens a new group.
+   *
+   * @return the defined window in milliseconds or a default value
+   */
+  @Nonbinding
+  long groupCommitWindow() default 5;
+
   /**
    * The amount of retries in case of a {@link ConcurrentTransactionException} during a transaction.
    *
@@ -37,6 +75,30 @@ public @interface Transactional
   @Nonbinding
   int tries() default 5;
 
+  /**
+   * Defines the backoff strategy to wait before a retry after a {@link ConcurrentTransactionException}.
+   *
+   * @return the defined backoff strategy or a default value
+   */
+  @Nonbinding
+  ERetryBackoff retryBackoff() default ERetryBackoff.EXPONENTIAL_WITH_JITTER;
+
+  /**
+   * The base delay for the retry backoff strategy.
+   *
+   * @return the defined base delay in milliseconds or a default value
+   */
+  @Nonbinding
+  long retryBaseDelay() default 5;
+
+  /**
+   * The maximum total duration for all tries of the transaction. No retry will be scheduled after this duration has been exceeded.
+   *
+   * @return the defined maximum duration in milliseconds or a default value
+   */
+  @Nonbinding
+  long maxRetryDuration() default 30 * 1000;
+
   /**
    * Defines a timeout for the transaction.
    *
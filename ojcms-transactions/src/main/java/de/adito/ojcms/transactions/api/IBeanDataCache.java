@@ -0,0 +1,33 @@
+package de.adito.ojcms.transactions.api;
+
+/**
+ * The shared cache for committed bean data of all transactions of the application.
+ * Allows to invalidate cached data that has been changed outside of the application,
+ * e.g. by another application instance that uses the same persistent storage system.
+ *
+ * @author agent, 16.10.2026
+ */
+public interface IBeanDataCache
+{
+  /**
+   * Invalidates all cached data of beans within an index range of a container.
+   * An unbounded range indicates that beans have been added or removed, so the size of the container will be invalidated as well.
+   *
+   * @param pContainerId the id of the container
+   * @param pFromIndex   the first index of the range (inclusive)
+   * @param pToIndex     the end of the range (exclusive), {@link Integer#MAX_VALUE} if unbounded
+   */
+  void invalidateContainerRange(String pContainerId, int pFromIndex, int pToIndex);
+
+  /**
+   * Invalidates the cached data of a single bean.
+   *
+   * @param pKey the key identifying the single bean
+   */
+  void invalidateSingleBean(SingleBeanKey pKey);
+
+  /**
+   * Invalidates all cached data.
+   */
+  void invalidateAll();
+}
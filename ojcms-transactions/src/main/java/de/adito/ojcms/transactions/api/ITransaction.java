@@ -5,6 +5,7 @@ import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.transactions.annotations.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Defines operations from the bean context that relate to a transaction. Persistent bean data must always be accessed
@@ -34,6 +35,18 @@ public interface ITransaction
    */
   PersistentBeanData requestBeanDataByIndex(CurrentIndexKey pKey);
 
+  /**
+   * Requests persistent data of all beans within a container in an index range.
+   * The data will be loaded with as few requests as possible, which makes this method suitable to page through large containers.
+   * Beans added within this transaction are not part of the result, the same as for {@link #requestBeanDataByIndex(CurrentIndexKey)}.
+   *
+   * @param pContainerId the id of the container
+   * @param pFromIndex   the first index of the range (inclusive)
+   * @param pToIndex     the end of the range (exclusive)
+   * @return the requested persistent bean data mapped by the current index within the transaction
+   */
+  Map<Integer, PersistentBeanData> requestBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex);
+
   /**
    * Requests the type of a bean within a persistent container at a specific index.
    * This may be necessary if the type of the container is a bean base type and the actual types are persisted in the storage system.
@@ -62,13 +75,37 @@ public interface ITransaction
   PersistentBeanData requestSingleBeanData(SingleBeanKey pKey);
 
   /**
-   * Requests a full container load that provides all persistent bean data. This method mainly exists due to a performance issue
-   * to enable a way to load mass data in one call from a database system for example.
+   * Requests a full container load that provides all persistent bean data one by one. This method mainly exists due to a performance
+   * issue to enable a way to load mass data in one call from a database system for example.
+   * The data is streamed from the storage system and not kept by the transaction, so the whole container is never held in memory.
+   *
+   * @param pContainerId      the id of the container to perform the full load for
+   * @param pBeanDataConsumer a consumer for the data of every bean within the container (indexes are current indexes)
+   */
+  void requestFullContainerLoad(String pContainerId, Consumer<PersistentBeanData> pBeanDataConsumer);
+
+  /**
+   * Requests persistent data of all beans within a container that have specific values for certain fields.
+   * The conditions are evaluated by the storage system, so the container does not have to be loaded completely.
+   * Changes of this transaction are considered: removed beans are skipped, changed and added beans are matched by their current values.
    *
-   * @param pContainerId the id of the container to perform the full load for
-   * @return a map containing all bean data mapped by index
+   * @param pContainerId the id of the container to search in
+   * @param pFieldValues the values the beans must have mapped by field
+   * @return the data of all matching beans mapped by current index in ascending order
    */
-  Map<Integer, PersistentBeanData> requestFullContainerLoad(String pContainerId);
+  SortedMap<Integer, PersistentBeanData> requestBeanDataByFieldValues(String pContainerId, Map<IField<?>, Object> pFieldValues);
+
+  /**
+   * Requests all distinct non-null values of a bean field within a container. The values are evaluated by the storage system.
+   * Values of beans added within this transaction are included. If beans of the container have been removed or values of the field
+   * have been changed within this transaction, the result cannot be determined this way and will be empty.
+   *
+   * @param pContainerId the id of the container to request the values from
+   * @param pField       the field to request the distinct values for
+   * @param <VALUE>      the value type of the field
+   * @return the distinct values of the field or empty if they have to be determined by iterating through the container
+   */
+  <VALUE> Optional<Set<VALUE>> requestDistinctFieldValues(String pContainerId, IField<VALUE> pField);
 
   /**
    * Registers the addition of a bean to a container within this transaction.
@@ -103,4 +140,13 @@ public interface ITransaction
    * @param <VALUE>       the value type of the changed field
    */
   <VALUE> void registerSingleBeanValueChange(SingleBeanKey pKey, IField<VALUE> pChangedField, VALUE pNewValue);
+
+  /**
+   * Determines if this transaction is read-only. Read-only transactions reject any change registration.
+   * Persistence providers may use this information to optimize their resources, e.g. use a read-only connection.
+   *
+   * @return <tt>true</tt> if the transaction is read-only
+   * @see Transactional#readOnly()
+   */
+  boolean isReadOnly();
 }
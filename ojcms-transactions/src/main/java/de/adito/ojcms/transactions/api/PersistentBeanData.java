@@ -6,6 +6,8 @@ import java.util.*;
 
 /**
  * Holds value based persistent data for a bean. These data consist of a value for every {@link IField} of the bean.
+ * The data may be associated with a version defined by the storage system. It identifies the state of the data when it has been loaded.
+ * A transaction hands the version of the data it has read back to the storage system along with its changes.
  *
  * @author Simon Danner, 27.12.2019
  */
@@ -13,6 +15,7 @@ public class PersistentBeanData
 {
   private final int index;
   private final Map<IField<?>, Object> data;
+  private final Object version;
 
   /**
    * Initializes the bean data wrapper with an index for the data and the actual data.
@@ -21,9 +24,22 @@ public class PersistentBeanData
    * @param pData  map based bean data (value for every field)
    */
   public PersistentBeanData(int pIndex, Map<IField<?>, Object> pData)
+  {
+    this(pIndex, pData, null);
+  }
+
+  /**
+   * Initializes the bean data wrapper with an index for the data, the actual data and the version of the data.
+   *
+   * @param pIndex   index for the bean data or -1 if none
+   * @param pData    map based bean data (value for every field)
+   * @param pVersion the storage specific version of the data or null if not versioned
+   */
+  public PersistentBeanData(int pIndex, Map<IField<?>, Object> pData, Object pVersion)
   {
     index = pIndex;
     data = new HashMap<>(Objects.requireNonNull(pData));
+    version = pVersion;
   }
 
   /**
@@ -46,6 +62,27 @@ public class PersistentBeanData
     return new HashMap<>(data);
   }
 
+  /**
+   * The storage specific version of these persistent bean data.
+   *
+   * @return the version of the data or empty if not versioned
+   */
+  public Optional<Object> getVersion()
+  {
+    return Optional.ofNullable(version);
+  }
+
+  /**
+   * Creates a copy of these bean data with another index. The version is retained.
+   *
+   * @param pIndex the index for the copy
+   * @return the bean data with the given index (new instance if the index differs)
+   */
+  public PersistentBeanData withIndex(int pIndex)
+  {
+    return pIndex == index ? this : new PersistentBeanData(pIndex, data, version);
+  }
+
   /**
    * Integrates changed bean values into this bean data and creates a new instance with the resulting values map.
    * If the changes are empty, the existing bean data instance will be returned.
@@ -60,7 +97,18 @@ public class PersistentBeanData
 
     final Map<IField<?>, Object> valuesCopy = getData();
     pChangedValues.forEach(valuesCopy::put);
-    return new PersistentBeanData(index, valuesCopy);
+    return new PersistentBeanData(index, valuesCopy, version);
+  }
+
+  /**
+   * Determines if these bean data contain specific values for certain fields.
+   *
+   * @param pFieldValues the values to check mapped by field
+   * @return <tt>true</tt> if every given field has the given value
+   */
+  public boolean hasValues(Map<IField<?>, Object> pFieldValues)
+  {
+    return pFieldValues.entrySet().stream().allMatch(pEntry -> Objects.equals(data.get(pEntry.getKey()), pEntry.getValue()));
   }
 
   @Override
@@ -71,6 +119,7 @@ public class PersistentBeanData
     if (pOther == null || getClass() != pOther.getClass())
       return false;
 
+    //The version is not considered, it only describes the state of the storage system at loading time
     final PersistentBeanData that = (PersistentBeanData) pOther;
     return index == that.index && Objects.equals(data, that.data);
   }
@@ -5,6 +5,7 @@ import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.transactions.api.*;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Defines an interface that has to been implemented by the user of this module to load persistent bean data.
@@ -29,6 +30,16 @@ public interface IBeanDataLoader
    */
   PersistentBeanData loadContainerBeanDataByIndex(InitialIndexKey pKey);
 
+  /**
+   * Loads persistent data for all beans within a container in an index range with one request.
+   *
+   * @param pContainerId the id of the container
+   * @param pFromIndex   the first index of the range (inclusive)
+   * @param pToIndex     the end of the range (exclusive)
+   * @return the loaded bean data mapped by index
+   */
+  Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex);
+
   /**
    * Loads the type of a bean within a container at a specific index.
    * This may be necessary if the type of the container is a bean base type and the actual types are persisted in the storage system.
@@ -56,6 +67,62 @@ public interface IBeanDataLoader
    */
   Map<Integer, PersistentBeanData> fullContainerLoad(String pContainerId);
 
+  /**
+   * Performs a full container load and provides the bean data one by one.
+   * Implementations should read the data from an open cursor, so the whole container does not have to be held in memory at once.
+   * The default implementation provides the result of {@link #fullContainerLoad(String)}.
+   *
+   * @param pContainerId      the id of the container to load
+   * @param pBeanDataConsumer a consumer for the data of every bean within the container
+   */
+  default void fullContainerLoad(String pContainerId, Consumer<PersistentBeanData> pBeanDataConsumer)
+  {
+    fullContainerLoad(pContainerId).values().forEach(pBeanDataConsumer);
+  }
+
+  /**
+   * Loads persistent data for all beans within a container that have specific values for certain fields.
+   * Implementations should evaluate the conditions within the storage system, so only matching data has to be transferred.
+   * The default implementation filters the data of a streamed full container load.
+   *
+   * @param pContainerId the id of the container to search in
+   * @param pFieldValues the values the beans must have mapped by field
+   * @return the loaded data of all matching beans (indexes are the indexes within the container)
+   */
+  default List<PersistentBeanData> loadContainerBeanDataByFieldValues(String pContainerId, Map<IField<?>, Object> pFieldValues)
+  {
+    final List<PersistentBeanData> result = new ArrayList<>();
+    fullContainerLoad(pContainerId, pBeanData ->
+    {
+      if (pBeanData.hasValues(pFieldValues))
+        result.add(pBeanData);
+    });
+    return result;
+  }
+
+  /**
+   * Loads all distinct non-null values of a bean field within a container.
+   * Implementations should evaluate the distinct values within the storage system.
+   * The default implementation collects the values of a streamed full container load.
+   *
+   * @param pContainerId the id of the container to load the values from
+   * @param pField       the field to load the distinct values for
+   * @param <VALUE>      the value type of the field
+   * @return a set of all distinct values of the field
+   */
+  default <VALUE> Set<VALUE> loadDistinctFieldValues(String pContainerId, IField<VALUE> pField)
+  {
+    final Set<VALUE> values = new HashSet<>();
+    fullContainerLoad(pContainerId, pBeanData ->
+    {
+      //noinspection unchecked
+      final VALUE value = (VALUE) pBeanData.getData().get(pField);
+      if (value != null)
+        values.add(value);
+    });
+    return values;
+  }
+
   /**
    * Loads persistent data for a single bean.
    *
@@ -63,4 +130,42 @@ public interface IBeanDataLoader
    * @return the loaded bean data
    */
   PersistentBeanData loadSingleBeanData(SingleBeanKey pKey);
+
+  /**
+   * Determines if the data loaded for the current transaction may lag behind the latest committed state of the storage system.
+   * This may be the case if the data is read from a replica of the storage system. Such data is never shared between transactions.
+   *
+   * @return <tt>true</tt> if the loaded data may be outdated
+   */
+  default boolean mayLoadOutdatedData()
+  {
+    return false;
+  }
+
+  /**
+   * The maximum amount of entries of the second level cache that shares committed bean data between all transactions.
+   * The cache is only consistent if the storage system is changed by this application alone (single writer) or if changes of other
+   * writers are announced through {@link IBeanDataCache}. Otherwise transactions may read stale data from the cache.
+   * A value of zero or less disables the cache.
+   *
+   * @return the maximum amount of cached entries
+   */
+  default int getSharedCacheSize()
+  {
+    return 0;
+  }
+
+  /**
+   * Determines if the sizes of containers should be shared between all transactions. This is independent of the shared cache
+   * for bean data (see {@link #getSharedCacheSize()}). A shared size is loaded once and adapted by the size difference of every
+   * successful commit, so transactions do not have to count the rows of a container again.
+   * The sizes are only consistent if other writers do not add or remove beans or if their changes are announced through
+   * {@link IBeanDataCache}.
+   *
+   * @return <tt>true</tt> if container sizes should be shared between transactions
+   */
+  default boolean shareContainerSizes()
+  {
+    return true;
+  }
 }
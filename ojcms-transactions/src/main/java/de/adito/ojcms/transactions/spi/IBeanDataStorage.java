@@ -45,6 +45,23 @@ public interface IBeanDataStorage
    */
   void processChangesForContainerBean(InitialIndexKey pKey, Map<IField<?>, Object> pChangedValues);
 
+  /**
+   * Processes value changes for multiple persistent beans within one container.
+   * The changes are based on the versions of the bean data the transaction has read (see {@link PersistentBeanData#getVersion()}).
+   * By default the versions are ignored and every bean is processed separately via
+   * {@link #processChangesForContainerBean(InitialIndexKey, Map)}. Storage systems may override this method to process the changes
+   * together or to reject changes based on outdated data.
+   *
+   * @param pContainerId        the id of the container
+   * @param pChangedValuesByKey all changed values to process grouped by the keys of the changed beans
+   * @param pVersionsByKey      the versions of the read bean data grouped by the keys of the changed beans (versioned data only)
+   */
+  default void processChangesForContainerBeans(String pContainerId, Map<InitialIndexKey, Map<IField<?>, Object>> pChangedValuesByKey,
+                                               Map<InitialIndexKey, Object> pVersionsByKey)
+  {
+    pChangedValuesByKey.forEach(this::processChangesForContainerBean);
+  }
+
   /**
    * Processes value changes for a persistent single bean.
    *
@@ -53,6 +70,19 @@ public interface IBeanDataStorage
    */
   void processChangesForSingleBean(SingleBeanKey pKey, Map<IField<?>, Object> pChangedValues);
 
+  /**
+   * Processes value changes for a persistent single bean based on the version of the bean data the transaction has read.
+   * By default the version is ignored and the changes are processed via {@link #processChangesForSingleBean(SingleBeanKey, Map)}.
+   *
+   * @param pKey           the key identifying the changed bean by index
+   * @param pChangedValues all changed values to process
+   * @param pVersion       the version of the read bean data or null if not versioned
+   */
+  default void processChangesForSingleBean(SingleBeanKey pKey, Map<IField<?>, Object> pChangedValues, Object pVersion)
+  {
+    processChangesForSingleBean(pKey, pChangedValues);
+  }
+
   /**
    * Processes all bean additions to a persistent container.
    *
@@ -77,4 +107,15 @@ public interface IBeanDataStorage
    * Rolls back all changes made in this transaction.
    */
   void rollbackChanges();
+
+  /**
+   * The maximum amount of transactions the storage system is able to process in parallel, e.g. the size of a connection pool.
+   * This bounds the amount of threads asynchronous transactions are executed with by default.
+   *
+   * @return the maximum amount of parallel transactions
+   */
+  default int getMaxParallelTransactions()
+  {
+    return Runtime.getRuntime().availableProcessors();
+  }
 }
@@ -0,0 +1,83 @@
+package de.adito.ojcms.transactions.util;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application scoped statistics of the shared second level cache for committed bean data.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+public class BeanDataCacheStatistics
+{
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Registers a request that has been answered by the cache.
+   */
+  public void cacheHit()
+  {
+    hits.increment();
+  }
+
+  /**
+   * Registers a request that required to load data from the persistent storage system.
+   */
+  public void cacheMiss()
+  {
+    misses.increment();
+  }
+
+  /**
+   * Registers an entry that has been evicted due to the size limit of the cache.
+   */
+  public void entryEvicted()
+  {
+    evictions.increment();
+  }
+
+  /**
+   * The amount of requests answered by the cache.
+   *
+   * @return the amount of cache hits
+   */
+  public long getHits()
+  {
+    return hits.sum();
+  }
+
+  /**
+   * The amount of requests that required to load data from the persistent storage system.
+   *
+   * @return the amount of cache misses
+   */
+  public long getMisses()
+  {
+    return misses.sum();
+  }
+
+  /**
+   * The amount of entries evicted due to the size limit of the cache.
+   *
+   * @return the amount of evictions
+   */
+  public long getEvictions()
+  {
+    return evictions.sum();
+  }
+
+  /**
+   * The ratio of requests answered by the cache.
+   *
+   * @return the hit ratio between 0 and 1
+   */
+  public double getHitRatio()
+  {
+    final long hitCount = getHits();
+    final long requestCount = hitCount + getMisses();
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
+}
@@ -0,0 +1,111 @@
+package de.adito.ojcms.transactions.util;
+
+import de.adito.ojcms.transactions.annotations.Transactional;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application scoped telemetry for methods annotated by {@link Transactional}.
+ * Counts attempts, conflicts due to concurrent modifications and final failures per transactional method.
+ * This information may be used to tune the retry configuration of hot methods.
+ *
+ * @author agent, 16.10.2026
+ */
+@ApplicationScoped
+public class TransactionStatistics
+{
+  private final Map<Method, MethodStatistics> statisticsByMethod = new ConcurrentHashMap<>();
+
+  /**
+   * Resolves the statistics for a specific transactional method.
+   *
+   * @param pMethod the transactional method
+   * @return the statistics of the method
+   */
+  public MethodStatistics getStatistics(Method pMethod)
+  {
+    return statisticsByMethod.computeIfAbsent(pMethod, pNewMethod -> new MethodStatistics());
+  }
+
+  /**
+   * Provides the statistics of all transactional methods that have been invoked yet.
+   *
+   * @return an unmodifiable map of statistics by method
+   */
+  public Map<Method, MethodStatistics> getAllStatistics()
+  {
+    return Collections.unmodifiableMap(statisticsByMethod);
+  }
+
+  /**
+   * Thread safe counters for a single transactional method.
+   */
+  public static final class MethodStatistics
+  {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private MethodStatistics()
+    {
+    }
+
+    /**
+     * Registers an attempt to execute the transactional method. Retries are counted as separate attempts.
+     */
+    public void attemptStarted()
+    {
+      attempts.increment();
+    }
+
+    /**
+     * Registers an attempt that failed due to a concurrent modification.
+     */
+    public void conflictOccurred()
+    {
+      conflicts.increment();
+    }
+
+    /**
+     * Registers a transaction that finally failed, either unexpectedly or because all retries have been exhausted.
+     */
+    public void transactionFailed()
+    {
+      failures.increment();
+    }
+
+    /**
+     * The amount of attempts to execute the transactional method.
+     *
+     * @return the amount of attempts
+     */
+    public long getAttempts()
+    {
+      return attempts.sum();
+    }
+
+    /**
+     * The amount of attempts that failed due to concurrent modifications.
+     *
+     * @return the amount of conflicts
+     */
+    public long getConflicts()
+    {
+      return conflicts.sum();
+    }
+
+    /**
+     * The amount of transactions that finally failed.
+     *
+     * @return the amount of final failures
+     */
+    public long getFailures()
+    {
+      return failures.sum();
+    }
+  }
+}
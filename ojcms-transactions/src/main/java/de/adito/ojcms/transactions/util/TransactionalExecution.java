@@ -2,9 +2,14 @@ package de.adito.ojcms.transactions.util;
 
 import de.adito.ojcms.cdi.ICdiControl;
 import de.adito.ojcms.transactions.annotations.Transactional;
+import de.adito.ojcms.transactions.spi.IBeanDataStorage;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 import java.lang.annotation.Annotation;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -12,11 +17,34 @@ import java.util.function.Supplier;
  * This is then useful if you need transactional handling in non CDI managed instances.
  * You can use this helper via {@link ICdiControl#createInjected(Class, Annotation...)}.
  *
+ * The asynchronous variants run the transaction on another thread, because the transactional context is bound to a thread.
+ * Commits, rollbacks and retries are handled exactly as for the blocking variants.
+ * The default executor uses at most as many threads as the storage system is able to process transactions in parallel
+ * (see {@link IBeanDataStorage#getMaxParallelTransactions()}). Further transactions are queued up to a limit.
+ * If the queue is full, the asynchronous variants throw a {@link RejectedExecutionException}.
+ *
  * @author Simon Danner, 15.04.2020
  */
 @ApplicationScoped
 public class TransactionalExecution
 {
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+  private static final int QUEUED_TRANSACTIONS_PER_THREAD = 100;
+  private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+  @Inject
+  private TransactionalExecution self;
+  @Inject
+  private IBeanDataStorage storage;
+  private ExecutorService defaultExecutor;
+
+  @PreDestroy
+  private synchronized void _shutdownDefaultExecutor()
+  {
+    if (defaultExecutor != null)
+      defaultExecutor.shutdown();
+  }
+
   /**
    * Runs some no result action within a new transaction.
    *
@@ -66,6 +94,19 @@ public class TransactionalExecution
     return pResultAction.get();
   }
 
+  /**
+   * Performs an action that supplies a specific result within a new read-only transaction.
+   * The action is not allowed to change any persistent data.
+   *
+   * @param pResultAction the result provider
+   * @return the retrieved result
+   */
+  @Transactional(readOnly = true)
+  public <RESULT> RESULT resolveResultReadOnly(Supplier<RESULT> pResultAction)
+  {
+    return pResultAction.get();
+  }
+
   /**
    * Performs an action that supplies a specific result within a new transaction.
    * The action may throw a specific exception.
@@ -97,6 +138,113 @@ public class TransactionalExecution
     return pResultAction.resolveResult();
   }
 
+  /**
+   * Runs some no result action within a new transaction asynchronously on a default executor.
+   *
+   * @param pAction the action to execute within the new transaction
+   * @return a future that completes when the transaction has been committed or completes exceptionally if the transaction failed
+   * @throws RejectedExecutionException if too many transactions are queued for the default executor
+   */
+  public CompletableFuture<Void> justRunAsync(Runnable pAction)
+  {
+    return justRunAsync(pAction, _defaultExecutor());
+  }
+
+  /**
+   * Runs some no result action within a new transaction asynchronously on a specific executor.
+   *
+   * @param pAction   the action to execute within the new transaction
+   * @param pExecutor the executor to run the transaction on
+   * @return a future that completes when the transaction has been committed or completes exceptionally if the transaction failed
+   */
+  public CompletableFuture<Void> justRunAsync(Runnable pAction, Executor pExecutor)
+  {
+    return CompletableFuture.runAsync(() -> self.justRun(pAction), pExecutor);
+  }
+
+  /**
+   * Performs an action that supplies a specific result within a new transaction asynchronously on a default executor.
+   *
+   * @param pResultAction the result provider
+   * @return a future providing the result after the transaction has been committed
+   * @throws RejectedExecutionException if too many transactions are queued for the default executor
+   */
+  public <RESULT> CompletableFuture<RESULT> resolveResultAsync(Supplier<RESULT> pResultAction)
+  {
+    return resolveResultAsync(pResultAction, _defaultExecutor());
+  }
+
+  /**
+   * Performs an action that supplies a specific result within a new transaction asynchronously on a specific executor.
+   *
+   * @param pResultAction the result provider
+   * @param pExecutor     the executor to run the transaction on
+   * @return a future providing the result after the transaction has been committed
+   */
+  public <RESULT> CompletableFuture<RESULT> resolveResultAsync(Supplier<RESULT> pResultAction, Executor pExecutor)
+  {
+    return CompletableFuture.supplyAsync(() -> self.resolveResult(pResultAction), pExecutor);
+  }
+
+  /**
+   * Performs an action that supplies a specific result within a new read-only transaction asynchronously on a default executor.
+   *
+   * @param pResultAction the result provider
+   * @return a future providing the result after the transaction has been finished
+   * @throws RejectedExecutionException if too many transactions are queued for the default executor
+   */
+  public <RESULT> CompletableFuture<RESULT> resolveResultReadOnlyAsync(Supplier<RESULT> pResultAction)
+  {
+    return resolveResultReadOnlyAsync(pResultAction, _defaultExecutor());
+  }
+
+  /**
+   * Performs an action that supplies a specific result within a new read-only transaction asynchronously on a specific executor.
+   *
+   * @param pResultAction the result provider
+   * @param pExecutor     the executor to run the transaction on
+   * @return a future providing the result after the transaction has been finished
+   */
+  public <RESULT> CompletableFuture<RESULT> resolveResultReadOnlyAsync(Supplier<RESULT> pResultAction, Executor pExecutor)
+  {
+    return CompletableFuture.supplyAsync(() -> self.resolveResultReadOnly(pResultAction), pExecutor);
+  }
+
+  /**
+   * The executor for asynchronous transactions without a specific executor. It is created on first usage.
+   * The amount of threads is bounded by the parallel transactions of the storage system and the queue of waiting transactions is bounded.
+   * Idle threads terminate after some time.
+   *
+   * @return the default executor for asynchronous transactions
+   */
+  private synchronized ExecutorService _defaultExecutor()
+  {
+    if (defaultExecutor == null)
+    {
+      final int threadCount = Math.max(1, storage.getMaxParallelTransactions());
+      final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(threadCount * QUEUED_TRANSACTIONS_PER_THREAD);
+      final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                                                                 queue, TransactionalExecution::_createThread);
+      executor.allowCoreThreadTimeOut(true);
+      defaultExecutor = executor;
+    }
+
+    return defaultExecutor;
+  }
+
+  /**
+   * Creates a daemon thread for the default executor.
+   *
+   * @param pRunnable the runnable to execute by the thread
+   * @return the created thread
+   */
+  private static Thread _createThread(Runnable pRunnable)
+  {
+    final Thread thread = new Thread(pRunnable, "ojcms-transaction-" + THREAD_COUNTER.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
   /**
    * Defines a no result action that may throw a specific exception.
    */
@@ -3,10 +3,12 @@ package de.adito.ojcms.transactions;
 import de.adito.ojcms.beans.IBean;
 import de.adito.ojcms.beans.literals.fields.IField;
 import de.adito.ojcms.cdi.*;
-import de.adito.ojcms.transactions.annotations.TransactionalScoped;
+import de.adito.ojcms.cdi.context.IActiveContext;
+import de.adito.ojcms.transactions.annotations.*;
 import de.adito.ojcms.transactions.api.*;
 import de.adito.ojcms.transactions.exceptions.ConcurrentTransactionException;
 import de.adito.ojcms.transactions.spi.*;
+import de.adito.ojcms.transactions.util.BeanDataCacheStatistics;
 import org.jboss.weld.proxy.WeldClientProxy;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
@@ -15,6 +17,7 @@ import javax.annotation.Priority;
 import javax.enterprise.inject.Alternative;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Matchers.any;
@@ -42,6 +45,10 @@ public class BeanTransactionTest extends AbstractCdiTest
   private ITransaction transaction;
   @Inject
   private IBeanDataStorage beanDataStorage;
+  @Inject
+  private BeanDataCacheStatistics cacheStatistics;
+  @Inject
+  private IBeanDataCache beanDataCache;
 
   private IBeanDataStorage beanDataStorageMock;
 
@@ -50,6 +57,7 @@ public class BeanTransactionTest extends AbstractCdiTest
   {
     beanDataStorageMock = (IBeanDataStorage) ((WeldClientProxy) beanDataStorage).getMetadata().getContextualInstance();
     reset(beanDataStorageMock);
+    beanDataCache.invalidateAll();
   }
 
   @Test
@@ -83,6 +91,67 @@ public class BeanTransactionTest extends AbstractCdiTest
     _checkBeanData(beanData);
   }
 
+  @Test
+  public void testContainerBeanDataRequestByIndexRange()
+  {
+    _registerBeanAddition(2);
+    transaction.registerContainerBeanValueChange(new CurrentIndexKey(CONTAINER_ID, 1), BEAN_FIELD, 6);
+
+    final Map<Integer, PersistentBeanData> result = transaction.requestBeanDataByIndexRange(CONTAINER_ID, 0, 4);
+    assertEquals(new HashSet<>(Arrays.asList(0, 1, 3)), result.keySet());
+    _checkBeanData(result.get(0));
+    assertEquals(6, result.get(1).getData().get(BEAN_FIELD));
+    assertEquals(3, result.get(3).getIndex());
+    assertThrows(IndexOutOfBoundsException.class, () -> transaction.requestBeanDataByIndexRange(CONTAINER_ID, 0, CONTAINER_SIZE + 2));
+  }
+
+  @Test
+  public void testFullContainerLoad()
+  {
+    transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 1));
+    transaction.registerContainerBeanValueChange(new CurrentIndexKey(CONTAINER_ID, 2), BEAN_FIELD, 6);
+
+    final Map<Integer, PersistentBeanData> result = new HashMap<>();
+    transaction.requestFullContainerLoad(CONTAINER_ID, pBeanData -> result.put(pBeanData.getIndex(), pBeanData));
+
+    //The removed bean is skipped and the indexes are current indexes
+    assertEquals(CONTAINER_SIZE - 1, result.size());
+    assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5)), result.keySet());
+    _checkBeanData(result.get(0));
+    assertEquals(6, result.get(2).getData().get(BEAN_FIELD));
+  }
+
+  @Test
+  public void testContainerBeanDataRequestByFieldValues()
+  {
+    transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 1));
+    transaction.registerContainerBeanValueChange(new CurrentIndexKey(CONTAINER_ID, 2), BEAN_FIELD, 6);
+    transaction.registerBeanAddition(new BeanAddition(0, Collections.singletonMap(BEAN_FIELD, 6), IBean.class, CONTAINER_ID));
+
+    //The removed bean is skipped, the changed bean does not match anymore, the addition shifts the indexes
+    final Map<Integer, PersistentBeanData> matching = transaction.requestBeanDataByFieldValues(CONTAINER_ID, //
+        Collections.singletonMap(BEAN_FIELD, BEAN_VALUE));
+    assertEquals(Arrays.asList(1, 2, 4, 5, 6), new ArrayList<>(matching.keySet()));
+    _checkBeanData(matching.get(1));
+
+    //The changed and the added bean match their new values
+    final Map<Integer, PersistentBeanData> changed = transaction.requestBeanDataByFieldValues(CONTAINER_ID, //
+        Collections.singletonMap(BEAN_FIELD, 6));
+    assertEquals(Arrays.asList(0, 3), new ArrayList<>(changed.keySet()));
+  }
+
+  @Test
+  public void testDistinctFieldValuesRequest()
+  {
+    transaction.registerBeanAddition(new BeanAddition(0, Collections.singletonMap(BEAN_FIELD, 6), IBean.class, CONTAINER_ID));
+    final Optional<Set<Integer>> distinctValues = transaction.requestDistinctFieldValues(CONTAINER_ID, BEAN_FIELD);
+    assertEquals(Optional.of(new HashSet<>(Arrays.asList(BEAN_VALUE, 6))), distinctValues);
+
+    //Cannot be determined without the whole container after a removal
+    transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 1));
+    assertFalse(transaction.requestDistinctFieldValues(CONTAINER_ID, BEAN_FIELD).isPresent());
+  }
+
   @Test
   public void testRequestBeanTypeWithinContainer_Added_Fails()
   {
@@ -92,11 +161,12 @@ public class BeanTransactionTest extends AbstractCdiTest
   }
 
   @Test
-  public void testRequestBeanTypeWithinContainer_Removed_Fails()
+  public void testRequestBeanTypeWithinContainer_AfterRemovals()
   {
     transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 4));
     transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 1));
-    assertThrows(IllegalStateException.class, () -> transaction.requestBeanTypeWithinContainer(new CurrentIndexKey(CONTAINER_ID, 3)));
+    //Current index 3 refers to the initial index 5 now, which has not been removed
+    assertEquals(IBean.class, transaction.requestBeanTypeWithinContainer(new CurrentIndexKey(CONTAINER_ID, 3)));
   }
 
   @Test
@@ -134,8 +204,29 @@ public class BeanTransactionTest extends AbstractCdiTest
 
     verify(beanDataStorageMock).processAdditionsForContainer(any(), any());
     verify(beanDataStorageMock).processRemovals(any());
-    verify(beanDataStorageMock).processChangesForContainerBean(any(), any());
-    verify(beanDataStorageMock).processChangesForSingleBean(any(), any());
+    verify(beanDataStorageMock).processChangesForContainerBeans(any(), any(), any());
+    verify(beanDataStorageMock).processChangesForSingleBean(any(), any(), any());
+  }
+
+  @Test
+  public void testCommitVersionsOfReadData()
+  {
+    final CurrentIndexKey key = new CurrentIndexKey(CONTAINER_ID, 2);
+    transaction.requestBeanDataByIndex(key);
+    transaction.registerContainerBeanValueChange(key, BEAN_FIELD, 6);
+    //Not read before, so the data is read when the change is registered
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 7);
+    //An addition before the changed bean does not affect the version of the read data
+    _registerBeanAddition(0);
+    transactionManager.commitChanges();
+
+    final InitialIndexKey initialKey = new InitialIndexKey(CONTAINER_ID, 2);
+    final Map<InitialIndexKey, Map<IField<?>, Object>> containerChanges =
+        Collections.singletonMap(initialKey, Collections.singletonMap(BEAN_FIELD, 6));
+    final Map<InitialIndexKey, Object> containerVersions = Collections.singletonMap(initialKey, "version2");
+    verify(beanDataStorageMock).processChangesForContainerBeans(CONTAINER_ID, containerChanges, containerVersions);
+    verify(beanDataStorageMock).processChangesForSingleBean(SINGLE_BEAN_KEY, Collections.singletonMap(BEAN_FIELD, 7),
+                                                            "singleBeanVersion");
   }
 
   @Test
@@ -154,6 +245,189 @@ public class BeanTransactionTest extends AbstractCdiTest
     assertThrows(ConcurrentTransactionException.class, () -> transaction.requestContainerSize(CONTAINER_ID));
   }
 
+  @Test
+  public void testConcurrentModificationReleasedAfterCommit()
+  {
+    _registerBeanAddition(1);
+    transactionManager.commitChanges();
+    cdiControl.startContext(TransactionalScoped.class);
+    assertEquals(CONTAINER_SIZE, transaction.requestContainerSize(CONTAINER_ID));
+  }
+
+  @Test
+  public void testAvoidConcurrentSingleBeanChangeMultipleTransactions()
+  {
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+    cdiControl.startContext(TransactionalScoped.class);
+    assertThrows(ConcurrentTransactionException.class, () -> transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 13));
+  }
+
+  @Test
+  public void testSnapshotReadsDataChangedByOtherTransaction()
+  {
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+    final IActiveContext snapshotContext = cdiControl.startContext(TransactionalScoped.class);
+    transactionManager.configure(ETransactionIsolation.SNAPSHOT, false);
+    _checkBeanData(transaction.requestSingleBeanData(SINGLE_BEAN_KEY));
+    snapshotContext.destroy();
+  }
+
+  @Test
+  public void testSnapshotWriteWriteConflictDetectedAtCommit()
+  {
+    transactionManager.configure(ETransactionIsolation.SNAPSHOT, false);
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+
+    final IActiveContext otherContext = cdiControl.startContext(TransactionalScoped.class);
+    transactionManager.configure(ETransactionIsolation.SNAPSHOT, false);
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 13);
+    transactionManager.commitChanges();
+    otherContext.destroy();
+
+    assertThrows(ConcurrentTransactionException.class, () -> transactionManager.commitChanges());
+  }
+
+  @Test
+  public void testSnapshotValueChangeConflictsWithCommittedSizeChange()
+  {
+    transactionManager.configure(ETransactionIsolation.SNAPSHOT, false);
+    transaction.registerContainerBeanValueChange(new CurrentIndexKey(CONTAINER_ID, 2), BEAN_FIELD, 12);
+
+    //The addition shifts the index of the changed bean
+    final IActiveContext otherContext = cdiControl.startContext(TransactionalScoped.class);
+    _registerBeanAddition(0);
+    transactionManager.commitChanges();
+    otherContext.destroy();
+
+    assertThrows(ConcurrentTransactionException.class, () -> transactionManager.commitChanges());
+  }
+
+  @Test
+  public void testReadOnlyRejectsChanges()
+  {
+    transactionManager.configure(ETransactionIsolation.PESSIMISTIC, true);
+    assertTrue(transaction.isReadOnly());
+    assertThrows(IllegalStateException.class, () -> _registerBeanAddition(1));
+    assertThrows(IllegalStateException.class, () -> transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12));
+  }
+
+  @Test
+  public void testReadOnlySkipsCommit()
+  {
+    transactionManager.configure(ETransactionIsolation.PESSIMISTIC, true);
+    assertEquals(CONTAINER_SIZE, transaction.requestContainerSize(CONTAINER_ID));
+    _checkBeanData(transaction.requestBeanDataByIndex(new CurrentIndexKey(CONTAINER_ID, 2)));
+    transactionManager.commitChanges();
+    verifyNoMoreInteractions(beanDataStorageMock);
+  }
+
+  @Test
+  public void testReadOnlyFailsOnConcurrentModification()
+  {
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+    final IActiveContext readOnlyContext = cdiControl.startContext(TransactionalScoped.class);
+    transactionManager.configure(ETransactionIsolation.PESSIMISTIC, true);
+    assertThrows(ConcurrentTransactionException.class, () -> transaction.requestSingleBeanData(SINGLE_BEAN_KEY));
+    readOnlyContext.destroy();
+  }
+
+  @Test
+  public void testSharedCacheAcrossTransactions()
+  {
+    transaction.requestSingleBeanData(SINGLE_BEAN_KEY);
+    final long hitsBefore = cacheStatistics.getHits();
+
+    final IActiveContext otherContext = cdiControl.startContext(TransactionalScoped.class);
+    _checkBeanData(transaction.requestSingleBeanData(SINGLE_BEAN_KEY));
+    otherContext.destroy();
+
+    assertEquals(hitsBefore + 1, cacheStatistics.getHits());
+  }
+
+  @Test
+  public void testSharedCacheInvalidatedByCommit()
+  {
+    transaction.requestSingleBeanData(SINGLE_BEAN_KEY);
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+    transactionManager.commitChanges();
+    final long missesBefore = cacheStatistics.getMisses();
+
+    final IActiveContext otherContext = cdiControl.startContext(TransactionalScoped.class);
+    transaction.requestSingleBeanData(SINGLE_BEAN_KEY);
+    otherContext.destroy();
+
+    assertEquals(missesBefore + 1, cacheStatistics.getMisses());
+  }
+
+  @Test
+  public void testSharedContainerSizeAdaptedByCommit()
+  {
+    transaction.requestContainerSize(CONTAINER_ID);
+    _registerBeanAddition(0);
+    _registerBeanAddition(1);
+    transaction.registerBeanRemoval(new CurrentIndexKey(CONTAINER_ID, 5));
+    transactionManager.commitChanges();
+    final long missesBefore = cacheStatistics.getMisses();
+
+    //The cached size has been adapted instead of being loaded again
+    final IActiveContext otherContext = cdiControl.startContext(TransactionalScoped.class);
+    assertEquals(CONTAINER_SIZE + 1, transaction.requestContainerSize(CONTAINER_ID));
+    otherContext.destroy();
+
+    assertEquals(missesBefore, cacheStatistics.getMisses());
+  }
+
+  @Test
+  public void testConflictRejectedByStorage()
+  {
+    final IActiveContext conflictingContext = cdiControl.startContext(TransactionalScoped.class);
+    transaction.requestSingleBeanData(SINGLE_BEAN_KEY);
+    transaction.registerSingleBeanValueChange(SINGLE_BEAN_KEY, BEAN_FIELD, 12);
+    doThrow(new ConcurrentTransactionException(SINGLE_BEAN_KEY)).when(beanDataStorageMock).processChangesForSingleBean(any(), any(), any());
+
+    assertThrows(ConcurrentTransactionException.class, () -> transactionManager.commitChanges());
+    conflictingContext.destroy();
+    verify(beanDataStorageMock).rollbackChanges();
+    verify(beanDataStorageMock, never()).commitChanges();
+
+    //The cached data may be stale, so the next transaction has to load it again
+    final long missesBefore = cacheStatistics.getMisses();
+    transaction.requestSingleBeanData(SINGLE_BEAN_KEY);
+    assertEquals(missesBefore + 1, cacheStatistics.getMisses());
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception
+  {
+    final int transactionCount = 3;
+    final CyclicBarrier barrier = new CyclicBarrier(transactionCount);
+    final ExecutorService executor = Executors.newFixedThreadPool(transactionCount);
+    final List<Future<?>> futures = new ArrayList<>();
+
+    for (int i = 0; i < transactionCount; i++)
+    {
+      final SingleBeanKey key = new SingleBeanKey("groupCommitBean" + i);
+      futures.add(executor.submit(() ->
+      {
+        final IActiveContext context = cdiControl.startContext(TransactionalScoped.class);
+        transactionManager.useGroupCommit(500);
+        transaction.registerSingleBeanValueChange(key, BEAN_FIELD, 12);
+        barrier.await();
+        transactionManager.commitChanges();
+        context.destroy();
+        return null;
+      }));
+    }
+
+    for (Future<?> future : futures)
+      future.get(10, TimeUnit.SECONDS);
+
+    executor.shutdown();
+    verify(beanDataStorageMock, times(transactionCount)).processChangesForSingleBean(any(), any(), any());
+    //One commit for the group and one per transaction to end its reading storage transaction
+    verify(beanDataStorageMock, times(transactionCount + 1)).commitChanges();
+  }
+
   @Test
   public void testConcurrentModificationOkayInSameTransaction()
   {
@@ -189,6 +463,12 @@ public class BeanTransactionTest extends AbstractCdiTest
   {
     private static final Map<IField<?>, Object> BEAN_DATA = Collections.singletonMap(BEAN_FIELD, BEAN_VALUE);
 
+    @Override
+    public int getSharedCacheSize()
+    {
+      return 100;
+    }
+
     @Override
     public int loadContainerSize(String pContainerId)
     {
@@ -198,7 +478,16 @@ public class BeanTransactionTest extends AbstractCdiTest
     @Override
     public PersistentBeanData loadContainerBeanDataByIndex(InitialIndexKey pKey)
     {
-      return new PersistentBeanData(0, BEAN_DATA);
+      return new PersistentBeanData(0, BEAN_DATA, "version" + pKey.getIndex());
+    }
+
+    @Override
+    public Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+    {
+      final Map<Integer, PersistentBeanData> result = new HashMap<>();
+      for (int i = pFromIndex; i < pToIndex; i++)
+        result.put(i, new PersistentBeanData(i, BEAN_DATA, "version" + i));
+      return result;
     }
 
     @Override
@@ -217,13 +506,13 @@ public class BeanTransactionTest extends AbstractCdiTest
     @Override
     public PersistentBeanData loadSingleBeanData(SingleBeanKey pKey)
     {
-      return new PersistentBeanData(0, BEAN_DATA);
+      return new PersistentBeanData(0, BEAN_DATA, "singleBeanVersion");
     }
 
     @Override
     public Map<Integer, PersistentBeanData> fullContainerLoad(String pContainerId)
     {
-      return Collections.singletonMap(0, loadContainerBeanDataByIndex(null));
+      return loadContainerBeanDataByIndexRange(pContainerId, 0, CONTAINER_SIZE);
     }
   }
 }
@@ -0,0 +1,134 @@
+package de.adito.ojcms.transactions;
+
+import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.beans.literals.fields.IField;
+import de.adito.ojcms.transactions.api.*;
+import de.adito.ojcms.transactions.spi.IBeanDataLoader;
+import de.adito.ojcms.transactions.util.BeanDataCacheStatistics;
+import org.junit.jupiter.api.Test;
+
+import javax.enterprise.inject.Vetoed;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the container sizes shared by {@link CachingBeanDataLoader}.
+ * Every request to the cache represents a request of a different transaction, because the cache is application scoped.
+ *
+ * @author agent, 17.10.2026
+ */
+public class CachingBeanDataLoaderTest
+{
+  private static final String CONTAINER_ID = "containerId";
+  private static final int CONTAINER_SIZE = 7;
+
+  @Test
+  public void testDefaultConfigurationSharesContainerSizes()
+  {
+    final _SizeCountingLoader loader = new _SizeCountingLoader();
+    final CachingBeanDataLoader cache = new CachingBeanDataLoader(loader, new BeanDataCacheStatistics());
+
+    assertEquals(0, cache.getSharedCacheSize());
+    assertEquals(CONTAINER_SIZE, cache.loadContainerSize(CONTAINER_ID));
+    assertEquals(CONTAINER_SIZE, cache.loadContainerSize(CONTAINER_ID));
+    assertEquals(1, loader.sizeLoads);
+  }
+
+  @Test
+  public void testSharedContainerSizeAdaptedByCommit()
+  {
+    final _SizeCountingLoader loader = new _SizeCountingLoader();
+    final CachingBeanDataLoader cache = new CachingBeanDataLoader(loader, new BeanDataCacheStatistics());
+
+    cache.loadContainerSize(CONTAINER_ID);
+    cache.changesCommitted(Collections.singletonMap(CONTAINER_ID, 2), Collections.emptySet(), Collections.emptySet());
+
+    assertEquals(CONTAINER_SIZE + 2, cache.loadContainerSize(CONTAINER_ID));
+    assertEquals(1, loader.sizeLoads);
+  }
+
+  @Test
+  public void testSharedContainerSizeInvalidated()
+  {
+    final _SizeCountingLoader loader = new _SizeCountingLoader();
+    final CachingBeanDataLoader cache = new CachingBeanDataLoader(loader, new BeanDataCacheStatistics());
+
+    cache.loadContainerSize(CONTAINER_ID);
+    cache.invalidateContainerRange(CONTAINER_ID, 0, Integer.MAX_VALUE);
+    cache.loadContainerSize(CONTAINER_ID);
+
+    assertEquals(2, loader.sizeLoads);
+  }
+
+  @Test
+  public void testContainerSizesNotShared()
+  {
+    final _SizeCountingLoader loader = new _SizeCountingLoader()
+    {
+      @Override
+      public boolean shareContainerSizes()
+      {
+        return false;
+      }
+    };
+    final CachingBeanDataLoader cache = new CachingBeanDataLoader(loader, new BeanDataCacheStatistics());
+
+    cache.loadContainerSize(CONTAINER_ID);
+    cache.loadContainerSize(CONTAINER_ID);
+
+    assertEquals(2, loader.sizeLoads);
+  }
+
+  /**
+   * Loader with the default settings of {@link IBeanDataLoader} that counts the loads of container sizes.
+   */
+  @Vetoed
+  private static class _SizeCountingLoader implements IBeanDataLoader
+  {
+    private int sizeLoads;
+
+    @Override
+    public int loadContainerSize(String pContainerId)
+    {
+      sizeLoads++;
+      return CONTAINER_SIZE;
+    }
+
+    @Override
+    public PersistentBeanData loadContainerBeanDataByIndex(InitialIndexKey pKey)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<Integer, PersistentBeanData> loadContainerBeanDataByIndexRange(String pContainerId, int pFromIndex, int pToIndex)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <BEAN extends IBean> Class<BEAN> loadBeanTypeWithinContainer(InitialIndexKey pKey)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<PersistentBeanData> loadContainerBeanDataByIdentifiers(String pContainerId, Map<IField<?>, Object> pIdentifiers)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PersistentBeanData loadSingleBeanData(SingleBeanKey pKey)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<Integer, PersistentBeanData> fullContainerLoad(String pContainerId)
+    {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package de.adito.ojcms.transactions;
+
+import de.adito.ojcms.beans.IBean;
+import de.adito.ojcms.transactions.api.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the index translation of {@link ContainerIndexChanges}.
+ * Compares the results with a simple list based model. The timings of large transactions are logged.
+ *
+ * @author agent, 16.10.2026
+ */
+public class ContainerIndexChangesTest
+{
+  private static final Logger LOGGER = Logger.getLogger(ContainerIndexChangesTest.class.getName());
+  private static final String CONTAINER_ID = "containerId";
+  private static final int INITIAL_SIZE = 50;
+  private static final int RANDOM_OPERATIONS = 2000;
+
+  @Test
+  public void testAdditionShiftsFollowingBeans()
+  {
+    final ContainerIndexChanges changes = new ContainerIndexChanges(CONTAINER_ID);
+    changes.beanAdded(_addition(2));
+
+    assertTrue(changes.isAdded(2));
+    assertEquals(1, changes.initialToCurrentIndex(1));
+    assertEquals(3, changes.initialToCurrentIndex(2));
+    assertEquals(2, changes.currentToInitialIndex(3));
+    assertEquals(1, changes.getSizeDifference());
+  }
+
+  @Test
+  public void testMultipleRemovalsAtStart()
+  {
+    final ContainerIndexChanges changes = new ContainerIndexChanges(CONTAINER_ID);
+    changes.initialBeanRemoved(changes.currentToInitialIndex(0));
+    changes.initialBeanRemoved(changes.currentToInitialIndex(0));
+
+    assertTrue(changes.isRemoved(0));
+    assertTrue(changes.isRemoved(1));
+    assertEquals(2, changes.currentToInitialIndex(0));
+    assertEquals(0, changes.initialToCurrentIndex(2));
+    assertEquals(-2, changes.getSizeDifference());
+  }
+
+  @Test
+  public void testAdditionsKeepPositionAfterRemovalBefore()
+  {
+    final ContainerIndexChanges changes = new ContainerIndexChanges(CONTAINER_ID);
+    changes.beanAdded(_addition(5));
+    changes.initialBeanRemoved(changes.currentToInitialIndex(1));
+
+    assertTrue(changes.isAdded(4));
+    assertFalse(changes.isAdded(5));
+    assertEquals(4, changes.getAdditionsWithFinalIndex().get(0).getIndex());
+  }
+
+  @Test
+  public void testRandomOperationsAgainstListModel()
+  {
+    final Random random = new Random(42);
+    final ContainerIndexChanges changes = new ContainerIndexChanges(CONTAINER_ID);
+    //Initial beans are represented by their initial index, additions by negative numbers
+    final List<Integer> model = IntStream.range(0, INITIAL_SIZE).boxed().collect(Collectors.toCollection(ArrayList::new));
+    int nextAdditionId = -1;
+
+    for (int i = 0; i < RANDOM_OPERATIONS; i++)
+    {
+      if (model.isEmpty() || random.nextBoolean())
+      {
+        final int index = random.nextInt(model.size() + 1);
+        changes.beanAdded(_addition(index));
+        model.add(index, nextAdditionId--);
+      }
+      else
+      {
+        final int index = random.nextInt(model.size());
+        if (changes.isAdded(index))
+          changes.addedBeanRemoved(index);
+        else
+          changes.initialBeanRemoved(changes.currentToInitialIndex(index));
+        model.remove(index);
+      }
+
+      _assertMatchesModel(changes, model);
+    }
+  }
+
+  @Test
+  public void testLargeTransactions()
+  {
+    _addRandomly(25_000); //Warm up
+
+    final long smallDuration = _addRandomly(25_000);
+    final long largeDuration = _addRandomly(100_000);
+
+    //Four times the additions would take about 16 times longer if the index translation was quadratic
+    LOGGER.info(String.format("Random additions with index translations: 25k %d ms, 100k %d ms", smallDuration / 1_000_000,
+                              largeDuration / 1_000_000));
+  }
+
+  /**
+   * Checks all index translations of the index changes against the list based model.
+   *
+   * @param pChanges the index changes to check
+   * @param pModel   the list based model
+   */
+  private static void _assertMatchesModel(ContainerIndexChanges pChanges, List<Integer> pModel)
+  {
+    assertEquals(pModel.size() - INITIAL_SIZE, pChanges.getSizeDifference());
+
+    final List<Integer> expectedAdditionIndexes = new ArrayList<>();
+    for (int currentIndex = 0; currentIndex < pModel.size(); currentIndex++)
+    {
+      final int element = pModel.get(currentIndex);
+      assertEquals(element < 0, pChanges.isAdded(currentIndex));
+
+      if (element < 0)
+        expectedAdditionIndexes.add(currentIndex);
+      else
+      {
+        assertFalse(pChanges.isRemoved(element));
+        assertEquals(element, pChanges.currentToInitialIndex(currentIndex));
+        assertEquals(currentIndex, pChanges.initialToCurrentIndex(element));
+      }
+    }
+
+    final List<Integer> actualAdditionIndexes = pChanges.getAdditionsWithFinalIndex().stream() //
+        .map(BeanAddition::getIndex) //
+        .collect(Collectors.toList());
+    assertEquals(expectedAdditionIndexes, actualAdditionIndexes);
+  }
+
+  /**
+   * Adds beans at random positions to a container and translates the index of an initial bean after every addition.
+   * The translated index and the resulting additions are checked against the expected results.
+   *
+   * @param pCount the number of beans to add
+   * @return the duration in nanoseconds
+   */
+  private static long _addRandomly(int pCount)
+  {
+    final Random random = new Random(pCount);
+    final ContainerIndexChanges changes = new ContainerIndexChanges(CONTAINER_ID);
+    final int[] translatedIndexes = new int[pCount];
+    final long start = System.nanoTime();
+
+    for (int i = 0; i < pCount; i++)
+    {
+      changes.beanAdded(_addition(random.nextInt(INITIAL_SIZE + i + 1)));
+      translatedIndexes[i] = changes.initialToCurrentIndex(INITIAL_SIZE - 1);
+    }
+
+    final long duration = System.nanoTime() - start;
+
+    //The last initial bean is shifted by every addition at or before its current index
+    final Random replay = new Random(pCount);
+    int lastInitialIndex = INITIAL_SIZE - 1;
+    for (int i = 0; i < pCount; i++)
+    {
+      if (replay.nextInt(INITIAL_SIZE + i + 1) <= lastInitialIndex)
+        lastInitialIndex++;
+      assertEquals(lastInitialIndex, translatedIndexes[i]);
+    }
+
+    //Every addition has its own final index that is not occupied by the initial bean
+    final int finalInitialIndex = lastInitialIndex;
+    final List<BeanAddition> additions = changes.getAdditionsWithFinalIndex();
+    assertEquals(pCount, changes.getSizeDifference());
+    assertEquals(pCount, additions.stream() //
+        .mapToInt(BeanAddition::getIndex) //
+        .filter(pIndex -> pIndex != finalInitialIndex) //
+        .distinct() //
+        .count());
+    return duration;
+  }
+
+  /**
+   * Creates a bean addition at a certain index.
+   *
+   * @param pIndex the index of the addition
+   * @return the created bean addition
+   */
+  private static BeanAddition _addition(int pIndex)
+  {
+    return new BeanAddition(pIndex, Collections.emptyMap(), IBean.class, CONTAINER_ID);
+  }
+}
@@ -3,10 +3,15 @@ package de.adito.ojcms.transactions;
 import de.adito.ojcms.cdi.AbstractCdiTest;
 import de.adito.ojcms.transactions.annotations.*;
 import de.adito.ojcms.transactions.exceptions.*;
+import de.adito.ojcms.transactions.util.*;
 import org.junit.jupiter.api.*;
 
+import javax.annotation.Priority;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Alternative;
 import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,11 +27,20 @@ public class TransactionalInterceptorTest extends AbstractCdiTest
 
   @Inject
   private SomeBusinessCode businessCode;
+  @Inject
+  private TransactionStatistics statistics;
+  @Inject
+  private TransactionalExecution transactionalExecution;
+  @Inject
+  private TryCounter tryCounter;
+  @Inject
+  private SimulatedRetryClock clock;
 
   @BeforeEach
   public void resetTryCounter()
   {
     TryCounter.count = 0;
+    clock.reset();
   }
 
   @Test
@@ -57,11 +71,81 @@ public class TransactionalInterceptorTest extends AbstractCdiTest
     assertEquals(1, TryCounter.count);
   }
 
+  @Test
+  public void testRetriesStopAfterMaxDuration()
+  {
+    //Every try takes 10ms and the retry waits 50ms: The second retry would exceed the maximum duration of 70ms
+    assertThrows(TransactionFailedException.class, () -> businessCode.doSomethingSlowlyRetried());
+    assertEquals(2, TryCounter.count);
+    assertEquals(Collections.singletonList(50L), clock.getSleeps());
+    assertEquals(70, clock.currentTimeMillis());
+  }
+
+  @Test
+  public void testExponentialBackoffBounds()
+  {
+    assertEquals(MAGIC_RESULT, businessCode.doSomething(3));
+    assertEquals(3, TryCounter.count);
+
+    //The default base delay of 5ms is doubled for the second retry, the jittered delays are at most 5ms and 10ms then
+    assertTrue(clock.getSleeps().size() <= 2);
+    assertTrue(clock.currentTimeMillis() <= 15);
+  }
+
+  @Test
+  public void testStatistics() throws NoSuchMethodException
+  {
+    assertThrows(TransactionFailedException.class, () -> businessCode.doSomethingObserved(4));
+    assertEquals(MAGIC_RESULT, businessCode.doSomethingObserved(1));
+
+    final TransactionStatistics.MethodStatistics methodStatistics =
+        statistics.getStatistics(SomeBusinessCode.class.getDeclaredMethod("doSomethingObserved", int.class));
+    assertEquals(4, methodStatistics.getAttempts());
+    assertEquals(3, methodStatistics.getConflicts());
+    assertEquals(1, methodStatistics.getFailures());
+  }
+
+  @Test
+  public void testAsyncExecutionWithRetries() throws Exception
+  {
+    final Thread callingThread = Thread.currentThread();
+    final CompletableFuture<Integer> future = transactionalExecution.resolveResultAsync(() ->
+    {
+      assertNotSame(callingThread, Thread.currentThread());
+      assertTrue(cdiControl.isContextActive(TransactionalScoped.class));
+      tryCounter.forceInitialization();
+
+      if (TryCounter.count < 2)
+        throw new ConcurrentTransactionException("key");
+
+      return MAGIC_RESULT;
+    });
+
+    assertEquals(MAGIC_RESULT, future.get(10, TimeUnit.SECONDS));
+    assertEquals(2, TryCounter.count);
+  }
+
+  @Test
+  public void testAsyncExecutionFailure()
+  {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final CompletableFuture<Void> future = transactionalExecution.justRunAsync(() ->
+    {
+      throw new RuntimeException();
+    }, executor);
+
+    final ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof TransactionFailedException);
+    executor.shutdown();
+  }
+
   @ApplicationScoped
   static class SomeBusinessCode
   {
     @Inject
     private TryCounter tryCounter;
+    @Inject
+    private SimulatedRetryClock clock;
 
     @Transactional(tries = 3)
     int doSomething(int successAfterTries)
@@ -74,6 +158,20 @@ public class TransactionalInterceptorTest extends AbstractCdiTest
       return MAGIC_RESULT;
     }
 
+    @Transactional(tries = 3)
+    int doSomethingObserved(int successAfterTries)
+    {
+      return doSomething(successAfterTries);
+    }
+
+    @Transactional(tries = 5, retryBackoff = ERetryBackoff.FIXED, retryBaseDelay = 50, maxRetryDuration = 70)
+    void doSomethingSlowlyRetried()
+    {
+      tryCounter.forceInitialization();
+      clock.advance(10);
+      throw new ConcurrentTransactionException("key");
+    }
+
     @Transactional(tries = 3)
     int doSomethingDifficult()
     {
@@ -92,6 +190,46 @@ public class TransactionalInterceptorTest extends AbstractCdiTest
     }
   }
 
+  /**
+   * Simulates the time for retries of transactions. Waiting advances the simulated time immediately.
+   */
+  @Alternative
+  @Priority(100)
+  static class SimulatedRetryClock extends RetryClock
+  {
+    private final List<Long> sleeps = new ArrayList<>();
+    private long time;
+
+    @Override
+    long currentTimeMillis()
+    {
+      return time;
+    }
+
+    @Override
+    void sleep(long pDelay)
+    {
+      sleeps.add(pDelay);
+      time += pDelay;
+    }
+
+    void advance(long pTime)
+    {
+      time += pTime;
+    }
+
+    List<Long> getSleeps()
+    {
+      return sleeps;
+    }
+
+    void reset()
+    {
+      sleeps.clear();
+      time = 0;
+    }
+  }
+
   @TransactionalScoped
   static class TryCounter
   {